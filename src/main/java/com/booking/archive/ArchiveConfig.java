@@ -0,0 +1,36 @@
+package com.booking.archive;
+
+import com.booking.repository.ArchiveBatchRepository;
+import com.booking.service.ChangeLogService;
+import com.booking.service.OccupancyClaimService;
+import com.booking.sharding.ShardRouter;
+import org.springframework.beans.factory.ObjectProvider;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.boot.context.properties.EnableConfigurationProperties;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.time.Clock;
+
+@Configuration
+@EnableConfigurationProperties(ArchiveProperties.class)
+public class ArchiveConfig {
+
+    @Bean
+    public BookingArchiver bookingArchiver(ArchiveBatchRepository archiveBatchRepository,
+                                           OccupancyClaimService occupancyClaimService,
+                                           ChangeLogService changeLogService,
+                                           PlatformTransactionManager transactionManager, ArchiveProperties properties,
+                                           ObjectProvider<ShardRouter> shardRouter) {
+        return new BookingArchiver(archiveBatchRepository, occupancyClaimService, changeLogService,
+                new TransactionTemplate(transactionManager), properties, shardRouter.getIfAvailable(), Clock.systemUTC());
+    }
+
+    @Bean
+    @ConditionalOnProperty(prefix = "booking.archive", name = "enabled", havingValue = "true")
+    public ArchiveScheduler archiveScheduler(BookingArchiver bookingArchiver) {
+        return new ArchiveScheduler(bookingArchiver);
+    }
+}
@@ -0,0 +1,24 @@
+package com.booking.archive;
+
+import lombok.Data;
+import org.springframework.boot.context.properties.ConfigurationProperties;
+
+import java.time.Duration;
+import java.time.Period;
+
+@Data
+@ConfigurationProperties(prefix = "booking.archive")
+public class ArchiveProperties {
+
+    /** Whether archiving runs on a schedule; it can always be started on demand. */
+    private boolean enabled;
+
+    /** Bookings and blocks that ended longer ago than this are archived. */
+    private Period horizon = Period.ofDays(90);
+
+    /** Time between the end of one scheduled run and the start of the next. */
+    private Duration interval = Duration.ofDays(1);
+
+    /** Rows moved per transaction. */
+    private int batchSize = 1000;
+}
@@ -0,0 +1,24 @@
+package com.booking.archive;
+
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.scheduling.annotation.Scheduled;
+
+/**
+ * Archives ended bookings and blocks in the background, starting one interval after startup.
+ */
+@RequiredArgsConstructor
+@Slf4j
+public class ArchiveScheduler {
+
+    private final BookingArchiver bookingArchiver;
+
+    @Scheduled(fixedDelayString = "${booking.archive.interval:1d}", initialDelayString = "${booking.archive.interval:1d}")
+    public void runArchive() {
+        try {
+            bookingArchiver.archive(null);
+        } catch (RuntimeException e) {
+            log.warn("Scheduled archiving failed: {}", e.getMessage());
+        }
+    }
+}
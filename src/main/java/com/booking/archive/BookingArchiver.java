@@ -0,0 +1,140 @@
+package com.booking.archive;
+
+import com.booking.dto.ArchiveResponse;
+import com.booking.exception.BookingException;
+import com.booking.model.Block;
+import com.booking.model.Booking;
+import com.booking.model.ChangeOperation;
+import com.booking.repository.ArchiveBatchRepository;
+import com.booking.service.ChangeLogService;
+import com.booking.service.OccupancyClaimService;
+import com.booking.sharding.ShardContext;
+import com.booking.sharding.ShardRouter;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.time.Clock;
+import java.time.Instant;
+import java.time.LocalDate;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Set;
+import java.util.UUID;
+import java.util.concurrent.locks.ReentrantLock;
+import java.util.function.BiFunction;
+
+/**
+ * Moves bookings and blocks that ended before the archive horizon into the archive tables,
+ * one batch per transaction so the operational tables are never locked for long. Archived
+ * stays are in the past, so they no longer take part in overlap checks; their night claims
+ * are released with them. Every archived row gets an {@code ARCHIVED} change event, so
+ * delta-sync consumers learn that it left the operational tables. Stats rollups are left alone,
+ * since archiving does not change a booking or a block.
+ */
+@Slf4j
+public class BookingArchiver {
+
+    private final ArchiveBatchRepository archiveBatchRepository;
+    private final OccupancyClaimService occupancyClaimService;
+    private final ChangeLogService changeLogService;
+    private final TransactionTemplate transactionTemplate;
+    private final ArchiveProperties properties;
+    private final ShardRouter shardRouter;
+    private final Clock clock;
+    private final ReentrantLock archiveLock = new ReentrantLock();
+
+    public BookingArchiver(ArchiveBatchRepository archiveBatchRepository, OccupancyClaimService occupancyClaimService,
+                           ChangeLogService changeLogService, TransactionTemplate transactionTemplate,
+                           ArchiveProperties properties, ShardRouter shardRouter, Clock clock) {
+        this.archiveBatchRepository = archiveBatchRepository;
+        this.occupancyClaimService = occupancyClaimService;
+        this.changeLogService = changeLogService;
+        this.transactionTemplate = transactionTemplate;
+        this.properties = properties;
+        this.shardRouter = shardRouter;
+        this.clock = clock;
+    }
+
+    /**
+     * Archives everything that ended before {@code before}, or before the configured horizon
+     * when it is null.
+     */
+    public ArchiveResponse archive(LocalDate before) {
+        LocalDate today = LocalDate.now(clock);
+        LocalDate cutoff = before != null ? before : today.minus(properties.getHorizon());
+        if (cutoff.isAfter(today)) {
+            throw new BookingException("Parameter 'before' must not be after today");
+        }
+
+        archiveLock.lock();
+        try {
+            log.info("Archiving bookings and blocks that ended before {}", cutoff);
+            Instant archivedAt = clock.instant();
+            int bookings = 0;
+            int blocks = 0;
+            if (shardRouter == null) {
+                bookings = moveAll(cutoff, archivedAt, archiveBatchRepository::findEndedBookings, this::moveBookings);
+                blocks = moveAll(cutoff, archivedAt, archiveBatchRepository::findEndedBlocks, this::moveBlocks);
+            } else {
+                for (int shard = 0; shard < shardRouter.shardCount(); shard++) {
+                    bookings += ShardContext.callOn(shard, () ->
+                            moveAll(cutoff, archivedAt, archiveBatchRepository::findEndedBookings, this::moveBookings));
+                    blocks += ShardContext.callOn(shard, () ->
+                            moveAll(cutoff, archivedAt, archiveBatchRepository::findEndedBlocks, this::moveBlocks));
+                }
+            }
+            log.info("Archived {} bookings and {} blocks that ended before {}", bookings, blocks, cutoff);
+
+            return ArchiveResponse.builder()
+                    .before(cutoff)
+                    .bookingsArchived(bookings)
+                    .blocksArchived(blocks)
+                    .build();
+        } finally {
+            archiveLock.unlock();
+        }
+    }
+
+    private <T> int moveAll(LocalDate cutoff, Instant archivedAt, BiFunction<LocalDate, Integer, List<T>> findEnded,
+                            BatchMove<T> move) {
+        int moved = 0;
+        while (true) {
+            BatchResult batch = transactionTemplate.execute(status -> {
+                List<T> rows = findEnded.apply(cutoff, properties.getBatchSize());
+                return new BatchResult(rows.size(), rows.isEmpty() ? 0 : move.move(rows, cutoff, archivedAt));
+            });
+            moved += batch.moved();
+            if (batch.found() < properties.getBatchSize()) {
+                return moved;
+            }
+        }
+    }
+
+    private int moveBookings(List<Booking> bookings, LocalDate cutoff, Instant archivedAt) {
+        Set<UUID> moved = new HashSet<>(archiveBatchRepository.moveBookings(
+                bookings.stream().map(Booking::getId).toList(), cutoff, archivedAt));
+        occupancyClaimService.releaseAll(List.copyOf(moved));
+        changeLogService.recordBookingChanges(bookings.stream()
+                .filter(booking -> moved.contains(booking.getId()))
+                .toList(), ChangeOperation.ARCHIVED);
+        return moved.size();
+    }
+
+    private int moveBlocks(List<Block> blocks, LocalDate cutoff, Instant archivedAt) {
+        Set<UUID> moved = new HashSet<>(archiveBatchRepository.moveBlocks(
+                blocks.stream().map(Block::getId).toList(), cutoff, archivedAt));
+        occupancyClaimService.releaseAll(List.copyOf(moved));
+        changeLogService.recordBlockChanges(blocks.stream()
+                .filter(block -> moved.contains(block.getId()))
+                .toList(), ChangeOperation.ARCHIVED);
+        return moved.size();
+    }
+
+    @FunctionalInterface
+    private interface BatchMove<T> {
+        int move(List<T> rows, LocalDate cutoff, Instant archivedAt);
+    }
+
+    private record BatchResult(int found, int moved) {
+    }
+}
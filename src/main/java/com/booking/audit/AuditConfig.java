@@ -0,0 +1,28 @@
+package com.booking.audit;
+
+import com.booking.repository.OverlapAuditRepository;
+import com.booking.sharding.ShardRouter;
+import org.springframework.beans.factory.ObjectProvider;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.boot.context.properties.EnableConfigurationProperties;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+
+import java.time.Clock;
+
+@Configuration
+@EnableConfigurationProperties(AuditProperties.class)
+public class AuditConfig {
+
+    @Bean
+    public OverlapAuditor overlapAuditor(OverlapAuditRepository overlapAuditRepository, AuditProperties properties,
+                                         ObjectProvider<ShardRouter> shardRouter) {
+        return new OverlapAuditor(overlapAuditRepository, shardRouter.getIfAvailable(), properties, Clock.systemUTC());
+    }
+
+    @Bean
+    @ConditionalOnProperty(prefix = "booking.audit", name = "enabled", havingValue = "true")
+    public OverlapAuditScheduler overlapAuditScheduler(OverlapAuditor overlapAuditor) {
+        return new OverlapAuditScheduler(overlapAuditor);
+    }
+}
@@ -0,0 +1,23 @@
+package com.booking.audit;
+
+import lombok.Data;
+import org.springframework.boot.context.properties.ConfigurationProperties;
+
+import java.time.Duration;
+
+@Data
+@ConfigurationProperties(prefix = "booking.audit")
+public class AuditProperties {
+
+    /** Whether the overlap audit runs on a schedule; it can always be started on demand. */
+    private boolean enabled;
+
+    /** Time between the end of one scheduled audit and the start of the next. */
+    private Duration interval = Duration.ofHours(1);
+
+    /** Threads scanning partitions of properties at the same time. */
+    private int parallelism = 4;
+
+    /** Most overlapping pairs kept in a report; all of them are still counted. */
+    private int maxReportedPairs = 1000;
+}
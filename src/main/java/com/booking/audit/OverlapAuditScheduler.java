@@ -0,0 +1,25 @@
+package com.booking.audit;
+
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.scheduling.annotation.Scheduled;
+
+/**
+ * Runs the overlap audit in the background. The first run waits one interval, so a restart
+ * does not trigger a full scan right away.
+ */
+@RequiredArgsConstructor
+@Slf4j
+public class OverlapAuditScheduler {
+
+    private final OverlapAuditor overlapAuditor;
+
+    @Scheduled(fixedDelayString = "${booking.audit.interval:1h}", initialDelayString = "${booking.audit.interval:1h}")
+    public void runAudit() {
+        try {
+            overlapAuditor.audit();
+        } catch (RuntimeException e) {
+            log.warn("Scheduled overlap audit failed: {}", e.getMessage());
+        }
+    }
+}
@@ -0,0 +1,227 @@
+package com.booking.audit;
+
+import com.booking.dto.OverlapAuditReport;
+import com.booking.dto.OverlapPair;
+import com.booking.dto.OverlapType;
+import com.booking.repository.OverlapAuditRepository;
+import com.booking.sharding.ShardContext;
+import com.booking.sharding.ShardRouter;
+import lombok.extern.slf4j.Slf4j;
+
+import java.time.Clock;
+import java.time.Instant;
+import java.time.LocalDate;
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.List;
+import java.util.Optional;
+import java.util.PriorityQueue;
+import java.util.UUID;
+import java.util.concurrent.ForkJoinPool;
+import java.util.concurrent.RecursiveTask;
+import java.util.concurrent.locks.ReentrantLock;
+
+/**
+ * Finds confirmed bookings that overlap each other or a block, which the check-then-insert in
+ * the booking service can let through under concurrency. Properties are paged by id into
+ * partitions that are scanned in parallel on a fork-join pool, a few at a time. Each partition
+ * reads its intervals ordered by property and start day and sweeps them once, keeping only
+ * the intervals that are still open, so memory depends on the overlaps of a single property
+ * and on the number of reported pairs, not on the number of rows.
+ */
+@Slf4j
+public class OverlapAuditor implements AutoCloseable {
+
+    private static final int PARTITION_SIZE = 256;
+    private static final int ALL_SHARDS = -1;
+
+    private final OverlapAuditRepository overlapAuditRepository;
+    private final ShardRouter shardRouter;
+    private final AuditProperties properties;
+    private final Clock clock;
+    private final ForkJoinPool pool;
+    private final ReentrantLock auditLock = new ReentrantLock();
+
+    private volatile OverlapAuditReport lastReport;
+
+    public OverlapAuditor(OverlapAuditRepository overlapAuditRepository, ShardRouter shardRouter,
+                          AuditProperties properties, Clock clock) {
+        this.overlapAuditRepository = overlapAuditRepository;
+        this.shardRouter = shardRouter;
+        this.properties = properties;
+        this.clock = clock;
+        this.pool = new ForkJoinPool(properties.getParallelism());
+    }
+
+    /**
+     * Scans every property and keeps the result as the latest report. A call made while an
+     * audit is running waits for it and then runs its own.
+     */
+    public OverlapAuditReport audit() {
+        auditLock.lock();
+        try {
+            Instant startedAt = clock.instant();
+            long startNanos = System.nanoTime();
+            log.info("Starting overlap audit");
+
+            PartitionResult total = new PartitionResult(properties.getMaxReportedPairs());
+            long propertiesScanned = 0;
+            UUID afterId = null;
+            boolean lastPage = false;
+            while (!lastPage) {
+                // Scan a bounded wave of partitions before reading further property ids
+                List<AuditPartition> wave = new ArrayList<>();
+                while (!lastPage && wave.size() < 2 * properties.getParallelism()) {
+                    List<UUID> page = overlapAuditRepository.findPropertyIdPage(afterId, PARTITION_SIZE);
+                    lastPage = page.size() < PARTITION_SIZE;
+                    if (!page.isEmpty()) {
+                        afterId = page.get(page.size() - 1);
+                        propertiesScanned += page.size();
+                        wave.add(new AuditPartition(page.get(0), afterId, ALL_SHARDS));
+                    }
+                }
+                wave.forEach(pool::execute);
+                wave.forEach(partition -> total.add(partition.join()));
+            }
+
+            OverlapAuditReport report = OverlapAuditReport.builder()
+                    .startedAt(startedAt)
+                    .durationMillis((System.nanoTime() - startNanos) / 1_000_000)
+                    .propertiesScanned(propertiesScanned)
+                    .intervalsScanned(total.intervals)
+                    .bookingOverlaps(total.bookingOverlaps)
+                    .blockOverlaps(total.blockOverlaps)
+                    .truncated(total.bookingOverlaps + total.blockOverlaps > total.pairs.size())
+                    .pairs(total.pairs)
+                    .build();
+            lastReport = report;
+
+            if (report.getBookingOverlaps() + report.getBlockOverlaps() > 0) {
+                log.warn("Overlap audit found {} booking/booking and {} booking/block overlaps",
+                        report.getBookingOverlaps(), report.getBlockOverlaps());
+            }
+            log.info("Overlap audit scanned {} intervals of {} properties in {} ms",
+                    report.getIntervalsScanned(), propertiesScanned, report.getDurationMillis());
+            return report;
+        } finally {
+            auditLock.unlock();
+        }
+    }
+
+    public Optional<OverlapAuditReport> getLastReport() {
+        return Optional.ofNullable(lastReport);
+    }
+
+    @Override
+    public void close() {
+        pool.shutdownNow();
+    }
+
+    private final class AuditPartition extends RecursiveTask<PartitionResult> {
+
+        private final UUID firstPropertyId;
+        private final UUID lastPropertyId;
+        private final int shard;
+
+        private AuditPartition(UUID firstPropertyId, UUID lastPropertyId, int shard) {
+            this.firstPropertyId = firstPropertyId;
+            this.lastPropertyId = lastPropertyId;
+            this.shard = shard;
+        }
+
+        @Override
+        protected PartitionResult compute() {
+            if (shard == ALL_SHARDS && shardRouter != null) {
+                // A property's bookings and blocks all live on one shard, so the shards are swept apart
+                List<AuditPartition> shards = new ArrayList<>(shardRouter.shardCount());
+                for (int current = 0; current < shardRouter.shardCount(); current++) {
+                    shards.add(new AuditPartition(firstPropertyId, lastPropertyId, current));
+                }
+                PartitionResult result = new PartitionResult(properties.getMaxReportedPairs());
+                invokeAll(shards).forEach(partition -> result.add(partition.join()));
+                return result;
+            }
+            if (shard == ALL_SHARDS) {
+                return sweep();
+            }
+            return ShardContext.callOn(shard, this::sweep);
+        }
+
+        private PartitionResult sweep() {
+            PartitionResult result = new PartitionResult(properties.getMaxReportedPairs());
+            PriorityQueue<OpenInterval> open = new PriorityQueue<>(Comparator.comparingInt(OpenInterval::endDay));
+            UUID[] currentProperty = new UUID[1];
+
+            overlapAuditRepository.forEachInterval(firstPropertyId, lastPropertyId,
+                    (propertyId, id, booked, startDay, endDay) -> {
+                        result.intervals++;
+                        if (!propertyId.equals(currentProperty[0])) {
+                            open.clear();
+                            currentProperty[0] = propertyId;
+                        }
+                        // Intervals arrive by start day, so whatever ended before this one starts is done
+                        while (!open.isEmpty() && open.peek().endDay() < startDay) {
+                            open.poll();
+                        }
+                        for (OpenInterval other : open) {
+                            if (booked || other.booked()) {
+                                result.addOverlap(propertyId, other, id, booked, startDay, Math.min(endDay, other.endDay()));
+                            }
+                        }
+                        open.add(new OpenInterval(id, booked, endDay));
+                    });
+            return result;
+        }
+    }
+
+    private record OpenInterval(UUID id, boolean booked, int endDay) {
+    }
+
+    private static final class PartitionResult {
+
+        private final int maxPairs;
+        private final List<OverlapPair> pairs = new ArrayList<>();
+        private long intervals;
+        private long bookingOverlaps;
+        private long blockOverlaps;
+
+        private PartitionResult(int maxPairs) {
+            this.maxPairs = maxPairs;
+        }
+
+        private void addOverlap(UUID propertyId, OpenInterval earlier, UUID id, boolean booked,
+                                int firstDay, int lastDay) {
+            boolean bothBooked = booked && earlier.booked();
+            if (bothBooked) {
+                bookingOverlaps++;
+            } else {
+                blockOverlaps++;
+            }
+            if (pairs.size() >= maxPairs) {
+                return;
+            }
+            // The booking comes first in a booking/block pair
+            boolean earlierFirst = bothBooked || earlier.booked();
+            pairs.add(OverlapPair.builder()
+                    .type(bothBooked ? OverlapType.BOOKING_BOOKING : OverlapType.BOOKING_BLOCK)
+                    .propertyId(propertyId)
+                    .firstId(earlierFirst ? earlier.id() : id)
+                    .secondId(earlierFirst ? id : earlier.id())
+                    .overlapStart(LocalDate.ofEpochDay(firstDay))
+                    .overlapEnd(LocalDate.ofEpochDay(lastDay))
+                    .build());
+        }
+
+        private void add(PartitionResult other) {
+            intervals += other.intervals;
+            bookingOverlaps += other.bookingOverlaps;
+            blockOverlaps += other.blockOverlaps;
+            for (OverlapPair pair : other.pairs) {
+                if (pairs.size() >= maxPairs) {
+                    break;
+                }
+                pairs.add(pair);
+            }
+        }
+    }
+}
@@ -0,0 +1,33 @@
+package com.booking.compaction;
+
+import com.booking.repository.TombstoneRepository;
+import com.booking.sharding.ShardRouter;
+import org.springframework.beans.factory.ObjectProvider;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.boot.context.properties.EnableConfigurationProperties;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.time.Clock;
+
+@Configuration
+@EnableConfigurationProperties(CompactionProperties.class)
+public class CompactionConfig {
+
+    @Bean
+    public TombstoneCompactor tombstoneCompactor(TombstoneRepository tombstoneRepository,
+                                                 PlatformTransactionManager transactionManager,
+                                                 CompactionProperties properties,
+                                                 ObjectProvider<ShardRouter> shardRouter) {
+        return new TombstoneCompactor(tombstoneRepository, new TransactionTemplate(transactionManager),
+                properties, shardRouter.getIfAvailable(), Clock.systemUTC());
+    }
+
+    @Bean
+    @ConditionalOnProperty(prefix = "booking.compaction", name = "enabled", havingValue = "true")
+    public CompactionScheduler compactionScheduler(TombstoneCompactor tombstoneCompactor) {
+        return new CompactionScheduler(tombstoneCompactor);
+    }
+}
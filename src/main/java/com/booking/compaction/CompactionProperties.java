@@ -0,0 +1,26 @@
+package com.booking.compaction;
+
+import lombok.Data;
+import org.springframework.boot.context.properties.ConfigurationProperties;
+
+import java.time.Duration;
+
+@Data
+@ConfigurationProperties(prefix = "booking.compaction")
+public class CompactionProperties {
+
+    /** Whether compaction runs on a schedule; it can always be started on demand. */
+    private boolean enabled;
+
+    /** Tombstones of bookings and blocks deleted longer ago than this are purged. */
+    private Duration retention = Duration.ofDays(7);
+
+    /** When scheduled runs start; pick a time of low traffic. */
+    private String cron = "0 30 3 * * *";
+
+    /** How long a run may keep starting new batches before it leaves the rest for the next run. */
+    private Duration window = Duration.ofHours(1);
+
+    /** Rows deleted per transaction. */
+    private int batchSize = 10_000;
+}
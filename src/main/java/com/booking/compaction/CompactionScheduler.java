@@ -0,0 +1,24 @@
+package com.booking.compaction;
+
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.scheduling.annotation.Scheduled;
+
+/**
+ * Purges old tombstones at the quiet time set by {@code booking.compaction.cron}.
+ */
+@RequiredArgsConstructor
+@Slf4j
+public class CompactionScheduler {
+
+    private final TombstoneCompactor tombstoneCompactor;
+
+    @Scheduled(cron = "${booking.compaction.cron:0 30 3 * * *}")
+    public void runCompaction() {
+        try {
+            tombstoneCompactor.compact();
+        } catch (RuntimeException e) {
+            log.warn("Scheduled tombstone compaction failed: {}", e.getMessage());
+        }
+    }
+}
@@ -0,0 +1,117 @@
+package com.booking.compaction;
+
+import com.booking.dto.CompactionResponse;
+import com.booking.repository.TombstoneRepository;
+import com.booking.sharding.ShardContext;
+import com.booking.sharding.ShardRouter;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.time.Clock;
+import java.time.Instant;
+import java.util.concurrent.locks.ReentrantLock;
+import java.util.function.BiFunction;
+
+/**
+ * Purges tombstones of deleted bookings, blocks and recurring blocks once they are older than the retention
+ * window, so delta-sync clients have that long to see a deletion as a row. Rows are deleted in
+ * large batches, one transaction each, and a run stops starting batches when its window is
+ * over so that it stays inside the quiet hours it was scheduled for.
+ */
+@Slf4j
+public class TombstoneCompactor {
+
+    private final TombstoneRepository tombstoneRepository;
+    private final TransactionTemplate transactionTemplate;
+    private final CompactionProperties properties;
+    private final ShardRouter shardRouter;
+    private final Clock clock;
+    private final ReentrantLock compactionLock = new ReentrantLock();
+
+    public TombstoneCompactor(TombstoneRepository tombstoneRepository, TransactionTemplate transactionTemplate,
+                              CompactionProperties properties, ShardRouter shardRouter, Clock clock) {
+        this.tombstoneRepository = tombstoneRepository;
+        this.transactionTemplate = transactionTemplate;
+        this.properties = properties;
+        this.shardRouter = shardRouter;
+        this.clock = clock;
+    }
+
+    public CompactionResponse compact() {
+        compactionLock.lock();
+        try {
+            Instant startedAt = clock.instant();
+            Instant deletedBefore = startedAt.minus(properties.getRetention());
+            Instant deadline = startedAt.plus(properties.getWindow());
+            log.info("Purging tombstones of bookings, blocks and recurring blocks deleted before {}", deletedBefore);
+
+            Purge bookings = new Purge(tombstoneRepository::purgeBookings, deletedBefore, deadline);
+            Purge blocks = new Purge(tombstoneRepository::purgeBlocks, deletedBefore, deadline);
+            Purge recurringBlocks = new Purge(tombstoneRepository::purgeRecurringBlocks, deletedBefore, deadline);
+            if (shardRouter == null) {
+                bookings.run();
+                blocks.run();
+                recurringBlocks.run();
+            } else {
+                for (int shard = 0; shard < shardRouter.shardCount(); shard++) {
+                    ShardContext.callOn(shard, () -> {
+                        bookings.run();
+                        blocks.run();
+                        recurringBlocks.run();
+                        return null;
+                    });
+                }
+            }
+
+            boolean complete = bookings.complete && blocks.complete && recurringBlocks.complete;
+            if (complete) {
+                log.info("Purged {} booking, {} block and {} recurring block tombstones",
+                        bookings.purged, blocks.purged, recurringBlocks.purged);
+            } else {
+                log.warn("Purged {} booking, {} block and {} recurring block tombstones before the compaction window closed; the rest is left for the next run",
+                        bookings.purged, blocks.purged, recurringBlocks.purged);
+            }
+            return CompactionResponse.builder()
+                    .deletedBefore(deletedBefore)
+                    .bookingsPurged(bookings.purged)
+                    .blocksPurged(blocks.purged)
+                    .recurringBlocksPurged(recurringBlocks.purged)
+                    .complete(complete)
+                    .build();
+        } finally {
+            compactionLock.unlock();
+        }
+    }
+
+    /**
+     * Purges the tombstones of one table, batch by batch, on the shard the caller is bound to.
+     */
+    private final class Purge {
+
+        private final BiFunction<Instant, Integer, Integer> purgeBatch;
+        private final Instant deletedBefore;
+        private final Instant deadline;
+        private int purged;
+        private boolean complete = true;
+
+        private Purge(BiFunction<Instant, Integer, Integer> purgeBatch, Instant deletedBefore, Instant deadline) {
+            this.purgeBatch = purgeBatch;
+            this.deletedBefore = deletedBefore;
+            this.deadline = deadline;
+        }
+
+        private void run() {
+            while (true) {
+                if (!clock.instant().isBefore(deadline)) {
+                    complete = false;
+                    return;
+                }
+                int batch = transactionTemplate.execute(status -> purgeBatch.apply(deletedBefore, properties.getBatchSize()));
+                purged += batch;
+                if (batch < properties.getBatchSize()) {
+                    return;
+                }
+            }
+        }
+    }
+}
@@ -0,0 +1,61 @@
+package com.booking.config;
+
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.scheduling.annotation.Scheduled;
+
+import javax.sql.DataSource;
+import java.time.Clock;
+import java.time.Duration;
+import java.time.Instant;
+
+/**
+ * Measures replica lag by comparing the latest change journal sequence on the primary and on
+ * the replica. The replica counts as fresh while it has caught up with the primary within the
+ * configured staleness bound; otherwise read-only transactions fall back to the primary.
+ */
+@Slf4j
+public class ReplicaLagMonitor {
+
+    private static final String LATEST_SEQ_SQL = "SELECT COALESCE(MAX(seq), 0) FROM change_event";
+
+    private final JdbcTemplate primaryJdbcTemplate;
+    private final JdbcTemplate replicaJdbcTemplate;
+    private final Duration maxStaleness;
+    private final Clock clock;
+
+    private volatile Instant lastInSyncAt = Instant.MIN;
+    private volatile boolean caughtUp;
+
+    public ReplicaLagMonitor(DataSource primary, DataSource replica, Duration maxStaleness, Clock clock) {
+        this.primaryJdbcTemplate = new JdbcTemplate(primary);
+        this.replicaJdbcTemplate = new JdbcTemplate(replica);
+        this.maxStaleness = maxStaleness;
+        this.clock = clock;
+    }
+
+    @Scheduled(fixedDelayString = "${booking.datasource.replica.lag-check-interval:1s}")
+    public void checkLag() {
+        Instant checkedAt = clock.instant();
+        try {
+            Long primarySeq = primaryJdbcTemplate.queryForObject(LATEST_SEQ_SQL, Long.class);
+            Long replicaSeq = replicaJdbcTemplate.queryForObject(LATEST_SEQ_SQL, Long.class);
+            caughtUp = replicaSeq != null && primarySeq != null && replicaSeq >= primarySeq;
+            if (caughtUp) {
+                lastInSyncAt = checkedAt;
+            } else {
+                log.debug("Replica is behind the primary (replica seq: {}, primary seq: {})", replicaSeq, primarySeq);
+            }
+        } catch (RuntimeException e) {
+            caughtUp = false;
+            log.warn("Could not measure replica lag, routing reads to the primary: {}", e.getMessage());
+        }
+    }
+
+    public boolean isReplicaFresh() {
+        if (caughtUp) {
+            return true;
+        }
+        return !Duration.between(lastInSyncAt, clock.instant()).minus(maxStaleness).isPositive();
+    }
+}
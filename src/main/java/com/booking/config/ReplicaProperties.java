@@ -0,0 +1,23 @@
+package com.booking.config;
+
+import lombok.Data;
+import org.springframework.boot.context.properties.ConfigurationProperties;
+
+import java.time.Duration;
+
+@Data
+@ConfigurationProperties(prefix = "booking.datasource.replica")
+public class ReplicaProperties {
+
+    private boolean enabled;
+    private String url;
+    private String username;
+    private String password;
+    private String driverClassName;
+
+    /** How far the replica may fall behind the primary before reads go back to the primary. */
+    private Duration maxStaleness = Duration.ofSeconds(5);
+
+    /** How often the replica lag is measured. */
+    private Duration lagCheckInterval = Duration.ofSeconds(1);
+}
@@ -0,0 +1,30 @@
+package com.booking.controller;
+
+import com.booking.archive.BookingArchiver;
+import com.booking.dto.ArchiveResponse;
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.format.annotation.DateTimeFormat;
+import org.springframework.http.ResponseEntity;
+import org.springframework.web.bind.annotation.PostMapping;
+import org.springframework.web.bind.annotation.RequestMapping;
+import org.springframework.web.bind.annotation.RequestParam;
+import org.springframework.web.bind.annotation.RestController;
+
+import java.time.LocalDate;
+
+@RestController
+@RequestMapping("/api/archive")
+@RequiredArgsConstructor
+@Slf4j
+public class ArchiveController {
+
+    private final BookingArchiver bookingArchiver;
+
+    @PostMapping
+    public ResponseEntity<ArchiveResponse> archive(
+            @RequestParam(required = false) @DateTimeFormat(iso = DateTimeFormat.ISO.DATE) LocalDate before) {
+        log.info("Received request to archive bookings and blocks that ended before {}", before != null ? before : "the horizon");
+        return ResponseEntity.ok(bookingArchiver.archive(before));
+    }
+}
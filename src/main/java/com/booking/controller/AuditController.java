@@ -0,0 +1,35 @@
+package com.booking.controller;
+
+import com.booking.audit.OverlapAuditor;
+import com.booking.dto.OverlapAuditReport;
+import com.booking.exception.ResourceNotFoundException;
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.http.ResponseEntity;
+import org.springframework.web.bind.annotation.GetMapping;
+import org.springframework.web.bind.annotation.PostMapping;
+import org.springframework.web.bind.annotation.RequestMapping;
+import org.springframework.web.bind.annotation.RestController;
+
+@RestController
+@RequestMapping("/api/audit")
+@RequiredArgsConstructor
+@Slf4j
+public class AuditController {
+
+    private final OverlapAuditor overlapAuditor;
+
+    @GetMapping("/overlaps")
+    public ResponseEntity<OverlapAuditReport> getLastOverlapAudit() {
+        log.info("Received request to get the last overlap audit");
+        OverlapAuditReport report = overlapAuditor.getLastReport()
+                .orElseThrow(() -> new ResourceNotFoundException("No overlap audit has run yet"));
+        return ResponseEntity.ok(report);
+    }
+
+    @PostMapping("/overlaps")
+    public ResponseEntity<OverlapAuditReport> runOverlapAudit() {
+        log.info("Received request to run an overlap audit");
+        return ResponseEntity.ok(overlapAuditor.audit());
+    }
+}
@@ -0,0 +1,80 @@
+package com.booking.controller;
+
+import com.booking.service.AvailabilityMatrixService;
+import com.booking.service.FlexibleSearchService;
+import com.booking.service.OccupancyReportService;
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.format.annotation.DateTimeFormat;
+import org.springframework.http.ContentDisposition;
+import org.springframework.http.HttpHeaders;
+import org.springframework.http.MediaType;
+import org.springframework.http.ResponseEntity;
+import org.springframework.web.bind.annotation.GetMapping;
+import org.springframework.web.bind.annotation.RequestMapping;
+import org.springframework.web.bind.annotation.RequestParam;
+import org.springframework.web.bind.annotation.RestController;
+import org.springframework.web.servlet.mvc.method.annotation.StreamingResponseBody;
+
+import java.time.LocalDate;
+import java.util.List;
+import java.util.UUID;
+
+@RestController
+@RequestMapping("/api/availability")
+@RequiredArgsConstructor
+@Slf4j
+public class AvailabilityController {
+
+    private final AvailabilityMatrixService availabilityMatrixService;
+    private final FlexibleSearchService flexibleSearchService;
+    private final OccupancyReportService occupancyReportService;
+
+    @GetMapping("/matrix")
+    public ResponseEntity<byte[]> getAvailabilityMatrix(
+            @RequestParam(required = false) @DateTimeFormat(iso = DateTimeFormat.ISO.DATE) LocalDate from,
+            @RequestParam(defaultValue = "365") int days) {
+        LocalDate start = from != null ? from : LocalDate.now();
+        log.info("Received request to get availability matrix from {} for {} days", start, days);
+        byte[] matrix = availabilityMatrixService.getAvailabilityMatrix(start, days);
+        return ResponseEntity.ok()
+                .contentType(MediaType.APPLICATION_OCTET_STREAM)
+                .body(matrix);
+    }
+
+    @GetMapping("/flexible-search")
+    public ResponseEntity<StreamingResponseBody> searchFlexibleStays(
+            @RequestParam(required = false) @DateTimeFormat(iso = DateTimeFormat.ISO.DATE) LocalDate from,
+            @RequestParam @DateTimeFormat(iso = DateTimeFormat.ISO.DATE) LocalDate to,
+            @RequestParam(defaultValue = "1") int minNights,
+            @RequestParam(required = false) Integer maxNights,
+            @RequestParam(required = false) List<UUID> propertyIds) {
+        LocalDate today = LocalDate.now();
+        LocalDate start = from != null && from.isAfter(today) ? from : today;
+        int longest = maxNights != null ? maxNights : minNights;
+        log.info("Received request to search flexible stays from {} to {}", start, to);
+        flexibleSearchService.validateSearch(start, to, minNights, longest, propertyIds);
+
+        StreamingResponseBody body = out -> flexibleSearchService.search(start, to, minNights, longest, propertyIds, out);
+        return ResponseEntity.ok()
+                .contentType(MediaType.parseMediaType("application/x-ndjson"))
+                .body(body);
+    }
+
+    @GetMapping("/occupancy-report")
+    public ResponseEntity<StreamingResponseBody> getOccupancyReport(
+            @RequestParam @DateTimeFormat(iso = DateTimeFormat.ISO.DATE) LocalDate from,
+            @RequestParam @DateTimeFormat(iso = DateTimeFormat.ISO.DATE) LocalDate to) {
+        log.info("Received request to get occupancy report from {} to {}", from, to);
+        occupancyReportService.validateReport(from, to);
+
+        StreamingResponseBody body = out -> occupancyReportService.writeReport(from, to, out);
+        return ResponseEntity.ok()
+                .contentType(MediaType.parseMediaType("text/csv"))
+                .header(HttpHeaders.CONTENT_DISPOSITION, ContentDisposition.attachment()
+                        .filename("occupancy-" + from + "-" + to + ".csv")
+                        .build()
+                        .toString())
+                .body(body);
+    }
+}
@@ -3,12 +3,17 @@ package com.booking.controller;
 import com.booking.dto.BlockRequest;
 import com.booking.dto.BlockResponse;
 import com.booking.dto.BlockUpdateRequest;
+import com.booking.dto.SparseFieldset;
+import com.booking.sequencer.CommandGateway;
+import com.booking.sequencer.PropertyCommand;
 import com.booking.service.BlockService;
 import jakarta.validation.Valid;
 import lombok.RequiredArgsConstructor;
 import lombok.extern.slf4j.Slf4j;
+import org.springframework.http.HttpHeaders;
 import org.springframework.http.HttpStatus;
 import org.springframework.http.ResponseEntity;
+import org.springframework.http.converter.json.MappingJacksonValue;
 import org.springframework.web.bind.annotation.*;
 
 import java.util.List;
@@ -21,11 +26,12 @@ import java.util.UUID;
 public class BlockController {
 
     private final BlockService blockService;
+    private final CommandGateway commandGateway;
 
     @PostMapping
     public ResponseEntity<BlockResponse> createBlock(@Valid @RequestBody BlockRequest request) {
         log.info("Received request to create block for property: {}", request.getPropertyId());
-        BlockResponse response = blockService.createBlock(request);
+        BlockResponse response = commandGateway.submit(new PropertyCommand.CreateBlock(request));
         return new ResponseEntity<>(response, HttpStatus.CREATED);
     }
 
@@ -33,23 +39,29 @@ public class BlockController {
     public ResponseEntity<BlockResponse> getBlock(@PathVariable UUID blockId) {
         log.info("Received request to get block with id: {}", blockId);
         BlockResponse response = blockService.getBlock(blockId);
-        return ResponseEntity.ok(response);
+        return ResponseEntity.ok().eTag(EntityTags.of(response.getVersion())).body(response);
     }
 
     @GetMapping("/property/{propertyId}")
-    public ResponseEntity<List<BlockResponse>> getBlocksByPropertyId(@PathVariable UUID propertyId) {
+    public ResponseEntity<MappingJacksonValue> getBlocksByPropertyId(
+            @PathVariable UUID propertyId,
+            @RequestParam(defaultValue = "false") boolean includeArchived,
+            @RequestParam(required = false) String fields) {
         log.info("Received request to get blocks for property id: {}", propertyId);
-        List<BlockResponse> responses = blockService.getBlocksByPropertyId(propertyId);
-        return ResponseEntity.ok(responses);
+        SparseFieldset fieldset = SparseFieldset.parse(fields, BlockResponse.FIELDS);
+        List<BlockResponse> responses = blockService.getBlocksByPropertyId(propertyId, includeArchived, fieldset);
+        return ResponseEntity.ok(fieldset.apply(responses));
     }
 
     @PatchMapping("/{blockId}")
     public ResponseEntity<BlockResponse> updateBlock(
             @PathVariable UUID blockId,
-            @Valid @RequestBody BlockUpdateRequest request) {
+            @Valid @RequestBody BlockUpdateRequest request,
+            @RequestHeader(value = HttpHeaders.IF_MATCH, required = false) String ifMatch) {
         log.info("Received request to update block with id: {}", blockId);
-        BlockResponse response = blockService.updateBlock(blockId, request);
-        return ResponseEntity.ok(response);
+        BlockResponse response = commandGateway.submit(
+                new PropertyCommand.UpdateBlock(blockId, request, EntityTags.expectedVersions(ifMatch)));
+        return ResponseEntity.ok().eTag(EntityTags.of(response.getVersion())).body(response);
     }
 
     @DeleteMapping("/{blockId}")
@@ -57,7 +69,7 @@ public class BlockController {
             @PathVariable UUID blockId,
             @RequestParam UUID ownerId) {
         log.info("Received request to delete block with id: {} by owner: {}", blockId, ownerId);
-        blockService.deleteBlock(blockId, ownerId);
+        commandGateway.submit(new PropertyCommand.DeleteBlock(blockId, ownerId));
         return ResponseEntity.noContent().build();
     }
 }
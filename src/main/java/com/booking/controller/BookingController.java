@@ -3,14 +3,30 @@ package com.booking.controller;
 import com.booking.dto.BookingRequest;
 import com.booking.dto.BookingResponse;
 import com.booking.dto.BookingUpdateRequest;
+import com.booking.dto.BulkCancelResponse;
+import com.booking.dto.ExportFormat;
+import com.booking.dto.GroupBookingRequest;
+import com.booking.dto.SparseFieldset;
+import com.booking.model.BookingStatus;
+import com.booking.sequencer.CommandGateway;
+import com.booking.sequencer.PropertyCommand;
+import com.booking.service.BookingExportService;
 import com.booking.service.BookingService;
+import com.booking.service.GroupBookingService;
 import jakarta.validation.Valid;
 import lombok.RequiredArgsConstructor;
 import lombok.extern.slf4j.Slf4j;
+import org.springframework.format.annotation.DateTimeFormat;
+import org.springframework.http.ContentDisposition;
+import org.springframework.http.HttpHeaders;
 import org.springframework.http.HttpStatus;
+import org.springframework.http.MediaType;
 import org.springframework.http.ResponseEntity;
+import org.springframework.http.converter.json.MappingJacksonValue;
 import org.springframework.web.bind.annotation.*;
+import org.springframework.web.servlet.mvc.method.annotation.StreamingResponseBody;
 
+import java.time.LocalDate;
 import java.util.List;
 import java.util.UUID;
 
@@ -21,62 +37,118 @@ import java.util.UUID;
 public class BookingController {
 
     private final BookingService bookingService;
+    private final BookingExportService bookingExportService;
+    private final GroupBookingService groupBookingService;
+    private final CommandGateway commandGateway;
 
     @PostMapping
     public ResponseEntity<BookingResponse> createBooking(@Valid @RequestBody BookingRequest request) {
         log.info("Received request to create booking for property: {}", request.getPropertyId());
-        BookingResponse response = bookingService.createBooking(request);
+        BookingResponse response = commandGateway.submit(new PropertyCommand.CreateBooking(request));
         return new ResponseEntity<>(response, HttpStatus.CREATED);
     }
 
+    @PostMapping("/group")
+    public ResponseEntity<List<BookingResponse>> createGroupBooking(@Valid @RequestBody GroupBookingRequest request) {
+        log.info("Received request to create group booking for properties: {}", request.getPropertyIds());
+        List<BookingResponse> responses = groupBookingService.createGroupBooking(request);
+        return new ResponseEntity<>(responses, HttpStatus.CREATED);
+    }
+
     @GetMapping("/{bookingId}")
     public ResponseEntity<BookingResponse> getBooking(@PathVariable UUID bookingId) {
         log.info("Received request to get booking with id: {}", bookingId);
         BookingResponse response = bookingService.getBooking(bookingId);
-        return ResponseEntity.ok(response);
+        return ResponseEntity.ok().eTag(EntityTags.of(response.getVersion())).body(response);
     }
 
     @GetMapping("/property/{propertyId}")
-    public ResponseEntity<List<BookingResponse>> getBookingsByPropertyId(@PathVariable UUID propertyId) {
+    public ResponseEntity<MappingJacksonValue> getBookingsByPropertyId(
+            @PathVariable UUID propertyId,
+            @RequestParam(defaultValue = "false") boolean includeArchived,
+            @RequestParam(required = false) String fields) {
         log.info("Received request to get bookings for property id: {}", propertyId);
-        List<BookingResponse> responses = bookingService.getBookingsByPropertyId(propertyId);
-        return ResponseEntity.ok(responses);
+        SparseFieldset fieldset = SparseFieldset.parse(fields, BookingResponse.FIELDS);
+        List<BookingResponse> responses = bookingService.getBookingsByPropertyId(propertyId, includeArchived, fieldset);
+        return ResponseEntity.ok(fieldset.apply(responses));
     }
 
     @GetMapping("/guest/{guestId}")
-    public ResponseEntity<List<BookingResponse>> getBookingsByGuestId(@PathVariable UUID guestId) {
+    public ResponseEntity<MappingJacksonValue> getBookingsByGuestId(
+            @PathVariable UUID guestId,
+            @RequestParam(defaultValue = "false") boolean includeArchived,
+            @RequestParam(required = false) String fields) {
         log.info("Received request to get bookings for guest id: {}", guestId);
-        List<BookingResponse> responses = bookingService.getBookingsByGuestId(guestId);
-        return ResponseEntity.ok(responses);
+        SparseFieldset fieldset = SparseFieldset.parse(fields, BookingResponse.FIELDS);
+        List<BookingResponse> responses = bookingService.getBookingsByGuestId(guestId, includeArchived, fieldset);
+        return ResponseEntity.ok(fieldset.apply(responses));
+    }
+
+    @GetMapping("/export")
+    public ResponseEntity<StreamingResponseBody> exportBookings(
+            @RequestParam(defaultValue = "ndjson") String format,
+            @RequestParam(required = false) @DateTimeFormat(iso = DateTimeFormat.ISO.DATE) LocalDate from,
+            @RequestParam(required = false) @DateTimeFormat(iso = DateTimeFormat.ISO.DATE) LocalDate to,
+            @RequestParam(required = false) BookingStatus status) {
+        log.info("Received request to export bookings as {}", format);
+        ExportFormat exportFormat = ExportFormat.fromParameter(format);
+        bookingExportService.validateFilter(from, to);
+
+        StreamingResponseBody body = out -> bookingExportService.exportBookings(from, to, status, exportFormat, out);
+        return ResponseEntity.ok()
+                .contentType(MediaType.parseMediaType(exportFormat.getContentType()))
+                .header(HttpHeaders.CONTENT_DISPOSITION, ContentDisposition.attachment()
+                        .filename("bookings." + exportFormat.getFileExtension())
+                        .build()
+                        .toString())
+                .body(body);
     }
 
     @PatchMapping("/{bookingId}")
     public ResponseEntity<BookingResponse> updateBooking(
             @PathVariable UUID bookingId,
-            @Valid @RequestBody BookingUpdateRequest request) {
+            @Valid @RequestBody BookingUpdateRequest request,
+            @RequestHeader(value = HttpHeaders.IF_MATCH, required = false) String ifMatch) {
         log.info("Received request to update booking with id: {}", bookingId);
-        BookingResponse response = bookingService.updateBooking(bookingId, request);
-        return ResponseEntity.ok(response);
+        BookingResponse response = commandGateway.submit(
+                new PropertyCommand.UpdateBooking(bookingId, request, EntityTags.expectedVersions(ifMatch)));
+        return ResponseEntity.ok().eTag(EntityTags.of(response.getVersion())).body(response);
     }
 
     @PatchMapping("/{bookingId}/cancel")
-    public ResponseEntity<BookingResponse> cancelBooking(@PathVariable UUID bookingId) {
+    public ResponseEntity<BookingResponse> cancelBooking(
+            @PathVariable UUID bookingId,
+            @RequestHeader(value = HttpHeaders.IF_MATCH, required = false) String ifMatch) {
         log.info("Received request to cancel booking with id: {}", bookingId);
-        BookingResponse response = bookingService.cancelBooking(bookingId);
+        BookingResponse response = commandGateway.submit(
+                new PropertyCommand.CancelBooking(bookingId, EntityTags.expectedVersions(ifMatch)));
+        return ResponseEntity.ok().eTag(EntityTags.of(response.getVersion())).body(response);
+    }
+
+    @PatchMapping("/property/{propertyId}/cancel")
+    public ResponseEntity<BulkCancelResponse> cancelBookingsByPropertyId(
+            @PathVariable UUID propertyId,
+            @RequestParam @DateTimeFormat(iso = DateTimeFormat.ISO.DATE) LocalDate from,
+            @RequestParam @DateTimeFormat(iso = DateTimeFormat.ISO.DATE) LocalDate to) {
+        log.info("Received request to cancel bookings for property id: {} between {} and {}", propertyId, from, to);
+        BulkCancelResponse response = commandGateway.submit(new PropertyCommand.CancelBookings(propertyId, from, to));
         return ResponseEntity.ok(response);
     }
 
     @PatchMapping("/{bookingId}/rebook")
-    public ResponseEntity<BookingResponse> rebookCancelledBooking(@PathVariable UUID bookingId) {
+    public ResponseEntity<BookingResponse> rebookCancelledBooking(
+            @PathVariable UUID bookingId,
+            @RequestHeader(value = HttpHeaders.IF_MATCH, required = false) String ifMatch) {
         log.info("Received request to rebook cancelled booking with id: {}", bookingId);
-        BookingResponse response = bookingService.rebookCancelledBooking(bookingId);
-        return ResponseEntity.ok(response);
+        BookingResponse response = commandGateway.submit(
+                new PropertyCommand.RebookBooking(bookingId, EntityTags.expectedVersions(ifMatch)));
+        return ResponseEntity.ok().eTag(EntityTags.of(response.getVersion())).body(response);
     }
 
     @DeleteMapping("/{bookingId}")
     public ResponseEntity<Void> deleteBooking(@PathVariable UUID bookingId) {
         log.info("Received request to delete booking with id: {}", bookingId);
-        bookingService.deleteBooking(bookingId);
+        commandGateway.submit(new PropertyCommand.DeleteBooking(bookingId));
         return ResponseEntity.noContent().build();
     }
 }
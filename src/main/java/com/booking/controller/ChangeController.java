@@ -0,0 +1,32 @@
+package com.booking.controller;
+
+import com.booking.dto.ChangeFeedResponse;
+import com.booking.service.ChangeLogService;
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.http.ResponseEntity;
+import org.springframework.web.bind.annotation.GetMapping;
+import org.springframework.web.bind.annotation.RequestMapping;
+import org.springframework.web.bind.annotation.RequestParam;
+import org.springframework.web.bind.annotation.RestController;
+
+import java.util.UUID;
+
+@RestController
+@RequestMapping("/api/changes")
+@RequiredArgsConstructor
+@Slf4j
+public class ChangeController {
+
+    private final ChangeLogService changeLogService;
+
+    @GetMapping
+    public ResponseEntity<ChangeFeedResponse> getChanges(
+            @RequestParam(defaultValue = "0") long since,
+            @RequestParam(defaultValue = "100") int limit,
+            @RequestParam(required = false) UUID propertyId) {
+        log.info("Received request to get changes since: {}", since);
+        ChangeFeedResponse response = changeLogService.getChanges(since, limit, propertyId);
+        return ResponseEntity.ok(response);
+    }
+}
@@ -0,0 +1,25 @@
+package com.booking.controller;
+
+import com.booking.compaction.TombstoneCompactor;
+import com.booking.dto.CompactionResponse;
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.http.ResponseEntity;
+import org.springframework.web.bind.annotation.PostMapping;
+import org.springframework.web.bind.annotation.RequestMapping;
+import org.springframework.web.bind.annotation.RestController;
+
+@RestController
+@RequestMapping("/api/compaction")
+@RequiredArgsConstructor
+@Slf4j
+public class CompactionController {
+
+    private final TombstoneCompactor tombstoneCompactor;
+
+    @PostMapping
+    public ResponseEntity<CompactionResponse> compact() {
+        log.info("Received request to purge old tombstones");
+        return ResponseEntity.ok(tombstoneCompactor.compact());
+    }
+}
@@ -0,0 +1,55 @@
+package com.booking.controller;
+
+import com.booking.exception.BookingException;
+
+import java.util.HashSet;
+import java.util.Set;
+import java.util.regex.Matcher;
+import java.util.regex.Pattern;
+
+/**
+ * Maps entity versions to and from the {@code ETag} and {@code If-Match} headers. The entity
+ * tag of a booking or block is its version number in quotes, for example {@code "3"}.
+ */
+final class EntityTags {
+
+    private static final Pattern LIST_ELEMENT = Pattern.compile("\\s*(W/)?\"([^\"]*)\"\\s*(?:,|$)");
+
+    private EntityTags() {
+    }
+
+    static String of(Long version) {
+        return "\"" + version + "\"";
+    }
+
+    /**
+     * Returns the versions a conditional request accepts, or {@code null} when the request is
+     * unconditional (no header or {@code *}). {@code If-Match} compares strongly, so weak tags
+     * and tags that are not ours are well-formed but name no version; a header made only of
+     * those yields an empty set, which fails the precondition.
+     */
+    static Set<Long> expectedVersions(String ifMatch) {
+        if (ifMatch == null || ifMatch.isBlank() || ifMatch.trim().equals("*")) {
+            return null;
+        }
+
+        Set<Long> versions = new HashSet<>();
+        Matcher element = LIST_ELEMENT.matcher(ifMatch);
+        int position = 0;
+        while (position < ifMatch.length()) {
+            element.region(position, ifMatch.length());
+            if (!element.lookingAt()) {
+                throw new BookingException("Invalid If-Match header: " + ifMatch);
+            }
+            if (element.group(1) == null) {
+                try {
+                    versions.add(Long.parseLong(element.group(2)));
+                } catch (NumberFormatException ignored) {
+                    // not one of our tags, so it cannot match
+                }
+            }
+            position = element.end();
+        }
+        return versions;
+    }
+}
@@ -0,0 +1,51 @@
+package com.booking.controller;
+
+import com.booking.dto.BookingRequest;
+import com.booking.dto.BookingResponse;
+import com.booking.dto.HoldResponse;
+import com.booking.service.HoldService;
+import jakarta.validation.Valid;
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.http.HttpStatus;
+import org.springframework.http.ResponseEntity;
+import org.springframework.web.bind.annotation.*;
+
+import java.util.UUID;
+
+@RestController
+@RequestMapping("/api/holds")
+@RequiredArgsConstructor
+@Slf4j
+public class HoldController {
+
+    private final HoldService holdService;
+
+    @PostMapping
+    public ResponseEntity<HoldResponse> createHold(@Valid @RequestBody BookingRequest request) {
+        log.info("Received request to place hold on property: {}", request.getPropertyId());
+        HoldResponse response = holdService.createHold(request);
+        return new ResponseEntity<>(response, HttpStatus.CREATED);
+    }
+
+    @GetMapping("/{holdId}")
+    public ResponseEntity<HoldResponse> getHold(@PathVariable UUID holdId) {
+        log.info("Received request to get hold with id: {}", holdId);
+        HoldResponse response = holdService.getHold(holdId);
+        return ResponseEntity.ok(response);
+    }
+
+    @PostMapping("/{holdId}/confirm")
+    public ResponseEntity<BookingResponse> confirmHold(@PathVariable UUID holdId) {
+        log.info("Received request to confirm hold with id: {}", holdId);
+        BookingResponse response = holdService.confirmHold(holdId);
+        return new ResponseEntity<>(response, HttpStatus.CREATED);
+    }
+
+    @DeleteMapping("/{holdId}")
+    public ResponseEntity<Void> releaseHold(@PathVariable UUID holdId) {
+        log.info("Received request to release hold with id: {}", holdId);
+        holdService.releaseHold(holdId);
+        return ResponseEntity.noContent().build();
+    }
+}
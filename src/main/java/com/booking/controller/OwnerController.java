@@ -0,0 +1,91 @@
+package com.booking.controller;
+
+import com.booking.dto.BlockResponse;
+import com.booking.dto.BulkDeleteResponse;
+import com.booking.dto.OwnerBlockRequest;
+import com.booking.dto.OwnerScheduleResponse;
+import com.booking.dto.OwnerStatsResponse;
+import com.booking.service.OwnerBlockService;
+import com.booking.service.OwnerScheduleService;
+import com.booking.service.PropertyStatsService;
+import jakarta.validation.Valid;
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.format.annotation.DateTimeFormat;
+import org.springframework.http.HttpStatus;
+import org.springframework.http.MediaType;
+import org.springframework.http.ResponseEntity;
+import org.springframework.web.bind.annotation.*;
+import org.springframework.web.servlet.mvc.method.annotation.StreamingResponseBody;
+
+import java.time.LocalDate;
+import java.time.YearMonth;
+import java.util.List;
+import java.util.UUID;
+
+@RestController
+@RequestMapping("/api/owners")
+@RequiredArgsConstructor
+@Slf4j
+public class OwnerController {
+
+    private static final String NDJSON = "application/x-ndjson";
+
+    private final OwnerScheduleService ownerScheduleService;
+    private final OwnerBlockService ownerBlockService;
+    private final PropertyStatsService propertyStatsService;
+
+    @GetMapping(value = "/{ownerId}/schedule", produces = MediaType.APPLICATION_JSON_VALUE)
+    public ResponseEntity<OwnerScheduleResponse> getSchedule(
+            @PathVariable UUID ownerId,
+            @RequestParam(required = false) @DateTimeFormat(iso = DateTimeFormat.ISO.DATE) LocalDate from,
+            @RequestParam @DateTimeFormat(iso = DateTimeFormat.ISO.DATE) LocalDate to) {
+        log.info("Received request to get schedule of owner: {}", ownerId);
+        LocalDate start = from != null ? from : LocalDate.now();
+        return ResponseEntity.ok(ownerScheduleService.getSchedule(ownerId, start, to));
+    }
+
+    @GetMapping(value = "/{ownerId}/schedule", produces = NDJSON)
+    public ResponseEntity<StreamingResponseBody> streamSchedule(
+            @PathVariable UUID ownerId,
+            @RequestParam(required = false) @DateTimeFormat(iso = DateTimeFormat.ISO.DATE) LocalDate from,
+            @RequestParam @DateTimeFormat(iso = DateTimeFormat.ISO.DATE) LocalDate to) {
+        log.info("Received request to stream schedule of owner: {}", ownerId);
+        LocalDate start = from != null ? from : LocalDate.now();
+        ownerScheduleService.validateSchedule(ownerId, start, to);
+
+        StreamingResponseBody body = out -> ownerScheduleService.streamSchedule(ownerId, start, to, out);
+        return ResponseEntity.ok()
+                .contentType(MediaType.parseMediaType(NDJSON))
+                .body(body);
+    }
+
+    @GetMapping("/{ownerId}/stats")
+    public ResponseEntity<OwnerStatsResponse> getStats(
+            @PathVariable UUID ownerId,
+            @RequestParam(required = false) @DateTimeFormat(pattern = "yyyy-MM") YearMonth from,
+            @RequestParam(required = false) @DateTimeFormat(pattern = "yyyy-MM") YearMonth to) {
+        log.info("Received request to get stats of owner: {}", ownerId);
+        YearMonth start = from != null ? from : YearMonth.now();
+        return ResponseEntity.ok(propertyStatsService.getOwnerStats(ownerId, start, to != null ? to : start));
+    }
+
+    @PostMapping("/{ownerId}/blocks")
+    public ResponseEntity<List<BlockResponse>> createBlocks(
+            @PathVariable UUID ownerId,
+            @Valid @RequestBody OwnerBlockRequest request) {
+        log.info("Received request to block properties of owner: {}", ownerId);
+        List<BlockResponse> responses = ownerBlockService.createBlocks(ownerId, request);
+        return new ResponseEntity<>(responses, HttpStatus.CREATED);
+    }
+
+    @DeleteMapping("/{ownerId}/blocks")
+    public ResponseEntity<BulkDeleteResponse> deleteBlocks(
+            @PathVariable UUID ownerId,
+            @RequestParam @DateTimeFormat(iso = DateTimeFormat.ISO.DATE) LocalDate from,
+            @RequestParam @DateTimeFormat(iso = DateTimeFormat.ISO.DATE) LocalDate to,
+            @RequestParam(required = false) List<UUID> propertyIds) {
+        log.info("Received request to delete blocks of owner {} between {} and {}", ownerId, from, to);
+        return ResponseEntity.ok(ownerBlockService.deleteBlocks(ownerId, from, to, propertyIds));
+    }
+}
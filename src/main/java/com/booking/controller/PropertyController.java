@@ -0,0 +1,47 @@
+package com.booking.controller;
+
+import com.booking.dto.AvailableWindowResponse;
+import com.booking.dto.PropertyStatsResponse;
+import com.booking.service.AvailabilityWindowService;
+import com.booking.service.PropertyStatsService;
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.format.annotation.DateTimeFormat;
+import org.springframework.http.ResponseEntity;
+import org.springframework.web.bind.annotation.*;
+
+import java.time.LocalDate;
+import java.time.YearMonth;
+import java.util.List;
+import java.util.UUID;
+
+@RestController
+@RequestMapping("/api/properties")
+@RequiredArgsConstructor
+@Slf4j
+public class PropertyController {
+
+    private final AvailabilityWindowService availabilityWindowService;
+    private final PropertyStatsService propertyStatsService;
+
+    @GetMapping("/{propertyId}/next-available")
+    public ResponseEntity<List<AvailableWindowResponse>> getNextAvailable(
+            @PathVariable UUID propertyId,
+            @RequestParam int nights,
+            @RequestParam(required = false) @DateTimeFormat(iso = DateTimeFormat.ISO.DATE) LocalDate after,
+            @RequestParam(defaultValue = "5") int limit) {
+        log.info("Received request to find next available {} nights for property: {}", nights, propertyId);
+        List<AvailableWindowResponse> responses = availabilityWindowService.findNextAvailable(propertyId, nights, after, limit);
+        return ResponseEntity.ok(responses);
+    }
+
+    @GetMapping("/{propertyId}/stats")
+    public ResponseEntity<PropertyStatsResponse> getStats(
+            @PathVariable UUID propertyId,
+            @RequestParam(required = false) @DateTimeFormat(pattern = "yyyy-MM") YearMonth from,
+            @RequestParam(required = false) @DateTimeFormat(pattern = "yyyy-MM") YearMonth to) {
+        log.info("Received request to get stats of property: {}", propertyId);
+        YearMonth start = from != null ? from : YearMonth.now();
+        return ResponseEntity.ok(propertyStatsService.getPropertyStats(propertyId, start, to != null ? to : start));
+    }
+}
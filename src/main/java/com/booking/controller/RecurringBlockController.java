@@ -0,0 +1,63 @@
+package com.booking.controller;
+
+import com.booking.dto.OccurrenceResponse;
+import com.booking.dto.RecurringBlockRequest;
+import com.booking.dto.RecurringBlockResponse;
+import com.booking.service.RecurringBlockService;
+import jakarta.validation.Valid;
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.format.annotation.DateTimeFormat;
+import org.springframework.http.HttpStatus;
+import org.springframework.http.ResponseEntity;
+import org.springframework.web.bind.annotation.*;
+
+import java.time.LocalDate;
+import java.util.List;
+import java.util.UUID;
+
+@RestController
+@RequestMapping("/api/blocks/recurring")
+@RequiredArgsConstructor
+@Slf4j
+public class RecurringBlockController {
+
+    private final RecurringBlockService recurringBlockService;
+
+    @PostMapping
+    public ResponseEntity<RecurringBlockResponse> createRecurringBlock(@Valid @RequestBody RecurringBlockRequest request) {
+        log.info("Received request to create recurring block for property: {}", request.getPropertyId());
+        RecurringBlockResponse response = recurringBlockService.createRecurringBlock(request);
+        return new ResponseEntity<>(response, HttpStatus.CREATED);
+    }
+
+    @GetMapping("/{recurringBlockId}")
+    public ResponseEntity<RecurringBlockResponse> getRecurringBlock(@PathVariable UUID recurringBlockId) {
+        log.info("Received request to get recurring block with id: {}", recurringBlockId);
+        return ResponseEntity.ok(recurringBlockService.getRecurringBlock(recurringBlockId));
+    }
+
+    @GetMapping("/property/{propertyId}")
+    public ResponseEntity<List<RecurringBlockResponse>> getRecurringBlocksByPropertyId(@PathVariable UUID propertyId) {
+        log.info("Received request to get recurring blocks for property id: {}", propertyId);
+        return ResponseEntity.ok(recurringBlockService.getRecurringBlocksByPropertyId(propertyId));
+    }
+
+    @GetMapping("/{recurringBlockId}/occurrences")
+    public ResponseEntity<List<OccurrenceResponse>> getOccurrences(
+            @PathVariable UUID recurringBlockId,
+            @RequestParam @DateTimeFormat(iso = DateTimeFormat.ISO.DATE) LocalDate from,
+            @RequestParam @DateTimeFormat(iso = DateTimeFormat.ISO.DATE) LocalDate to) {
+        log.info("Received request to get occurrences of recurring block {} between {} and {}", recurringBlockId, from, to);
+        return ResponseEntity.ok(recurringBlockService.getOccurrences(recurringBlockId, from, to));
+    }
+
+    @DeleteMapping("/{recurringBlockId}")
+    public ResponseEntity<Void> deleteRecurringBlock(
+            @PathVariable UUID recurringBlockId,
+            @RequestParam UUID ownerId) {
+        log.info("Received request to delete recurring block with id: {} by owner: {}", recurringBlockId, ownerId);
+        recurringBlockService.deleteRecurringBlock(recurringBlockId, ownerId);
+        return ResponseEntity.noContent().build();
+    }
+}
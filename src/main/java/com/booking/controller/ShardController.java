@@ -0,0 +1,43 @@
+package com.booking.controller;
+
+import com.booking.dto.PropertyShardResponse;
+import com.booking.dto.ShardMoveResponse;
+import com.booking.sharding.ShardRebalancer;
+import com.booking.sharding.ShardRouter;
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.http.ResponseEntity;
+import org.springframework.web.bind.annotation.*;
+
+import java.util.UUID;
+
+@RestController
+@RequestMapping("/api/shards")
+@ConditionalOnProperty(prefix = "booking.sharding", name = "enabled", havingValue = "true")
+@RequiredArgsConstructor
+@Slf4j
+public class ShardController {
+
+    private final ShardRouter shardRouter;
+    private final ShardRebalancer shardRebalancer;
+
+    @GetMapping("/properties/{propertyId}")
+    public ResponseEntity<PropertyShardResponse> getPropertyShard(@PathVariable UUID propertyId) {
+        log.info("Received request to get shard for property id: {}", propertyId);
+        PropertyShardResponse response = PropertyShardResponse.builder()
+                .propertyId(propertyId)
+                .shard(shardRouter.shardFor(propertyId))
+                .build();
+        return ResponseEntity.ok(response);
+    }
+
+    @PostMapping("/properties/{propertyId}/move")
+    public ResponseEntity<ShardMoveResponse> moveProperty(
+            @PathVariable UUID propertyId,
+            @RequestParam int targetShard) {
+        log.info("Received request to move property {} to shard {}", propertyId, targetShard);
+        ShardMoveResponse response = shardRebalancer.moveProperty(propertyId, targetShard);
+        return ResponseEntity.ok(response);
+    }
+}
@@ -0,0 +1,25 @@
+package com.booking.dto;
+
+import lombok.AllArgsConstructor;
+import lombok.Builder;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.UUID;
+
+@Data
+@Builder
+@NoArgsConstructor
+@AllArgsConstructor
+public class AffectedGuestResponse {
+
+    private UUID guestId;
+    private String firstName;
+    private String lastName;
+    private String email;
+
+    @Builder.Default
+    private List<UUID> bookingIds = new ArrayList<>();
+}
@@ -0,0 +1,20 @@
+package com.booking.dto;
+
+import lombok.AllArgsConstructor;
+import lombok.Builder;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+import java.time.LocalDate;
+
+@Data
+@Builder
+@NoArgsConstructor
+@AllArgsConstructor
+public class ArchiveResponse {
+
+    /** Bookings and blocks that ended before this date were archived. */
+    private LocalDate before;
+    private int bookingsArchived;
+    private int blocksArchived;
+}
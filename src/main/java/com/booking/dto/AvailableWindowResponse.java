@@ -0,0 +1,21 @@
+package com.booking.dto;
+
+import lombok.AllArgsConstructor;
+import lombok.Builder;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+import java.time.LocalDate;
+
+@Data
+@Builder
+@NoArgsConstructor
+@AllArgsConstructor
+public class AvailableWindowResponse {
+
+    private LocalDate startDate;
+    private LocalDate endDate;
+
+    /** Last free day of the gap the window sits in; null when nothing is booked or blocked after it. */
+    private LocalDate availableUntil;
+}
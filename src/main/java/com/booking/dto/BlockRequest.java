@@ -1,5 +1,6 @@
 package com.booking.dto;
 
+import com.booking.sharding.PropertyScoped;
 import jakarta.validation.constraints.NotNull;
 import lombok.AllArgsConstructor;
 import lombok.Builder;
@@ -13,7 +14,7 @@ import java.util.UUID;
 @Builder
 @NoArgsConstructor
 @AllArgsConstructor
-public class BlockRequest {
+public class BlockRequest implements PropertyScoped {
 
     @NotNull(message = "Owner ID is required")
     private UUID ownerId;
@@ -1,25 +1,34 @@
 package com.booking.dto;
 
+import com.booking.model.ArchivedBlock;
 import com.booking.model.Block;
+import com.fasterxml.jackson.annotation.JsonFilter;
 import lombok.AllArgsConstructor;
 import lombok.Builder;
 import lombok.Data;
 import lombok.NoArgsConstructor;
 
 import java.time.LocalDate;
+import java.util.List;
 import java.util.UUID;
 
 @Data
 @Builder
 @NoArgsConstructor
 @AllArgsConstructor
+@JsonFilter(SparseFieldset.FILTER_ID)
 public class BlockResponse {
 
+    /** Fields that list endpoints can select with {@code fields=}. */
+    public static final List<String> FIELDS = List.of("id", "propertyId", "startDate", "endDate", "reason", "version", "archived");
+
     private UUID id;
     private UUID propertyId;
     private LocalDate startDate;
     private LocalDate endDate;
     private String reason;
+    private Long version;
+    private boolean archived;
 
     public static BlockResponse fromModel(Block block) {
         return BlockResponse.builder()
@@ -28,6 +37,19 @@ public class BlockResponse {
                 .startDate(block.getStartDate())
                 .endDate(block.getEndDate())
                 .reason(block.getReason())
+                .version(block.getVersion())
+                .build();
+    }
+
+    public static BlockResponse fromModel(ArchivedBlock block) {
+        return BlockResponse.builder()
+                .id(block.getId())
+                .propertyId(block.getPropertyId())
+                .startDate(block.getStartDate())
+                .endDate(block.getEndDate())
+                .reason(block.getReason())
+                .version(block.getVersion())
+                .archived(true)
                 .build();
     }
 }
@@ -0,0 +1,27 @@
+package com.booking.dto;
+
+import com.booking.model.BookingStatus;
+import lombok.AllArgsConstructor;
+import lombok.Builder;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+import java.time.LocalDate;
+import java.util.UUID;
+
+@Data
+@Builder
+@NoArgsConstructor
+@AllArgsConstructor
+public class BookingExportRow {
+
+    private UUID id;
+    private UUID propertyId;
+    private UUID guestId;
+    private String guestEmail;
+    private String guestFirstName;
+    private String guestLastName;
+    private LocalDate startDate;
+    private LocalDate endDate;
+    private BookingStatus status;
+}
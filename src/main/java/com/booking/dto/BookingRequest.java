@@ -1,6 +1,7 @@
 package com.booking.dto;
 
 import com.booking.model.BookingStatus;
+import com.booking.sharding.PropertyScoped;
 import jakarta.validation.constraints.NotNull;
 import lombok.*;
 
@@ -11,7 +12,7 @@ import java.util.UUID;
 @Builder
 @NoArgsConstructor
 @AllArgsConstructor
-public class BookingRequest {
+public class BookingRequest implements PropertyScoped {
 
     @NotNull(message = "Property ID is required")
     private UUID propertyId;
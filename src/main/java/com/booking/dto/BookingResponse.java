@@ -1,22 +1,30 @@
 package com.booking.dto;
 
+import com.booking.model.ArchivedBooking;
 import com.booking.model.Booking;
 import com.booking.model.BookingStatus;
 import com.booking.model.Guest;
+import com.fasterxml.jackson.annotation.JsonFilter;
 import lombok.AllArgsConstructor;
 import lombok.Builder;
 import lombok.Data;
 import lombok.NoArgsConstructor;
 
 import java.time.LocalDate;
+import java.util.List;
 import java.util.UUID;
 
 @Data
 @Builder
 @NoArgsConstructor
 @AllArgsConstructor
+@JsonFilter(SparseFieldset.FILTER_ID)
 public class BookingResponse {
 
+    /** Fields that list endpoints can select with {@code fields=}. */
+    public static final List<String> FIELDS = List.of("id", "propertyId", "guestId", "guestFirstName", "guestLastName",
+            "startDate", "endDate", "status", "version", "archived");
+
     private UUID id;
     private UUID propertyId;
     private UUID guestId;
@@ -25,6 +33,8 @@ public class BookingResponse {
     private LocalDate startDate;
     private LocalDate endDate;
     private BookingStatus status;
+    private Long version;
+    private boolean archived;
 
     public static BookingResponse fromModel(Booking booking, Guest guest) {
         return BookingResponse.builder()
@@ -36,6 +46,22 @@ public class BookingResponse {
                 .startDate(booking.getStartDate())
                 .endDate(booking.getEndDate())
                 .status(booking.getStatus())
+                .version(booking.getVersion())
+                .build();
+    }
+
+    public static BookingResponse fromModel(ArchivedBooking booking, Guest guest) {
+        return BookingResponse.builder()
+                .id(booking.getId())
+                .propertyId(booking.getPropertyId())
+                .guestId(booking.getGuestId())
+                .guestFirstName(guest != null ? guest.getFirstName() : null)
+                .guestLastName(guest != null ? guest.getLastName() : null)
+                .startDate(booking.getStartDate())
+                .endDate(booking.getEndDate())
+                .status(booking.getStatus())
+                .version(booking.getVersion())
+                .archived(true)
                 .build();
     }
 }
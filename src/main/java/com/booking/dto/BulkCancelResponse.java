@@ -0,0 +1,18 @@
+package com.booking.dto;
+
+import lombok.AllArgsConstructor;
+import lombok.Builder;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+import java.util.List;
+
+@Data
+@Builder
+@NoArgsConstructor
+@AllArgsConstructor
+public class BulkCancelResponse {
+
+    private int cancelled;
+    private List<AffectedGuestResponse> guests;
+}
@@ -0,0 +1,21 @@
+package com.booking.dto;
+
+import lombok.AllArgsConstructor;
+import lombok.Builder;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+import java.util.List;
+import java.util.UUID;
+
+@Data
+@Builder
+@NoArgsConstructor
+@AllArgsConstructor
+public class BulkDeleteResponse {
+
+    private int deleted;
+
+    /** Properties whose shard failed, so their blocks were left in place; empty when all were reached. */
+    private List<UUID> failedPropertyIds;
+}
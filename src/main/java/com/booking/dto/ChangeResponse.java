@@ -0,0 +1,49 @@
+package com.booking.dto;
+
+import com.booking.model.BookingStatus;
+import com.booking.model.ChangeEntityType;
+import com.booking.model.ChangeEvent;
+import com.booking.model.ChangeOperation;
+import lombok.AllArgsConstructor;
+import lombok.Builder;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+import java.time.LocalDate;
+import java.time.LocalDateTime;
+import java.util.UUID;
+
+@Data
+@Builder
+@NoArgsConstructor
+@AllArgsConstructor
+public class ChangeResponse {
+
+    private Long seq;
+    private ChangeEntityType entityType;
+    private ChangeOperation operation;
+    private UUID entityId;
+    private UUID propertyId;
+    private UUID guestId;
+    private LocalDate startDate;
+    private LocalDate endDate;
+    private BookingStatus status;
+    private String reason;
+    private LocalDateTime changedAt;
+
+    public static ChangeResponse fromModel(ChangeEvent event) {
+        return ChangeResponse.builder()
+                .seq(event.getSeq())
+                .entityType(event.getEntityType())
+                .operation(event.getOperation())
+                .entityId(event.getEntityId())
+                .propertyId(event.getPropertyId())
+                .guestId(event.getGuestId())
+                .startDate(event.getStartDate())
+                .endDate(event.getEndDate())
+                .status(event.getStatus())
+                .reason(event.getReason())
+                .changedAt(event.getChangedAt())
+                .build();
+    }
+}
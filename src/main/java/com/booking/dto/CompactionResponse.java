@@ -0,0 +1,23 @@
+package com.booking.dto;
+
+import lombok.AllArgsConstructor;
+import lombok.Builder;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+import java.time.Instant;
+
+@Data
+@Builder
+@NoArgsConstructor
+@AllArgsConstructor
+public class CompactionResponse {
+
+    /** Tombstones of rows deleted before this instant were purged. */
+    private Instant deletedBefore;
+    private int bookingsPurged;
+    private int blocksPurged;
+    private int recurringBlocksPurged;
+    /** False when the run reached the end of its window with tombstones left over. */
+    private boolean complete;
+}
@@ -0,0 +1,21 @@
+package com.booking.dto;
+
+import lombok.AllArgsConstructor;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+/**
+ * Result of the combined write-path check: whether the property exists and whether a
+ * confirmed booking or a block overlaps the requested dates. {@code recurringBlockCandidate}
+ * only says that a recurring block spans the dates; its rule still has to be evaluated.
+ */
+@Data
+@NoArgsConstructor
+@AllArgsConstructor
+public class ConflictSummary {
+
+    private boolean propertyExists;
+    private boolean bookingConflict;
+    private boolean blockConflict;
+    private boolean recurringBlockCandidate;
+}
@@ -0,0 +1,20 @@
+package com.booking.dto;
+
+import lombok.AllArgsConstructor;
+import lombok.Builder;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+import java.time.LocalDate;
+
+@Data
+@Builder
+@NoArgsConstructor
+@AllArgsConstructor
+public class FlexibleStayOption {
+
+    private LocalDate startDate;
+
+    /** Longest stay that fits from {@code startDate}, capped at the requested maximum; shorter ones fit too. */
+    private int maxNights;
+}
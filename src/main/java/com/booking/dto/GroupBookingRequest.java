@@ -0,0 +1,42 @@
+package com.booking.dto;
+
+import jakarta.validation.constraints.NotEmpty;
+import jakarta.validation.constraints.NotNull;
+import lombok.*;
+
+import java.time.LocalDate;
+import java.util.List;
+import java.util.UUID;
+
+@Data
+@Builder
+@NoArgsConstructor
+@AllArgsConstructor
+public class GroupBookingRequest {
+
+    @NotEmpty(message = "At least one property ID is required")
+    private List<@NotNull(message = "Property ID is required") UUID> propertyIds;
+
+    @NotNull(message = "Guest ID is required")
+    private String guestEmail;
+    @NotNull(message = "Guest first name is required")
+    private String guestFirstName;
+    private String guestLastName;
+
+    @NotNull(message = "Start date is required")
+    private LocalDate startDate;
+
+    @NotNull(message = "End date is required")
+    private LocalDate endDate;
+
+    public BookingRequest toBookingRequest(UUID propertyId) {
+        return BookingRequest.builder()
+                .propertyId(propertyId)
+                .guestEmail(guestEmail)
+                .guestFirstName(guestFirstName)
+                .guestLastName(guestLastName)
+                .startDate(startDate)
+                .endDate(endDate)
+                .build();
+    }
+}
@@ -0,0 +1,36 @@
+package com.booking.dto;
+
+import com.booking.hold.Hold;
+import lombok.AllArgsConstructor;
+import lombok.Builder;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+import java.time.Instant;
+import java.time.LocalDate;
+import java.util.UUID;
+
+@Data
+@Builder
+@NoArgsConstructor
+@AllArgsConstructor
+public class HoldResponse {
+
+    private UUID id;
+    private UUID propertyId;
+    private String guestEmail;
+    private LocalDate startDate;
+    private LocalDate endDate;
+    private Instant expiresAt;
+
+    public static HoldResponse fromModel(Hold hold) {
+        return HoldResponse.builder()
+                .id(hold.id())
+                .propertyId(hold.propertyId())
+                .guestEmail(hold.request().getGuestEmail())
+                .startDate(hold.startDate())
+                .endDate(hold.endDate())
+                .expiresAt(hold.expiresAt())
+                .build();
+    }
+}
@@ -0,0 +1,22 @@
+package com.booking.dto;
+
+import lombok.AllArgsConstructor;
+import lombok.Builder;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+import java.time.YearMonth;
+
+@Data
+@Builder
+@NoArgsConstructor
+@AllArgsConstructor
+public class MonthlyStatsResponse {
+
+    private YearMonth month;
+    private long totalNights;
+    private long bookedNights;
+    private long blockedNights;
+    private double occupancyRate;
+    private double utilizationRate;
+}
@@ -0,0 +1,26 @@
+package com.booking.dto;
+
+import com.booking.recurrence.RecurrenceRule;
+import lombok.AllArgsConstructor;
+import lombok.Builder;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+import java.time.LocalDate;
+
+@Data
+@Builder
+@NoArgsConstructor
+@AllArgsConstructor
+public class OccurrenceResponse {
+
+    private LocalDate startDate;
+    private LocalDate endDate;
+
+    public static OccurrenceResponse fromOccurrence(RecurrenceRule.Occurrence occurrence) {
+        return OccurrenceResponse.builder()
+                .startDate(occurrence.startDate())
+                .endDate(occurrence.endDate())
+                .build();
+    }
+}
@@ -0,0 +1,26 @@
+package com.booking.dto;
+
+import lombok.AllArgsConstructor;
+import lombok.Builder;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+import java.time.Instant;
+import java.util.List;
+
+@Data
+@Builder
+@NoArgsConstructor
+@AllArgsConstructor
+public class OverlapAuditReport {
+
+    private Instant startedAt;
+    private long durationMillis;
+    private long propertiesScanned;
+    private long intervalsScanned;
+    private long bookingOverlaps;
+    private long blockOverlaps;
+    /** True when more pairs were found than {@code pairs} lists. */
+    private boolean truncated;
+    private List<OverlapPair> pairs;
+}
@@ -0,0 +1,24 @@
+package com.booking.dto;
+
+import lombok.AllArgsConstructor;
+import lombok.Builder;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+import java.time.LocalDate;
+import java.util.UUID;
+
+@Data
+@Builder
+@NoArgsConstructor
+@AllArgsConstructor
+public class OverlapPair {
+
+    private OverlapType type;
+    private UUID propertyId;
+    /** The booking, or for a booking/block pair always the booking. */
+    private UUID firstId;
+    private UUID secondId;
+    private LocalDate overlapStart;
+    private LocalDate overlapEnd;
+}
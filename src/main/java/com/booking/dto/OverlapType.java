@@ -0,0 +1,6 @@
+package com.booking.dto;
+
+public enum OverlapType {
+    BOOKING_BOOKING,
+    BOOKING_BLOCK
+}
@@ -0,0 +1,22 @@
+package com.booking.dto;
+
+import lombok.AllArgsConstructor;
+import lombok.Builder;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+import java.time.LocalDate;
+import java.util.List;
+import java.util.UUID;
+
+@Data
+@Builder
+@NoArgsConstructor
+@AllArgsConstructor
+public class OwnerScheduleResponse {
+
+    private UUID ownerId;
+    private LocalDate from;
+    private LocalDate to;
+    private List<PropertyScheduleResponse> properties;
+}
@@ -0,0 +1,20 @@
+package com.booking.dto;
+
+import lombok.AllArgsConstructor;
+import lombok.Builder;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+import java.util.List;
+import java.util.UUID;
+
+@Data
+@Builder
+@NoArgsConstructor
+@AllArgsConstructor
+public class OwnerStatsResponse {
+
+    private UUID ownerId;
+    private int properties;
+    private List<MonthlyStatsResponse> months;
+}
@@ -0,0 +1,29 @@
+package com.booking.dto;
+
+import lombok.AllArgsConstructor;
+import lombok.Builder;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.UUID;
+
+@Data
+@Builder
+@NoArgsConstructor
+@AllArgsConstructor
+public class PropertyScheduleResponse {
+
+    private UUID propertyId;
+    private String propertyName;
+
+    @Builder.Default
+    private List<BookingResponse> bookings = new ArrayList<>();
+
+    @Builder.Default
+    private List<BlockResponse> blocks = new ArrayList<>();
+
+    @Builder.Default
+    private List<ScheduledOccurrenceResponse> recurringBlockOccurrences = new ArrayList<>();
+}
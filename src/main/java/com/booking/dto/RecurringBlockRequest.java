@@ -0,0 +1,47 @@
+package com.booking.dto;
+
+import com.booking.model.RecurrenceFrequency;
+import com.booking.sharding.PropertyScoped;
+import jakarta.validation.constraints.NotNull;
+import lombok.AllArgsConstructor;
+import lombok.Builder;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+import java.time.DayOfWeek;
+import java.time.LocalDate;
+import java.util.Set;
+import java.util.UUID;
+
+@Data
+@Builder
+@NoArgsConstructor
+@AllArgsConstructor
+public class RecurringBlockRequest implements PropertyScoped {
+
+    @NotNull(message = "Owner ID is required")
+    private UUID ownerId;
+
+    @NotNull(message = "Property ID is required")
+    private UUID propertyId;
+
+    @NotNull(message = "Frequency is required")
+    private RecurrenceFrequency frequency;
+
+    @Builder.Default
+    private int interval = 1;
+
+    /** Weekdays of a weekly rule; defaults to the weekday of the start date. */
+    private Set<DayOfWeek> daysOfWeek;
+
+    @NotNull(message = "Start date is required")
+    private LocalDate startDate;
+
+    @NotNull(message = "Until date is required")
+    private LocalDate untilDate;
+
+    @Builder.Default
+    private int durationDays = 1;
+
+    private String reason;
+}
@@ -0,0 +1,47 @@
+package com.booking.dto;
+
+import com.booking.model.RecurrenceFrequency;
+import com.booking.model.RecurringBlock;
+import com.booking.recurrence.RecurrenceRule;
+import lombok.AllArgsConstructor;
+import lombok.Builder;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+import java.time.DayOfWeek;
+import java.time.LocalDate;
+import java.util.Set;
+import java.util.UUID;
+
+@Data
+@Builder
+@NoArgsConstructor
+@AllArgsConstructor
+public class RecurringBlockResponse {
+
+    private UUID id;
+    private UUID propertyId;
+    private RecurrenceFrequency frequency;
+    private int interval;
+    private Set<DayOfWeek> daysOfWeek;
+    private LocalDate startDate;
+    private LocalDate untilDate;
+    private int durationDays;
+    private String reason;
+    private Long version;
+
+    public static RecurringBlockResponse fromModel(RecurringBlock block) {
+        return RecurringBlockResponse.builder()
+                .id(block.getId())
+                .propertyId(block.getPropertyId())
+                .frequency(block.getFrequency())
+                .interval(block.getRepeatInterval())
+                .daysOfWeek(RecurrenceRule.fromMask(block.getDaysOfWeek()))
+                .startDate(block.getStartDate())
+                .untilDate(block.getUntilDate())
+                .durationDays(block.getDurationDays())
+                .reason(block.getReason())
+                .version(block.getVersion())
+                .build();
+    }
+}
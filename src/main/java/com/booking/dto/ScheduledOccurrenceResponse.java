@@ -0,0 +1,21 @@
+package com.booking.dto;
+
+import lombok.AllArgsConstructor;
+import lombok.Builder;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+import java.time.LocalDate;
+import java.util.UUID;
+
+@Data
+@Builder
+@NoArgsConstructor
+@AllArgsConstructor
+public class ScheduledOccurrenceResponse {
+
+    private UUID recurringBlockId;
+    private LocalDate startDate;
+    private LocalDate endDate;
+    private String reason;
+}
@@ -0,0 +1,21 @@
+package com.booking.dto;
+
+import lombok.AllArgsConstructor;
+import lombok.Builder;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+import java.util.UUID;
+
+@Data
+@Builder
+@NoArgsConstructor
+@AllArgsConstructor
+public class ShardMoveResponse {
+
+    private UUID propertyId;
+    private int sourceShard;
+    private int targetShard;
+    private int bookingsMoved;
+    private int blocksMoved;
+}
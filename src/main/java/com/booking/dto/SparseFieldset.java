@@ -0,0 +1,75 @@
+package com.booking.dto;
+
+import com.booking.exception.BookingException;
+import com.fasterxml.jackson.databind.ser.impl.SimpleBeanPropertyFilter;
+import com.fasterxml.jackson.databind.ser.impl.SimpleFilterProvider;
+import org.springframework.http.converter.json.MappingJacksonValue;
+
+import java.util.Collections;
+import java.util.LinkedHashSet;
+import java.util.List;
+import java.util.Set;
+
+/**
+ * The response fields a client asked for with {@code fields=}, or all of them when it did not
+ * ask. Responses that support it carry {@code @JsonFilter(SparseFieldset.FILTER_ID)}, and
+ * {@link #apply} leaves only the selected fields in their JSON.
+ */
+public final class SparseFieldset {
+
+    public static final String FILTER_ID = "sparseFieldset";
+
+    private static final SparseFieldset ALL = new SparseFieldset(null);
+
+    private final Set<String> fields;
+
+    private SparseFieldset(Set<String> fields) {
+        this.fields = fields;
+    }
+
+    public static SparseFieldset all() {
+        return ALL;
+    }
+
+    /**
+     * Parses a comma-separated list of field names, all of which must be in {@code available}.
+     */
+    public static SparseFieldset parse(String value, List<String> available) {
+        if (value == null || value.isBlank()) {
+            return ALL;
+        }
+        Set<String> fields = new LinkedHashSet<>();
+        for (String part : value.split(",")) {
+            String field = part.trim();
+            if (field.isEmpty()) {
+                continue;
+            }
+            if (!available.contains(field)) {
+                throw new BookingException("Unknown field '" + field + "'. Available fields: " + String.join(", ", available));
+            }
+            fields.add(field);
+        }
+        return fields.isEmpty() ? ALL : new SparseFieldset(Collections.unmodifiableSet(fields));
+    }
+
+    public boolean isAll() {
+        return fields == null;
+    }
+
+    public boolean includes(String field) {
+        return fields == null || fields.contains(field);
+    }
+
+    /** The selected fields in the order they were asked for; only defined when not {@link #isAll()}. */
+    public Set<String> fields() {
+        return fields;
+    }
+
+    public MappingJacksonValue apply(Object body) {
+        MappingJacksonValue value = new MappingJacksonValue(body);
+        value.setFilters(new SimpleFilterProvider().addFilter(FILTER_ID, fields == null
+                ? SimpleBeanPropertyFilter.serializeAll()
+                : SimpleBeanPropertyFilter.filterOutAllExcept(fields)));
+        return value;
+    }
+}
@@ -0,0 +1,23 @@
+package com.booking.exception;
+
+import java.util.Set;
+import java.util.stream.Collectors;
+
+public class PreconditionFailedException extends RuntimeException {
+    public PreconditionFailedException(String message) {
+        super(message);
+    }
+
+    /**
+     * Reports an entity whose version is not among those an {@code If-Match} header accepts.
+     */
+    public static PreconditionFailedException staleVersion(String entity, Long version, Set<Long> expectedVersions) {
+        String expected = expectedVersions.isEmpty()
+                ? "If-Match names no version"
+                : "version " + expectedVersions.stream()
+                        .sorted()
+                        .map(String::valueOf)
+                        .collect(Collectors.joining(" or ")) + " was expected";
+        return new PreconditionFailedException(entity + " is at version " + version + ", but " + expected);
+    }
+}
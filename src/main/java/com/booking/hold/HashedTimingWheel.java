@@ -0,0 +1,155 @@
+package com.booking.hold;
+
+import lombok.extern.slf4j.Slf4j;
+
+import java.time.Duration;
+import java.util.Queue;
+import java.util.concurrent.ConcurrentLinkedQueue;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.locks.LockSupport;
+
+/**
+ * Runs tasks after a delay using a hashed timing wheel. Scheduling and cancelling are O(1) and
+ * allocate one small object, so millions of short-lived timeouts stay cheap. A single worker
+ * thread advances the wheel one bucket per tick and runs the tasks due in that bucket; tasks
+ * further out than one revolution wait for the remaining rounds in their bucket.
+ */
+@Slf4j
+public class HashedTimingWheel implements AutoCloseable {
+
+    private final long tickNanos;
+    private final Bucket[] wheel;
+    private final int mask;
+    private final long startNanos = System.nanoTime();
+
+    // Timeouts scheduled since the last tick; only the worker touches the buckets
+    private final Queue<Timeout> pending = new ConcurrentLinkedQueue<>();
+    private final Thread worker;
+    private volatile boolean running = true;
+    private long tick;
+
+    public HashedTimingWheel(Duration tickDuration, int wheelSize) {
+        if (tickDuration.isNegative() || tickDuration.isZero()) {
+            throw new IllegalArgumentException("Tick duration must be positive: " + tickDuration);
+        }
+        this.tickNanos = tickDuration.toNanos();
+        this.wheel = new Bucket[Integer.highestOneBit(Math.max(1, wheelSize - 1)) << 1];
+        this.mask = wheel.length - 1;
+        for (int i = 0; i < wheel.length; i++) {
+            wheel[i] = new Bucket();
+        }
+        this.worker = Thread.ofPlatform().name("hold-timing-wheel").daemon().start(this::run);
+    }
+
+    public Timeout schedule(Runnable task, Duration delay) {
+        Timeout timeout = new Timeout(task, System.nanoTime() - startNanos + Math.max(0, delay.toNanos()));
+        pending.add(timeout);
+        return timeout;
+    }
+
+    @Override
+    public void close() throws InterruptedException {
+        running = false;
+        LockSupport.unpark(worker);
+        worker.join(TimeUnit.SECONDS.toMillis(5));
+    }
+
+    public static final class Timeout {
+
+        private final Runnable task;
+        private final long deadline;
+        private volatile boolean cancelled;
+        private long remainingRounds;
+        private Timeout next;
+
+        private Timeout(Runnable task, long deadline) {
+            this.task = task;
+            this.deadline = deadline;
+        }
+
+        /** Cancelled timeouts are dropped lazily when the wheel next passes their bucket. */
+        public void cancel() {
+            cancelled = true;
+        }
+
+        public boolean isCancelled() {
+            return cancelled;
+        }
+    }
+
+    private static final class Bucket {
+
+        private Timeout head;
+
+        void add(Timeout timeout) {
+            timeout.next = head;
+            head = timeout;
+        }
+
+        void expire() {
+            Timeout previous = null;
+            Timeout timeout = head;
+            while (timeout != null) {
+                Timeout next = timeout.next;
+                boolean due = !timeout.cancelled && timeout.remainingRounds <= 0;
+                if (timeout.cancelled || due) {
+                    if (previous == null) {
+                        head = next;
+                    } else {
+                        previous.next = next;
+                    }
+                    timeout.next = null;
+                    if (due) {
+                        runTask(timeout);
+                    }
+                } else {
+                    timeout.remainingRounds--;
+                    previous = timeout;
+                }
+                timeout = next;
+            }
+        }
+
+        private static void runTask(Timeout timeout) {
+            try {
+                timeout.task.run();
+            } catch (RuntimeException e) {
+                log.error("Timing wheel task failed", e);
+            }
+        }
+    }
+
+    private void run() {
+        while (running) {
+            if (!awaitNextTick()) {
+                continue;
+            }
+            transferPending();
+            wheel[(int) (tick & mask)].expire();
+            tick++;
+        }
+    }
+
+    private boolean awaitNextTick() {
+        long deadline = startNanos + tickNanos * (tick + 1);
+        long remaining = deadline - System.nanoTime();
+        if (remaining > 0) {
+            LockSupport.parkNanos(this, remaining);
+            return deadline - System.nanoTime() <= 0;
+        }
+        return true;
+    }
+
+    private void transferPending() {
+        Timeout timeout;
+        while ((timeout = pending.poll()) != null) {
+            if (timeout.cancelled) {
+                continue;
+            }
+            // The tick during which the deadline passes, or the current one if it already has
+            long dueTick = Math.max(timeout.deadline / tickNanos, tick);
+            timeout.remainingRounds = (dueTick - tick) / wheel.length;
+            wheel[(int) (dueTick & mask)].add(timeout);
+        }
+    }
+}
@@ -0,0 +1,29 @@
+package com.booking.hold;
+
+import com.booking.dto.BookingRequest;
+
+import java.time.Instant;
+import java.time.LocalDate;
+import java.util.UUID;
+
+/**
+ * Dates of a property held for a guest until {@code expiresAt}, kept in memory only.
+ */
+public record Hold(UUID id, BookingRequest request, Instant expiresAt) {
+
+    public UUID propertyId() {
+        return request.getPropertyId();
+    }
+
+    public LocalDate startDate() {
+        return request.getStartDate();
+    }
+
+    public LocalDate endDate() {
+        return request.getEndDate();
+    }
+
+    public boolean isExpired(Instant now) {
+        return !expiresAt.isAfter(now);
+    }
+}
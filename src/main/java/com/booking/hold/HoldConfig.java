@@ -0,0 +1,22 @@
+package com.booking.hold;
+
+import org.springframework.boot.context.properties.EnableConfigurationProperties;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+
+import java.time.Clock;
+
+@Configuration
+@EnableConfigurationProperties(HoldProperties.class)
+public class HoldConfig {
+
+    @Bean
+    public HashedTimingWheel holdTimingWheel(HoldProperties properties) {
+        return new HashedTimingWheel(properties.getTickDuration(), properties.getWheelSize());
+    }
+
+    @Bean
+    public HoldRegistry holdRegistry(HashedTimingWheel holdTimingWheel, HoldProperties properties) {
+        return new HoldRegistry(holdTimingWheel, properties, Clock.systemUTC());
+    }
+}
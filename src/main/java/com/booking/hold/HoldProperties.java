@@ -0,0 +1,20 @@
+package com.booking.hold;
+
+import lombok.Data;
+import org.springframework.boot.context.properties.ConfigurationProperties;
+
+import java.time.Duration;
+
+@Data
+@ConfigurationProperties(prefix = "booking.holds")
+public class HoldProperties {
+
+    /** How long a hold keeps its dates before it expires. */
+    private Duration ttl = Duration.ofMinutes(10);
+
+    /** Resolution of the expiry timer; holds expire at most one tick late. */
+    private Duration tickDuration = Duration.ofMillis(100);
+
+    /** Number of buckets on the timer wheel, rounded up to a power of two. */
+    private int wheelSize = 512;
+}
@@ -0,0 +1,161 @@
+package com.booking.hold;
+
+import com.booking.dto.BookingRequest;
+import com.booking.exception.BookingException;
+import lombok.extern.slf4j.Slf4j;
+
+import java.time.Clock;
+import java.time.Duration;
+import java.time.Instant;
+import java.time.LocalDate;
+import java.util.Optional;
+import java.util.UUID;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentMap;
+import java.util.concurrent.ConcurrentSkipListMap;
+import java.util.concurrent.ConcurrentNavigableMap;
+import java.util.concurrent.atomic.AtomicBoolean;
+
+/**
+ * In-memory registry of the holds placed on properties. Holds of one property never overlap, so
+ * they are kept ordered by start date and a conflict check is a single floor lookup. Each hold
+ * has a timeout on the timing wheel that removes it when it expires; releasing or confirming a
+ * hold cancels that timeout. A hold being confirmed stays placed until its booking has committed,
+ * so its dates are never free in between.
+ */
+@Slf4j
+public class HoldRegistry {
+
+    private final HashedTimingWheel timingWheel;
+    private final HoldProperties properties;
+    private final Clock clock;
+
+    private final ConcurrentMap<UUID, Registration> byId = new ConcurrentHashMap<>();
+    private final ConcurrentMap<UUID, ConcurrentNavigableMap<LocalDate, Hold>> byProperty = new ConcurrentHashMap<>();
+
+    public HoldRegistry(HashedTimingWheel timingWheel, HoldProperties properties, Clock clock) {
+        this.timingWheel = timingWheel;
+        this.properties = properties;
+        this.clock = clock;
+    }
+
+    public Hold place(BookingRequest request) {
+        Hold hold = new Hold(UUID.randomUUID(), request, clock.instant().plus(properties.getTtl()));
+        if (!register(hold)) {
+            throw new BookingException("Property is on hold for the selected dates");
+        }
+        log.debug("Placed hold {} on property {} until {}", hold.id(), hold.propertyId(), hold.expiresAt());
+        return hold;
+    }
+
+    public Optional<Hold> find(UUID holdId) {
+        Registration registration = byId.get(holdId);
+        if (registration == null || registration.hold().isExpired(clock.instant())) {
+            return Optional.empty();
+        }
+        return Optional.of(registration.hold());
+    }
+
+    public boolean isHeld(UUID propertyId, LocalDate startDate, LocalDate endDate) {
+        return isHeld(propertyId, startDate, endDate, null);
+    }
+
+    /**
+     * Checks the range against every live hold of the property but {@code excludeHoldId}.
+     */
+    public boolean isHeld(UUID propertyId, LocalDate startDate, LocalDate endDate, UUID excludeHoldId) {
+        ConcurrentNavigableMap<LocalDate, Hold> holds = byProperty.get(propertyId);
+        return holds != null && findOverlap(holds, startDate, endDate, clock.instant(), excludeHoldId) != null;
+    }
+
+    /**
+     * Removes a hold so its dates can be booked; returns empty when the hold is unknown or expired.
+     */
+    public Optional<Hold> take(UUID holdId) {
+        Registration registration = byId.remove(holdId);
+        if (registration == null) {
+            return Optional.empty();
+        }
+        registration.timeout().cancel();
+        unindex(registration.hold());
+        return registration.hold().isExpired(clock.instant()) ? Optional.empty() : Optional.of(registration.hold());
+    }
+
+    /**
+     * Marks a live hold as being confirmed and returns it; returns empty when the hold is unknown
+     * or expired. The hold stays placed: the caller {@link #take takes} it once the booking has
+     * committed, or calls {@link #endConfirm} if the booking could not be created.
+     */
+    public Optional<Hold> beginConfirm(UUID holdId) {
+        Registration registration = byId.get(holdId);
+        if (registration == null || registration.hold().isExpired(clock.instant())) {
+            return Optional.empty();
+        }
+        if (!registration.confirming().compareAndSet(false, true)) {
+            throw new BookingException("Hold is already being confirmed");
+        }
+        return Optional.of(registration.hold());
+    }
+
+    public void endConfirm(UUID holdId) {
+        Registration registration = byId.get(holdId);
+        if (registration != null) {
+            registration.confirming().set(false);
+        }
+    }
+
+    public int size() {
+        return byId.size();
+    }
+
+    private record Registration(Hold hold, HashedTimingWheel.Timeout timeout, AtomicBoolean confirming) {
+    }
+
+    private boolean register(Hold hold) {
+        boolean[] placed = new boolean[1];
+        byProperty.compute(hold.propertyId(), (propertyId, holds) -> {
+            ConcurrentNavigableMap<LocalDate, Hold> target = holds != null ? holds : new ConcurrentSkipListMap<>();
+            Instant now = clock.instant();
+            Hold overlap = findOverlap(target, hold.startDate(), hold.endDate(), now, null);
+            if (overlap == null) {
+                // Replaces an expired hold on the same start date whose timeout has not fired yet
+                target.put(hold.startDate(), hold);
+                byId.put(hold.id(), new Registration(hold, timingWheel.schedule(
+                        () -> expire(hold), Duration.between(now, hold.expiresAt())), new AtomicBoolean()));
+                placed[0] = true;
+            }
+            return target.isEmpty() ? null : target;
+        });
+        return placed[0];
+    }
+
+    private void expire(Hold hold) {
+        if (byId.remove(hold.id()) != null) {
+            unindex(hold);
+            log.debug("Hold {} on property {} expired", hold.id(), hold.propertyId());
+        }
+    }
+
+    private void unindex(Hold hold) {
+        byProperty.computeIfPresent(hold.propertyId(), (propertyId, holds) -> {
+            holds.remove(hold.startDate(), hold);
+            return holds.isEmpty() ? null : holds;
+        });
+    }
+
+    /**
+     * Live holds of a property do not overlap each other, so the live hold starting last on or
+     * before {@code endDate} is the only one that can overlap the range. Expired holds whose
+     * timeout has not fired yet are skipped on the way, and so is the excluded hold: the one live
+     * hold before it cannot reach past its start.
+     */
+    private static Hold findOverlap(ConcurrentNavigableMap<LocalDate, Hold> holds, LocalDate startDate,
+                                    LocalDate endDate, Instant now, UUID excludeHoldId) {
+        for (Hold hold : holds.headMap(endDate, true).descendingMap().values()) {
+            if (!hold.isExpired(now) && !hold.id().equals(excludeHoldId)) {
+                return hold.endDate().isBefore(startDate) ? null : hold;
+            }
+        }
+        return null;
+    }
+}
@@ -0,0 +1,37 @@
+package com.booking.model;
+
+import jakarta.persistence.*;
+import lombok.AllArgsConstructor;
+import lombok.Builder;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+import java.time.Instant;
+import java.time.LocalDate;
+import java.util.UUID;
+
+/**
+ * A block that ended before the archive horizon, moved out of the block table. Keeps the
+ * block's id.
+ */
+@Entity
+@Table(indexes = @Index(name = "idx_archived_block_property", columnList = "propertyId"))
+@Data
+@Builder
+@NoArgsConstructor
+@AllArgsConstructor
+public class ArchivedBlock {
+
+    @Id
+    private UUID id;
+
+    private UUID propertyId;
+
+    private LocalDate startDate;
+    private LocalDate endDate;
+    private String reason;
+
+    private Long version;
+
+    private Instant archivedAt;
+}
@@ -0,0 +1,43 @@
+package com.booking.model;
+
+import jakarta.persistence.*;
+import lombok.AllArgsConstructor;
+import lombok.Builder;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+import java.time.Instant;
+import java.time.LocalDate;
+import java.util.UUID;
+
+/**
+ * A booking whose stay ended before the archive horizon, moved out of the booking table so
+ * overlap checks and history lookups only touch current stays. Keeps the booking's id.
+ */
+@Entity
+@Table(indexes = {
+        @Index(name = "idx_archived_booking_property", columnList = "propertyId"),
+        @Index(name = "idx_archived_booking_guest", columnList = "guestId")
+})
+@Data
+@Builder
+@NoArgsConstructor
+@AllArgsConstructor
+public class ArchivedBooking {
+
+    @Id
+    private UUID id;
+
+    private UUID propertyId;
+    private UUID guestId;
+
+    private LocalDate startDate;
+    private LocalDate endDate;
+
+    @Enumerated(EnumType.STRING)
+    private BookingStatus status;
+
+    private Long version;
+
+    private Instant archivedAt;
+}
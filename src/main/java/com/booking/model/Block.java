@@ -4,15 +4,32 @@ import jakarta.persistence.Entity;
 import jakarta.persistence.GeneratedValue;
 import jakarta.persistence.GenerationType;
 import jakarta.persistence.Id;
+import jakarta.persistence.Index;
+import jakarta.persistence.Table;
+import jakarta.persistence.Version;
 import lombok.AllArgsConstructor;
 import lombok.Builder;
 import lombok.Data;
 import lombok.NoArgsConstructor;
+import org.hibernate.annotations.SQLDelete;
+import org.hibernate.annotations.SQLRestriction;
 
+import java.time.Instant;
 import java.time.LocalDate;
 import java.util.UUID;
 
+/**
+ * A period in which the owner has closed a property. Indexed by property and end date like
+ * {@link Booking}, so range queries skip past blocks. Deleted blocks are kept as tombstones
+ * like deleted bookings.
+ */
 @Entity
+@Table(indexes = {
+        @Index(name = "idx_block_property_end", columnList = "propertyId, endDate"),
+        @Index(name = "idx_block_deleted_at", columnList = "deletedAt")
+})
+@SQLDelete(sql = "UPDATE block SET deleted_at = CURRENT_TIMESTAMP, version = version + 1 WHERE id = ? AND version = ?")
+@SQLRestriction("deleted_at IS NULL")
 @Data
 @Builder
 @NoArgsConstructor
@@ -28,4 +45,9 @@ public class Block {
     private LocalDate startDate;
     private LocalDate endDate;
     private String reason;
+
+    @Version
+    private Long version;
+
+    private Instant deletedAt;
 }
\ No newline at end of file
@@ -5,11 +5,29 @@ import lombok.AllArgsConstructor;
 import lombok.Builder;
 import lombok.Data;
 import lombok.NoArgsConstructor;
+import org.hibernate.annotations.SQLDelete;
+import org.hibernate.annotations.SQLRestriction;
 
+import java.time.Instant;
 import java.time.LocalDate;
 import java.util.UUID;
 
+/**
+ * A stay of a guest at a property. Rows are indexed by property and end date, so a date range
+ * query seeks straight to the stays that end inside or after the range and never reads the
+ * property's older history.
+ * <p>
+ * Deleting a booking leaves a tombstone: the row is kept with {@code deletedAt} set, is hidden
+ * from every query, and is purged later by the tombstone compactor. {@code deletedAt} is indexed
+ * so the compactor finds old tombstones without scanning the live rows.
+ */
 @Entity
+@Table(indexes = {
+        @Index(name = "idx_booking_property_end", columnList = "propertyId, endDate"),
+        @Index(name = "idx_booking_deleted_at", columnList = "deletedAt")
+})
+@SQLDelete(sql = "UPDATE booking SET deleted_at = CURRENT_TIMESTAMP, version = version + 1 WHERE id = ? AND version = ?")
+@SQLRestriction("deleted_at IS NULL")
 @Data
 @Builder
 @NoArgsConstructor
@@ -28,4 +46,9 @@ public class Booking {
 
     @Enumerated(EnumType.STRING)
     private BookingStatus status;
+
+    @Version
+    private Long version;
+
+    private Instant deletedAt;
 }
\ No newline at end of file
@@ -0,0 +1,7 @@
+package com.booking.model;
+
+public enum ChangeEntityType {
+    BOOKING,
+    BLOCK,
+    RECURRING_BLOCK
+}
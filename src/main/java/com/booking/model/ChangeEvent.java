@@ -0,0 +1,48 @@
+package com.booking.model;
+
+import jakarta.persistence.*;
+import lombok.AllArgsConstructor;
+import lombok.Builder;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+import java.time.LocalDate;
+import java.time.LocalDateTime;
+import java.util.UUID;
+
+/**
+ * One entry of the change journal. Every booking and block mutation appends a row carrying
+ * a snapshot of the entity, so delta-sync consumers never need to re-read the source tables.
+ */
+@Entity
+@Table(indexes = @Index(name = "idx_change_event_property_seq", columnList = "propertyId, seq"))
+@Data
+@Builder
+@NoArgsConstructor
+@AllArgsConstructor
+public class ChangeEvent {
+
+    @Id
+    @GeneratedValue(strategy = GenerationType.IDENTITY)
+    private Long seq;
+
+    @Enumerated(EnumType.STRING)
+    private ChangeEntityType entityType;
+
+    @Enumerated(EnumType.STRING)
+    private ChangeOperation operation;
+
+    private UUID entityId;
+    private UUID propertyId;
+    private UUID guestId;
+
+    private LocalDate startDate;
+    private LocalDate endDate;
+
+    @Enumerated(EnumType.STRING)
+    private BookingStatus status;
+
+    private String reason;
+
+    private LocalDateTime changedAt;
+}
@@ -0,0 +1,8 @@
+package com.booking.model;
+
+public enum ChangeOperation {
+    CREATED,
+    UPDATED,
+    DELETED,
+    ARCHIVED
+}
@@ -0,0 +1,42 @@
+package com.booking.model;
+
+import jakarta.persistence.*;
+import lombok.AllArgsConstructor;
+import lombok.Builder;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+import java.io.Serializable;
+import java.time.LocalDate;
+import java.util.UUID;
+
+/**
+ * One night of a property claimed by a confirmed booking or a block. The primary key on
+ * (propertyId, night) lets the database reject double bookings even across app instances.
+ */
+@Entity
+@IdClass(OccupiedNight.Key.class)
+@Table(indexes = @Index(name = "idx_occupied_night_claim", columnList = "claimId"))
+@Data
+@Builder
+@NoArgsConstructor
+@AllArgsConstructor
+public class OccupiedNight {
+
+    @Id
+    private UUID propertyId;
+
+    @Id
+    private LocalDate night;
+
+    /** Id of the booking or block holding the night. */
+    private UUID claimId;
+
+    @Data
+    @NoArgsConstructor
+    @AllArgsConstructor
+    public static class Key implements Serializable {
+        private UUID propertyId;
+        private LocalDate night;
+    }
+}
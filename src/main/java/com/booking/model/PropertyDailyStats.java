@@ -0,0 +1,41 @@
+package com.booking.model;
+
+import jakarta.persistence.*;
+import lombok.AllArgsConstructor;
+import lombok.Builder;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+import java.io.Serializable;
+import java.time.LocalDate;
+import java.util.UUID;
+
+/**
+ * Rollup of one night of a property: how many confirmed bookings and blocks cover it. Kept up
+ * to date by every booking and block mutation, so stats never have to scan bookings or blocks.
+ */
+@Entity
+@IdClass(PropertyDailyStats.Key.class)
+@Data
+@Builder
+@NoArgsConstructor
+@AllArgsConstructor
+public class PropertyDailyStats {
+
+    @Id
+    private UUID propertyId;
+
+    @Id
+    private LocalDate night;
+
+    private int booked;
+    private int blocked;
+
+    @Data
+    @NoArgsConstructor
+    @AllArgsConstructor
+    public static class Key implements Serializable {
+        private UUID propertyId;
+        private LocalDate night;
+    }
+}
@@ -0,0 +1,29 @@
+package com.booking.model;
+
+import jakarta.persistence.Entity;
+import jakarta.persistence.Id;
+import lombok.AllArgsConstructor;
+import lombok.Builder;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+import java.util.UUID;
+
+/**
+ * Records the shard a property was last moved to. On shard 0 these entries form the directory
+ * that pins rebalanced properties; every other shard keeps the entries of the moves it took part
+ * in, so a write that reaches a shard the property has left can tell. Only used when sharding is
+ * enabled.
+ */
+@Entity
+@Data
+@Builder
+@NoArgsConstructor
+@AllArgsConstructor
+public class PropertyShard {
+
+    @Id
+    private UUID propertyId;
+
+    private int shard;
+}
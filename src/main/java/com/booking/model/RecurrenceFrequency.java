@@ -0,0 +1,7 @@
+package com.booking.model;
+
+public enum RecurrenceFrequency {
+    DAILY,
+    WEEKLY,
+    MONTHLY
+}
@@ -0,0 +1,67 @@
+package com.booking.model;
+
+import jakarta.persistence.*;
+import lombok.AllArgsConstructor;
+import lombok.Builder;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+import org.hibernate.annotations.SQLDelete;
+import org.hibernate.annotations.SQLRestriction;
+
+import java.time.Instant;
+import java.time.LocalDate;
+import java.util.UUID;
+
+/**
+ * A block that repeats by rule, stored as a single row. Occurrences are never materialized;
+ * see {@link com.booking.recurrence.RecurrenceRule} for how they are evaluated.
+ * <p>
+ * Deleting a recurring block leaves a tombstone, like bookings and blocks do.
+ */
+@Entity
+@Table(indexes = {
+        @Index(name = "idx_recurring_block_property_dates", columnList = "propertyId, startDate, lastBlockedDate"),
+        @Index(name = "idx_recurring_block_deleted_at", columnList = "deletedAt")
+})
+@SQLDelete(sql = "UPDATE recurring_block SET deleted_at = CURRENT_TIMESTAMP, version = version + 1 WHERE id = ? AND version = ?")
+@SQLRestriction("deleted_at IS NULL")
+@Data
+@Builder
+@NoArgsConstructor
+@AllArgsConstructor
+public class RecurringBlock {
+
+    @Id
+    @GeneratedValue(strategy = GenerationType.UUID)
+    private UUID id;
+
+    private UUID propertyId;
+
+    @Enumerated(EnumType.STRING)
+    private RecurrenceFrequency frequency;
+
+    /** Repeat every N days, weeks or months. */
+    private int repeatInterval;
+
+    /** Weekdays of weekly rules, one bit per {@link java.time.DayOfWeek} starting with Monday at bit 0. */
+    private int daysOfWeek;
+
+    /** First day the rule applies; also anchors the interval and, for monthly rules, the day of month. */
+    private LocalDate startDate;
+
+    /** Last day an occurrence may start. */
+    private LocalDate untilDate;
+
+    /** Number of days each occurrence blocks, counting its start day. */
+    private int durationDays;
+
+    /** Last day the rule can block, derived from the until date and the duration, for range queries. */
+    private LocalDate lastBlockedDate;
+
+    private String reason;
+
+    @Version
+    private Long version;
+
+    private Instant deletedAt;
+}
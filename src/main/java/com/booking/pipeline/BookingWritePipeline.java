@@ -0,0 +1,318 @@
+package com.booking.pipeline;
+
+import com.booking.dto.BookingRequest;
+import com.booking.dto.BookingResponse;
+import com.booking.exception.BookingException;
+import com.booking.exception.ResourceNotFoundException;
+import com.booking.exception.ServiceUnavailableException;
+import com.booking.model.Booking;
+import com.booking.model.BookingStatus;
+import com.booking.model.ChangeOperation;
+import com.booking.model.Guest;
+import com.booking.repository.BookingBatchRepository;
+import com.booking.service.ChangeLogService;
+import com.booking.service.GuestService;
+import com.booking.service.OccupancyClaimService;
+import com.booking.service.PropertyStatsService;
+import com.booking.service.ShardMoveFence;
+import com.booking.sharding.ShardContext;
+import com.booking.sharding.ShardRouter;
+import com.booking.validator.BookingValidator;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.UUID;
+import java.util.concurrent.BlockingQueue;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CompletionException;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.LinkedBlockingQueue;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.TimeoutException;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.function.Supplier;
+import java.util.stream.Collectors;
+
+/**
+ * Commits new bookings in groups. Callers validate their request on their own thread, then hand
+ * the booking to a single committer thread. The committer collects the bookings that arrive
+ * within a short window, re-checks them against the database and against each other, and in one
+ * transaction resolves the guests of the accepted ones and inserts the bookings, their night
+ * claims and their change events with one JDBC batch each. A guest is therefore only created
+ * along with its booking.
+ * <p>
+ * A caller that times out withdraws its booking if the committer has not taken it yet and fails
+ * with {@link ServiceUnavailableException}. Once taken, the booking may already be committing,
+ * so the caller waits for the outcome instead of reporting a failure that might not hold.
+ */
+@Slf4j
+public class BookingWritePipeline implements AutoCloseable {
+
+    private static final long IDLE_POLL_MILLIS = 100;
+
+    private final BookingValidator bookingValidator;
+    private final GuestService guestService;
+    private final BookingBatchRepository bookingBatchRepository;
+    private final OccupancyClaimService occupancyClaimService;
+    private final PropertyStatsService propertyStatsService;
+    private final ChangeLogService changeLogService;
+    private final ShardMoveFence shardMoveFence;
+    private final TransactionTemplate transactionTemplate;
+    private final WritePipelineProperties properties;
+    private final ShardRouter shardRouter;
+
+    private final BlockingQueue<PendingInsert> queue = new LinkedBlockingQueue<>();
+    private final Thread committer;
+    private volatile boolean running = true;
+
+    public BookingWritePipeline(BookingValidator bookingValidator, GuestService guestService,
+                                BookingBatchRepository bookingBatchRepository, OccupancyClaimService occupancyClaimService,
+                                PropertyStatsService propertyStatsService, ChangeLogService changeLogService,
+                                ShardMoveFence shardMoveFence, TransactionTemplate transactionTemplate,
+                                WritePipelineProperties properties, ShardRouter shardRouter) {
+        this.bookingValidator = bookingValidator;
+        this.guestService = guestService;
+        this.bookingBatchRepository = bookingBatchRepository;
+        this.occupancyClaimService = occupancyClaimService;
+        this.propertyStatsService = propertyStatsService;
+        this.changeLogService = changeLogService;
+        this.shardMoveFence = shardMoveFence;
+        this.transactionTemplate = transactionTemplate;
+        this.properties = properties;
+        this.shardRouter = shardRouter;
+        this.committer = Thread.ofPlatform().name("booking-write-pipeline").daemon().start(this::run);
+    }
+
+    public BookingResponse createBooking(BookingRequest request) {
+        log.info("Creating booking for property: {} and guest: {} through the write pipeline",
+                request.getPropertyId(), request.getGuestEmail());
+
+        onShard(request.getPropertyId(), () -> {
+            bookingValidator.validateBookingRequest(request);
+            return null;
+        });
+
+        Booking booking = Booking.builder()
+                .id(UUID.randomUUID())
+                .propertyId(request.getPropertyId())
+                .startDate(request.getStartDate())
+                .endDate(request.getEndDate())
+                .status(BookingStatus.CONFIRMED)
+                .version(0L)
+                .build();
+
+        PendingInsert pending = new PendingInsert(request, booking, new CompletableFuture<>(), new AtomicBoolean());
+        if (!running) {
+            throw new ServiceUnavailableException("Booking write pipeline is shut down");
+        }
+        queue.add(pending);
+        Guest guest = await(pending);
+        log.info("Booking created successfully with id: {}", booking.getId());
+
+        return BookingResponse.fromModel(booking, guest);
+    }
+
+    @Override
+    public void close() throws InterruptedException {
+        running = false;
+        committer.join(TimeUnit.SECONDS.toMillis(5));
+
+        PendingInsert pending;
+        while ((pending = queue.poll()) != null) {
+            pending.result().completeExceptionally(new ServiceUnavailableException("Booking write pipeline is shut down"));
+        }
+    }
+
+    /**
+     * A booking waiting to be committed. Whoever sets {@code taken} first owns it: the committer
+     * when it takes the booking into a batch, the caller when it gives up waiting.
+     */
+    private record PendingInsert(BookingRequest request, Booking booking, CompletableFuture<Guest> result,
+                                 AtomicBoolean taken) {
+
+        boolean take() {
+            return taken.compareAndSet(false, true);
+        }
+    }
+
+    private Guest await(PendingInsert pending) {
+        try {
+            return pending.result().get(properties.getSubmitTimeout().toMillis(), TimeUnit.MILLISECONDS);
+        } catch (ExecutionException e) {
+            throw unwrap(e);
+        } catch (TimeoutException e) {
+            withdraw(pending, "Timed out waiting for booking " + pending.booking().getId() + " to be committed");
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            withdraw(pending, "Interrupted while waiting for booking " + pending.booking().getId());
+        }
+
+        // The committer took the booking first, so it may commit; report the outcome rather than guess
+        try {
+            return pending.result().join();
+        } catch (CompletionException e) {
+            throw unwrap(e);
+        }
+    }
+
+    private void withdraw(PendingInsert pending, String message) {
+        if (pending.take()) {
+            queue.remove(pending);
+            throw new ServiceUnavailableException(message);
+        }
+    }
+
+    private static RuntimeException unwrap(Exception e) {
+        if (e.getCause() instanceof RuntimeException runtimeException) {
+            return runtimeException;
+        }
+        return new IllegalStateException(e.getCause());
+    }
+
+    private void run() {
+        while (running) {
+            List<PendingInsert> batch = List.of();
+            try {
+                batch = nextBatch();
+                if (!batch.isEmpty()) {
+                    commit(batch);
+                }
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+                return;
+            } catch (RuntimeException e) {
+                log.error("Booking write pipeline failed to commit a batch", e);
+                // Taken bookings are waited on without a timeout, so each of them must get an outcome
+                batch.forEach(pending -> pending.result().completeExceptionally(e));
+            }
+        }
+    }
+
+    private List<PendingInsert> nextBatch() throws InterruptedException {
+        PendingInsert first = nextTaken(TimeUnit.MILLISECONDS.toNanos(IDLE_POLL_MILLIS));
+        if (first == null) {
+            return List.of();
+        }
+
+        List<PendingInsert> batch = new ArrayList<>();
+        batch.add(first);
+        long deadline = System.nanoTime() + properties.getWindow().toNanos();
+        while (batch.size() < properties.getMaxBatchSize()) {
+            // Once the window has closed, still take whatever is already queued
+            PendingInsert next = nextTaken(deadline - System.nanoTime());
+            if (next == null) {
+                break;
+            }
+            batch.add(next);
+        }
+        return batch;
+    }
+
+    /**
+     * Polls the next booking its caller has not withdrawn, waiting up to {@code timeoutNanos}.
+     */
+    private PendingInsert nextTaken(long timeoutNanos) throws InterruptedException {
+        long deadline = System.nanoTime() + timeoutNanos;
+        while (true) {
+            long remaining = deadline - System.nanoTime();
+            PendingInsert next = remaining > 0 ? queue.poll(remaining, TimeUnit.NANOSECONDS) : queue.poll();
+            if (next == null || next.take()) {
+                return next;
+            }
+        }
+    }
+
+    private void commit(List<PendingInsert> batch) {
+        if (shardRouter == null) {
+            commitGroup(batch);
+            return;
+        }
+
+        Map<Integer, List<PendingInsert>> byShard = batch.stream()
+                .collect(Collectors.groupingBy(pending -> shardRouter.shardFor(pending.booking().getPropertyId()),
+                        LinkedHashMap::new, Collectors.toList()));
+        byShard.forEach((shard, group) -> ShardContext.callOn(shard, () -> {
+            commitGroup(group);
+            return null;
+        }));
+    }
+
+    private void commitGroup(List<PendingInsert> group) {
+        Map<PendingInsert, Guest> accepted = new LinkedHashMap<>();
+        Map<PendingInsert, RuntimeException> rejected = new LinkedHashMap<>();
+
+        try {
+            transactionTemplate.executeWithoutResult(status -> {
+                shardMoveFence.enter(group.stream().map(pending -> pending.booking().getPropertyId()).distinct().toList());
+                for (PendingInsert pending : group) {
+                    RuntimeException conflict = findConflict(pending.booking(), accepted.keySet());
+                    if (conflict != null) {
+                        rejected.put(pending, conflict);
+                    } else {
+                        accepted.put(pending, null);
+                    }
+                }
+                if (accepted.isEmpty()) {
+                    return;
+                }
+
+                accepted.replaceAll((pending, guest) -> guestService.getOrCreateGuest(pending.request()));
+                accepted.forEach((pending, guest) -> pending.booking().setGuestId(guest.getId()));
+                List<Booking> bookings = accepted.keySet().stream().map(PendingInsert::booking).toList();
+                bookingBatchRepository.insertAll(bookings);
+                propertyStatsService.addBookings(bookings);
+                occupancyClaimService.claimBookings(bookings);
+                changeLogService.recordBookingChanges(bookings, ChangeOperation.CREATED);
+            });
+        } catch (RuntimeException e) {
+            if (group.size() == 1) {
+                group.get(0).result().completeExceptionally(e);
+                return;
+            }
+            // Something failed for the group as a whole; commit each booking on its own so only the culprit fails
+            log.debug("Group commit of {} bookings failed, committing them one by one", group.size(), e);
+            group.forEach(pending -> commitGroup(List.of(pending)));
+            return;
+        }
+
+        if (group.size() > 1) {
+            log.debug("Committed {} bookings in one transaction ({} rejected)", accepted.size(), rejected.size());
+        }
+        accepted.forEach((pending, guest) -> pending.result().complete(guest));
+        rejected.forEach((pending, failure) -> pending.result().completeExceptionally(failure));
+    }
+
+    /**
+     * Re-checks a booking inside the commit transaction: other writers may have taken its dates
+     * since the caller validated it, and bookings earlier in the same batch may overlap it.
+     */
+    private RuntimeException findConflict(Booking booking, Collection<PendingInsert> accepted) {
+        boolean overlapsBatch = accepted.stream()
+                .map(PendingInsert::booking)
+                .anyMatch(other -> other.getPropertyId().equals(booking.getPropertyId())
+                        && !other.getStartDate().isAfter(booking.getEndDate())
+                        && !other.getEndDate().isBefore(booking.getStartDate()));
+        if (overlapsBatch) {
+            return new BookingException("Property is already booked for the selected dates");
+        }
+
+        try {
+            bookingValidator.validateNoConflicts(booking.getPropertyId(), booking.getStartDate(), booking.getEndDate());
+            return null;
+        } catch (BookingException | ResourceNotFoundException e) {
+            return e;
+        }
+    }
+
+    private <T> T onShard(UUID propertyId, Supplier<T> action) {
+        if (shardRouter == null) {
+            return action.get();
+        }
+        return ShardContext.callOn(shardRouter.shardFor(propertyId), action);
+    }
+}
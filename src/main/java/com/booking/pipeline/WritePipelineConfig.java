@@ -0,0 +1,34 @@
+package com.booking.pipeline;
+
+import com.booking.repository.BookingBatchRepository;
+import com.booking.service.ChangeLogService;
+import com.booking.service.GuestService;
+import com.booking.service.OccupancyClaimService;
+import com.booking.service.PropertyStatsService;
+import com.booking.service.ShardMoveFence;
+import com.booking.sharding.ShardRouter;
+import com.booking.validator.BookingValidator;
+import org.springframework.beans.factory.ObjectProvider;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.boot.context.properties.EnableConfigurationProperties;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.support.TransactionTemplate;
+
+@Configuration
+@EnableConfigurationProperties(WritePipelineProperties.class)
+@ConditionalOnProperty(prefix = "booking.write-pipeline", name = "enabled", havingValue = "true")
+public class WritePipelineConfig {
+
+    @Bean
+    public BookingWritePipeline bookingWritePipeline(
+            BookingValidator bookingValidator, GuestService guestService, BookingBatchRepository bookingBatchRepository,
+            OccupancyClaimService occupancyClaimService, PropertyStatsService propertyStatsService,
+            ChangeLogService changeLogService, ShardMoveFence shardMoveFence, PlatformTransactionManager transactionManager,
+            WritePipelineProperties properties, ObjectProvider<ShardRouter> shardRouter) {
+        return new BookingWritePipeline(bookingValidator, guestService, bookingBatchRepository, occupancyClaimService,
+                propertyStatsService, changeLogService, shardMoveFence, new TransactionTemplate(transactionManager), properties,
+                shardRouter.getIfAvailable());
+    }
+}
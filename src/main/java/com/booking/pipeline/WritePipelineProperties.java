@@ -0,0 +1,22 @@
+package com.booking.pipeline;
+
+import lombok.Data;
+import org.springframework.boot.context.properties.ConfigurationProperties;
+
+import java.time.Duration;
+
+@Data
+@ConfigurationProperties(prefix = "booking.write-pipeline")
+public class WritePipelineProperties {
+
+    private boolean enabled;
+
+    /** How long the pipeline keeps collecting after the first insert of a batch arrives. */
+    private Duration window = Duration.ofNanos(500_000);
+
+    /** Most inserts committed together; a full batch is committed without waiting for the window. */
+    private int maxBatchSize = 128;
+
+    /** How long a caller waits for its insert to be committed before giving up. */
+    private Duration submitTimeout = Duration.ofSeconds(10);
+}
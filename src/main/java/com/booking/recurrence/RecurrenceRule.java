@@ -0,0 +1,178 @@
+package com.booking.recurrence;
+
+import com.booking.model.RecurrenceFrequency;
+import com.booking.model.RecurringBlock;
+
+import java.time.DayOfWeek;
+import java.time.LocalDate;
+import java.time.YearMonth;
+import java.time.temporal.ChronoUnit;
+import java.time.temporal.TemporalAdjusters;
+import java.util.BitSet;
+import java.util.EnumSet;
+import java.util.Iterator;
+import java.util.NoSuchElementException;
+import java.util.Set;
+
+/**
+ * Evaluates a recurring block without expanding it. The next occurrence on or after any date is
+ * computed arithmetically (daily and weekly rules in constant time, monthly rules skip months
+ * that lack the day), so an overlap check costs one such step however long the rule runs, and
+ * the occurrence iterator only ever produces the occurrences inside the requested range.
+ */
+public final class RecurrenceRule {
+
+    private final RecurrenceFrequency frequency;
+    private final int interval;
+    private final int daysOfWeek;
+    private final LocalDate startDate;
+    private final LocalDate untilDate;
+    private final int durationDays;
+
+    private RecurrenceRule(RecurrenceFrequency frequency, int interval, int daysOfWeek, LocalDate startDate,
+                           LocalDate untilDate, int durationDays) {
+        this.frequency = frequency;
+        this.interval = interval;
+        this.daysOfWeek = frequency == RecurrenceFrequency.WEEKLY && daysOfWeek == 0
+                ? toMask(EnumSet.of(startDate.getDayOfWeek()))
+                : daysOfWeek;
+        this.startDate = startDate;
+        this.untilDate = untilDate;
+        this.durationDays = durationDays;
+    }
+
+    public static RecurrenceRule of(RecurringBlock block) {
+        return new RecurrenceRule(block.getFrequency(), block.getRepeatInterval(), block.getDaysOfWeek(),
+                block.getStartDate(), block.getUntilDate(), block.getDurationDays());
+    }
+
+    public static int toMask(Set<DayOfWeek> days) {
+        int mask = 0;
+        for (DayOfWeek day : days) {
+            mask |= 1 << (day.getValue() - 1);
+        }
+        return mask;
+    }
+
+    public static Set<DayOfWeek> fromMask(int mask) {
+        Set<DayOfWeek> days = EnumSet.noneOf(DayOfWeek.class);
+        for (DayOfWeek day : DayOfWeek.values()) {
+            if ((mask & (1 << (day.getValue() - 1))) != 0) {
+                days.add(day);
+            }
+        }
+        return days;
+    }
+
+    /** Last day any occurrence can cover. */
+    public LocalDate lastBlockedDate() {
+        return untilDate.plusDays(durationDays - 1L);
+    }
+
+    public boolean overlaps(LocalDate from, LocalDate to) {
+        LocalDate start = firstStartOnOrAfter(from.minusDays(durationDays - 1L));
+        return start != null && !start.isAfter(to);
+    }
+
+    /**
+     * Iterates the occurrences that cover at least one day of {@code [from, to]}, in order.
+     */
+    public Iterator<Occurrence> occurrences(LocalDate from, LocalDate to) {
+        return new Iterator<>() {
+
+            private LocalDate next = firstStartOnOrAfter(from.minusDays(durationDays - 1L));
+
+            @Override
+            public boolean hasNext() {
+                return next != null && !next.isAfter(to);
+            }
+
+            @Override
+            public Occurrence next() {
+                if (!hasNext()) {
+                    throw new NoSuchElementException();
+                }
+                Occurrence occurrence = new Occurrence(next, next.plusDays(durationDays - 1L));
+                next = firstStartOnOrAfter(next.plusDays(1));
+                return occurrence;
+            }
+        };
+    }
+
+    /**
+     * Sets the bits of the days in {@code [from, from + days)} that an occurrence covers.
+     */
+    public void markBlockedDays(BitSet blocked, LocalDate from, int days) {
+        Iterator<Occurrence> occurrences = occurrences(from, from.plusDays(days - 1L));
+        while (occurrences.hasNext()) {
+            Occurrence occurrence = occurrences.next();
+            int first = (int) Math.max(0, ChronoUnit.DAYS.between(from, occurrence.startDate()));
+            int last = (int) Math.min(days - 1L, ChronoUnit.DAYS.between(from, occurrence.endDate()));
+            blocked.set(first, last + 1);
+        }
+    }
+
+    /**
+     * First occurrence start on or after {@code date}, or null when the rule has ended by then.
+     */
+    public LocalDate firstStartOnOrAfter(LocalDate date) {
+        LocalDate from = date.isBefore(startDate) ? startDate : date;
+        if (from.isAfter(untilDate)) {
+            return null;
+        }
+        LocalDate start = switch (frequency) {
+            case DAILY -> nextDaily(from);
+            case WEEKLY -> nextWeekly(from);
+            case MONTHLY -> nextMonthly(from);
+        };
+        return start == null || start.isAfter(untilDate) ? null : start;
+    }
+
+    private LocalDate nextDaily(LocalDate from) {
+        long periods = Math.ceilDiv(ChronoUnit.DAYS.between(startDate, from), interval);
+        return startDate.plusDays(periods * interval);
+    }
+
+    private LocalDate nextWeekly(LocalDate from) {
+        LocalDate anchor = startDate.with(TemporalAdjusters.previousOrSame(DayOfWeek.MONDAY));
+        long week = ChronoUnit.WEEKS.between(anchor, from.with(TemporalAdjusters.previousOrSame(DayOfWeek.MONDAY)));
+        LocalDate day = from;
+        if (week % interval != 0) {
+            week += interval - week % interval;
+            day = anchor.plusWeeks(week);
+        }
+
+        // The mask is never empty, so the matching week after this one always has an occurrence
+        for (int round = 0; round < 2; round++) {
+            for (LocalDate candidate = day; candidate.getDayOfWeek() != DayOfWeek.MONDAY || candidate.equals(day);
+                 candidate = candidate.plusDays(1)) {
+                if ((daysOfWeek & (1 << (candidate.getDayOfWeek().getValue() - 1))) != 0) {
+                    return candidate;
+                }
+            }
+            week += interval;
+            day = anchor.plusWeeks(week);
+        }
+        return null;
+    }
+
+    private LocalDate nextMonthly(LocalDate from) {
+        int dayOfMonth = startDate.getDayOfMonth();
+        YearMonth first = YearMonth.from(startDate);
+        long months = Math.ceilDiv(ChronoUnit.MONTHS.between(first, YearMonth.from(from)), interval) * (long) interval;
+
+        // Months without the start's day of month (the 31st, say) have no occurrence
+        for (YearMonth month = first.plusMonths(months); !month.atDay(1).isAfter(untilDate); month = month.plusMonths(interval)) {
+            if (month.isValidDay(dayOfMonth)) {
+                LocalDate candidate = month.atDay(dayOfMonth);
+                if (!candidate.isBefore(from)) {
+                    return candidate;
+                }
+            }
+        }
+        return null;
+    }
+
+    public record Occurrence(LocalDate startDate, LocalDate endDate) {
+    }
+}
@@ -0,0 +1,100 @@
+package com.booking.repository;
+
+import com.booking.model.Block;
+import com.booking.model.Booking;
+import com.booking.model.BookingStatus;
+import lombok.RequiredArgsConstructor;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.stereotype.Repository;
+
+import java.time.Instant;
+import java.time.LocalDate;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.UUID;
+
+/**
+ * Moves ended bookings and blocks into their archive tables in batches: a batch of rows is
+ * picked and locked, copied with one JDBC batch and deleted with another, inside the caller's
+ * transaction. Copy and delete check the cutoff again, so a row whose end date moved past it
+ * since it was picked stays where it is.
+ */
+@Repository
+@RequiredArgsConstructor
+public class ArchiveBatchRepository {
+
+    private final JdbcTemplate jdbcTemplate;
+
+    public List<Booking> findEndedBookings(LocalDate before, int limit) {
+        return jdbcTemplate.query(
+                "SELECT id, property_id, guest_id, start_date, end_date, status, version FROM booking " +
+                "WHERE end_date < ? AND deleted_at IS NULL LIMIT ? FOR UPDATE",
+                (rs, rowNum) -> Booking.builder()
+                        .id(rs.getObject(1, UUID.class))
+                        .propertyId(rs.getObject(2, UUID.class))
+                        .guestId(rs.getObject(3, UUID.class))
+                        .startDate(rs.getObject(4, LocalDate.class))
+                        .endDate(rs.getObject(5, LocalDate.class))
+                        .status(BookingStatus.valueOf(rs.getString(6)))
+                        .version(rs.getObject(7, Long.class))
+                        .build(),
+                before, limit);
+    }
+
+    public List<Block> findEndedBlocks(LocalDate before, int limit) {
+        return jdbcTemplate.query(
+                "SELECT id, property_id, start_date, end_date, reason, version FROM block " +
+                "WHERE end_date < ? AND deleted_at IS NULL LIMIT ? FOR UPDATE",
+                (rs, rowNum) -> Block.builder()
+                        .id(rs.getObject(1, UUID.class))
+                        .propertyId(rs.getObject(2, UUID.class))
+                        .startDate(rs.getObject(3, LocalDate.class))
+                        .endDate(rs.getObject(4, LocalDate.class))
+                        .reason(rs.getString(5))
+                        .version(rs.getObject(6, Long.class))
+                        .build(),
+                before, limit);
+    }
+
+    /**
+     * Moves the bookings that still ended before {@code before} and returns the ids of those moved.
+     */
+    public List<UUID> moveBookings(List<UUID> bookingIds, LocalDate before, Instant archivedAt) {
+        int[] copied = jdbcTemplate.batchUpdate(
+                "INSERT INTO archived_booking (id, property_id, guest_id, start_date, end_date, status, version, archived_at) " +
+                "SELECT id, property_id, guest_id, start_date, end_date, status, version, ? FROM booking " +
+                "WHERE id = ? AND end_date < ? AND deleted_at IS NULL",
+                bookingIds.stream().map(id -> new Object[]{archivedAt, id, before}).toList());
+        List<UUID> moved = copiedIds(bookingIds, copied);
+        jdbcTemplate.batchUpdate(
+                "DELETE FROM booking WHERE id = ? AND end_date < ? AND deleted_at IS NULL",
+                moved.stream().map(id -> new Object[]{id, before}).toList());
+        return moved;
+    }
+
+    /**
+     * Moves the blocks that still ended before {@code before} and returns the ids of those moved.
+     */
+    public List<UUID> moveBlocks(List<UUID> blockIds, LocalDate before, Instant archivedAt) {
+        int[] copied = jdbcTemplate.batchUpdate(
+                "INSERT INTO archived_block (id, property_id, start_date, end_date, reason, version, archived_at) " +
+                "SELECT id, property_id, start_date, end_date, reason, version, ? FROM block " +
+                "WHERE id = ? AND end_date < ? AND deleted_at IS NULL",
+                blockIds.stream().map(id -> new Object[]{archivedAt, id, before}).toList());
+        List<UUID> moved = copiedIds(blockIds, copied);
+        jdbcTemplate.batchUpdate(
+                "DELETE FROM block WHERE id = ? AND end_date < ? AND deleted_at IS NULL",
+                moved.stream().map(id -> new Object[]{id, before}).toList());
+        return moved;
+    }
+
+    private List<UUID> copiedIds(List<UUID> ids, int[] counts) {
+        List<UUID> copied = new ArrayList<>(ids.size());
+        for (int i = 0; i < counts.length; i++) {
+            if (counts[i] > 0) {
+                copied.add(ids.get(i));
+            }
+        }
+        return copied;
+    }
+}
@@ -0,0 +1,14 @@
+package com.booking.repository;
+
+import com.booking.model.ArchivedBlock;
+import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.stereotype.Repository;
+
+import java.util.List;
+import java.util.UUID;
+
+@Repository
+public interface ArchivedBlockRepository extends JpaRepository<ArchivedBlock, UUID> {
+
+    List<ArchivedBlock> findByPropertyId(UUID propertyId);
+}
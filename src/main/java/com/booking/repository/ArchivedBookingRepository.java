@@ -0,0 +1,16 @@
+package com.booking.repository;
+
+import com.booking.model.ArchivedBooking;
+import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.stereotype.Repository;
+
+import java.util.List;
+import java.util.UUID;
+
+@Repository
+public interface ArchivedBookingRepository extends JpaRepository<ArchivedBooking, UUID> {
+
+    List<ArchivedBooking> findByPropertyId(UUID propertyId);
+
+    List<ArchivedBooking> findByGuestId(UUID guestId);
+}
@@ -0,0 +1,133 @@
+package com.booking.repository;
+
+import lombok.RequiredArgsConstructor;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.stereotype.Repository;
+
+import java.sql.Array;
+import java.time.LocalDate;
+import java.util.Collection;
+import java.util.UUID;
+
+/**
+ * Reads every property together with its occupied intervals (confirmed bookings and blocks)
+ * in a single forward-only pass, ordered by property id, so the caller can encode one
+ * property at a time without holding the whole result set in memory. The same pass can be
+ * limited to a list of properties, and the occupied intervals of a single property can also be
+ * read ordered by start date.
+ */
+@Repository
+@RequiredArgsConstructor
+public class AvailabilityMatrixRepository {
+
+    private static final int FETCH_SIZE = 1000;
+
+    private static final String OCCUPIED_INTERVALS_SQL =
+            "SELECT p.id, o.start_date, o.end_date FROM property p " +
+            "LEFT JOIN (" +
+            "  SELECT property_id, start_date, end_date FROM booking " +
+            "  WHERE status = 'CONFIRMED' AND start_date <= ? AND end_date >= ? AND deleted_at IS NULL " +
+            "  UNION ALL " +
+            "  SELECT property_id, start_date, end_date FROM block " +
+            "  WHERE start_date <= ? AND end_date >= ? AND deleted_at IS NULL" +
+            ") o ON o.property_id = p.id " +
+            "ORDER BY p.id";
+
+    private static final String SELECTED_OCCUPIED_INTERVALS_SQL =
+            "SELECT p.id, o.start_date, o.end_date FROM property p " +
+            "LEFT JOIN (" +
+            "  SELECT property_id, start_date, end_date FROM booking " +
+            "  WHERE property_id = ANY(?) AND status = 'CONFIRMED' AND start_date <= ? AND end_date >= ? " +
+            "  AND deleted_at IS NULL " +
+            "  UNION ALL " +
+            "  SELECT property_id, start_date, end_date FROM block " +
+            "  WHERE property_id = ANY(?) AND start_date <= ? AND end_date >= ? AND deleted_at IS NULL" +
+            ") o ON o.property_id = p.id " +
+            "WHERE p.id = ANY(?) " +
+            "ORDER BY p.id";
+
+    private static final String PROPERTY_OCCUPIED_INTERVALS_SQL =
+            "SELECT start_date, end_date FROM booking " +
+            "WHERE property_id = ? AND status = 'CONFIRMED' AND end_date >= ? AND deleted_at IS NULL " +
+            "UNION ALL " +
+            "SELECT start_date, end_date FROM block " +
+            "WHERE property_id = ? AND end_date >= ? AND deleted_at IS NULL " +
+            "ORDER BY start_date";
+
+    private final JdbcTemplate jdbcTemplate;
+
+    public void forEachOccupiedInterval(LocalDate from, LocalDate to, OccupiedIntervalHandler handler) {
+        jdbcTemplate.query(
+                connection -> {
+                    var statement = connection.prepareStatement(OCCUPIED_INTERVALS_SQL);
+                    statement.setFetchSize(FETCH_SIZE);
+                    statement.setObject(1, to);
+                    statement.setObject(2, from);
+                    statement.setObject(3, to);
+                    statement.setObject(4, from);
+                    return statement;
+                },
+                rs -> {
+                    handler.handle(
+                            rs.getObject(1, UUID.class),
+                            rs.getObject(2, LocalDate.class),
+                            rs.getObject(3, LocalDate.class));
+                });
+    }
+
+    /**
+     * Like {@link #forEachOccupiedInterval(LocalDate, LocalDate, OccupiedIntervalHandler)}, but only
+     * for the given properties; ids of properties that do not exist are skipped.
+     */
+    public void forEachOccupiedInterval(Collection<UUID> propertyIds, LocalDate from, LocalDate to,
+                                        OccupiedIntervalHandler handler) {
+        jdbcTemplate.query(
+                connection -> {
+                    Array ids = connection.createArrayOf("UUID", propertyIds.toArray());
+                    var statement = connection.prepareStatement(SELECTED_OCCUPIED_INTERVALS_SQL);
+                    statement.setFetchSize(FETCH_SIZE);
+                    statement.setArray(1, ids);
+                    statement.setObject(2, to);
+                    statement.setObject(3, from);
+                    statement.setArray(4, ids);
+                    statement.setObject(5, to);
+                    statement.setObject(6, from);
+                    statement.setArray(7, ids);
+                    return statement;
+                },
+                rs -> {
+                    handler.handle(
+                            rs.getObject(1, UUID.class),
+                            rs.getObject(2, LocalDate.class),
+                            rs.getObject(3, LocalDate.class));
+                });
+    }
+
+    public void forEachOccupiedInterval(UUID propertyId, LocalDate from, OccupiedIntervalHandler handler) {
+        jdbcTemplate.query(
+                connection -> {
+                    var statement = connection.prepareStatement(PROPERTY_OCCUPIED_INTERVALS_SQL);
+                    statement.setFetchSize(FETCH_SIZE);
+                    statement.setObject(1, propertyId);
+                    statement.setObject(2, from);
+                    statement.setObject(3, propertyId);
+                    statement.setObject(4, from);
+                    return statement;
+                },
+                rs -> {
+                    handler.handle(
+                            propertyId,
+                            rs.getObject(1, LocalDate.class),
+                            rs.getObject(2, LocalDate.class));
+                });
+    }
+
+    @FunctionalInterface
+    public interface OccupiedIntervalHandler {
+        /**
+         * Called once per interval; {@code startDate} and {@code endDate} are null for a property
+         * with nothing booked or blocked in the requested window.
+         */
+        void handle(UUID propertyId, LocalDate startDate, LocalDate endDate);
+    }
+}
@@ -0,0 +1,52 @@
+package com.booking.repository;
+
+import com.booking.model.Block;
+import lombok.RequiredArgsConstructor;
+import org.springframework.dao.OptimisticLockingFailureException;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.stereotype.Repository;
+
+import java.util.List;
+
+@Repository
+@RequiredArgsConstructor
+public class BlockBatchRepository {
+
+    private final JdbcTemplate jdbcTemplate;
+
+    /**
+     * Inserts blocks whose ids are already assigned in a single JDBC batch.
+     */
+    public void insertAll(List<Block> blocks) {
+        jdbcTemplate.batchUpdate(
+                "INSERT INTO block (id, property_id, start_date, end_date, reason, version) VALUES (?, ?, ?, ?, ?, ?)",
+                blocks.stream()
+                        .map(block -> new Object[]{
+                                block.getId(),
+                                block.getPropertyId(),
+                                block.getStartDate(),
+                                block.getEndDate(),
+                                block.getReason(),
+                                block.getVersion()})
+                        .toList());
+    }
+
+    /**
+     * Turns blocks into tombstones in a single JDBC batch, the same way deleting one through
+     * JPA does: a block changed since it was read is not deleted and fails the whole batch.
+     */
+    public void softDeleteAll(List<Block> blocks) {
+        int[] counts = jdbcTemplate.batchUpdate(
+                "UPDATE block SET deleted_at = CURRENT_TIMESTAMP, version = version + 1 " +
+                "WHERE id = ? AND version = ? AND deleted_at IS NULL",
+                blocks.stream()
+                        .map(block -> new Object[]{block.getId(), block.getVersion()})
+                        .toList());
+        for (int i = 0; i < counts.length; i++) {
+            if (counts[i] == 0) {
+                throw new OptimisticLockingFailureException(
+                        "Block " + blocks.get(i).getId() + " was changed or deleted concurrently");
+            }
+        }
+    }
+}
@@ -0,0 +1,67 @@
+package com.booking.repository;
+
+import com.booking.dto.BlockResponse;
+import com.booking.dto.SparseFieldset;
+import lombok.RequiredArgsConstructor;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.stereotype.Repository;
+
+import java.sql.ResultSet;
+import java.sql.SQLException;
+import java.time.LocalDate;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+import java.util.UUID;
+
+/**
+ * Lists blocks with only the columns a sparse fieldset asks for, together with archived blocks
+ * when asked for.
+ */
+@Repository
+@RequiredArgsConstructor
+public class BlockProjectionRepository {
+
+    private static final Map<String, String> COLUMNS = Map.of(
+            "id", "id",
+            "propertyId", "property_id",
+            "startDate", "start_date",
+            "endDate", "end_date",
+            "reason", "reason",
+            "version", "version");
+
+    private final JdbcTemplate jdbcTemplate;
+
+    public List<BlockResponse> findByPropertyId(UUID propertyId, boolean includeArchived, SparseFieldset fields) {
+        List<String> selected = fields.fields().stream().filter(COLUMNS::containsKey).toList();
+        String sql = select(selected, "block", "FALSE") + " WHERE property_id = ? AND deleted_at IS NULL";
+        if (!includeArchived) {
+            return jdbcTemplate.query(sql, (rs, rowNum) -> mapRow(rs, selected), propertyId);
+        }
+        sql += " UNION ALL " + select(selected, "archived_block", "TRUE") + " WHERE property_id = ?";
+        return jdbcTemplate.query(sql, (rs, rowNum) -> mapRow(rs, selected), propertyId, propertyId);
+    }
+
+    private static String select(List<String> selected, String table, String archived) {
+        List<String> columns = new ArrayList<>(selected.stream().map(COLUMNS::get).toList());
+        columns.add(archived);
+        return "SELECT " + String.join(", ", columns) + " FROM " + table;
+    }
+
+    private static BlockResponse mapRow(ResultSet rs, List<String> selected) throws SQLException {
+        BlockResponse.BlockResponseBuilder block = BlockResponse.builder();
+        for (int i = 0; i < selected.size(); i++) {
+            int column = i + 1;
+            switch (selected.get(i)) {
+                case "id" -> block.id(rs.getObject(column, UUID.class));
+                case "propertyId" -> block.propertyId(rs.getObject(column, UUID.class));
+                case "startDate" -> block.startDate(rs.getObject(column, LocalDate.class));
+                case "endDate" -> block.endDate(rs.getObject(column, LocalDate.class));
+                case "reason" -> block.reason(rs.getString(column));
+                case "version" -> block.version(rs.getLong(column));
+                default -> throw new IllegalStateException("No column for field " + selected.get(i));
+            }
+        }
+        return block.archived(rs.getBoolean(selected.size() + 1)).build();
+    }
+}
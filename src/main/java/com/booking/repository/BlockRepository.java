@@ -7,6 +7,7 @@ import org.springframework.data.repository.query.Param;
 import org.springframework.stereotype.Repository;
 
 import java.time.LocalDate;
+import java.util.Collection;
 import java.util.List;
 import java.util.UUID;
 
@@ -14,6 +15,8 @@ import java.util.UUID;
 public interface BlockRepository extends JpaRepository<Block, UUID> {
     
     List<Block> findByPropertyId(UUID propertyId);
+
+    List<Block> findByPropertyIdAndEndDateGreaterThanEqual(UUID propertyId, LocalDate date);
     
     @Query("SELECT b FROM Block b WHERE b.propertyId = :propertyId " +
            "AND ((b.startDate <= :endDate AND b.endDate >= :startDate))")
@@ -22,4 +25,20 @@ public interface BlockRepository extends JpaRepository<Block, UUID> {
         @Param("startDate") LocalDate startDate,
         @Param("endDate") LocalDate endDate
     );
+
+    @Query("SELECT DISTINCT b.propertyId FROM Block b WHERE b.propertyId IN :propertyIds " +
+           "AND b.startDate <= :endDate AND b.endDate >= :startDate")
+    List<UUID> findBlockedPropertyIds(
+        @Param("propertyIds") Collection<UUID> propertyIds,
+        @Param("startDate") LocalDate startDate,
+        @Param("endDate") LocalDate endDate
+    );
+
+    @Query("SELECT b FROM Block b WHERE b.propertyId IN :propertyIds " +
+           "AND b.startDate >= :startDate AND b.endDate <= :endDate")
+    List<Block> findWithinRange(
+        @Param("propertyIds") Collection<UUID> propertyIds,
+        @Param("startDate") LocalDate startDate,
+        @Param("endDate") LocalDate endDate
+    );
 }
@@ -0,0 +1,78 @@
+package com.booking.repository;
+
+import com.booking.model.Booking;
+import com.booking.model.BookingStatus;
+import com.booking.model.Guest;
+import lombok.RequiredArgsConstructor;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.stereotype.Repository;
+
+import java.time.LocalDate;
+import java.util.List;
+import java.util.UUID;
+
+@Repository
+@RequiredArgsConstructor
+public class BookingBatchRepository {
+
+    // The data change delta table returns the rows as the UPDATE left them (UPDATE ... RETURNING elsewhere)
+    private static final String CANCEL_OVERLAPPING_SQL =
+            "SELECT b.id, b.property_id, b.guest_id, b.start_date, b.end_date, b.status, b.version, " +
+            "g.first_name, g.last_name, g.email " +
+            "FROM FINAL TABLE (" +
+            "UPDATE booking SET status = 'CANCELED', version = version + 1 " +
+            "WHERE property_id = ? AND status = 'CONFIRMED' AND start_date <= ? AND end_date >= ? AND deleted_at IS NULL" +
+            ") b JOIN guest g ON g.id = b.guest_id";
+
+    private final JdbcTemplate jdbcTemplate;
+
+    /**
+     * Inserts bookings whose ids are already assigned in a single JDBC batch.
+     */
+    public void insertAll(List<Booking> bookings) {
+        jdbcTemplate.batchUpdate(
+                "INSERT INTO booking (id, property_id, guest_id, start_date, end_date, status, version) VALUES (?, ?, ?, ?, ?, ?, ?)",
+                bookings.stream()
+                        .map(booking -> new Object[]{
+                                booking.getId(),
+                                booking.getPropertyId(),
+                                booking.getGuestId(),
+                                booking.getStartDate(),
+                                booking.getEndDate(),
+                                booking.getStatus().name(),
+                                booking.getVersion()})
+                        .toList());
+    }
+
+    /**
+     * Cancels every confirmed booking of the property overlapping {@code from..to} (both inclusive)
+     * with a single UPDATE, and hands each cancelled booking to {@code handler} together with its guest.
+     */
+    public void cancelOverlapping(UUID propertyId, LocalDate from, LocalDate to, CancelledBookingHandler handler) {
+        jdbcTemplate.query(CANCEL_OVERLAPPING_SQL,
+                rs -> {
+                    Booking booking = Booking.builder()
+                            .id(rs.getObject(1, UUID.class))
+                            .propertyId(rs.getObject(2, UUID.class))
+                            .guestId(rs.getObject(3, UUID.class))
+                            .startDate(rs.getObject(4, LocalDate.class))
+                            .endDate(rs.getObject(5, LocalDate.class))
+                            .status(BookingStatus.valueOf(rs.getString(6)))
+                            .version(rs.getObject(7, Long.class))
+                            .build();
+                    Guest guest = Guest.builder()
+                            .id(booking.getGuestId())
+                            .firstName(rs.getString(8))
+                            .lastName(rs.getString(9))
+                            .email(rs.getString(10))
+                            .build();
+                    handler.handle(booking, guest);
+                },
+                propertyId, to, from);
+    }
+
+    @FunctionalInterface
+    public interface CancelledBookingHandler {
+        void handle(Booking booking, Guest guest);
+    }
+}
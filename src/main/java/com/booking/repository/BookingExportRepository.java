@@ -0,0 +1,74 @@
+package com.booking.repository;
+
+import com.booking.dto.BookingExportRow;
+import com.booking.model.BookingStatus;
+import lombok.RequiredArgsConstructor;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.stereotype.Repository;
+
+import java.sql.ResultSet;
+import java.time.LocalDate;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.UUID;
+import java.util.function.Consumer;
+
+/**
+ * Streams bookings joined with their guests through a forward-only, read-only cursor.
+ * Rows are handed to the consumer one at a time and never collected, so memory stays
+ * flat regardless of how many bookings match.
+ */
+@Repository
+@RequiredArgsConstructor
+public class BookingExportRepository {
+
+    private static final int FETCH_SIZE = 500;
+
+    private final JdbcTemplate jdbcTemplate;
+
+    public void streamBookings(LocalDate from, LocalDate to, BookingStatus status, Consumer<BookingExportRow> consumer) {
+        StringBuilder sql = new StringBuilder(
+                "SELECT b.id, b.property_id, b.guest_id, g.email, g.first_name, g.last_name, " +
+                "b.start_date, b.end_date, b.status " +
+                "FROM booking b LEFT JOIN guest g ON g.id = b.guest_id WHERE b.deleted_at IS NULL");
+        List<Object> args = new ArrayList<>();
+
+        if (from != null) {
+            sql.append(" AND b.end_date >= ?");
+            args.add(from);
+        }
+        if (to != null) {
+            sql.append(" AND b.start_date <= ?");
+            args.add(to);
+        }
+        if (status != null) {
+            sql.append(" AND b.status = ?");
+            args.add(status.name());
+        }
+        sql.append(" ORDER BY b.start_date, b.id");
+
+        jdbcTemplate.query(
+                connection -> {
+                    var statement = connection.prepareStatement(
+                            sql.toString(), ResultSet.TYPE_FORWARD_ONLY, ResultSet.CONCUR_READ_ONLY);
+                    statement.setFetchSize(FETCH_SIZE);
+                    for (int i = 0; i < args.size(); i++) {
+                        statement.setObject(i + 1, args.get(i));
+                    }
+                    return statement;
+                },
+                rs -> {
+                    consumer.accept(BookingExportRow.builder()
+                            .id(rs.getObject(1, UUID.class))
+                            .propertyId(rs.getObject(2, UUID.class))
+                            .guestId(rs.getObject(3, UUID.class))
+                            .guestEmail(rs.getString(4))
+                            .guestFirstName(rs.getString(5))
+                            .guestLastName(rs.getString(6))
+                            .startDate(rs.getObject(7, LocalDate.class))
+                            .endDate(rs.getObject(8, LocalDate.class))
+                            .status(rs.getString(9) != null ? BookingStatus.valueOf(rs.getString(9)) : null)
+                            .build());
+                });
+    }
+}
@@ -0,0 +1,87 @@
+package com.booking.repository;
+
+import com.booking.dto.BookingResponse;
+import com.booking.dto.SparseFieldset;
+import com.booking.model.BookingStatus;
+import lombok.RequiredArgsConstructor;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.stereotype.Repository;
+
+import java.sql.ResultSet;
+import java.sql.SQLException;
+import java.time.LocalDate;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+import java.util.UUID;
+
+/**
+ * Lists bookings with only the columns a sparse fieldset asks for. Guests are joined only when
+ * a guest name is selected, and archived bookings are read from the archive table in the same
+ * statement when asked for.
+ */
+@Repository
+@RequiredArgsConstructor
+public class BookingProjectionRepository {
+
+    private static final Map<String, String> COLUMNS = Map.of(
+            "id", "b.id",
+            "propertyId", "b.property_id",
+            "guestId", "b.guest_id",
+            "guestFirstName", "g.first_name",
+            "guestLastName", "g.last_name",
+            "startDate", "b.start_date",
+            "endDate", "b.end_date",
+            "status", "b.status",
+            "version", "b.version");
+
+    private final JdbcTemplate jdbcTemplate;
+
+    public List<BookingResponse> findByPropertyId(UUID propertyId, boolean includeArchived, SparseFieldset fields) {
+        return find("b.property_id = ?", propertyId, includeArchived, fields);
+    }
+
+    public List<BookingResponse> findByGuestId(UUID guestId, boolean includeArchived, SparseFieldset fields) {
+        return find("b.guest_id = ?", guestId, includeArchived, fields);
+    }
+
+    private List<BookingResponse> find(String condition, UUID key, boolean includeArchived, SparseFieldset fields) {
+        List<String> selected = fields.fields().stream().filter(COLUMNS::containsKey).toList();
+        String sql = select(selected, fields, "booking", "FALSE", condition + " AND b.deleted_at IS NULL");
+        if (!includeArchived) {
+            return jdbcTemplate.query(sql, (rs, rowNum) -> mapRow(rs, selected), key);
+        }
+        sql += " UNION ALL " + select(selected, fields, "archived_booking", "TRUE", condition);
+        return jdbcTemplate.query(sql, (rs, rowNum) -> mapRow(rs, selected), key, key);
+    }
+
+    private static String select(List<String> selected, SparseFieldset fields, String table, String archived,
+                                 String condition) {
+        List<String> columns = new ArrayList<>(selected.stream().map(COLUMNS::get).toList());
+        columns.add(archived);
+        boolean joinGuest = fields.includes("guestFirstName") || fields.includes("guestLastName");
+        return "SELECT " + String.join(", ", columns) + " FROM " + table + " b"
+                + (joinGuest ? " LEFT JOIN guest g ON g.id = b.guest_id" : "")
+                + " WHERE " + condition;
+    }
+
+    private static BookingResponse mapRow(ResultSet rs, List<String> selected) throws SQLException {
+        BookingResponse.BookingResponseBuilder booking = BookingResponse.builder();
+        for (int i = 0; i < selected.size(); i++) {
+            int column = i + 1;
+            switch (selected.get(i)) {
+                case "id" -> booking.id(rs.getObject(column, UUID.class));
+                case "propertyId" -> booking.propertyId(rs.getObject(column, UUID.class));
+                case "guestId" -> booking.guestId(rs.getObject(column, UUID.class));
+                case "guestFirstName" -> booking.guestFirstName(rs.getString(column));
+                case "guestLastName" -> booking.guestLastName(rs.getString(column));
+                case "startDate" -> booking.startDate(rs.getObject(column, LocalDate.class));
+                case "endDate" -> booking.endDate(rs.getObject(column, LocalDate.class));
+                case "status" -> booking.status(BookingStatus.valueOf(rs.getString(column)));
+                case "version" -> booking.version(rs.getLong(column));
+                default -> throw new IllegalStateException("No column for field " + selected.get(i));
+            }
+        }
+        return booking.archived(rs.getBoolean(selected.size() + 1)).build();
+    }
+}
@@ -8,6 +8,7 @@ import org.springframework.data.repository.query.Param;
 import org.springframework.stereotype.Repository;
 
 import java.time.LocalDate;
+import java.util.Collection;
 import java.util.List;
 import java.util.UUID;
 
@@ -15,6 +16,8 @@ import java.util.UUID;
 public interface BookingRepository extends JpaRepository<Booking, UUID> {
     
     List<Booking> findByPropertyId(UUID propertyId);
+
+    List<Booking> findByPropertyIdAndStatusAndEndDateGreaterThanEqual(UUID propertyId, BookingStatus status, LocalDate date);
     
     List<Booking> findByGuestId(UUID guestId);
     
@@ -28,4 +31,13 @@ public interface BookingRepository extends JpaRepository<Booking, UUID> {
         @Param("startDate") LocalDate startDate,
         @Param("endDate") LocalDate endDate
     );
+
+    @Query("SELECT DISTINCT b.propertyId FROM Booking b WHERE b.propertyId IN :propertyIds " +
+           "AND b.status = 'CONFIRMED' " +
+           "AND b.startDate <= :endDate AND b.endDate >= :startDate")
+    List<UUID> findBookedPropertyIds(
+        @Param("propertyIds") Collection<UUID> propertyIds,
+        @Param("startDate") LocalDate startDate,
+        @Param("endDate") LocalDate endDate
+    );
 }
@@ -0,0 +1,38 @@
+package com.booking.repository;
+
+import com.booking.model.ChangeEvent;
+import lombok.RequiredArgsConstructor;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.stereotype.Repository;
+
+import java.util.List;
+
+@Repository
+@RequiredArgsConstructor
+public class ChangeEventBatchRepository {
+
+    private final JdbcTemplate jdbcTemplate;
+
+    /**
+     * Appends change events in a single JDBC batch; the database assigns their sequence numbers
+     * in list order. Identity ids keep Hibernate from batching these inserts itself.
+     */
+    public void insertAll(List<ChangeEvent> events) {
+        jdbcTemplate.batchUpdate(
+                "INSERT INTO change_event (entity_type, operation, entity_id, property_id, guest_id, " +
+                "start_date, end_date, status, reason, changed_at) VALUES (?, ?, ?, ?, ?, ?, ?, ?, ?, ?)",
+                events.stream()
+                        .map(event -> new Object[]{
+                                event.getEntityType().name(),
+                                event.getOperation().name(),
+                                event.getEntityId(),
+                                event.getPropertyId(),
+                                event.getGuestId(),
+                                event.getStartDate(),
+                                event.getEndDate(),
+                                event.getStatus() != null ? event.getStatus().name() : null,
+                                event.getReason(),
+                                event.getChangedAt()})
+                        .toList());
+    }
+}
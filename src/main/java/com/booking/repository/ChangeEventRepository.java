@@ -0,0 +1,26 @@
+package com.booking.repository;
+
+import com.booking.model.ChangeEvent;
+import org.springframework.data.domain.Limit;
+import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
+import org.springframework.stereotype.Repository;
+
+import java.util.List;
+import java.util.UUID;
+
+@Repository
+public interface ChangeEventRepository extends JpaRepository<ChangeEvent, Long> {
+
+    List<ChangeEvent> findBySeqGreaterThanAndSeqLessThanEqualOrderBySeqAsc(Long since, Long upTo, Limit limit);
+
+    List<ChangeEvent> findByPropertyIdAndSeqGreaterThanAndSeqLessThanEqualOrderBySeqAsc(
+            UUID propertyId, Long since, Long upTo, Limit limit);
+
+    @Query("SELECT COALESCE(MAX(c.seq), 0) FROM ChangeEvent c")
+    long findLatestSeq();
+
+    @Query("SELECT COALESCE(MAX(c.seq), 0) FROM ChangeEvent c WHERE c.propertyId = :propertyId")
+    long findLatestSeqByPropertyId(@Param("propertyId") UUID propertyId);
+}
@@ -0,0 +1,99 @@
+package com.booking.repository;
+
+import lombok.RequiredArgsConstructor;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.jdbc.core.RowMapper;
+import org.springframework.stereotype.Repository;
+
+import java.time.LocalDate;
+import java.util.List;
+import java.util.UUID;
+
+/**
+ * Reads the occupancy report one partition of properties at a time. Partitions are pages of
+ * property ids taken in id order, and the occupied intervals of a partition are read in a
+ * forward-only pass as day offsets from the start of the report, so no dates are materialised.
+ * Archived bookings and blocks are included, so reports on past periods stay complete.
+ */
+@Repository
+@RequiredArgsConstructor
+public class OccupancyReportRepository {
+
+    private static final int FETCH_SIZE = 1000;
+
+    private static final String FIRST_PROPERTY_PAGE_SQL =
+            "SELECT id, owner_id FROM property ORDER BY id LIMIT ?";
+
+    private static final String NEXT_PROPERTY_PAGE_SQL =
+            "SELECT id, owner_id FROM property WHERE id > ? ORDER BY id LIMIT ?";
+
+    private static final String PARTITION_INTERVALS_SQL =
+            "SELECT o.property_id, o.booked, DATEDIFF(DAY, ?, o.start_date), DATEDIFF(DAY, ?, o.end_date) FROM (" +
+            "  SELECT property_id, TRUE AS booked, start_date, end_date FROM booking " +
+            "  WHERE property_id BETWEEN ? AND ? AND status = 'CONFIRMED' AND start_date <= ? AND end_date >= ? " +
+            "  AND deleted_at IS NULL " +
+            "  UNION ALL " +
+            "  SELECT property_id, FALSE, start_date, end_date FROM block " +
+            "  WHERE property_id BETWEEN ? AND ? AND start_date <= ? AND end_date >= ? AND deleted_at IS NULL " +
+            "  UNION ALL " +
+            "  SELECT property_id, TRUE, start_date, end_date FROM archived_booking " +
+            "  WHERE property_id BETWEEN ? AND ? AND status = 'CONFIRMED' AND start_date <= ? AND end_date >= ? " +
+            "  UNION ALL " +
+            "  SELECT property_id, FALSE, start_date, end_date FROM archived_block " +
+            "  WHERE property_id BETWEEN ? AND ? AND start_date <= ? AND end_date >= ?" +
+            ") o";
+
+    private static final RowMapper<ReportProperty> PROPERTY_ROW =
+            (rs, rowNum) -> new ReportProperty(rs.getObject(1, UUID.class), rs.getObject(2, UUID.class));
+
+    private final JdbcTemplate jdbcTemplate;
+
+    /**
+     * Returns up to {@code limit} properties ordered by id, starting after {@code afterId}
+     * or at the first property when it is null.
+     */
+    public List<ReportProperty> findPropertyPage(UUID afterId, int limit) {
+        if (afterId == null) {
+            return jdbcTemplate.query(FIRST_PROPERTY_PAGE_SQL, PROPERTY_ROW, limit);
+        }
+        return jdbcTemplate.query(NEXT_PROPERTY_PAGE_SQL, PROPERTY_ROW, afterId, limit);
+    }
+
+    public void forEachOccupiedInterval(UUID firstPropertyId, UUID lastPropertyId, LocalDate from, LocalDate to,
+                                        OccupiedDaysHandler handler) {
+        jdbcTemplate.query(
+                connection -> {
+                    var statement = connection.prepareStatement(PARTITION_INTERVALS_SQL);
+                    statement.setFetchSize(FETCH_SIZE);
+                    statement.setObject(1, from);
+                    statement.setObject(2, from);
+                    // Each of the four sources takes the same property range and window
+                    for (int source = 0; source < 4; source++) {
+                        statement.setObject(3 + 4 * source, firstPropertyId);
+                        statement.setObject(4 + 4 * source, lastPropertyId);
+                        statement.setObject(5 + 4 * source, to);
+                        statement.setObject(6 + 4 * source, from);
+                    }
+                    return statement;
+                },
+                rs -> {
+                    handler.handle(
+                            rs.getObject(1, UUID.class),
+                            rs.getBoolean(2),
+                            rs.getInt(3),
+                            rs.getInt(4));
+                });
+    }
+
+    public record ReportProperty(UUID id, UUID ownerId) {
+    }
+
+    @FunctionalInterface
+    public interface OccupiedDaysHandler {
+        /**
+         * Called once per confirmed booking ({@code booked}) or block. The days are offsets from
+         * the first day of the report and can fall outside it when the interval does.
+         */
+        void handle(UUID propertyId, boolean booked, int firstDay, int lastDay);
+    }
+}
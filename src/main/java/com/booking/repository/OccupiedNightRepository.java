@@ -0,0 +1,56 @@
+package com.booking.repository;
+
+import lombok.RequiredArgsConstructor;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.stereotype.Repository;
+
+import java.time.LocalDate;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.UUID;
+
+@Repository
+@RequiredArgsConstructor
+public class OccupiedNightRepository {
+
+    private final JdbcTemplate jdbcTemplate;
+
+    /**
+     * Inserts one row per night from {@code startDate} to {@code endDate} (both inclusive) in a
+     * single JDBC batch. Fails with a duplicate key error if any night is already claimed.
+     */
+    public void claimNights(UUID propertyId, UUID claimId, LocalDate startDate, LocalDate endDate) {
+        claimNights(List.of(new NightClaim(propertyId, claimId, startDate, endDate)));
+    }
+
+    /**
+     * Inserts the nights of every claim in a single JDBC batch. Fails with a duplicate key error
+     * if any night is already claimed, or claimed twice in the list.
+     */
+    public void claimNights(List<NightClaim> claims) {
+        List<Object[]> nights = new ArrayList<>();
+        for (NightClaim claim : claims) {
+            for (LocalDate night = claim.startDate(); !night.isAfter(claim.endDate()); night = night.plusDays(1)) {
+                nights.add(new Object[]{claim.propertyId(), night, claim.claimId()});
+            }
+        }
+        jdbcTemplate.batchUpdate("INSERT INTO occupied_night (property_id, night, claim_id) VALUES (?, ?, ?)", nights);
+    }
+
+    public int releaseClaim(UUID claimId) {
+        return jdbcTemplate.update("DELETE FROM occupied_night WHERE claim_id = ?", claimId);
+    }
+
+    public void releaseClaims(List<UUID> claimIds) {
+        jdbcTemplate.batchUpdate("DELETE FROM occupied_night WHERE claim_id = ?",
+                claimIds.stream().map(claimId -> new Object[]{claimId}).toList());
+    }
+
+    public int countByClaimId(UUID claimId) {
+        Integer count = jdbcTemplate.queryForObject("SELECT COUNT(*) FROM occupied_night WHERE claim_id = ?", Integer.class, claimId);
+        return count != null ? count : 0;
+    }
+
+    public record NightClaim(UUID propertyId, UUID claimId, LocalDate startDate, LocalDate endDate) {
+    }
+}
@@ -0,0 +1,78 @@
+package com.booking.repository;
+
+import lombok.RequiredArgsConstructor;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.stereotype.Repository;
+
+import java.util.List;
+import java.util.UUID;
+
+/**
+ * Reads the confirmed bookings and blocks of a range of properties for the overlap audit,
+ * in one forward-only pass ordered by property and start date, with the dates as epoch days.
+ */
+@Repository
+@RequiredArgsConstructor
+public class OverlapAuditRepository {
+
+    private static final int FETCH_SIZE = 1000;
+
+    private static final String FIRST_PROPERTY_PAGE_SQL =
+            "SELECT id FROM property ORDER BY id LIMIT ?";
+
+    private static final String NEXT_PROPERTY_PAGE_SQL =
+            "SELECT id FROM property WHERE id > ? ORDER BY id LIMIT ?";
+
+    private static final String INTERVALS_SQL =
+            "SELECT o.property_id, o.id, o.booked, " +
+            "DATEDIFF(DAY, DATE '1970-01-01', o.start_date), DATEDIFF(DAY, DATE '1970-01-01', o.end_date) FROM (" +
+            "  SELECT property_id, id, TRUE AS booked, start_date, end_date FROM booking " +
+            "  WHERE property_id BETWEEN ? AND ? AND status = 'CONFIRMED' AND deleted_at IS NULL " +
+            "  UNION ALL " +
+            "  SELECT property_id, id, FALSE, start_date, end_date FROM block " +
+            "  WHERE property_id BETWEEN ? AND ? AND deleted_at IS NULL" +
+            ") o ORDER BY o.property_id, o.start_date";
+
+    private final JdbcTemplate jdbcTemplate;
+
+    /**
+     * Returns up to {@code limit} property ids in order, starting after {@code afterId}
+     * or at the first property when it is null.
+     */
+    public List<UUID> findPropertyIdPage(UUID afterId, int limit) {
+        if (afterId == null) {
+            return jdbcTemplate.queryForList(FIRST_PROPERTY_PAGE_SQL, UUID.class, limit);
+        }
+        return jdbcTemplate.queryForList(NEXT_PROPERTY_PAGE_SQL, UUID.class, afterId, limit);
+    }
+
+    public void forEachInterval(UUID firstPropertyId, UUID lastPropertyId, IntervalHandler handler) {
+        jdbcTemplate.query(
+                connection -> {
+                    var statement = connection.prepareStatement(INTERVALS_SQL);
+                    statement.setFetchSize(FETCH_SIZE);
+                    statement.setObject(1, firstPropertyId);
+                    statement.setObject(2, lastPropertyId);
+                    statement.setObject(3, firstPropertyId);
+                    statement.setObject(4, lastPropertyId);
+                    return statement;
+                },
+                rs -> {
+                    handler.handle(
+                            rs.getObject(1, UUID.class),
+                            rs.getObject(2, UUID.class),
+                            rs.getBoolean(3),
+                            rs.getInt(4),
+                            rs.getInt(5));
+                });
+    }
+
+    @FunctionalInterface
+    public interface IntervalHandler {
+        /**
+         * Called once per confirmed booking ({@code booked}) or block, ordered by property id
+         * and then by start day.
+         */
+        void handle(UUID propertyId, UUID id, boolean booked, int startDay, int endDay);
+    }
+}
@@ -0,0 +1,93 @@
+package com.booking.repository;
+
+import com.booking.dto.BlockResponse;
+import com.booking.dto.BookingResponse;
+import com.booking.model.BookingStatus;
+import lombok.RequiredArgsConstructor;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.stereotype.Repository;
+
+import java.time.LocalDate;
+import java.util.List;
+import java.util.UUID;
+
+/**
+ * Reads the schedule of all properties of an owner with one joined query per kind of entry
+ * instead of one query per property. Bookings are streamed through a forward-only cursor,
+ * grouped by property; blocks are far fewer and are read as a list.
+ */
+@Repository
+@RequiredArgsConstructor
+public class OwnerScheduleRepository {
+
+    private static final int FETCH_SIZE = 500;
+
+    // Every property of the owner comes back at least once, with null booking columns when nothing overlaps
+    private static final String BOOKINGS_SQL =
+            "SELECT p.id, p.name, b.id, b.guest_id, g.first_name, g.last_name, " +
+            "b.start_date, b.end_date, b.status, b.version " +
+            "FROM property p " +
+            "LEFT JOIN booking b ON b.property_id = p.id AND b.start_date <= ? AND b.end_date >= ? " +
+            "AND b.deleted_at IS NULL " +
+            "LEFT JOIN guest g ON g.id = b.guest_id " +
+            "WHERE p.owner_id = ? " +
+            "ORDER BY p.name, p.id, b.start_date";
+
+    private static final String BLOCKS_SQL =
+            "SELECT bl.id, bl.property_id, bl.start_date, bl.end_date, bl.reason, bl.version " +
+            "FROM block bl JOIN property p ON p.id = bl.property_id " +
+            "WHERE p.owner_id = ? AND bl.start_date <= ? AND bl.end_date >= ? AND bl.deleted_at IS NULL " +
+            "ORDER BY bl.start_date";
+
+    private final JdbcTemplate jdbcTemplate;
+
+    public void forEachPropertyBooking(UUID ownerId, LocalDate from, LocalDate to, PropertyBookingHandler handler) {
+        jdbcTemplate.query(
+                connection -> {
+                    var statement = connection.prepareStatement(BOOKINGS_SQL);
+                    statement.setFetchSize(FETCH_SIZE);
+                    statement.setObject(1, to);
+                    statement.setObject(2, from);
+                    statement.setObject(3, ownerId);
+                    return statement;
+                },
+                rs -> {
+                    UUID propertyId = rs.getObject(1, UUID.class);
+                    UUID bookingId = rs.getObject(3, UUID.class);
+                    BookingResponse booking = bookingId == null ? null : BookingResponse.builder()
+                            .id(bookingId)
+                            .propertyId(propertyId)
+                            .guestId(rs.getObject(4, UUID.class))
+                            .guestFirstName(rs.getString(5))
+                            .guestLastName(rs.getString(6))
+                            .startDate(rs.getObject(7, LocalDate.class))
+                            .endDate(rs.getObject(8, LocalDate.class))
+                            .status(BookingStatus.valueOf(rs.getString(9)))
+                            .version(rs.getObject(10, Long.class))
+                            .build();
+                    handler.handle(propertyId, rs.getString(2), booking);
+                });
+    }
+
+    public List<BlockResponse> findBlocks(UUID ownerId, LocalDate from, LocalDate to) {
+        return jdbcTemplate.query(BLOCKS_SQL,
+                (rs, rowNum) -> BlockResponse.builder()
+                        .id(rs.getObject(1, UUID.class))
+                        .propertyId(rs.getObject(2, UUID.class))
+                        .startDate(rs.getObject(3, LocalDate.class))
+                        .endDate(rs.getObject(4, LocalDate.class))
+                        .reason(rs.getString(5))
+                        .version(rs.getObject(6, Long.class))
+                        .build(),
+                ownerId, to, from);
+    }
+
+    @FunctionalInterface
+    public interface PropertyBookingHandler {
+        /**
+         * Called once per booking, in property order; {@code booking} is null for a property
+         * with no booking in the requested range.
+         */
+        void handle(UUID propertyId, String propertyName, BookingResponse booking);
+    }
+}
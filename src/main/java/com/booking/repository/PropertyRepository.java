@@ -1,11 +1,59 @@
 package com.booking.repository;
 
+import com.booking.dto.ConflictSummary;
 import com.booking.model.Property;
+import jakarta.persistence.LockModeType;
 import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Lock;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
 import org.springframework.stereotype.Repository;
 
+import java.time.LocalDate;
+import java.util.Collection;
+import java.util.List;
 import java.util.UUID;
 
 @Repository
 public interface PropertyRepository extends JpaRepository<Property, UUID> {
+
+    /**
+     * Checks property existence and booking/block overlaps in one round-trip. {@code excludeId}
+     * skips the booking or block being updated; pass {@code null} to check against everything.
+     * Recurring blocks are only reported as candidates: whether one of their occurrences falls
+     * into the dates is up to the caller to evaluate.
+     */
+    @Query("SELECT new com.booking.dto.ConflictSummary(" +
+           "CASE WHEN EXISTS (SELECT 1 FROM Property p WHERE p.id = :propertyId) THEN true ELSE false END, " +
+           "CASE WHEN EXISTS (SELECT 1 FROM Booking b WHERE b.propertyId = :propertyId " +
+           "    AND b.status = 'CONFIRMED' " +
+           "    AND b.startDate <= :endDate AND b.endDate >= :startDate " +
+           "    AND (:excludeId IS NULL OR b.id <> :excludeId)) THEN true ELSE false END, " +
+           "CASE WHEN EXISTS (SELECT 1 FROM Block bl WHERE bl.propertyId = :propertyId " +
+           "    AND bl.startDate <= :endDate AND bl.endDate >= :startDate " +
+           "    AND (:excludeId IS NULL OR bl.id <> :excludeId)) THEN true ELSE false END, " +
+           "CASE WHEN EXISTS (SELECT 1 FROM RecurringBlock r WHERE r.propertyId = :propertyId " +
+           "    AND r.startDate <= :endDate AND r.lastBlockedDate >= :startDate) THEN true ELSE false END)")
+    ConflictSummary findConflicts(
+        @Param("propertyId") UUID propertyId,
+        @Param("startDate") LocalDate startDate,
+        @Param("endDate") LocalDate endDate,
+        @Param("excludeId") UUID excludeId
+    );
+
+    List<Property> findByOwnerId(UUID ownerId);
+
+    long countByOwnerId(UUID ownerId);
+
+    /**
+     * Locks the properties in ascending id order, so callers locking overlapping sets wait for
+     * each other instead of deadlocking.
+     */
+    @Lock(LockModeType.PESSIMISTIC_WRITE)
+    @Query("SELECT p FROM Property p WHERE p.id IN :propertyIds ORDER BY p.id")
+    List<Property> findAllByIdForUpdate(@Param("propertyIds") Collection<UUID> propertyIds);
+
+    @Lock(LockModeType.PESSIMISTIC_WRITE)
+    @Query("SELECT p FROM Property p WHERE p.ownerId = :ownerId ORDER BY p.id")
+    List<Property> findByOwnerIdForUpdate(@Param("ownerId") UUID ownerId);
 }
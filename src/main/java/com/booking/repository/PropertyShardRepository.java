@@ -0,0 +1,11 @@
+package com.booking.repository;
+
+import com.booking.model.PropertyShard;
+import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.stereotype.Repository;
+
+import java.util.UUID;
+
+@Repository
+public interface PropertyShardRepository extends JpaRepository<PropertyShard, UUID> {
+}
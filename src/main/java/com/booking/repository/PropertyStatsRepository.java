@@ -0,0 +1,74 @@
+package com.booking.repository;
+
+import lombok.RequiredArgsConstructor;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.stereotype.Repository;
+
+import java.time.LocalDate;
+import java.time.YearMonth;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.UUID;
+
+@Repository
+@RequiredArgsConstructor
+public class PropertyStatsRepository {
+
+    private static final String ADJUST_SQL =
+            "MERGE INTO property_daily_stats t " +
+            "USING (VALUES (CAST(? AS UUID), CAST(? AS DATE), CAST(? AS INT), CAST(? AS INT))) " +
+            "s (property_id, night, booked, blocked) " +
+            "ON t.property_id = s.property_id AND t.night = s.night " +
+            "WHEN MATCHED THEN UPDATE SET booked = t.booked + s.booked, blocked = t.blocked + s.blocked " +
+            "WHEN NOT MATCHED THEN INSERT (property_id, night, booked, blocked) " +
+            "VALUES (s.property_id, s.night, s.booked, s.blocked)";
+
+    private static final String PROPERTY_MONTHS_SQL =
+            "SELECT YEAR(night), MONTH(night), SUM(booked), SUM(blocked) FROM property_daily_stats " +
+            "WHERE property_id = ? AND night BETWEEN ? AND ? " +
+            "GROUP BY YEAR(night), MONTH(night)";
+
+    private static final String OWNER_MONTHS_SQL =
+            "SELECT YEAR(s.night), MONTH(s.night), SUM(s.booked), SUM(s.blocked) FROM property_daily_stats s " +
+            "JOIN property p ON p.id = s.property_id " +
+            "WHERE p.owner_id = ? AND s.night BETWEEN ? AND ? " +
+            "GROUP BY YEAR(s.night), MONTH(s.night)";
+
+    private final JdbcTemplate jdbcTemplate;
+
+    /**
+     * Adds {@code booked} and {@code blocked} to the counters of each night from {@code startDate}
+     * to {@code endDate} (both inclusive), creating the rows that do not exist yet. All nights of
+     * all ranges go out in a single JDBC batch.
+     */
+    public void adjust(List<NightRange> ranges) {
+        List<Object[]> nights = new ArrayList<>();
+        for (NightRange range : ranges) {
+            for (LocalDate night = range.startDate(); !night.isAfter(range.endDate()); night = night.plusDays(1)) {
+                nights.add(new Object[]{range.propertyId(), night, range.booked(), range.blocked()});
+            }
+        }
+        if (!nights.isEmpty()) {
+            jdbcTemplate.batchUpdate(ADJUST_SQL, nights);
+        }
+    }
+
+    public List<MonthlyNights> findMonthlyNights(UUID propertyId, LocalDate from, LocalDate to) {
+        return jdbcTemplate.query(PROPERTY_MONTHS_SQL, (rs, rowNum) -> new MonthlyNights(
+                        YearMonth.of(rs.getInt(1), rs.getInt(2)), rs.getLong(3), rs.getLong(4)),
+                propertyId, from, to);
+    }
+
+    public List<MonthlyNights> findMonthlyNightsForOwner(UUID ownerId, LocalDate from, LocalDate to) {
+        return jdbcTemplate.query(OWNER_MONTHS_SQL, (rs, rowNum) -> new MonthlyNights(
+                        YearMonth.of(rs.getInt(1), rs.getInt(2)), rs.getLong(3), rs.getLong(4)),
+                ownerId, from, to);
+    }
+
+    /** Nights of one property to adjust; the counts are negative when a stay is removed. */
+    public record NightRange(UUID propertyId, LocalDate startDate, LocalDate endDate, int booked, int blocked) {
+    }
+
+    public record MonthlyNights(YearMonth month, long bookedNights, long blockedNights) {
+    }
+}
@@ -0,0 +1,55 @@
+package com.booking.repository;
+
+import com.booking.model.RecurringBlock;
+import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
+import org.springframework.stereotype.Repository;
+
+import java.time.LocalDate;
+import java.util.Collection;
+import java.util.List;
+import java.util.UUID;
+
+@Repository
+public interface RecurringBlockRepository extends JpaRepository<RecurringBlock, UUID> {
+
+    List<RecurringBlock> findByPropertyId(UUID propertyId);
+
+    List<RecurringBlock> findByPropertyIdAndLastBlockedDateGreaterThanEqual(UUID propertyId, LocalDate date);
+
+    /**
+     * Rules of a property that may block a day of the range; whether one actually does is
+     * decided by evaluating the rule.
+     */
+    @Query("SELECT r FROM RecurringBlock r WHERE r.propertyId = :propertyId " +
+           "AND r.startDate <= :endDate AND r.lastBlockedDate >= :startDate")
+    List<RecurringBlock> findActive(
+        @Param("propertyId") UUID propertyId,
+        @Param("startDate") LocalDate startDate,
+        @Param("endDate") LocalDate endDate
+    );
+
+    @Query("SELECT r FROM RecurringBlock r WHERE r.propertyId IN :propertyIds " +
+           "AND r.startDate <= :endDate AND r.lastBlockedDate >= :startDate")
+    List<RecurringBlock> findActiveForProperties(
+        @Param("propertyIds") Collection<UUID> propertyIds,
+        @Param("startDate") LocalDate startDate,
+        @Param("endDate") LocalDate endDate
+    );
+
+    @Query("SELECT r FROM RecurringBlock r WHERE r.propertyId IN " +
+           "(SELECT p.id FROM Property p WHERE p.ownerId = :ownerId) " +
+           "AND r.startDate <= :endDate AND r.lastBlockedDate >= :startDate")
+    List<RecurringBlock> findActiveForOwner(
+        @Param("ownerId") UUID ownerId,
+        @Param("startDate") LocalDate startDate,
+        @Param("endDate") LocalDate endDate
+    );
+
+    @Query("SELECT r FROM RecurringBlock r WHERE r.startDate <= :endDate AND r.lastBlockedDate >= :startDate")
+    List<RecurringBlock> findAllActive(
+        @Param("startDate") LocalDate startDate,
+        @Param("endDate") LocalDate endDate
+    );
+}
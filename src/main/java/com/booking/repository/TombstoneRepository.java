@@ -0,0 +1,37 @@
+package com.booking.repository;
+
+import lombok.RequiredArgsConstructor;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.stereotype.Repository;
+
+import java.time.Instant;
+
+/**
+ * Purges the tombstones that deleting a booking, a block or a recurring block leaves behind. Each call removes at
+ * most {@code limit} rows with one statement, so a purge can be split into transactions of a
+ * bounded size.
+ */
+@Repository
+@RequiredArgsConstructor
+public class TombstoneRepository {
+
+    private final JdbcTemplate jdbcTemplate;
+
+    public int purgeBookings(Instant deletedBefore, int limit) {
+        return jdbcTemplate.update(
+                "DELETE FROM booking WHERE id IN (SELECT id FROM booking WHERE deleted_at < ? LIMIT ?)",
+                deletedBefore, limit);
+    }
+
+    public int purgeBlocks(Instant deletedBefore, int limit) {
+        return jdbcTemplate.update(
+                "DELETE FROM block WHERE id IN (SELECT id FROM block WHERE deleted_at < ? LIMIT ?)",
+                deletedBefore, limit);
+    }
+
+    public int purgeRecurringBlocks(Instant deletedBefore, int limit) {
+        return jdbcTemplate.update(
+                "DELETE FROM recurring_block WHERE id IN (SELECT id FROM recurring_block WHERE deleted_at < ? LIMIT ?)",
+                deletedBefore, limit);
+    }
+}
@@ -0,0 +1,66 @@
+package com.booking.retry;
+
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.aspectj.lang.ProceedingJoinPoint;
+import org.aspectj.lang.annotation.Around;
+import org.aspectj.lang.annotation.Aspect;
+import org.springframework.core.Ordered;
+import org.springframework.core.annotation.Order;
+import org.springframework.dao.ConcurrencyFailureException;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+
+import java.util.concurrent.ThreadLocalRandom;
+
+/**
+ * Runs {@link RetryOnConflict} methods again after a {@link ConcurrencyFailureException}, waiting
+ * a random delay below an exponentially growing cap between attempts. Ordered ahead of the
+ * shard routing aspect and the transaction interceptor, so every attempt is routed again (the
+ * property may have moved to another shard meanwhile) and gets its own transaction.
+ */
+@Aspect
+@Order(Ordered.HIGHEST_PRECEDENCE)
+@RequiredArgsConstructor
+@Slf4j
+public class ConflictRetryAspect {
+
+    private final ConflictRetryProperties properties;
+
+    @Around("@annotation(com.booking.retry.RetryOnConflict)")
+    public Object retry(ProceedingJoinPoint joinPoint) throws Throwable {
+        // Inside a caller's transaction the conflict belongs to the caller, and a retry here would reuse its stale state
+        if (TransactionSynchronizationManager.isActualTransactionActive()) {
+            return joinPoint.proceed();
+        }
+
+        int attempt = 1;
+        while (true) {
+            try {
+                return joinPoint.proceed();
+            } catch (ConcurrencyFailureException e) {
+                if (attempt >= properties.getMaxAttempts()) {
+                    log.warn("Giving up on {} after {} conflicting attempts", joinPoint.getSignature().toShortString(), attempt);
+                    throw e;
+                }
+
+                long delay = backoffMillis(attempt);
+                log.debug("Concurrent modification in {} on attempt {}, retrying in {} ms",
+                        joinPoint.getSignature().toShortString(), attempt, delay);
+                try {
+                    Thread.sleep(delay);
+                } catch (InterruptedException interrupted) {
+                    Thread.currentThread().interrupt();
+                    throw e;
+                }
+                attempt++;
+            }
+        }
+    }
+
+    private long backoffMillis(int attempt) {
+        long cap = Math.min(
+                properties.getMaxBackoff().toMillis(),
+                properties.getInitialBackoff().toMillis() << Math.min(attempt - 1, 20));
+        return ThreadLocalRandom.current().nextLong(cap + 1);
+    }
+}
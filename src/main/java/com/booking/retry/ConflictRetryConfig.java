@@ -0,0 +1,15 @@
+package com.booking.retry;
+
+import org.springframework.boot.context.properties.EnableConfigurationProperties;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+
+@Configuration
+@EnableConfigurationProperties(ConflictRetryProperties.class)
+public class ConflictRetryConfig {
+
+    @Bean
+    public ConflictRetryAspect conflictRetryAspect(ConflictRetryProperties properties) {
+        return new ConflictRetryAspect(properties);
+    }
+}
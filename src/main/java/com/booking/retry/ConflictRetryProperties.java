@@ -0,0 +1,20 @@
+package com.booking.retry;
+
+import lombok.Data;
+import org.springframework.boot.context.properties.ConfigurationProperties;
+
+import java.time.Duration;
+
+@Data
+@ConfigurationProperties(prefix = "booking.conflict-retry")
+public class ConflictRetryProperties {
+
+    /** Total number of attempts, including the first one. */
+    private int maxAttempts = 3;
+
+    /** Upper bound of the random delay before the first retry; doubled for every further retry. */
+    private Duration initialBackoff = Duration.ofMillis(20);
+
+    /** Cap on the delay between two attempts. */
+    private Duration maxBackoff = Duration.ofMillis(200);
+}
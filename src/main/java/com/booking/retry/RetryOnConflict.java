@@ -0,0 +1,16 @@
+package com.booking.retry;
+
+import java.lang.annotation.ElementType;
+import java.lang.annotation.Retention;
+import java.lang.annotation.RetentionPolicy;
+import java.lang.annotation.Target;
+
+/**
+ * Retries a transactional service method when its transaction fails on a concurrent
+ * modification, such as a stale {@code @Version} or a lock conflict. Each attempt runs
+ * in a fresh transaction and therefore re-reads the current state.
+ */
+@Target(ElementType.METHOD)
+@Retention(RetentionPolicy.RUNTIME)
+public @interface RetryOnConflict {
+}
@@ -0,0 +1,65 @@
+package com.booking.sequencer;
+
+import com.booking.pipeline.BookingWritePipeline;
+import lombok.RequiredArgsConstructor;
+import org.springframework.beans.factory.ObjectProvider;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.support.TransactionSynchronization;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+
+import java.util.Collection;
+import java.util.List;
+import java.util.UUID;
+
+/**
+ * Entry point for booking and block mutations. Runs commands directly on the calling thread,
+ * or hands them to the property's sequencer lane when {@code booking.sequencer.enabled} is set.
+ * Without the sequencer, new bookings go through the group-commit write pipeline when
+ * {@code booking.write-pipeline.enabled} is set.
+ */
+@Component
+@RequiredArgsConstructor
+public class CommandGateway {
+
+    private final PropertyCommandHandler commandHandler;
+    private final ObjectProvider<PropertySequencer> propertySequencer;
+    private final ObjectProvider<BookingWritePipeline> bookingWritePipeline;
+
+    @SuppressWarnings("unchecked")
+    public <T> T submit(PropertyCommand<T> command) {
+        PropertySequencer sequencer = propertySequencer.getIfAvailable();
+        if (sequencer != null) {
+            return sequencer.submit(commandHandler.propertyOf(command), command);
+        }
+
+        BookingWritePipeline pipeline = bookingWritePipeline.getIfAvailable();
+        if (pipeline != null && command instanceof PropertyCommand.CreateBooking createBooking) {
+            return (T) pipeline.createBooking(createBooking.request());
+        }
+        return commandHandler.execute(command);
+    }
+
+    /**
+     * Reports bookings or blocks of these properties written without a command, such as bulk and
+     * group writes spanning several properties, so the sequencer lanes reload their calendars.
+     * Inside a transaction the lanes are told once it commits.
+     */
+    public void invalidateCalendars(Collection<UUID> propertyIds) {
+        PropertySequencer sequencer = propertySequencer.getIfAvailable();
+        if (sequencer == null || propertyIds.isEmpty()) {
+            return;
+        }
+
+        List<UUID> changed = List.copyOf(propertyIds);
+        if (!TransactionSynchronizationManager.isSynchronizationActive()) {
+            sequencer.invalidate(changed);
+            return;
+        }
+        TransactionSynchronizationManager.registerSynchronization(new TransactionSynchronization() {
+            @Override
+            public void afterCommit() {
+                sequencer.invalidate(changed);
+            }
+        });
+    }
+}
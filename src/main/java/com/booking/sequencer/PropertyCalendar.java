@@ -0,0 +1,94 @@
+package com.booking.sequencer;
+
+import com.booking.dto.ConflictSummary;
+import com.booking.model.Block;
+import com.booking.model.Booking;
+import com.booking.model.BookingStatus;
+
+import java.time.LocalDate;
+import java.util.Comparator;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.NavigableSet;
+import java.util.Optional;
+import java.util.TreeSet;
+import java.util.UUID;
+
+/**
+ * In-memory view of one property's confirmed bookings and blocks, ordered by start date.
+ * Only the property's sequencer lane reads or changes it, so it is not thread-safe.
+ */
+class PropertyCalendar {
+
+    enum Kind { BOOKING, BLOCK }
+
+    record Stay(UUID id, Kind kind, LocalDate startDate, LocalDate endDate) {
+    }
+
+    private static final UUID LAST_ID = new UUID(Long.MAX_VALUE, Long.MAX_VALUE);
+
+    private final UUID ownerId;
+    private final NavigableSet<Stay> byStartDate = new TreeSet<>(
+            Comparator.comparing(Stay::startDate).thenComparing(Stay::id));
+    private final Map<UUID, Stay> byId = new HashMap<>();
+
+    private PropertyCalendar(UUID ownerId) {
+        this.ownerId = ownerId;
+    }
+
+    static PropertyCalendar of(UUID ownerId, List<Booking> bookings, List<Block> blocks) {
+        PropertyCalendar calendar = new PropertyCalendar(ownerId);
+        bookings.stream()
+                .filter(booking -> booking.getStatus() == BookingStatus.CONFIRMED)
+                .forEach(booking -> calendar.put(booking.getId(), Kind.BOOKING, booking.getStartDate(), booking.getEndDate()));
+        blocks.forEach(block -> calendar.put(block.getId(), Kind.BLOCK, block.getStartDate(), block.getEndDate()));
+        return calendar;
+    }
+
+    /** The property owner, or {@code null} when the property does not exist. */
+    UUID ownerId() {
+        return ownerId;
+    }
+
+    Optional<Stay> get(UUID id) {
+        return Optional.ofNullable(byId.get(id));
+    }
+
+    void put(UUID id, Kind kind, LocalDate startDate, LocalDate endDate) {
+        remove(id);
+        Stay stay = new Stay(id, kind, startDate, endDate);
+        byStartDate.add(stay);
+        byId.put(id, stay);
+    }
+
+    void remove(UUID id) {
+        Stay stay = byId.remove(id);
+        if (stay != null) {
+            byStartDate.remove(stay);
+        }
+    }
+
+    /**
+     * Finds the stays overlapping {@code startDate..endDate} (both inclusive), ignoring {@code excludeId}.
+     * Stays never overlap each other, so walking back from the last one starting on or before
+     * {@code endDate} only visits stays that reach into the range, plus the one that ends the walk.
+     */
+    ConflictSummary findConflicts(LocalDate startDate, LocalDate endDate, UUID excludeId) {
+        boolean bookingConflict = false;
+        boolean blockConflict = false;
+
+        Stay probe = new Stay(LAST_ID, null, endDate, endDate);
+        for (Stay stay : byStartDate.headSet(probe, true).descendingSet()) {
+            if (stay.id().equals(excludeId)) {
+                continue;
+            }
+            if (stay.endDate().isBefore(startDate)) {
+                break;
+            }
+            bookingConflict |= stay.kind() == Kind.BOOKING;
+            blockConflict |= stay.kind() == Kind.BLOCK;
+        }
+        return new ConflictSummary(true, bookingConflict, blockConflict, false);
+    }
+}
@@ -0,0 +1,58 @@
+package com.booking.sequencer;
+
+import com.booking.dto.BlockRequest;
+import com.booking.dto.BlockResponse;
+import com.booking.dto.BlockUpdateRequest;
+import com.booking.dto.BookingRequest;
+import com.booking.dto.BookingResponse;
+import com.booking.dto.BookingUpdateRequest;
+import com.booking.dto.BulkCancelResponse;
+
+import java.time.LocalDate;
+import java.util.Set;
+import java.util.UUID;
+
+/**
+ * A booking or block mutation submitted by the controllers. Every command belongs to exactly
+ * one property, which decides the sequencer lane it runs on.
+ *
+ * @param <T> the result returned to the caller
+ */
+public sealed interface PropertyCommand<T> {
+
+    record CreateBooking(BookingRequest request) implements PropertyCommand<BookingResponse> {
+    }
+
+    /**
+     * Books the dates of a hold that stays placed until the booking commits, so only this hold
+     * is left out of the conflict checks.
+     */
+    record ConfirmHold(UUID holdId, BookingRequest request) implements PropertyCommand<BookingResponse> {
+    }
+
+    record UpdateBooking(UUID bookingId, BookingUpdateRequest request, Set<Long> expectedVersions)
+            implements PropertyCommand<BookingResponse> {
+    }
+
+    record CancelBooking(UUID bookingId, Set<Long> expectedVersions) implements PropertyCommand<BookingResponse> {
+    }
+
+    record CancelBookings(UUID propertyId, LocalDate from, LocalDate to) implements PropertyCommand<BulkCancelResponse> {
+    }
+
+    record RebookBooking(UUID bookingId, Set<Long> expectedVersions) implements PropertyCommand<BookingResponse> {
+    }
+
+    record DeleteBooking(UUID bookingId) implements PropertyCommand<Void> {
+    }
+
+    record CreateBlock(BlockRequest request) implements PropertyCommand<BlockResponse> {
+    }
+
+    record UpdateBlock(UUID blockId, BlockUpdateRequest request, Set<Long> expectedVersions)
+            implements PropertyCommand<BlockResponse> {
+    }
+
+    record DeleteBlock(UUID blockId, UUID ownerId) implements PropertyCommand<Void> {
+    }
+}
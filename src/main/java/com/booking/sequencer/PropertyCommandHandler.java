@@ -0,0 +1,62 @@
+package com.booking.sequencer;
+
+import com.booking.sequencer.PropertyCommand.*;
+import com.booking.service.BlockService;
+import com.booking.service.BookingService;
+import lombok.RequiredArgsConstructor;
+import org.springframework.stereotype.Component;
+
+import java.util.UUID;
+
+/**
+ * Runs commands against the booking and block services, which own validation and persistence.
+ */
+@Component
+@RequiredArgsConstructor
+public class PropertyCommandHandler {
+
+    private final BookingService bookingService;
+    private final BlockService blockService;
+
+    @SuppressWarnings("unchecked")
+    public <T> T execute(PropertyCommand<T> command) {
+        Object result = switch (command) {
+            case CreateBooking c -> bookingService.createBooking(c.request());
+            case ConfirmHold c -> bookingService.confirmHold(c.request(), c.holdId());
+            case UpdateBooking c -> bookingService.updateBooking(c.bookingId(), c.request(), c.expectedVersions());
+            case CancelBooking c -> bookingService.cancelBooking(c.bookingId(), c.expectedVersions());
+            case CancelBookings c -> bookingService.cancelBookings(c.propertyId(), c.from(), c.to());
+            case RebookBooking c -> bookingService.rebookCancelledBooking(c.bookingId(), c.expectedVersions());
+            case DeleteBooking c -> {
+                bookingService.deleteBooking(c.bookingId());
+                yield null;
+            }
+            case CreateBlock c -> blockService.createBlock(c.request());
+            case UpdateBlock c -> blockService.updateBlock(c.blockId(), c.request(), c.expectedVersions());
+            case DeleteBlock c -> {
+                blockService.deleteBlock(c.blockId(), c.ownerId());
+                yield null;
+            }
+        };
+        return (T) result;
+    }
+
+    /**
+     * Resolves the property a command belongs to. Commands addressed by booking or block id look
+     * the id up first, which also reports unknown ids as not found before anything is queued.
+     */
+    public UUID propertyOf(PropertyCommand<?> command) {
+        return switch (command) {
+            case CreateBooking c -> c.request().getPropertyId();
+            case ConfirmHold c -> c.request().getPropertyId();
+            case UpdateBooking c -> bookingService.getBooking(c.bookingId()).getPropertyId();
+            case CancelBooking c -> bookingService.getBooking(c.bookingId()).getPropertyId();
+            case CancelBookings c -> c.propertyId();
+            case RebookBooking c -> bookingService.getBooking(c.bookingId()).getPropertyId();
+            case DeleteBooking c -> bookingService.getBooking(c.bookingId()).getPropertyId();
+            case CreateBlock c -> c.request().getPropertyId();
+            case UpdateBlock c -> blockService.getBlock(c.blockId()).getPropertyId();
+            case DeleteBlock c -> blockService.getBlock(c.blockId()).getPropertyId();
+        };
+    }
+}
@@ -0,0 +1,379 @@
+package com.booking.sequencer;
+
+import com.booking.dto.BlockResponse;
+import com.booking.dto.BookingResponse;
+import com.booking.dto.BulkCancelResponse;
+import com.booking.exception.BookingException;
+import com.booking.model.BookingStatus;
+import com.booking.model.Property;
+import com.booking.repository.BlockRepository;
+import com.booking.repository.BookingRepository;
+import com.booking.repository.PropertyRepository;
+import com.booking.sequencer.PropertyCalendar.Kind;
+import com.booking.sequencer.PropertyCalendar.Stay;
+import com.booking.sequencer.PropertyCommand.*;
+import com.booking.sharding.ShardContext;
+import com.booking.sharding.ShardRouter;
+import com.booking.validator.BookingValidator;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.time.LocalDate;
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.List;
+import java.util.Optional;
+import java.util.Queue;
+import java.util.UUID;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentLinkedQueue;
+import java.util.concurrent.ConcurrentMap;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.TimeoutException;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.function.Supplier;
+
+/**
+ * Runs all booking and block mutations of a property one at a time on that property's lane.
+ * Each lane keeps the property's calendar in memory and rejects commands that conflict with it
+ * before opening a transaction. Commands that pass still run through the services, whose
+ * database checks stay authoritative, as the calendar can miss writes made elsewhere. Commands
+ * that queued up meanwhile are committed in one transaction; a command run on its own gets its
+ * own service transaction, so conflicting versions are retried like outside the lane. Lanes of
+ * different properties run independently of each other.
+ * <p>
+ * A calendar holds only the stays that have not ended yet. Writers that change a property's
+ * bookings or blocks without going through its lane call {@link #invalidate} once they commit,
+ * and the lane reloads its calendar before its next command. Lanes that stay idle for
+ * {@code booking.sequencer.idle-timeout} are dropped together with their calendars.
+ */
+@Slf4j
+public class PropertySequencer implements AutoCloseable {
+
+    private final PropertyCommandHandler commandHandler;
+    private final BookingValidator bookingValidator;
+    private final PropertyRepository propertyRepository;
+    private final BookingRepository bookingRepository;
+    private final BlockRepository blockRepository;
+    private final TransactionTemplate transactionTemplate;
+    private final SequencerProperties properties;
+    private final ShardRouter shardRouter;
+
+    private final ExecutorService executor = Executors.newVirtualThreadPerTaskExecutor();
+    private final ConcurrentMap<UUID, Lane> lanes = new ConcurrentHashMap<>();
+
+    public PropertySequencer(PropertyCommandHandler commandHandler, BookingValidator bookingValidator,
+                             PropertyRepository propertyRepository, BookingRepository bookingRepository,
+                             BlockRepository blockRepository, TransactionTemplate transactionTemplate,
+                             SequencerProperties properties, ShardRouter shardRouter) {
+        this.commandHandler = commandHandler;
+        this.bookingValidator = bookingValidator;
+        this.propertyRepository = propertyRepository;
+        this.bookingRepository = bookingRepository;
+        this.blockRepository = blockRepository;
+        this.transactionTemplate = transactionTemplate;
+        this.properties = properties;
+        this.shardRouter = shardRouter;
+    }
+
+    public <T> T submit(UUID propertyId, PropertyCommand<T> command) {
+        Pending<T> pending = new Pending<>(command, new CompletableFuture<>());
+        // Enqueue inside compute, so an idle lane cannot be evicted between lookup and enqueue
+        lanes.compute(propertyId, (id, lane) -> {
+            Lane target = lane != null ? lane : new Lane(id);
+            target.enqueue(pending);
+            return target;
+        });
+
+        try {
+            return pending.result().get(properties.getSubmitTimeout().toMillis(), TimeUnit.MILLISECONDS);
+        } catch (ExecutionException e) {
+            if (e.getCause() instanceof RuntimeException runtimeException) {
+                throw runtimeException;
+            }
+            throw new IllegalStateException(e.getCause());
+        } catch (TimeoutException e) {
+            throw new IllegalStateException("Timed out waiting for a command on property " + propertyId);
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            throw new IllegalStateException("Interrupted while waiting for a command on property " + propertyId);
+        }
+    }
+
+    /**
+     * Makes the lanes of these properties reload their calendars before their next command.
+     * Call it after the out-of-lane change has committed, or the reload may miss it.
+     */
+    public void invalidate(Collection<UUID> propertyIds) {
+        for (UUID propertyId : propertyIds) {
+            Lane lane = lanes.get(propertyId);
+            if (lane != null) {
+                lane.stale.set(true);
+            }
+        }
+    }
+
+    @Scheduled(fixedDelayString = "${booking.sequencer.idle-timeout:10m}")
+    public void evictIdleLanes() {
+        long now = System.nanoTime();
+        long idleNanos = properties.getIdleTimeout().toNanos();
+        int before = lanes.size();
+        lanes.keySet().forEach(propertyId ->
+                lanes.computeIfPresent(propertyId, (id, lane) -> lane.isIdle(now, idleNanos) ? null : lane));
+        log.debug("Evicted {} idle sequencer lanes, {} left", before - lanes.size(), lanes.size());
+    }
+
+    @Override
+    public void close() {
+        executor.shutdown();
+    }
+
+    private record Pending<T>(PropertyCommand<T> command, CompletableFuture<T> result) {
+
+        @SuppressWarnings("unchecked")
+        void complete(Object value) {
+            result.complete((T) value);
+        }
+    }
+
+    private record Outcome(Pending<?> pending, Object value, RuntimeException failure) {
+
+        void deliver() {
+            if (failure != null) {
+                pending.result().completeExceptionally(failure);
+            } else {
+                pending.complete(value);
+            }
+        }
+    }
+
+    private final class Lane {
+
+        private final UUID propertyId;
+        private final Queue<Pending<?>> queue = new ConcurrentLinkedQueue<>();
+        private final AtomicBoolean draining = new AtomicBoolean();
+        private final AtomicBoolean stale = new AtomicBoolean();
+        private volatile long lastActiveNanos = System.nanoTime();
+
+        // Only touched by the thread currently draining this lane
+        private PropertyCalendar calendar;
+
+        Lane(UUID propertyId) {
+            this.propertyId = propertyId;
+        }
+
+        void enqueue(Pending<?> pending) {
+            lastActiveNanos = System.nanoTime();
+            queue.add(pending);
+            scheduleDrain();
+        }
+
+        boolean isIdle(long now, long idleNanos) {
+            return queue.isEmpty() && !draining.get() && now - lastActiveNanos >= idleNanos;
+        }
+
+        private void scheduleDrain() {
+            if (draining.compareAndSet(false, true)) {
+                executor.execute(this::drain);
+            }
+        }
+
+        private void drain() {
+            try {
+                List<Pending<?>> batch;
+                while (!(batch = nextBatch()).isEmpty()) {
+                    List<Pending<?>> commands = batch;
+                    try {
+                        onPropertyShard(() -> {
+                            process(commands);
+                            return null;
+                        });
+                    } catch (RuntimeException e) {
+                        log.error("Sequencer lane for property {} failed", propertyId, e);
+                        calendar = null;
+                        commands.forEach(pending -> pending.result().completeExceptionally(e));
+                    }
+                }
+            } finally {
+                lastActiveNanos = System.nanoTime();
+                draining.set(false);
+                // A command may have arrived after the last poll but before the flag was cleared
+                if (!queue.isEmpty()) {
+                    scheduleDrain();
+                }
+            }
+        }
+
+        private List<Pending<?>> nextBatch() {
+            List<Pending<?>> batch = new ArrayList<>();
+            Pending<?> pending;
+            while (batch.size() < properties.getMaxBatchSize() && (pending = queue.poll()) != null) {
+                batch.add(pending);
+            }
+            return batch;
+        }
+
+        private void process(List<Pending<?>> batch) {
+            boolean invalidated = stale.getAndSet(false);
+            if (calendar == null || invalidated) {
+                calendar = loadCalendar();
+            }
+            if (batch.size() == 1) {
+                processAlone(batch.get(0));
+                return;
+            }
+
+            List<Outcome> outcomes = new ArrayList<>();
+            try {
+                transactionTemplate.executeWithoutResult(status -> {
+                    for (Pending<?> pending : batch) {
+                        try {
+                            checkCalendar(pending.command());
+                        } catch (BookingException e) {
+                            outcomes.add(new Outcome(pending, null, e));
+                            continue;
+                        }
+                        Object result = commandHandler.execute(pending.command());
+                        applyToCalendar(pending.command(), result);
+                        outcomes.add(new Outcome(pending, result, null));
+                    }
+                });
+            } catch (RuntimeException e) {
+                // A command failed inside the shared transaction; replay them one by one so only that one fails,
+                // and a version conflict is retried in the command's own transaction
+                log.debug("Group commit of {} commands for property {} failed, replaying individually", batch.size(), propertyId);
+                calendar = loadCalendar();
+                batch.forEach(this::processAlone);
+                return;
+            }
+
+            log.debug("Committed {} commands for property {} in one transaction", batch.size(), propertyId);
+            outcomes.forEach(Outcome::deliver);
+        }
+
+        private void processAlone(Pending<?> pending) {
+            try {
+                checkCalendar(pending.command());
+            } catch (BookingException e) {
+                pending.result().completeExceptionally(e);
+                return;
+            }
+
+            Object result;
+            try {
+                // No surrounding transaction, so the service opens its own and can retry on a version conflict
+                result = commandHandler.execute(pending.command());
+            } catch (RuntimeException e) {
+                // The database may know about changes the calendar missed, so start over from it
+                calendar = loadCalendar();
+                pending.result().completeExceptionally(e);
+                return;
+            }
+            applyToCalendar(pending.command(), result);
+            pending.complete(result);
+        }
+
+        private void checkCalendar(PropertyCommand<?> command) {
+            // A missing property is left to the services, which report it as not found
+            if (calendar.ownerId() == null) {
+                return;
+            }
+
+            switch (command) {
+                case CreateBooking c -> {
+                    bookingValidator.validateDates(c.request().getStartDate(), c.request().getEndDate());
+                    validateNoConflicts(c.request().getStartDate(), c.request().getEndDate(), null);
+                }
+                case ConfirmHold c -> {
+                    bookingValidator.validateDates(c.request().getStartDate(), c.request().getEndDate());
+                    validateNoConflicts(c.request().getStartDate(), c.request().getEndDate(), c.holdId());
+                }
+                case UpdateBooking c -> {
+                    Optional<Stay> stay = calendar.get(c.bookingId());
+                    if (stay.isPresent() && (c.request().getStartDate() != null || c.request().getEndDate() != null)) {
+                        LocalDate startDate = c.request().getStartDate() != null ? c.request().getStartDate() : stay.get().startDate();
+                        LocalDate endDate = c.request().getEndDate() != null ? c.request().getEndDate() : stay.get().endDate();
+                        bookingValidator.validateDates(startDate, endDate);
+                        bookingValidator.validateNoConflicts(calendar.findConflicts(startDate, endDate, c.bookingId()),
+                                propertyId, startDate, endDate, null);
+                    }
+                }
+                case CreateBlock c -> {
+                    validateOwner(c.request().getOwnerId());
+                    bookingValidator.validateDates(c.request().getStartDate(), c.request().getEndDate());
+                    validateNoConflicts(c.request().getStartDate(), c.request().getEndDate(), null);
+                }
+                case UpdateBlock c -> {
+                    Optional<Stay> stay = calendar.get(c.blockId());
+                    if (stay.isPresent()) {
+                        validateOwner(c.request().getOwnerId());
+                        if (c.request().getStartDate() != null || c.request().getEndDate() != null) {
+                            LocalDate startDate = c.request().getStartDate() != null ? c.request().getStartDate() : stay.get().startDate();
+                            LocalDate endDate = c.request().getEndDate() != null ? c.request().getEndDate() : stay.get().endDate();
+                            bookingValidator.validateDates(startDate, endDate);
+                            bookingValidator.validateNoConflictsForBlockUpdate(
+                                    calendar.findConflicts(startDate, endDate, c.blockId()), propertyId, startDate, endDate);
+                        }
+                    }
+                }
+                // Cancelling and deleting cannot conflict, and cancelled bookings are not in the calendar
+                default -> {
+                }
+            }
+        }
+
+        private void validateNoConflicts(LocalDate startDate, LocalDate endDate, UUID excludeHoldId) {
+            bookingValidator.validateNoConflicts(calendar.findConflicts(startDate, endDate, null), propertyId,
+                    startDate, endDate, excludeHoldId);
+        }
+
+        private void validateOwner(UUID ownerId) {
+            if (!calendar.ownerId().equals(ownerId)) {
+                throw new BookingException("You are not authorized to manage blocks for this property");
+            }
+        }
+
+        private void applyToCalendar(PropertyCommand<?> command, Object result) {
+            switch (command) {
+                case DeleteBooking c -> calendar.remove(c.bookingId());
+                case DeleteBlock c -> calendar.remove(c.blockId());
+                case CancelBookings c -> ((BulkCancelResponse) result).getGuests().stream()
+                        .flatMap(guest -> guest.getBookingIds().stream())
+                        .forEach(calendar::remove);
+                default -> {
+                    if (result instanceof BookingResponse booking) {
+                        if (booking.getStatus() == BookingStatus.CONFIRMED) {
+                            calendar.put(booking.getId(), Kind.BOOKING, booking.getStartDate(), booking.getEndDate());
+                        } else {
+                            calendar.remove(booking.getId());
+                        }
+                    } else if (result instanceof BlockResponse block) {
+                        calendar.put(block.getId(), Kind.BLOCK, block.getStartDate(), block.getEndDate());
+                    }
+                }
+            }
+        }
+
+        private PropertyCalendar loadCalendar() {
+            // Stays that ended before today cannot conflict with a valid command, so history is left out
+            LocalDate today = LocalDate.now();
+            return transactionTemplate.execute(status -> PropertyCalendar.of(
+                    propertyRepository.findById(propertyId).map(Property::getOwnerId).orElse(null),
+                    bookingRepository.findByPropertyIdAndStatusAndEndDateGreaterThanEqual(
+                            propertyId, BookingStatus.CONFIRMED, today),
+                    blockRepository.findByPropertyIdAndEndDateGreaterThanEqual(propertyId, today)));
+        }
+
+        private <T> T onPropertyShard(Supplier<T> action) {
+            if (shardRouter == null) {
+                return action.get();
+            }
+            return ShardContext.callOn(shardRouter.shardFor(propertyId), action);
+        }
+    }
+}
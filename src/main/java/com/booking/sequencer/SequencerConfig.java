@@ -0,0 +1,30 @@
+package com.booking.sequencer;
+
+import com.booking.repository.BlockRepository;
+import com.booking.repository.BookingRepository;
+import com.booking.repository.PropertyRepository;
+import com.booking.sharding.ShardRouter;
+import com.booking.validator.BookingValidator;
+import org.springframework.beans.factory.ObjectProvider;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.boot.context.properties.EnableConfigurationProperties;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.support.TransactionTemplate;
+
+@Configuration
+@EnableConfigurationProperties(SequencerProperties.class)
+@ConditionalOnProperty(prefix = "booking.sequencer", name = "enabled", havingValue = "true")
+public class SequencerConfig {
+
+    @Bean
+    public PropertySequencer propertySequencer(
+            PropertyCommandHandler commandHandler, BookingValidator bookingValidator,
+            PropertyRepository propertyRepository, BookingRepository bookingRepository, BlockRepository blockRepository,
+            PlatformTransactionManager transactionManager, SequencerProperties properties,
+            ObjectProvider<ShardRouter> shardRouter) {
+        return new PropertySequencer(commandHandler, bookingValidator, propertyRepository, bookingRepository,
+                blockRepository, new TransactionTemplate(transactionManager), properties, shardRouter.getIfAvailable());
+    }
+}
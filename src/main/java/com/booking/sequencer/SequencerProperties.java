@@ -0,0 +1,22 @@
+package com.booking.sequencer;
+
+import lombok.Data;
+import org.springframework.boot.context.properties.ConfigurationProperties;
+
+import java.time.Duration;
+
+@Data
+@ConfigurationProperties(prefix = "booking.sequencer")
+public class SequencerProperties {
+
+    private boolean enabled;
+
+    /** Most commands of one property committed together in a single transaction. */
+    private int maxBatchSize = 64;
+
+    /** How long a caller waits for its command before giving up. */
+    private Duration submitTimeout = Duration.ofSeconds(10);
+
+    /** How long a lane may go without commands before it and its calendar are dropped. */
+    private Duration idleTimeout = Duration.ofMinutes(10);
+}
@@ -0,0 +1,272 @@
+package com.booking.service;
+
+import com.booking.exception.BookingException;
+import com.booking.model.RecurringBlock;
+import com.booking.recurrence.RecurrenceRule;
+import com.booking.repository.AvailabilityMatrixRepository;
+import com.booking.repository.ChangeEventRepository;
+import com.booking.repository.RecurringBlockRepository;
+import com.booking.sharding.ShardContext;
+import com.booking.sharding.ShardRouter;
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.ObjectProvider;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.io.ByteArrayOutputStream;
+import java.io.DataOutputStream;
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.nio.charset.StandardCharsets;
+import java.time.LocalDate;
+import java.time.temporal.ChronoUnit;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.BitSet;
+import java.util.Comparator;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.UUID;
+import java.util.function.Supplier;
+import java.util.stream.Collectors;
+import java.util.stream.IntStream;
+
+/**
+ * Builds the properties-by-days availability matrix served to partners.
+ *
+ * <p>Binary layout (all integers big-endian):
+ * <pre>
+ * magic      4 bytes   ASCII "BKAV"
+ * version    1 byte    1
+ * fromDay    int32     first day of the matrix, as epoch day
+ * days       int32     number of day columns
+ * properties int32     number of property rows that follow
+ * per property, ordered by property id:
+ *   id       16 bytes  UUID (most significant bits, then least significant bits)
+ *   runs     uint16    number of unavailable runs that follow
+ *   per run, in ascending order:
+ *     offset uint16    first unavailable day, relative to fromDay
+ *     length uint16    number of consecutive unavailable days
+ * </pre>
+ * A day is unavailable when a confirmed booking, a block or an occurrence of a recurring block
+ * covers it (both ends inclusive).
+ * The encoded matrix is cached until the change journal moves past the sequence it was built at.
+ * It is only cached while no unfinished writer can still commit below that sequence (see
+ * {@link ChangeJournalWatermark}), as such a commit would not move the latest sequence on.
+ * With sharding enabled, every shard contributes the rows of its own properties and keeps its
+ * own journal, so the cache is tied to the latest sequence of each shard.
+ */
+@Service
+@RequiredArgsConstructor
+@Slf4j
+public class AvailabilityMatrixService {
+
+    public static final int MAX_DAYS = 730;
+    static final byte[] MAGIC = "BKAV".getBytes(StandardCharsets.US_ASCII);
+    static final byte FORMAT_VERSION = 1;
+
+    private final AvailabilityMatrixRepository availabilityMatrixRepository;
+    private final ChangeEventRepository changeEventRepository;
+    private final ChangeJournalWatermark changeJournalWatermark;
+    private final RecurringBlockRepository recurringBlockRepository;
+    private final ObjectProvider<ShardRouter> shardRouter;
+    private final PlatformTransactionManager transactionManager;
+
+    private volatile CachedMatrix cachedMatrix;
+
+    public byte[] getAvailabilityMatrix(LocalDate from, int days) {
+        if (days < 1 || days > MAX_DAYS) {
+            throw new BookingException("Parameter 'days' must be between 1 and " + MAX_DAYS);
+        }
+
+        ShardRouter router = shardRouter.getIfAvailable();
+        int shards = router == null ? 1 : router.shardCount();
+        long[] latestSeqs = IntStream.range(0, shards)
+                .mapToLong(shard -> ShardContext.callOn(shard, changeEventRepository::findLatestSeq))
+                .toArray();
+        boolean settled = IntStream.range(0, shards)
+                .allMatch(shard -> ShardContext.callOn(shard, () -> changeJournalWatermark.isSettled(latestSeqs[shard])));
+        CachedMatrix cached = cachedMatrix;
+        if (cached != null && cached.matches(from, days, latestSeqs)) {
+            log.debug("Serving cached availability matrix built at change {}", Arrays.toString(latestSeqs));
+            return cached.payload();
+        }
+
+        log.info("Building availability matrix from {} for {} days", from, days);
+        byte[] payload = router == null ? buildMatrix(from, days) : buildShardedMatrix(router, from, days);
+        if (settled) {
+            cachedMatrix = new CachedMatrix(from, days, latestSeqs, payload);
+        }
+        return payload;
+    }
+
+    private byte[] buildMatrix(LocalDate from, int days) {
+        LocalDate to = from.plusDays(days - 1L);
+        ByteArrayOutputStream body = new ByteArrayOutputStream();
+        MatrixWriter writer = inReadOnlyTransaction(() -> {
+            MatrixWriter matrixWriter = new MatrixWriter(new DataOutputStream(body), from, days, findRecurringRules(from, to));
+            availabilityMatrixRepository.forEachOccupiedInterval(from, to, matrixWriter::accept);
+            return matrixWriter;
+        });
+        writer.finish();
+        return encode(from, days, writer, body);
+    }
+
+    /**
+     * Properties are replicated to every shard, their bookings and blocks live on one. Each shard
+     * contributes the intervals of its own properties, already ordered by property id, and the
+     * shard lists are merged back into one order before they are encoded.
+     */
+    private byte[] buildShardedMatrix(ShardRouter router, LocalDate from, int days) {
+        LocalDate to = from.plusDays(days - 1L);
+        List<OccupiedInterval> intervals = new ArrayList<>();
+        Map<UUID, List<RecurrenceRule>> recurringRules = new HashMap<>();
+        for (int shard = 0; shard < router.shardCount(); shard++) {
+            int current = shard;
+            ShardContext.callOn(shard, () -> inReadOnlyTransaction(() -> {
+                availabilityMatrixRepository.forEachOccupiedInterval(from, to, (propertyId, startDate, endDate) -> {
+                    if (router.shardFor(propertyId) == current) {
+                        intervals.add(new OccupiedInterval(propertyId, startDate, endDate));
+                    }
+                });
+                recurringRules.putAll(findRecurringRules(from, to));
+                return null;
+            }));
+        }
+        // The database orders ids as unsigned numbers; the sort is stable, so a property's intervals stay together
+        intervals.sort(Comparator.comparing(OccupiedInterval::propertyId, AvailabilityMatrixService::compareIds));
+
+        ByteArrayOutputStream body = new ByteArrayOutputStream();
+        MatrixWriter writer = new MatrixWriter(new DataOutputStream(body), from, days, recurringRules);
+        intervals.forEach(interval -> writer.accept(interval.propertyId(), interval.startDate(), interval.endDate()));
+        writer.finish();
+        return encode(from, days, writer, body);
+    }
+
+    private Map<UUID, List<RecurrenceRule>> findRecurringRules(LocalDate from, LocalDate to) {
+        return recurringBlockRepository.findAllActive(from, to).stream()
+                .collect(Collectors.groupingBy(RecurringBlock::getPropertyId,
+                        Collectors.mapping(RecurrenceRule::of, Collectors.toList())));
+    }
+
+    /**
+     * Starts the transaction only after the shard is bound, so it runs on that shard, or on the
+     * read replica when sharding is off.
+     */
+    private <T> T inReadOnlyTransaction(Supplier<T> action) {
+        TransactionTemplate transactionTemplate = new TransactionTemplate(transactionManager);
+        transactionTemplate.setReadOnly(true);
+        return transactionTemplate.execute(status -> action.get());
+    }
+
+    private static int compareIds(UUID first, UUID second) {
+        int high = Long.compareUnsigned(first.getMostSignificantBits(), second.getMostSignificantBits());
+        return high != 0 ? high : Long.compareUnsigned(first.getLeastSignificantBits(), second.getLeastSignificantBits());
+    }
+
+    private byte[] encode(LocalDate from, int days, MatrixWriter writer, ByteArrayOutputStream body) {
+        try {
+            ByteArrayOutputStream result = new ByteArrayOutputStream(body.size() + 17);
+            DataOutputStream out = new DataOutputStream(result);
+            out.write(MAGIC);
+            out.writeByte(FORMAT_VERSION);
+            out.writeInt((int) from.toEpochDay());
+            out.writeInt(days);
+            out.writeInt(writer.propertyCount);
+            body.writeTo(out);
+            out.flush();
+            return result.toByteArray();
+        } catch (IOException e) {
+            throw new UncheckedIOException(e);
+        }
+    }
+
+    /**
+     * Accumulates the occupied days of the current property and flushes them as runs
+     * when the next property starts, so only one property's bitmap is held at a time.
+     */
+    private static final class MatrixWriter {
+
+        private final DataOutputStream out;
+        private final LocalDate from;
+        private final int days;
+        private final BitSet occupied;
+        private final Map<UUID, List<RecurrenceRule>> recurringRules;
+
+        private UUID currentProperty;
+        private int propertyCount;
+
+        private MatrixWriter(DataOutputStream out, LocalDate from, int days, Map<UUID, List<RecurrenceRule>> recurringRules) {
+            this.out = out;
+            this.from = from;
+            this.days = days;
+            this.occupied = new BitSet(days);
+            this.recurringRules = recurringRules;
+        }
+
+        private void accept(UUID propertyId, LocalDate startDate, LocalDate endDate) {
+            if (!propertyId.equals(currentProperty)) {
+                flushCurrent();
+                currentProperty = propertyId;
+            }
+            if (startDate != null && endDate != null) {
+                int first = (int) Math.max(0, ChronoUnit.DAYS.between(from, startDate));
+                int last = (int) Math.min(days - 1L, ChronoUnit.DAYS.between(from, endDate));
+                if (first <= last) {
+                    occupied.set(first, last + 1);
+                }
+            }
+        }
+
+        private void finish() {
+            flushCurrent();
+        }
+
+        private void flushCurrent() {
+            if (currentProperty == null) {
+                return;
+            }
+            recurringRules.getOrDefault(currentProperty, List.of())
+                    .forEach(rule -> rule.markBlockedDays(occupied, from, days));
+            try {
+                out.writeLong(currentProperty.getMostSignificantBits());
+                out.writeLong(currentProperty.getLeastSignificantBits());
+                out.writeShort(countRuns());
+                for (int start = occupied.nextSetBit(0); start >= 0; ) {
+                    int end = occupied.nextClearBit(start);
+                    out.writeShort(start);
+                    out.writeShort(end - start);
+                    start = occupied.nextSetBit(end);
+                }
+            } catch (IOException e) {
+                throw new UncheckedIOException(e);
+            }
+            occupied.clear();
+            propertyCount++;
+        }
+
+        private int countRuns() {
+            int runs = 0;
+            for (int start = occupied.nextSetBit(0); start >= 0; start = occupied.nextSetBit(occupied.nextClearBit(start))) {
+                runs++;
+            }
+            return runs;
+        }
+    }
+
+    private record OccupiedInterval(UUID propertyId, LocalDate startDate, LocalDate endDate) {
+    }
+
+    /**
+     * @param seqs the latest change journal sequence of each shard when the matrix was built
+     */
+    private record CachedMatrix(LocalDate from, int days, long[] seqs, byte[] payload) {
+
+        private boolean matches(LocalDate from, int days, long[] seqs) {
+            return this.from.equals(from) && this.days == days && Arrays.equals(this.seqs, seqs);
+        }
+    }
+}
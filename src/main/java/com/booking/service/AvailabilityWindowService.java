@@ -0,0 +1,119 @@
+package com.booking.service;
+
+import com.booking.dto.AvailableWindowResponse;
+import com.booking.exception.BookingException;
+import com.booking.model.RecurringBlock;
+import com.booking.recurrence.RecurrenceRule;
+import com.booking.recurrence.RecurrenceRule.Occurrence;
+import com.booking.repository.AvailabilityMatrixRepository;
+import com.booking.repository.ChangeEventRepository;
+import com.booking.repository.RecurringBlockRepository;
+import com.booking.sharding.ShardKey;
+import com.booking.validator.BookingValidator;
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.annotation.Transactional;
+
+import java.time.LocalDate;
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.List;
+import java.util.UUID;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentMap;
+
+/**
+ * Answers "when is the next free stay of N nights" from a per-property index of free gaps.
+ * The index is built from the property's confirmed bookings, blocks and recurring block
+ * occurrences and reused until the property's change journal moves on or the day changes. It
+ * is only cached while no unfinished writer can still commit below the property's latest
+ * change (see {@link ChangeJournalWatermark}).
+ */
+@Service
+@RequiredArgsConstructor
+@Slf4j
+public class AvailabilityWindowService {
+
+    public static final int MAX_NIGHTS = 365;
+    public static final int MAX_LIMIT = 100;
+    private static final int MAX_CACHED_PROPERTIES = 10_000;
+
+    private final AvailabilityMatrixRepository availabilityMatrixRepository;
+    private final ChangeEventRepository changeEventRepository;
+    private final ChangeJournalWatermark changeJournalWatermark;
+    private final RecurringBlockRepository recurringBlockRepository;
+    private final BookingValidator bookingValidator;
+
+    private final ConcurrentMap<UUID, CachedIndex> gapIndexes = new ConcurrentHashMap<>();
+
+    @Transactional(readOnly = true)
+    public List<AvailableWindowResponse> findNextAvailable(@ShardKey UUID propertyId, int nights, LocalDate after, int limit) {
+        if (nights < 1 || nights > MAX_NIGHTS) {
+            throw new BookingException("Parameter 'nights' must be between 1 and " + MAX_NIGHTS);
+        }
+        if (limit < 1 || limit > MAX_LIMIT) {
+            throw new BookingException("Parameter 'limit' must be between 1 and " + MAX_LIMIT);
+        }
+        bookingValidator.validatePropertyExists(propertyId);
+
+        LocalDate today = LocalDate.now();
+        LocalDate earliest = after != null && after.isAfter(today) ? after : today;
+        log.info("Finding {} windows of {} nights for property {} from {}", limit, nights, propertyId, earliest);
+
+        // A stay of N nights occupies N + 1 days, as booking dates are inclusive on both ends
+        List<AvailableWindowResponse> windows = new ArrayList<>(limit);
+        gapIndex(propertyId, today).findWindows(earliest, nights + 1L, limit, (firstDay, lastFreeDay) ->
+                windows.add(AvailableWindowResponse.builder()
+                        .startDate(LocalDate.ofEpochDay(firstDay))
+                        .endDate(LocalDate.ofEpochDay(firstDay + nights))
+                        .availableUntil(lastFreeDay == FreeGapIndex.OPEN_END ? null : LocalDate.ofEpochDay(lastFreeDay))
+                        .build()));
+        return windows;
+    }
+
+    private FreeGapIndex gapIndex(UUID propertyId, LocalDate today) {
+        long latestSeq = changeEventRepository.findLatestSeqByPropertyId(propertyId);
+        boolean settled = changeJournalWatermark.isSettled(latestSeq);
+        CachedIndex cached = gapIndexes.get(propertyId);
+        if (cached != null && cached.matches(today, latestSeq)) {
+            return cached.index();
+        }
+
+        FreeGapIndex.Builder builder = FreeGapIndex.builder(today);
+        List<RecurringBlock> recurringBlocks = recurringBlockRepository.findByPropertyIdAndLastBlockedDateGreaterThanEqual(propertyId, today);
+        if (recurringBlocks.isEmpty()) {
+            availabilityMatrixRepository.forEachOccupiedInterval(propertyId, today,
+                    (property, startDate, endDate) -> builder.occupied(startDate, endDate));
+        } else {
+            // The builder takes intervals in start order, so the occurrences are merged in
+            List<Occurrence> intervals = new ArrayList<>();
+            availabilityMatrixRepository.forEachOccupiedInterval(propertyId, today,
+                    (property, startDate, endDate) -> intervals.add(new Occurrence(startDate, endDate)));
+            for (RecurringBlock block : recurringBlocks) {
+                RecurrenceRule rule = RecurrenceRule.of(block);
+                rule.occurrences(today, rule.lastBlockedDate()).forEachRemaining(intervals::add);
+            }
+            intervals.sort(Comparator.comparing(Occurrence::startDate));
+            intervals.forEach(interval -> builder.occupied(interval.startDate(), interval.endDate()));
+        }
+        FreeGapIndex index = builder.build();
+        log.debug("Built free gap index with {} gaps for property {} at change {}", index.size(), propertyId, latestSeq);
+
+        if (!settled) {
+            return index;
+        }
+        if (gapIndexes.size() >= MAX_CACHED_PROPERTIES) {
+            gapIndexes.clear();
+        }
+        gapIndexes.put(propertyId, new CachedIndex(today, latestSeq, index));
+        return index;
+    }
+
+    private record CachedIndex(LocalDate builtOn, long seq, FreeGapIndex index) {
+
+        private boolean matches(LocalDate today, long seq) {
+            return builtOn.equals(today) && this.seq == seq;
+        }
+    }
+}
@@ -3,14 +3,21 @@ package com.booking.service;
 import com.booking.dto.BlockRequest;
 import com.booking.dto.BlockResponse;
 import com.booking.dto.BlockUpdateRequest;
+import com.booking.dto.SparseFieldset;
 import com.booking.exception.BookingException;
+import com.booking.exception.PreconditionFailedException;
 import com.booking.exception.ResourceNotFoundException;
 import com.booking.model.Block;
 import com.booking.model.Booking;
+import com.booking.model.ChangeOperation;
 import com.booking.model.Property;
+import com.booking.repository.ArchivedBlockRepository;
+import com.booking.repository.BlockProjectionRepository;
 import com.booking.repository.BlockRepository;
 import com.booking.repository.BookingRepository;
 import com.booking.repository.PropertyRepository;
+import com.booking.retry.RetryOnConflict;
+import com.booking.sharding.ShardKey;
 import com.booking.validator.BookingValidator;
 import lombok.RequiredArgsConstructor;
 import lombok.extern.slf4j.Slf4j;
@@ -18,7 +25,9 @@ import org.springframework.stereotype.Service;
 import org.springframework.transaction.annotation.Transactional;
 
 import java.time.LocalDate;
+import java.util.ArrayList;
 import java.util.List;
+import java.util.Set;
 import java.util.UUID;
 
 @Service
@@ -27,83 +36,118 @@ import java.util.UUID;
 public class BlockService {
 
     private final BlockRepository blockRepository;
+    private final ArchivedBlockRepository archivedBlockRepository;
+    private final BlockProjectionRepository blockProjectionRepository;
     private final BookingRepository bookingRepository;
     private final PropertyRepository propertyRepository;
     private final BookingValidator bookingValidator;
+    private final ChangeLogService changeLogService;
+    private final OccupancyClaimService occupancyClaimService;
+    private final PropertyStatsService propertyStatsService;
+    private final ShardMoveFence shardMoveFence;
 
     @Transactional
-    public BlockResponse createBlock(BlockRequest request) {
+    public BlockResponse createBlock(@ShardKey BlockRequest request) {
         log.info("Creating block for property: {}", request.getPropertyId());
 
-        bookingValidator.validatePropertyExists(request.getPropertyId());
+        shardMoveFence.enter(request.getPropertyId());
         validateOwnership(request.getPropertyId(), request.getOwnerId());
         bookingValidator.validateDates(request.getStartDate(), request.getEndDate());
-        bookingValidator.validatePropertyNotBooked(request.getPropertyId(), request.getStartDate(), request.getEndDate());
-        bookingValidator.validatePropertyNotBlocked(request.getPropertyId(), request.getStartDate(), request.getEndDate());
+        bookingValidator.validateNoConflicts(request.getPropertyId(), request.getStartDate(), request.getEndDate());
 
         Block block = saveBlock(request);
+        occupancyClaimService.claimBlock(block);
+        propertyStatsService.addBlock(block);
+        changeLogService.recordBlockChange(block, ChangeOperation.CREATED);
         log.info("Block created successfully with id: {}", block.getId());
 
         return BlockResponse.fromModel(block);
     }
 
+    @RetryOnConflict
     @Transactional
-    public BlockResponse updateBlock(UUID blockId, BlockUpdateRequest request) {
+    public BlockResponse updateBlock(@ShardKey(ShardKey.Source.BLOCK) UUID blockId, BlockUpdateRequest request,
+                                     Set<Long> expectedVersions) {
         log.info("Updating block with id: {}", blockId);
 
         Block block = getBlockOrThrow(blockId);
+        shardMoveFence.enter(block.getPropertyId());
         validateOwnership(block.getPropertyId(), request.getOwnerId());
+        if (expectedVersions != null && !expectedVersions.contains(block.getVersion())) {
+            throw PreconditionFailedException.staleVersion("Block " + blockId, block.getVersion(), expectedVersions);
+        }
 
         if (request.getStartDate() != null || request.getEndDate() != null) {
             LocalDate newStartDate = request.getStartDate() != null ? request.getStartDate() : block.getStartDate();
             LocalDate newEndDate = request.getEndDate() != null ? request.getEndDate() : block.getEndDate();
 
             bookingValidator.validateDates(newStartDate, newEndDate);
-            bookingValidator.validatePropertyNotBooked(block.getPropertyId(), newStartDate, newEndDate);
-            bookingValidator.validateNoOverlappingBlocksForUpdate(block.getPropertyId(), newStartDate, newEndDate, blockId);
+            bookingValidator.validateNoConflictsForBlockUpdate(block.getPropertyId(), newStartDate, newEndDate, blockId);
 
+            propertyStatsService.removeBlock(block);
             block.setStartDate(newStartDate);
             block.setEndDate(newEndDate);
+            propertyStatsService.addBlock(block);
+
+            occupancyClaimService.release(blockId);
+            occupancyClaimService.claimBlock(block);
         }
 
         if (request.getReason() != null) {
             block.setReason(request.getReason());
         }
 
-        block = blockRepository.save(block);
+        block = blockRepository.saveAndFlush(block);
+        changeLogService.recordBlockChange(block, ChangeOperation.UPDATED);
         log.info("Block updated successfully with id: {}", block.getId());
 
         return BlockResponse.fromModel(block);
     }
 
     @Transactional
-    public void deleteBlock(UUID blockId, UUID ownerId) {
+    public void deleteBlock(@ShardKey(ShardKey.Source.BLOCK) UUID blockId, UUID ownerId) {
         log.info("Deleting block with id: {}", blockId);
 
         Block block = getBlockOrThrow(blockId);
+        shardMoveFence.enter(block.getPropertyId());
         validateOwnership(block.getPropertyId(), ownerId);
         blockRepository.delete(block);
+        occupancyClaimService.release(blockId);
+        propertyStatsService.removeBlock(block);
+        changeLogService.recordBlockChange(block, ChangeOperation.DELETED);
         
         log.info("Block deleted successfully with id: {}", blockId);
     }
 
     @Transactional(readOnly = true)
-    public BlockResponse getBlock(UUID blockId) {
+    public BlockResponse getBlock(@ShardKey(ShardKey.Source.BLOCK) UUID blockId) {
         log.info("Fetching block with id: {}", blockId);
-        Block block = getBlockOrThrow(blockId);
-        return BlockResponse.fromModel(block);
+        // Archived blocks stay readable by id, but can no longer be changed
+        return blockRepository.findById(blockId)
+                .map(BlockResponse::fromModel)
+                .or(() -> archivedBlockRepository.findById(blockId).map(BlockResponse::fromModel))
+                .orElseThrow(() -> new ResourceNotFoundException("Block not found with id: " + blockId));
     }
 
     @Transactional(readOnly = true)
-    public List<BlockResponse> getBlocksByPropertyId(UUID propertyId) {
-        log.info("Fetching blocks for property id: {}", propertyId);
+    public List<BlockResponse> getBlocksByPropertyId(@ShardKey UUID propertyId, boolean includeArchived,
+                                                     SparseFieldset fields) {
+        log.info("Fetching blocks for property id: {} (archived: {})", propertyId, includeArchived);
         
         bookingValidator.validatePropertyExists(propertyId);
+        if (!fields.isAll()) {
+            return blockProjectionRepository.findByPropertyId(propertyId, includeArchived, fields);
+        }
         
         List<Block> blocks = blockRepository.findByPropertyId(propertyId);
-        return blocks.stream()
+        List<BlockResponse> responses = new ArrayList<>(blocks.stream()
                 .map(BlockResponse::fromModel)
-                .toList();
+                .toList());
+        if (includeArchived) {
+            archivedBlockRepository.findByPropertyId(propertyId)
+                    .forEach(block -> responses.add(BlockResponse.fromModel(block)));
+        }
+        return responses;
     }
 
 
@@ -0,0 +1,148 @@
+package com.booking.service;
+
+import com.booking.dto.BookingExportRow;
+import com.booking.dto.ExportFormat;
+import com.booking.exception.BookingException;
+import com.booking.model.BookingStatus;
+import com.booking.repository.BookingExportRepository;
+import com.booking.sharding.ShardContext;
+import com.booking.sharding.ShardRouter;
+import com.fasterxml.jackson.core.JsonGenerator;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fasterxml.jackson.databind.ObjectWriter;
+import com.fasterxml.jackson.databind.SerializationFeature;
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.ObjectProvider;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.io.BufferedWriter;
+import java.io.IOException;
+import java.io.OutputStream;
+import java.io.OutputStreamWriter;
+import java.io.UncheckedIOException;
+import java.io.Writer;
+import java.nio.charset.StandardCharsets;
+import java.time.LocalDate;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.function.Consumer;
+
+@Service
+@RequiredArgsConstructor
+@Slf4j
+public class BookingExportService {
+
+    private static final String CSV_HEADER =
+            "id,propertyId,guestId,guestEmail,guestFirstName,guestLastName,startDate,endDate,status";
+
+    private final BookingExportRepository bookingExportRepository;
+    private final ObjectMapper objectMapper;
+    private final ObjectProvider<ShardRouter> shardRouter;
+    private final PlatformTransactionManager transactionManager;
+
+    public void validateFilter(LocalDate from, LocalDate to) {
+        if (from != null && to != null && from.isAfter(to)) {
+            throw new BookingException("Parameter 'from' must not be after 'to'");
+        }
+    }
+
+    public void exportBookings(LocalDate from, LocalDate to, BookingStatus status, ExportFormat format, OutputStream out) throws IOException {
+        log.info("Exporting bookings as {} (from: {}, to: {}, status: {})", format, from, to, status);
+
+        Writer writer = new BufferedWriter(new OutputStreamWriter(out, StandardCharsets.UTF_8));
+        AtomicLong count = new AtomicLong();
+
+        if (format == ExportFormat.CSV) {
+            writer.write(CSV_HEADER);
+            writer.write('\n');
+            streamBookings(from, to, status, row -> {
+                writeCsvRow(writer, row);
+                count.incrementAndGet();
+            });
+        } else {
+            // Let the generator buffer across rows instead of flushing the response after each one
+            ObjectWriter rowWriter = objectMapper.writerFor(BookingExportRow.class)
+                    .without(SerializationFeature.FLUSH_AFTER_WRITE_VALUE);
+            JsonGenerator generator = objectMapper.getFactory().createGenerator(writer);
+            generator.disable(JsonGenerator.Feature.AUTO_CLOSE_TARGET);
+            generator.setRootValueSeparator(null);
+            streamBookings(from, to, status, row -> {
+                writeJsonLine(rowWriter, generator, row);
+                count.incrementAndGet();
+            });
+            generator.flush();
+        }
+
+        writer.flush();
+        log.info("Exported {} bookings as {}", count.get(), format);
+    }
+
+    /**
+     * Bookings live on their property's shard only, so with sharding enabled the shards are
+     * streamed one after the other, each in start date order. Each read-only transaction starts
+     * after its shard is bound, so it runs on that shard, or on the read replica without sharding.
+     */
+    private void streamBookings(LocalDate from, LocalDate to, BookingStatus status, Consumer<BookingExportRow> consumer) {
+        TransactionTemplate transactionTemplate = new TransactionTemplate(transactionManager);
+        transactionTemplate.setReadOnly(true);
+        ShardRouter router = shardRouter.getIfAvailable();
+        if (router == null) {
+            transactionTemplate.executeWithoutResult(
+                    transaction -> bookingExportRepository.streamBookings(from, to, status, consumer));
+            return;
+        }
+        for (int shard = 0; shard < router.shardCount(); shard++) {
+            ShardContext.callOn(shard, () -> transactionTemplate.execute(transaction -> {
+                bookingExportRepository.streamBookings(from, to, status, consumer);
+                return null;
+            }));
+        }
+    }
+
+    private void writeJsonLine(ObjectWriter rowWriter, JsonGenerator generator, BookingExportRow row) {
+        try {
+            rowWriter.writeValue(generator, row);
+            generator.writeRaw('\n');
+        } catch (IOException e) {
+            throw new UncheckedIOException(e);
+        }
+    }
+
+    private void writeCsvRow(Writer writer, BookingExportRow row) {
+        try {
+            writer.write(csv(row.getId()));
+            writer.write(',');
+            writer.write(csv(row.getPropertyId()));
+            writer.write(',');
+            writer.write(csv(row.getGuestId()));
+            writer.write(',');
+            writer.write(csv(row.getGuestEmail()));
+            writer.write(',');
+            writer.write(csv(row.getGuestFirstName()));
+            writer.write(',');
+            writer.write(csv(row.getGuestLastName()));
+            writer.write(',');
+            writer.write(csv(row.getStartDate()));
+            writer.write(',');
+            writer.write(csv(row.getEndDate()));
+            writer.write(',');
+            writer.write(csv(row.getStatus()));
+            writer.write('\n');
+        } catch (IOException e) {
+            throw new UncheckedIOException(e);
+        }
+    }
+
+    private String csv(Object value) {
+        if (value == null) {
+            return "";
+        }
+        String text = value.toString();
+        if (text.indexOf(',') < 0 && text.indexOf('"') < 0 && text.indexOf('\n') < 0 && text.indexOf('\r') < 0) {
+            return text;
+        }
+        return '"' + text.replace("\"", "\"\"") + '"';
+    }
+}
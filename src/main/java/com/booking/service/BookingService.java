@@ -1,14 +1,26 @@
 package com.booking.service;
 
+import com.booking.dto.AffectedGuestResponse;
 import com.booking.dto.BookingRequest;
 import com.booking.dto.BookingResponse;
 import com.booking.dto.BookingUpdateRequest;
+import com.booking.dto.BulkCancelResponse;
+import com.booking.dto.SparseFieldset;
 import com.booking.exception.BookingException;
+import com.booking.exception.PreconditionFailedException;
 import com.booking.exception.ResourceNotFoundException;
+import com.booking.model.ArchivedBooking;
 import com.booking.model.Booking;
 import com.booking.model.BookingStatus;
+import com.booking.model.ChangeOperation;
 import com.booking.model.Guest;
+import com.booking.repository.ArchivedBookingRepository;
+import com.booking.repository.BookingBatchRepository;
+import com.booking.repository.BookingProjectionRepository;
 import com.booking.repository.BookingRepository;
+import com.booking.retry.RetryOnConflict;
+import com.booking.sharding.ScatterGather;
+import com.booking.sharding.ShardKey;
 import com.booking.validator.BookingValidator;
 import lombok.RequiredArgsConstructor;
 import lombok.extern.slf4j.Slf4j;
@@ -16,7 +28,11 @@ import org.springframework.stereotype.Service;
 import org.springframework.transaction.annotation.Transactional;
 
 import java.time.LocalDate;
+import java.util.ArrayList;
+import java.util.LinkedHashMap;
 import java.util.List;
+import java.util.Map;
+import java.util.Set;
 import java.util.UUID;
 
 @Service
@@ -25,16 +41,43 @@ import java.util.UUID;
 public class BookingService {
 
     private final BookingRepository bookingRepository;
+    private final BookingBatchRepository bookingBatchRepository;
+    private final ArchivedBookingRepository archivedBookingRepository;
+    private final BookingProjectionRepository bookingProjectionRepository;
     private final GuestService guestService;
     private final BookingValidator bookingValidator;
+    private final ChangeLogService changeLogService;
+    private final OccupancyClaimService occupancyClaimService;
+    private final PropertyStatsService propertyStatsService;
+    private final ShardMoveFence shardMoveFence;
 
     @Transactional
-    public BookingResponse createBooking(BookingRequest request) {
+    public BookingResponse createBooking(@ShardKey BookingRequest request) {
         log.info("Creating booking for property: {} and guest: {}", request.getPropertyId(), request.getGuestEmail());
 
+        shardMoveFence.enter(request.getPropertyId());
         bookingValidator.validateBookingRequest(request);
+        return insertBooking(request);
+    }
+
+    /**
+     * Books the dates of a hold. The hold is still placed, so it is the one hold the conflict
+     * checks ignore; the caller removes it once this transaction has committed.
+     */
+    @Transactional
+    public BookingResponse confirmHold(@ShardKey BookingRequest request, UUID holdId) {
+        log.info("Confirming hold {} on property: {} for guest: {}", holdId, request.getPropertyId(), request.getGuestEmail());
 
+        shardMoveFence.enter(request.getPropertyId());
+        bookingValidator.validateBookingRequest(request, holdId);
+        return insertBooking(request);
+    }
+
+    private BookingResponse insertBooking(BookingRequest request) {
         Booking booking = createBookingReservation(request);
+        occupancyClaimService.claimBooking(booking);
+        propertyStatsService.addBooking(booking);
+        changeLogService.recordBookingChange(booking, ChangeOperation.CREATED);
         log.info("Booking created successfully with id: {}", booking.getId());
 
         Guest guest = guestService.getGuestOrThrow(booking.getGuestId());
@@ -42,45 +85,75 @@ public class BookingService {
     }
 
     @Transactional(readOnly = true)
-    public BookingResponse getBooking(UUID bookingId) {
+    public BookingResponse getBooking(@ShardKey(ShardKey.Source.BOOKING) UUID bookingId) {
         log.info("Fetching booking with id: {}", bookingId);
-        Booking booking = getBookingOrThrow(bookingId);
+        Booking booking = bookingRepository.findById(bookingId).orElse(null);
+        if (booking == null) {
+            // Archived bookings stay readable by id, but can no longer be changed
+            ArchivedBooking archived = archivedBookingRepository.findById(bookingId)
+                    .orElseThrow(() -> new ResourceNotFoundException("Booking not found with id: " + bookingId));
+            return BookingResponse.fromModel(archived, guestService.getGuestOrThrow(archived.getGuestId()));
+        }
         Guest guest = guestService.getGuestOrThrow(booking.getGuestId());
         return BookingResponse.fromModel(booking, guest);
     }
 
     @Transactional(readOnly = true)
-    public List<BookingResponse> getBookingsByPropertyId(UUID propertyId) {
-        log.info("Fetching bookings for property id: {}", propertyId);
+    public List<BookingResponse> getBookingsByPropertyId(@ShardKey UUID propertyId, boolean includeArchived,
+                                                         SparseFieldset fields) {
+        log.info("Fetching bookings for property id: {} (archived: {})", propertyId, includeArchived);
         
         bookingValidator.validatePropertyExists(propertyId);
+        if (!fields.isAll()) {
+            return bookingProjectionRepository.findByPropertyId(propertyId, includeArchived, fields);
+        }
         
         List<Booking> bookings = bookingRepository.findByPropertyId(propertyId);
-        return bookings.stream()
+        List<BookingResponse> responses = new ArrayList<>(bookings.stream()
                 .map(booking -> {
                     Guest guest = guestService.getGuestOrThrow(booking.getGuestId());
                     return BookingResponse.fromModel(booking, guest);
                 })
-                .toList();
+                .toList());
+        if (includeArchived) {
+            archivedBookingRepository.findByPropertyId(propertyId).forEach(booking -> {
+                Guest guest = guestService.getGuestOrThrow(booking.getGuestId());
+                responses.add(BookingResponse.fromModel(booking, guest));
+            });
+        }
+        return responses;
     }
 
+    @ScatterGather
     @Transactional(readOnly = true)
-    public List<BookingResponse> getBookingsByGuestId(UUID guestId) {
-        log.info("Fetching bookings for guest id: {}", guestId);
+    public List<BookingResponse> getBookingsByGuestId(UUID guestId, boolean includeArchived, SparseFieldset fields) {
+        log.info("Fetching bookings for guest id: {} (archived: {})", guestId, includeArchived);
         
         var guest = guestService.getGuestOrThrow(guestId);
+        if (!fields.isAll()) {
+            return bookingProjectionRepository.findByGuestId(guestId, includeArchived, fields);
+        }
         
         List<Booking> bookings = bookingRepository.findByGuestId(guestId);
-        return bookings.stream()
+        List<BookingResponse> responses = new ArrayList<>(bookings.stream()
                 .map(booking -> BookingResponse.fromModel(booking, guest))
-                .toList();
+                .toList());
+        if (includeArchived) {
+            archivedBookingRepository.findByGuestId(guestId)
+                    .forEach(booking -> responses.add(BookingResponse.fromModel(booking, guest)));
+        }
+        return responses;
     }
 
+    @RetryOnConflict
     @Transactional
-    public BookingResponse updateBooking(UUID bookingId, BookingUpdateRequest request) {
+    public BookingResponse updateBooking(@ShardKey(ShardKey.Source.BOOKING) UUID bookingId, BookingUpdateRequest request,
+                                         Set<Long> expectedVersions) {
         log.info("Updating booking with id: {}", bookingId);
 
         Booking booking = getBookingOrThrow(bookingId);
+        shardMoveFence.enter(booking.getPropertyId());
+        validateVersion(booking, expectedVersions);
         bookingValidator.validateBookingNotCanceled(booking);
 
         if (hasDatesUpdate(request)) {
@@ -92,47 +165,98 @@ public class BookingService {
             booking.setGuestId(newGuestId);
         }
 
-        booking = bookingRepository.save(booking);
+        booking = bookingRepository.saveAndFlush(booking);
+        changeLogService.recordBookingChange(booking, ChangeOperation.UPDATED);
         log.info("Booking updated successfully with id: {}", booking.getId());
 
         Guest guest = guestService.getGuestOrThrow(booking.getGuestId());
         return BookingResponse.fromModel(booking, guest);
     }
 
+    @RetryOnConflict
     @Transactional
-    public BookingResponse cancelBooking(UUID bookingId) {
+    public BookingResponse cancelBooking(@ShardKey(ShardKey.Source.BOOKING) UUID bookingId, Set<Long> expectedVersions) {
         log.info("Cancelling booking with id: {}", bookingId);
 
         Booking booking = getBookingOrThrow(bookingId);
+        shardMoveFence.enter(booking.getPropertyId());
+        validateVersion(booking, expectedVersions);
 
         if (booking.getStatus() == BookingStatus.CANCELED) {
             throw new BookingException("Booking is already cancelled");
         }
 
         booking.setStatus(BookingStatus.CANCELED);
-        booking = bookingRepository.save(booking);
+        booking = bookingRepository.saveAndFlush(booking);
+        occupancyClaimService.release(booking.getId());
+        propertyStatsService.removeBooking(booking);
+        changeLogService.recordBookingChange(booking, ChangeOperation.UPDATED);
         log.info("Booking cancelled successfully with id: {}", booking.getId());
 
         Guest guest = guestService.getGuestOrThrow(booking.getGuestId());
         return BookingResponse.fromModel(booking, guest);
     }
 
+    /**
+     * Cancels every confirmed booking of the property that overlaps {@code from..to} with one
+     * set-based update, and returns the affected guests so they can be notified.
+     */
     @Transactional
-    public BookingResponse rebookCancelledBooking(UUID bookingId) {
+    public BulkCancelResponse cancelBookings(@ShardKey UUID propertyId, LocalDate from, LocalDate to) {
+        log.info("Cancelling bookings for property {} between {} and {}", propertyId, from, to);
+
+        if (from.isAfter(to)) {
+            throw new BookingException("Parameter 'from' must not be after 'to'");
+        }
+        shardMoveFence.enter(propertyId);
+        bookingValidator.validatePropertyExists(propertyId);
+
+        List<Booking> cancelled = new ArrayList<>();
+        Map<UUID, AffectedGuestResponse> guests = new LinkedHashMap<>();
+        bookingBatchRepository.cancelOverlapping(propertyId, from, to, (booking, guest) -> {
+            cancelled.add(booking);
+            guests.computeIfAbsent(guest.getId(), guestId -> AffectedGuestResponse.builder()
+                            .guestId(guestId)
+                            .firstName(guest.getFirstName())
+                            .lastName(guest.getLastName())
+                            .email(guest.getEmail())
+                            .build())
+                    .getBookingIds()
+                    .add(booking.getId());
+        });
+
+        occupancyClaimService.releaseAll(cancelled.stream().map(Booking::getId).toList());
+        propertyStatsService.removeBookings(cancelled);
+        changeLogService.recordBookingChanges(cancelled, ChangeOperation.UPDATED);
+        log.info("Cancelled {} bookings of {} guests for property {}", cancelled.size(), guests.size(), propertyId);
+
+        return BulkCancelResponse.builder()
+                .cancelled(cancelled.size())
+                .guests(new ArrayList<>(guests.values()))
+                .build();
+    }
+
+    @RetryOnConflict
+    @Transactional
+    public BookingResponse rebookCancelledBooking(@ShardKey(ShardKey.Source.BOOKING) UUID bookingId, Set<Long> expectedVersions) {
         log.info("Rebooking cancelled booking with id: {}", bookingId);
 
         Booking booking = getBookingOrThrow(bookingId);
+        shardMoveFence.enter(booking.getPropertyId());
+        validateVersion(booking, expectedVersions);
 
         if (booking.getStatus() != BookingStatus.CANCELED) {
             throw new BookingException("Only cancelled bookings can be rebooked");
         }
 
         bookingValidator.validateDates(booking.getStartDate(), booking.getEndDate());
-        bookingValidator.validatePropertyNotBooked(booking.getPropertyId(), booking.getStartDate(), booking.getEndDate());
-        bookingValidator.validatePropertyNotBlocked(booking.getPropertyId(), booking.getStartDate(), booking.getEndDate());
+        bookingValidator.validateNoConflicts(booking.getPropertyId(), booking.getStartDate(), booking.getEndDate());
 
         booking.setStatus(BookingStatus.CONFIRMED);
-        booking = bookingRepository.save(booking);
+        booking = bookingRepository.saveAndFlush(booking);
+        occupancyClaimService.claimBooking(booking);
+        propertyStatsService.addBooking(booking);
+        changeLogService.recordBookingChange(booking, ChangeOperation.UPDATED);
         log.info("Booking rebooked successfully with id: {}", booking.getId());
 
         Guest guest = guestService.getGuestOrThrow(booking.getGuestId());
@@ -140,12 +264,18 @@ public class BookingService {
     }
 
     @Transactional
-    public void deleteBooking(UUID bookingId) {
+    public void deleteBooking(@ShardKey(ShardKey.Source.BOOKING) UUID bookingId) {
         log.info("Deleting booking with id: {}", bookingId);
 
         Booking booking = getBookingOrThrow(bookingId);
+        shardMoveFence.enter(booking.getPropertyId());
 
         bookingRepository.delete(booking);
+        occupancyClaimService.release(booking.getId());
+        if (booking.getStatus() == BookingStatus.CONFIRMED) {
+            propertyStatsService.removeBooking(booking);
+        }
+        changeLogService.recordBookingChange(booking, ChangeOperation.DELETED);
         log.info("Booking deleted successfully with id: {}", bookingId);
     }
 
@@ -177,11 +307,22 @@ public class BookingService {
         LocalDate newEndDate = request.getEndDate() != null ? request.getEndDate() : booking.getEndDate();
 
         bookingValidator.validateDates(newStartDate, newEndDate);
-        bookingValidator.validateNoOverlappingBookingsForUpdate(booking.getPropertyId(), newStartDate, newEndDate, bookingId);
-        bookingValidator.validatePropertyNotBlocked(booking.getPropertyId(), newStartDate, newEndDate);
+        bookingValidator.validateNoConflictsForBookingUpdate(booking.getPropertyId(), newStartDate, newEndDate, bookingId);
 
+        propertyStatsService.removeBooking(booking);
         booking.setStartDate(newStartDate);
         booking.setEndDate(newEndDate);
+        propertyStatsService.addBooking(booking);
+
+        occupancyClaimService.release(booking.getId());
+        occupancyClaimService.claimBooking(booking);
+    }
+
+    private void validateVersion(Booking booking, Set<Long> expectedVersions) {
+        if (expectedVersions != null && !expectedVersions.contains(booking.getVersion())) {
+            throw PreconditionFailedException.staleVersion("Booking " + booking.getId(), booking.getVersion(),
+                    expectedVersions);
+        }
     }
 
     private Booking getBookingOrThrow(UUID bookingId) {
@@ -0,0 +1,79 @@
+package com.booking.service;
+
+import com.booking.sharding.ShardContext;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.support.TransactionSynchronization;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentMap;
+import java.util.function.LongSupplier;
+
+/**
+ * Tracks the transactions on this instance that have appended to a shard's change journal and
+ * not finished yet. Sequence numbers are assigned on insert, so such a transaction can still
+ * commit entries below ones other transactions have already committed. Each one is registered
+ * with the journal's latest committed sequence, read before its first append, as a floor below
+ * which it adds nothing; everything up to the lowest floor is final. Only appends made through
+ * this instance are seen, so like holds and the sequencer this assumes a single instance writes
+ * the journal.
+ */
+@Component
+public class ChangeJournalWatermark {
+
+    private final ConcurrentMap<Integer, Map<Object, Long>> unfinishedByShard = new ConcurrentHashMap<>();
+
+    /**
+     * Registers the current transaction as an unfinished writer of the current shard's journal,
+     * once per transaction; it is removed again when the transaction completes.
+     */
+    void enter(LongSupplier latestSeq) {
+        if (TransactionSynchronizationManager.hasResource(this)) {
+            return;
+        }
+
+        long floor = latestSeq.getAsLong();
+        Map<Object, Long> unfinished = unfinishedByShard.computeIfAbsent(ShardContext.current(),
+                shard -> new ConcurrentHashMap<>());
+        Object writer = new Object();
+        unfinished.put(writer, floor);
+        TransactionSynchronizationManager.bindResource(this, writer);
+        TransactionSynchronizationManager.registerSynchronization(new TransactionSynchronization() {
+            @Override
+            public void afterCompletion(int status) {
+                unfinished.remove(writer);
+                TransactionSynchronizationManager.unbindResourceIfPossible(ChangeJournalWatermark.this);
+            }
+        });
+    }
+
+    /**
+     * Returns the highest sequence of the current shard's journal that no unfinished transaction
+     * can commit below. {@code latestSeq} must be read before calling this. The current
+     * transaction's own appends are visible to it, so they do not hold it back.
+     */
+    public long visibleSeq(long latestSeq) {
+        return lowestFloor(latestSeq, TransactionSynchronizationManager.getResource(this));
+    }
+
+    /**
+     * Tells whether every entry up to {@code latestSeq} is final, so a cache keyed on it only
+     * goes stale once the journal moves past it. Inside a writing transaction it never is, as
+     * the transaction can still roll back.
+     */
+    public boolean isSettled(long latestSeq) {
+        return lowestFloor(latestSeq, null) == latestSeq;
+    }
+
+    private long lowestFloor(long latestSeq, Object excluded) {
+        Map<Object, Long> unfinished = unfinishedByShard.get(ShardContext.current());
+        if (unfinished == null) {
+            return latestSeq;
+        }
+        return unfinished.entrySet().stream()
+                .filter(writer -> writer.getKey() != excluded)
+                .mapToLong(Map.Entry::getValue)
+                .reduce(latestSeq, Math::min);
+    }
+}
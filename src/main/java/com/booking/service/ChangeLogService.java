@@ -0,0 +1,177 @@
+package com.booking.service;
+
+import com.booking.dto.ChangeFeedResponse;
+import com.booking.dto.ChangeResponse;
+import com.booking.exception.BookingException;
+import com.booking.model.Block;
+import com.booking.model.Booking;
+import com.booking.model.ChangeEntityType;
+import com.booking.model.ChangeEvent;
+import com.booking.model.ChangeOperation;
+import com.booking.model.RecurringBlock;
+import com.booking.repository.ChangeEventBatchRepository;
+import com.booking.repository.ChangeEventRepository;
+import com.booking.sharding.ShardRouter;
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.ObjectProvider;
+import org.springframework.data.domain.Limit;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.annotation.Propagation;
+import org.springframework.transaction.annotation.Transactional;
+
+import java.time.LocalDateTime;
+import java.util.List;
+import java.util.UUID;
+
+/**
+ * Appends to and reads the change journal. Appends of different transactions run in parallel, so
+ * their events can commit out of sequence order; the feed only serves events up to the
+ * {@link ChangeJournalWatermark}, below which nothing can commit any more, so a consumer that has
+ * read up to a sequence number never misses a lower one committed later.
+ */
+@Service
+@RequiredArgsConstructor
+@Slf4j
+public class ChangeLogService {
+
+    public static final int MAX_FEED_LIMIT = 1000;
+
+    private final ChangeEventRepository changeEventRepository;
+    private final ChangeEventBatchRepository changeEventBatchRepository;
+    private final ChangeJournalWatermark changeJournalWatermark;
+    private final ObjectProvider<ShardRouter> shardRouter;
+
+    @Transactional(propagation = Propagation.MANDATORY)
+    public void recordBookingChange(Booking booking, ChangeOperation operation) {
+        changeJournalWatermark.enter(changeEventRepository::findLatestSeq);
+        ChangeEvent event = changeEventRepository.save(bookingEvent(booking, operation, LocalDateTime.now()));
+        log.debug("Recorded change {} {} for booking {}", event.getSeq(), operation, booking.getId());
+    }
+
+    /**
+     * Records one event per booking, written in a single batch for bulk operations.
+     */
+    @Transactional(propagation = Propagation.MANDATORY)
+    public void recordBookingChanges(List<Booking> bookings, ChangeOperation operation) {
+        if (bookings.isEmpty()) {
+            return;
+        }
+        LocalDateTime changedAt = LocalDateTime.now();
+        changeJournalWatermark.enter(changeEventRepository::findLatestSeq);
+        changeEventBatchRepository.insertAll(bookings.stream()
+                .map(booking -> bookingEvent(booking, operation, changedAt))
+                .toList());
+        log.debug("Recorded {} {} changes for bookings", bookings.size(), operation);
+    }
+
+    @Transactional(propagation = Propagation.MANDATORY)
+    public void recordBlockChange(Block block, ChangeOperation operation) {
+        changeJournalWatermark.enter(changeEventRepository::findLatestSeq);
+        ChangeEvent event = changeEventRepository.save(blockEvent(block, operation, LocalDateTime.now()));
+        log.debug("Recorded change {} {} for block {}", event.getSeq(), operation, block.getId());
+    }
+
+    /**
+     * Records one event per block, written in a single batch for bulk operations.
+     */
+    @Transactional(propagation = Propagation.MANDATORY)
+    public void recordBlockChanges(List<Block> blocks, ChangeOperation operation) {
+        if (blocks.isEmpty()) {
+            return;
+        }
+        LocalDateTime changedAt = LocalDateTime.now();
+        changeJournalWatermark.enter(changeEventRepository::findLatestSeq);
+        changeEventBatchRepository.insertAll(blocks.stream()
+                .map(block -> blockEvent(block, operation, changedAt))
+                .toList());
+        log.debug("Recorded {} {} changes for blocks", blocks.size(), operation);
+    }
+
+    /**
+     * Records a recurring block with the whole span it can block as its dates, so consumers that
+     * only look at dates still notice it; the rule itself is available from the API.
+     */
+    @Transactional(propagation = Propagation.MANDATORY)
+    public void recordRecurringBlockChange(RecurringBlock block, ChangeOperation operation) {
+        changeJournalWatermark.enter(changeEventRepository::findLatestSeq);
+        ChangeEvent event = changeEventRepository.save(ChangeEvent.builder()
+                .entityType(ChangeEntityType.RECURRING_BLOCK)
+                .operation(operation)
+                .entityId(block.getId())
+                .propertyId(block.getPropertyId())
+                .startDate(block.getStartDate())
+                .endDate(block.getLastBlockedDate())
+                .reason(block.getReason())
+                .changedAt(LocalDateTime.now())
+                .build());
+        log.debug("Recorded change {} {} for recurring block {}", event.getSeq(), operation, block.getId());
+    }
+
+    // Not read-only: the watermark covers transactions committing on the primary, not a lagging replica
+    @Transactional
+    public ChangeFeedResponse getChanges(long since, int limit, UUID propertyId) {
+        log.info("Fetching changes since: {} (limit: {}, property: {})", since, limit, propertyId);
+
+        if (since < 0) {
+            throw new BookingException("Parameter 'since' cannot be negative");
+        }
+        if (limit < 1 || limit > MAX_FEED_LIMIT) {
+            throw new BookingException("Parameter 'limit' must be between 1 and " + MAX_FEED_LIMIT);
+        }
+        // Each shard numbers its own events, so no single sequence orders them across shards
+        if (shardRouter.getIfAvailable() != null) {
+            throw new BookingException("The change feed is not available with sharding enabled");
+        }
+
+        // The latest sequence must be read before the watermark, or a writer could slip in between
+        long visibleSeq = changeJournalWatermark.visibleSeq(changeEventRepository.findLatestSeq());
+
+        // Fetch one extra row so we can tell the caller whether another page is waiting
+        Limit window = Limit.of(limit + 1);
+        List<ChangeEvent> events = propertyId == null
+                ? changeEventRepository.findBySeqGreaterThanAndSeqLessThanEqualOrderBySeqAsc(since, visibleSeq, window)
+                : changeEventRepository.findByPropertyIdAndSeqGreaterThanAndSeqLessThanEqualOrderBySeqAsc(
+                        propertyId, since, visibleSeq, window);
+
+        boolean hasMore = events.size() > limit;
+        List<ChangeResponse> changes = events.stream()
+                .limit(limit)
+                .map(ChangeResponse::fromModel)
+                .toList();
+
+        long nextSince = changes.isEmpty() ? since : changes.get(changes.size() - 1).getSeq();
+        return ChangeFeedResponse.builder()
+                .changes(changes)
+                .nextSince(nextSince)
+                .hasMore(hasMore)
+                .build();
+    }
+
+    private ChangeEvent bookingEvent(Booking booking, ChangeOperation operation, LocalDateTime changedAt) {
+        return ChangeEvent.builder()
+                .entityType(ChangeEntityType.BOOKING)
+                .operation(operation)
+                .entityId(booking.getId())
+                .propertyId(booking.getPropertyId())
+                .guestId(booking.getGuestId())
+                .startDate(booking.getStartDate())
+                .endDate(booking.getEndDate())
+                .status(booking.getStatus())
+                .changedAt(changedAt)
+                .build();
+    }
+
+    private ChangeEvent blockEvent(Block block, ChangeOperation operation, LocalDateTime changedAt) {
+        return ChangeEvent.builder()
+                .entityType(ChangeEntityType.BLOCK)
+                .operation(operation)
+                .entityId(block.getId())
+                .propertyId(block.getPropertyId())
+                .startDate(block.getStartDate())
+                .endDate(block.getEndDate())
+                .reason(block.getReason())
+                .changedAt(changedAt)
+                .build();
+    }
+}
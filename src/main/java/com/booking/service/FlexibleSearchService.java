@@ -0,0 +1,279 @@
+package com.booking.service;
+
+import com.booking.dto.FlexibleStayOption;
+import com.booking.dto.FlexibleStayResult;
+import com.booking.exception.BookingException;
+import com.booking.model.RecurringBlock;
+import com.booking.recurrence.RecurrenceRule;
+import com.booking.repository.AvailabilityMatrixRepository;
+import com.booking.repository.AvailabilityMatrixRepository.OccupiedIntervalHandler;
+import com.booking.repository.RecurringBlockRepository;
+import com.booking.sharding.ShardContext;
+import com.booking.sharding.ShardRouter;
+import com.fasterxml.jackson.core.JsonGenerator;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fasterxml.jackson.databind.ObjectWriter;
+import com.fasterxml.jackson.databind.SerializationFeature;
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.ObjectProvider;
+import org.springframework.stereotype.Service;
+
+import java.io.BufferedWriter;
+import java.io.IOException;
+import java.io.OutputStream;
+import java.io.OutputStreamWriter;
+import java.io.Writer;
+import java.nio.charset.StandardCharsets;
+import java.time.LocalDate;
+import java.time.temporal.ChronoUnit;
+import java.util.ArrayList;
+import java.util.BitSet;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.UUID;
+import java.util.concurrent.BlockingQueue;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ForkJoinPool;
+import java.util.concurrent.ForkJoinTask;
+import java.util.concurrent.LinkedBlockingQueue;
+import java.util.concurrent.RecursiveAction;
+import java.util.concurrent.TimeUnit;
+import java.util.function.Predicate;
+
+/**
+ * Finds, for many properties at once, the start dates in a window on which a stay between a
+ * minimum and a maximum number of nights fits. The occupied days of every property are loaded
+ * in one forward-only pass into a bitmap, the properties are then split across the fork-join
+ * pool, and each finished slice is written to the response as NDJSON while the others are
+ * still being computed.
+ */
+@Service
+@RequiredArgsConstructor
+@Slf4j
+public class FlexibleSearchService {
+
+    public static final int MAX_WINDOW_DAYS = 366;
+    public static final int MAX_NIGHTS = 90;
+    public static final int MAX_PROPERTY_IDS = 1000;
+    private static final int LEAF_SIZE = 16;
+    private static final long POLL_MILLIS = 50;
+
+    private final AvailabilityMatrixRepository availabilityMatrixRepository;
+    private final RecurringBlockRepository recurringBlockRepository;
+    private final ObjectMapper objectMapper;
+    private final ObjectProvider<ShardRouter> shardRouter;
+
+    public void validateSearch(LocalDate from, LocalDate to, int minNights, int maxNights, List<UUID> propertyIds) {
+        if (from.isAfter(to)) {
+            throw new BookingException("Parameter 'from' must not be after 'to'");
+        }
+        if (ChronoUnit.DAYS.between(from, to) >= MAX_WINDOW_DAYS) {
+            throw new BookingException("The search window cannot be longer than " + MAX_WINDOW_DAYS + " days");
+        }
+        if (minNights < 1 || maxNights < minNights || maxNights > MAX_NIGHTS) {
+            throw new BookingException("Parameters 'minNights' and 'maxNights' must satisfy 1 <= minNights <= maxNights <= " + MAX_NIGHTS);
+        }
+        if (propertyIds != null && propertyIds.size() > MAX_PROPERTY_IDS) {
+            throw new BookingException("At most " + MAX_PROPERTY_IDS + " property ids can be searched at once");
+        }
+    }
+
+    public void search(LocalDate from, LocalDate to, int minNights, int maxNights, List<UUID> propertyIds,
+                       OutputStream out) throws IOException {
+        log.info("Searching stays of {}-{} nights starting {} to {} across {} properties",
+                minNights, maxNights, from, to, propertyIds != null ? propertyIds.size() : "all");
+
+        SearchWindow window = new SearchWindow(from, (int) ChronoUnit.DAYS.between(from, to) + 1, minNights, maxNights);
+        List<PropertyDays> properties = loadOccupiedDays(window, propertyIds);
+
+        BlockingQueue<List<FlexibleStayResult>> completed = new LinkedBlockingQueue<>();
+        ForkJoinTask<Void> task = ForkJoinPool.commonPool().submit(
+                new SearchSlice(properties, 0, properties.size(), window, completed));
+
+        Writer writer = new BufferedWriter(new OutputStreamWriter(out, StandardCharsets.UTF_8));
+        ObjectWriter resultWriter = objectMapper.writerFor(FlexibleStayResult.class)
+                .without(SerializationFeature.FLUSH_AFTER_WRITE_VALUE);
+        JsonGenerator generator = objectMapper.getFactory().createGenerator(writer);
+        generator.disable(JsonGenerator.Feature.AUTO_CLOSE_TARGET);
+        generator.setRootValueSeparator(null);
+
+        int written = 0;
+        try {
+            while (written < properties.size()) {
+                List<FlexibleStayResult> slice = completed.poll(POLL_MILLIS, TimeUnit.MILLISECONDS);
+                if (slice == null) {
+                    if (task.isCompletedAbnormally()) {
+                        task.get();
+                    }
+                    continue;
+                }
+                for (FlexibleStayResult result : slice) {
+                    resultWriter.writeValue(generator, result);
+                    generator.writeRaw('\n');
+                }
+                // Hand each finished slice to the client right away
+                generator.flush();
+                written += slice.size();
+            }
+        } catch (InterruptedException e) {
+            task.cancel(true);
+            Thread.currentThread().interrupt();
+            throw new IllegalStateException("Interrupted while searching flexible stays");
+        } catch (ExecutionException e) {
+            throw new IllegalStateException("Flexible stay search failed", e.getCause());
+        }
+
+        generator.flush();
+        writer.flush();
+        log.info("Searched flexible stays for {} properties", written);
+    }
+
+    private List<PropertyDays> loadOccupiedDays(SearchWindow window, List<UUID> propertyIds) {
+        ShardRouter router = shardRouter.getIfAvailable();
+        if (router == null) {
+            return loadOccupiedDays(window, propertyIds, propertyId -> true);
+        }
+
+        // Properties are replicated to every shard, their bookings and blocks live on one
+        List<PropertyDays> properties = new ArrayList<>();
+        for (int shard = 0; shard < router.shardCount(); shard++) {
+            int current = shard;
+            List<UUID> idsOnShard = propertyIds != null
+                    ? propertyIds.stream().filter(propertyId -> router.shardFor(propertyId) == current).toList()
+                    : null;
+            if (idsOnShard != null && idsOnShard.isEmpty()) {
+                continue;
+            }
+            properties.addAll(ShardContext.callOn(shard, () ->
+                    loadOccupiedDays(window, idsOnShard, propertyId -> router.shardFor(propertyId) == current)));
+        }
+        return properties;
+    }
+
+    private List<PropertyDays> loadOccupiedDays(SearchWindow window, List<UUID> propertyIds, Predicate<UUID> onThisShard) {
+        List<PropertyDays> properties = new ArrayList<>();
+        int span = window.span();
+        LocalDate to = window.from().plusDays(span - 1L);
+
+        OccupiedIntervalHandler handler = (propertyId, startDate, endDate) -> {
+            if (!onThisShard.test(propertyId)) {
+                return;
+            }
+            PropertyDays current = properties.isEmpty() ? null : properties.get(properties.size() - 1);
+            if (current == null || !current.propertyId().equals(propertyId)) {
+                current = new PropertyDays(propertyId, new BitSet(span));
+                properties.add(current);
+            }
+            if (startDate != null && endDate != null) {
+                int first = (int) Math.max(0, ChronoUnit.DAYS.between(window.from(), startDate));
+                int last = (int) Math.min(span - 1L, ChronoUnit.DAYS.between(window.from(), endDate));
+                if (first <= last) {
+                    current.occupied().set(first, last + 1);
+                }
+            }
+        };
+        // A list of properties is looked up by id instead of filtering the whole inventory
+        if (propertyIds != null) {
+            availabilityMatrixRepository.forEachOccupiedInterval(propertyIds, window.from(), to, handler);
+        } else {
+            availabilityMatrixRepository.forEachOccupiedInterval(window.from(), to, handler);
+        }
+        markRecurringBlocks(properties, window.from(), span, propertyIds);
+        return properties;
+    }
+
+    private void markRecurringBlocks(List<PropertyDays> properties, LocalDate from, int span, List<UUID> propertyIds) {
+        LocalDate to = from.plusDays(span - 1L);
+        List<RecurringBlock> blocks = propertyIds != null
+                ? recurringBlockRepository.findActiveForProperties(propertyIds, from, to)
+                : recurringBlockRepository.findAllActive(from, to);
+        if (blocks.isEmpty()) {
+            return;
+        }
+
+        Map<UUID, BitSet> occupiedByProperty = new HashMap<>();
+        properties.forEach(property -> occupiedByProperty.put(property.propertyId(), property.occupied()));
+        for (RecurringBlock block : blocks) {
+            BitSet occupied = occupiedByProperty.get(block.getPropertyId());
+            if (occupied != null) {
+                RecurrenceRule.of(block).markBlockedDays(occupied, from, span);
+            }
+        }
+    }
+
+    /**
+     * @param days number of possible start dates, beginning with {@code from}
+     */
+    private record SearchWindow(LocalDate from, int days, int minNights, int maxNights) {
+
+        /** Days that must be known to decide the longest stay starting on the last start date. */
+        int span() {
+            return days + maxNights;
+        }
+    }
+
+    private record PropertyDays(UUID propertyId, BitSet occupied) {
+    }
+
+    private static final class SearchSlice extends RecursiveAction {
+
+        private final List<PropertyDays> properties;
+        private final int from;
+        private final int to;
+        private final SearchWindow window;
+        private final BlockingQueue<List<FlexibleStayResult>> completed;
+
+        private SearchSlice(List<PropertyDays> properties, int from, int to, SearchWindow window,
+                            BlockingQueue<List<FlexibleStayResult>> completed) {
+            this.properties = properties;
+            this.from = from;
+            this.to = to;
+            this.window = window;
+            this.completed = completed;
+        }
+
+        @Override
+        protected void compute() {
+            if (to - from > LEAF_SIZE) {
+                int mid = (from + to) >>> 1;
+                invokeAll(new SearchSlice(properties, from, mid, window, completed),
+                        new SearchSlice(properties, mid, to, window, completed));
+                return;
+            }
+
+            int[] freeRun = new int[window.span() + 1];
+            List<FlexibleStayResult> results = new ArrayList<>(to - from);
+            for (int i = from; i < to; i++) {
+                PropertyDays property = properties.get(i);
+                results.add(FlexibleStayResult.builder()
+                        .propertyId(property.propertyId())
+                        .options(findOptions(property.occupied(), freeRun))
+                        .build());
+            }
+            completed.add(results);
+        }
+
+        private List<FlexibleStayOption> findOptions(BitSet occupied, int[] freeRun) {
+            // freeRun[d] is the number of free days starting at day d; a stay of N nights needs N + 1
+            int span = window.span();
+            freeRun[span] = 0;
+            for (int day = span - 1; day >= 0; day--) {
+                freeRun[day] = occupied.get(day) ? 0 : freeRun[day + 1] + 1;
+            }
+
+            List<FlexibleStayOption> options = new ArrayList<>();
+            for (int day = 0; day < window.days(); day++) {
+                int nights = Math.min(window.maxNights(), freeRun[day] - 1);
+                if (nights >= window.minNights()) {
+                    options.add(FlexibleStayOption.builder()
+                            .startDate(window.from().plusDays(day))
+                            .maxNights(nights)
+                            .build());
+                }
+            }
+            return options;
+        }
+    }
+}
@@ -0,0 +1,136 @@
+package com.booking.service;
+
+import java.time.LocalDate;
+import java.util.Arrays;
+
+/**
+ * The free gaps between the occupied intervals of one property, as epoch days sorted by start.
+ * A max-tree over the gap lengths finds the next gap long enough for a stay in O(log n), so the
+ * first k windows after a date cost O(log n + k log n) without ever walking individual days.
+ */
+final class FreeGapIndex {
+
+    /** Last day of the trailing gap, which is open-ended. */
+    static final long OPEN_END = Long.MAX_VALUE;
+
+    private final long[] starts;
+    private final long[] ends;
+    private final long[] maxLength;
+    private final int leaves;
+
+    private FreeGapIndex(long[] starts, long[] ends, int size) {
+        this.starts = Arrays.copyOf(starts, size);
+        this.ends = Arrays.copyOf(ends, size);
+        this.leaves = Integer.highestOneBit(Math.max(1, size - 1)) << 1;
+        this.maxLength = new long[2 * leaves];
+        for (int i = 0; i < size; i++) {
+            maxLength[leaves + i] = length(i);
+        }
+        for (int node = leaves - 1; node > 0; node--) {
+            maxLength[node] = Math.max(maxLength[2 * node], maxLength[2 * node + 1]);
+        }
+    }
+
+    static Builder builder(LocalDate from) {
+        return new Builder(from.toEpochDay());
+    }
+
+    /**
+     * Finds up to {@code limit} windows of {@code days} consecutive free days starting on or after
+     * {@code after}, at most one per gap, each starting as early as its gap allows.
+     *
+     * @param consumer receives the first day of the window and the last free day of its gap
+     */
+    void findWindows(LocalDate after, long days, int limit, WindowConsumer consumer) {
+        long from = after.toEpochDay();
+        int found = 0;
+
+        // The gap containing 'from' only counts from 'from' onwards
+        int next = Math.max(0, floor(from));
+        if (next < starts.length && starts[next] <= from) {
+            if (ends[next] >= from && (ends[next] == OPEN_END || ends[next] - from + 1 >= days)) {
+                consumer.accept(from, ends[next]);
+                found++;
+            }
+            next++;
+        }
+
+        while (found < limit && next < starts.length) {
+            int gap = firstAtLeast(1, 0, leaves - 1, next, days);
+            if (gap < 0) {
+                return;
+            }
+            consumer.accept(starts[gap], ends[gap]);
+            found++;
+            next = gap + 1;
+        }
+    }
+
+    int size() {
+        return starts.length;
+    }
+
+    @FunctionalInterface
+    interface WindowConsumer {
+        void accept(long firstDay, long lastFreeDay);
+    }
+
+    static final class Builder {
+
+        private long[] starts = new long[16];
+        private long[] ends = new long[16];
+        private int size;
+        private long cursor;
+
+        private Builder(long from) {
+            this.cursor = from;
+        }
+
+        /** Intervals must arrive ordered by start date; they may overlap each other. */
+        Builder occupied(LocalDate startDate, LocalDate endDate) {
+            long start = startDate.toEpochDay();
+            long end = endDate.toEpochDay();
+            if (start > cursor) {
+                add(cursor, start - 1);
+            }
+            cursor = Math.max(cursor, end + 1);
+            return this;
+        }
+
+        FreeGapIndex build() {
+            add(cursor, OPEN_END);
+            return new FreeGapIndex(starts, ends, size);
+        }
+
+        private void add(long start, long end) {
+            if (size == starts.length) {
+                starts = Arrays.copyOf(starts, size * 2);
+                ends = Arrays.copyOf(ends, size * 2);
+            }
+            starts[size] = start;
+            ends[size] = end;
+            size++;
+        }
+    }
+
+    private long length(int gap) {
+        return ends[gap] == OPEN_END ? OPEN_END : ends[gap] - starts[gap] + 1;
+    }
+
+    private int floor(long day) {
+        int index = Arrays.binarySearch(starts, day);
+        return index >= 0 ? index : -index - 2;
+    }
+
+    private int firstAtLeast(int node, int low, int high, int from, long days) {
+        if (high < from || maxLength[node] < days) {
+            return -1;
+        }
+        if (low == high) {
+            return low;
+        }
+        int mid = (low + high) >>> 1;
+        int left = firstAtLeast(2 * node, low, mid, from, days);
+        return left >= 0 ? left : firstAtLeast(2 * node + 1, mid + 1, high, from, days);
+    }
+}
@@ -0,0 +1,117 @@
+package com.booking.service;
+
+import com.booking.dto.BookingResponse;
+import com.booking.dto.GroupBookingRequest;
+import com.booking.exception.BookingException;
+import com.booking.exception.ResourceNotFoundException;
+import com.booking.model.Booking;
+import com.booking.model.BookingStatus;
+import com.booking.model.ChangeOperation;
+import com.booking.model.Guest;
+import com.booking.model.Property;
+import com.booking.repository.BookingBatchRepository;
+import com.booking.repository.PropertyRepository;
+import com.booking.sequencer.CommandGateway;
+import com.booking.sharding.ShardContext;
+import com.booking.sharding.ShardRouter;
+import com.booking.validator.BookingValidator;
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.ObjectProvider;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.util.List;
+import java.util.Set;
+import java.util.TreeSet;
+import java.util.UUID;
+import java.util.stream.Collectors;
+
+/**
+ * Books several properties for the same guest and dates in one transaction: either every
+ * property is reserved or none is. Property rows are locked in ascending id order, so two
+ * groups sharing properties queue up behind each other instead of deadlocking.
+ */
+@Service
+@RequiredArgsConstructor
+@Slf4j
+public class GroupBookingService {
+
+    public static final int MAX_PROPERTIES = 50;
+
+    private final PropertyRepository propertyRepository;
+    private final BookingBatchRepository bookingBatchRepository;
+    private final GuestService guestService;
+    private final BookingValidator bookingValidator;
+    private final OccupancyClaimService occupancyClaimService;
+    private final PropertyStatsService propertyStatsService;
+    private final ChangeLogService changeLogService;
+    private final CommandGateway commandGateway;
+    private final TransactionTemplate transactionTemplate;
+    private final ObjectProvider<ShardRouter> shardRouter;
+    private final ShardMoveFence shardMoveFence;
+
+    public List<BookingResponse> createGroupBooking(GroupBookingRequest request) {
+        log.info("Creating group booking for {} properties and guest: {}", request.getPropertyIds().size(), request.getGuestEmail());
+
+        TreeSet<UUID> propertyIds = new TreeSet<>(request.getPropertyIds());
+        if (propertyIds.size() != request.getPropertyIds().size()) {
+            throw new BookingException("Each property can only appear once in a group booking");
+        }
+        if (propertyIds.size() > MAX_PROPERTIES) {
+            throw new BookingException("A group booking can include at most " + MAX_PROPERTIES + " properties");
+        }
+        bookingValidator.validateDates(request.getStartDate(), request.getEndDate());
+
+        ShardRouter router = shardRouter.getIfAvailable();
+        if (router == null) {
+            return transactionTemplate.execute(status -> reserve(request, propertyIds));
+        }
+        Set<Integer> shards = propertyIds.stream().map(router::shardFor).collect(Collectors.toSet());
+        if (shards.size() > 1) {
+            throw new BookingException("All properties of a group booking must be on the same shard");
+        }
+        return ShardContext.callOn(shards.iterator().next(),
+                () -> transactionTemplate.execute(status -> reserve(request, propertyIds)));
+    }
+
+    private List<BookingResponse> reserve(GroupBookingRequest request, TreeSet<UUID> propertyIds) {
+        // Resolve the guest before taking any property lock, to keep the locks short
+        Guest guest = guestService.getOrCreateGuest(request.toBookingRequest(propertyIds.first()));
+
+        Set<UUID> locked = propertyRepository.findAllByIdForUpdate(propertyIds).stream()
+                .map(Property::getId)
+                .collect(Collectors.toSet());
+        propertyIds.stream()
+                .filter(propertyId -> !locked.contains(propertyId))
+                .findFirst()
+                .ifPresent(propertyId -> {
+                    throw new ResourceNotFoundException("Property not found with id: " + propertyId);
+                });
+        shardMoveFence.checkNotMoved(propertyIds);
+
+        bookingValidator.validateAllAvailable(propertyIds, request.getStartDate(), request.getEndDate());
+
+        List<Booking> bookings = propertyIds.stream()
+                .map(propertyId -> Booking.builder()
+                        .id(UUID.randomUUID())
+                        .propertyId(propertyId)
+                        .guestId(guest.getId())
+                        .startDate(request.getStartDate())
+                        .endDate(request.getEndDate())
+                        .status(BookingStatus.CONFIRMED)
+                        .version(0L)
+                        .build())
+                .toList();
+        bookingBatchRepository.insertAll(bookings);
+        propertyStatsService.addBookings(bookings);
+        occupancyClaimService.claimBookings(bookings);
+        changeLogService.recordBookingChanges(bookings, ChangeOperation.CREATED);
+        commandGateway.invalidateCalendars(propertyIds);
+        log.info("Group booking created successfully with {} bookings", bookings.size());
+
+        return bookings.stream()
+                .map(booking -> BookingResponse.fromModel(booking, guest))
+                .toList();
+    }
+}
@@ -0,0 +1,84 @@
+package com.booking.service;
+
+import com.booking.dto.BookingRequest;
+import com.booking.dto.BookingResponse;
+import com.booking.dto.HoldResponse;
+import com.booking.exception.ResourceNotFoundException;
+import com.booking.hold.Hold;
+import com.booking.hold.HoldRegistry;
+import com.booking.sequencer.CommandGateway;
+import com.booking.sequencer.PropertyCommand;
+import com.booking.sharding.ShardContext;
+import com.booking.sharding.ShardRouter;
+import com.booking.validator.BookingValidator;
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.ObjectProvider;
+import org.springframework.stereotype.Service;
+
+import java.util.UUID;
+
+@Service
+@RequiredArgsConstructor
+@Slf4j
+public class HoldService {
+
+    private final HoldRegistry holdRegistry;
+    private final BookingValidator bookingValidator;
+    private final CommandGateway commandGateway;
+    private final ObjectProvider<ShardRouter> shardRouter;
+
+    public HoldResponse createHold(BookingRequest request) {
+        log.info("Placing hold on property: {} for guest: {}", request.getPropertyId(), request.getGuestEmail());
+
+        ShardRouter router = shardRouter.getIfAvailable();
+        if (router == null) {
+            bookingValidator.validateBookingRequest(request);
+        } else {
+            ShardContext.callOn(router.shardFor(request.getPropertyId()), () -> {
+                bookingValidator.validateBookingRequest(request);
+                return null;
+            });
+        }
+
+        // The registry checks other holds again atomically, in case one was placed since validation
+        Hold hold = holdRegistry.place(request);
+        log.info("Hold placed successfully with id: {}", hold.id());
+        return HoldResponse.fromModel(hold);
+    }
+
+    public HoldResponse getHold(UUID holdId) {
+        log.info("Fetching hold with id: {}", holdId);
+        return HoldResponse.fromModel(holdRegistry.find(holdId).orElseThrow(() -> holdNotFound(holdId)));
+    }
+
+    public void releaseHold(UUID holdId) {
+        log.info("Releasing hold with id: {}", holdId);
+        holdRegistry.take(holdId).orElseThrow(() -> holdNotFound(holdId));
+    }
+
+    /**
+     * Turns a hold into a confirmed booking. The hold keeps its dates while the booking is created,
+     * with only the hold itself left out of the conflict checks, and is removed once the booking
+     * has committed. If the booking cannot be created the hold stays placed.
+     */
+    public BookingResponse confirmHold(UUID holdId) {
+        log.info("Confirming hold with id: {}", holdId);
+        Hold hold = holdRegistry.beginConfirm(holdId).orElseThrow(() -> holdNotFound(holdId));
+
+        BookingResponse booking;
+        try {
+            booking = commandGateway.submit(new PropertyCommand.ConfirmHold(holdId, hold.request()));
+        } catch (RuntimeException e) {
+            holdRegistry.endConfirm(holdId);
+            throw e;
+        }
+        holdRegistry.take(holdId);
+        log.info("Hold {} confirmed as booking {}", holdId, booking.getId());
+        return booking;
+    }
+
+    private ResourceNotFoundException holdNotFound(UUID holdId) {
+        return new ResourceNotFoundException("Hold not found or expired with id: " + holdId);
+    }
+}
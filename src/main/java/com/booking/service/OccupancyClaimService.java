@@ -0,0 +1,115 @@
+package com.booking.service;
+
+import com.booking.exception.BookingException;
+import com.booking.model.Block;
+import com.booking.model.Booking;
+import com.booking.model.BookingStatus;
+import com.booking.repository.OccupiedNightRepository;
+import com.booking.repository.OccupiedNightRepository.NightClaim;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.dao.DuplicateKeyException;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.annotation.Propagation;
+import org.springframework.transaction.annotation.Transactional;
+
+import java.time.LocalDate;
+import java.util.List;
+import java.util.UUID;
+
+/**
+ * Keeps the occupied_night claims in step with confirmed bookings and blocks when
+ * {@code booking.occupancy-claims.enabled} is set. Claims are written in the caller's
+ * transaction, so a rejected claim rolls back the booking or block change with it.
+ */
+@Service
+@Slf4j
+public class OccupancyClaimService {
+
+    private final OccupiedNightRepository occupiedNightRepository;
+    private final boolean enabled;
+
+    public OccupancyClaimService(
+            OccupiedNightRepository occupiedNightRepository,
+            @Value("${booking.occupancy-claims.enabled:false}") boolean enabled) {
+        this.occupiedNightRepository = occupiedNightRepository;
+        this.enabled = enabled;
+    }
+
+    @Transactional(propagation = Propagation.MANDATORY)
+    public void claimBooking(Booking booking) {
+        if (enabled && booking.getStatus() == BookingStatus.CONFIRMED) {
+            claim(booking.getPropertyId(), booking.getId(), booking.getStartDate(), booking.getEndDate());
+        }
+    }
+
+    @Transactional(propagation = Propagation.MANDATORY)
+    public void claimBlock(Block block) {
+        if (enabled) {
+            claim(block.getPropertyId(), block.getId(), block.getStartDate(), block.getEndDate());
+        }
+    }
+
+    /**
+     * Claims the nights of many bookings with one JDBC batch; cancelled bookings claim nothing.
+     */
+    @Transactional(propagation = Propagation.MANDATORY)
+    public void claimBookings(List<Booking> bookings) {
+        if (enabled) {
+            claimAll(bookings.stream()
+                    .filter(booking -> booking.getStatus() == BookingStatus.CONFIRMED)
+                    .map(booking -> new NightClaim(booking.getPropertyId(), booking.getId(),
+                            booking.getStartDate(), booking.getEndDate()))
+                    .toList());
+        }
+    }
+
+    /**
+     * Claims the nights of many blocks with one JDBC batch.
+     */
+    @Transactional(propagation = Propagation.MANDATORY)
+    public void claimBlocks(List<Block> blocks) {
+        if (enabled) {
+            claimAll(blocks.stream()
+                    .map(block -> new NightClaim(block.getPropertyId(), block.getId(), block.getStartDate(), block.getEndDate()))
+                    .toList());
+        }
+    }
+
+    @Transactional(propagation = Propagation.MANDATORY)
+    public void release(UUID claimId) {
+        if (enabled) {
+            int released = occupiedNightRepository.releaseClaim(claimId);
+            log.debug("Released {} nights claimed by {}", released, claimId);
+        }
+    }
+
+    @Transactional(propagation = Propagation.MANDATORY)
+    public void releaseAll(List<UUID> claimIds) {
+        if (enabled && !claimIds.isEmpty()) {
+            occupiedNightRepository.releaseClaims(claimIds);
+            log.debug("Released nights claimed by {} claims", claimIds.size());
+        }
+    }
+
+    private void claimAll(List<NightClaim> claims) {
+        if (claims.isEmpty()) {
+            return;
+        }
+        try {
+            occupiedNightRepository.claimNights(claims);
+        } catch (DuplicateKeyException e) {
+            log.info("Night claims rejected for {} bookings or blocks", claims.size());
+            throw new BookingException("Property is already booked or blocked for the selected dates");
+        }
+    }
+
+    private void claim(UUID propertyId, UUID claimId, LocalDate startDate, LocalDate endDate) {
+        try {
+            occupiedNightRepository.claimNights(propertyId, claimId, startDate, endDate);
+        } catch (DuplicateKeyException e) {
+            log.info("Night claim rejected for property {} between {} and {}", propertyId, startDate, endDate);
+            throw new BookingException("Property is already booked or blocked for the selected dates");
+        }
+    }
+}
@@ -0,0 +1,280 @@
+package com.booking.service;
+
+import com.booking.exception.BookingException;
+import com.booking.model.RecurringBlock;
+import com.booking.recurrence.RecurrenceRule;
+import com.booking.repository.OccupancyReportRepository;
+import com.booking.repository.OccupancyReportRepository.ReportProperty;
+import com.booking.repository.RecurringBlockRepository;
+import com.booking.sharding.ShardContext;
+import com.booking.sharding.ShardRouter;
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.ObjectProvider;
+import org.springframework.stereotype.Service;
+
+import java.io.BufferedWriter;
+import java.io.IOException;
+import java.io.OutputStream;
+import java.io.OutputStreamWriter;
+import java.io.Writer;
+import java.nio.charset.StandardCharsets;
+import java.time.LocalDate;
+import java.time.temporal.ChronoUnit;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.BitSet;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.UUID;
+import java.util.concurrent.BlockingQueue;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ForkJoinPool;
+import java.util.concurrent.ForkJoinTask;
+import java.util.concurrent.LinkedBlockingQueue;
+import java.util.concurrent.RecursiveAction;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Streams the night-level occupancy of every property over a date range as CSV. Properties
+ * are paged by id into partitions that run on a dedicated fork-join pool; each partition reads
+ * its own bookings and blocks in a forward-only pass, fills one byte per night and property,
+ * and is written to the response as soon as it finishes. At most {@link #MAX_IN_FLIGHT}
+ * partitions are read, computed or waiting to be written at any time, so memory depends on
+ * the partition size and the window, not on the number of properties or bookings.
+ */
+@Service
+@RequiredArgsConstructor
+@Slf4j
+public class OccupancyReportService implements AutoCloseable {
+
+    public static final int MAX_WINDOW_DAYS = 366;
+    private static final int PARTITION_SIZE = 128;
+    private static final int PARALLELISM = Math.max(2, Math.min(4, Runtime.getRuntime().availableProcessors()));
+    private static final int MAX_IN_FLIGHT = 2 * PARALLELISM;
+    private static final long POLL_MILLIS = 50;
+    private static final String CSV_HEADER = "propertyId,ownerId,night,status";
+
+    private static final byte FREE = 0;
+    private static final byte BOOKED = 1;
+    private static final byte BLOCKED = 2;
+    private static final String[] STATUS_NAMES = {"FREE", "BOOKED", "BLOCKED"};
+
+    private final OccupancyReportRepository occupancyReportRepository;
+    private final RecurringBlockRepository recurringBlockRepository;
+    private final ObjectProvider<ShardRouter> shardRouter;
+    // Partitions block on JDBC, so they get their own pool instead of the common one
+    private final ForkJoinPool pool = new ForkJoinPool(PARALLELISM);
+
+    public void validateReport(LocalDate from, LocalDate to) {
+        if (from.isAfter(to)) {
+            throw new BookingException("Parameter 'from' must not be after 'to'");
+        }
+        if (ChronoUnit.DAYS.between(from, to) >= MAX_WINDOW_DAYS) {
+            throw new BookingException("The report window cannot be longer than " + MAX_WINDOW_DAYS + " days");
+        }
+    }
+
+    public void writeReport(LocalDate from, LocalDate to, OutputStream out) throws IOException {
+        log.info("Writing occupancy report from {} to {}", from, to);
+
+        ReportWindow window = ReportWindow.of(from, to);
+        BlockingQueue<String> completed = new LinkedBlockingQueue<>();
+        List<ForkJoinTask<Void>> running = new ArrayList<>();
+        Writer writer = new BufferedWriter(new OutputStreamWriter(out, StandardCharsets.UTF_8));
+        writer.write(CSV_HEADER);
+        writer.write('\n');
+
+        int partitions = 0;
+        int inFlight = 0;
+        try {
+            UUID afterId = null;
+            List<ReportProperty> page;
+            do {
+                page = occupancyReportRepository.findPropertyPage(afterId, PARTITION_SIZE);
+                if (page.isEmpty()) {
+                    break;
+                }
+                // Only start another partition once an earlier one has been written out
+                while (inFlight >= MAX_IN_FLIGHT) {
+                    if (writeNextPartition(completed, running, writer)) {
+                        inFlight--;
+                    }
+                }
+                running.add(pool.submit(new ReportPartition(page, window, completed)));
+                inFlight++;
+                partitions++;
+                afterId = page.get(page.size() - 1).id();
+            } while (page.size() == PARTITION_SIZE);
+
+            while (inFlight > 0) {
+                if (writeNextPartition(completed, running, writer)) {
+                    inFlight--;
+                }
+            }
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            throw new IllegalStateException("Interrupted while writing the occupancy report");
+        } catch (ExecutionException e) {
+            throw new IllegalStateException("Occupancy report failed", e.getCause());
+        } finally {
+            running.forEach(task -> task.cancel(true));
+        }
+
+        writer.flush();
+        log.info("Wrote occupancy report from {} to {} in {} partitions", from, to, partitions);
+    }
+
+    @Override
+    public void close() {
+        pool.shutdownNow();
+    }
+
+    /**
+     * Writes the next finished partition, or waits a little and returns false when none is ready.
+     */
+    private boolean writeNextPartition(BlockingQueue<String> completed, List<ForkJoinTask<Void>> running, Writer writer)
+            throws InterruptedException, ExecutionException, IOException {
+        String csv = completed.poll(POLL_MILLIS, TimeUnit.MILLISECONDS);
+        if (csv == null) {
+            for (ForkJoinTask<Void> task : running) {
+                if (task.isCompletedAbnormally()) {
+                    task.get();
+                }
+            }
+            return false;
+        }
+        writer.write(csv);
+        // Hand each finished partition to the client right away
+        writer.flush();
+        running.removeIf(task -> task.isDone() && !task.isCompletedAbnormally());
+        return true;
+    }
+
+    /**
+     * @param nights the dates of the report formatted once, indexed by day offset
+     */
+    private record ReportWindow(LocalDate from, LocalDate to, String[] nights) {
+
+        static ReportWindow of(LocalDate from, LocalDate to) {
+            String[] nights = new String[(int) ChronoUnit.DAYS.between(from, to) + 1];
+            for (int day = 0; day < nights.length; day++) {
+                nights[day] = from.plusDays(day).toString();
+            }
+            return new ReportWindow(from, to, nights);
+        }
+
+        int days() {
+            return nights.length;
+        }
+    }
+
+    private final class ReportPartition extends RecursiveAction {
+
+        private final List<ReportProperty> properties;
+        private final ReportWindow window;
+        private final BlockingQueue<String> completed;
+
+        private ReportPartition(List<ReportProperty> properties, ReportWindow window, BlockingQueue<String> completed) {
+            this.properties = properties;
+            this.window = window;
+            this.completed = completed;
+        }
+
+        @Override
+        protected void compute() {
+            byte[][] nights = new byte[properties.size()][window.days()];
+            Map<UUID, Integer> rows = new HashMap<>();
+            for (int row = 0; row < properties.size(); row++) {
+                rows.put(properties.get(row).id(), row);
+            }
+
+            ShardRouter router = shardRouter.getIfAvailable();
+            if (router == null) {
+                fill(nights, rows);
+            } else {
+                // Properties are replicated to every shard, their bookings and blocks live on one,
+                // so each shard fills the rows of its own properties
+                List<RecursiveAction> shards = new ArrayList<>(router.shardCount());
+                for (int shard = 0; shard < router.shardCount(); shard++) {
+                    int current = shard;
+                    Map<UUID, Integer> shardRows = new HashMap<>();
+                    rows.forEach((propertyId, row) -> {
+                        if (router.shardFor(propertyId) == current) {
+                            shardRows.put(propertyId, row);
+                        }
+                    });
+                    shards.add(new RecursiveAction() {
+                        @Override
+                        protected void compute() {
+                            ShardContext.callOn(current, () -> {
+                                fill(nights, shardRows);
+                                return null;
+                            });
+                        }
+                    });
+                }
+                invokeAll(shards);
+            }
+            completed.add(toCsv(nights));
+        }
+
+        private void fill(byte[][] nights, Map<UUID, Integer> rows) {
+            if (rows.isEmpty()) {
+                return;
+            }
+            int lastDay = window.days() - 1;
+            occupancyReportRepository.forEachOccupiedInterval(
+                    properties.get(0).id(), properties.get(properties.size() - 1).id(), window.from(), window.to(),
+                    (propertyId, booked, firstDay, endDay) -> {
+                        Integer row = rows.get(propertyId);
+                        if (row == null) {
+                            return;
+                        }
+                        byte[] days = nights[row];
+                        int first = Math.max(0, firstDay);
+                        int last = Math.min(lastDay, endDay);
+                        if (booked) {
+                            Arrays.fill(days, first, last + 1, BOOKED);
+                        } else {
+                            markBlocked(days, first, last);
+                        }
+                    });
+
+            List<RecurringBlock> recurringBlocks =
+                    recurringBlockRepository.findActiveForProperties(rows.keySet(), window.from(), window.to());
+            BitSet blocked = new BitSet(window.days());
+            for (RecurringBlock block : recurringBlocks) {
+                blocked.clear();
+                RecurrenceRule.of(block).markBlockedDays(blocked, window.from(), window.days());
+                byte[] days = nights[rows.get(block.getPropertyId())];
+                for (int day = blocked.nextSetBit(0); day >= 0; day = blocked.nextSetBit(day + 1)) {
+                    markBlocked(days, day, day);
+                }
+            }
+        }
+
+        private void markBlocked(byte[] days, int first, int last) {
+            // A confirmed booking wins over a block covering the same night
+            for (int day = first; day <= last; day++) {
+                if (days[day] == FREE) {
+                    days[day] = BLOCKED;
+                }
+            }
+        }
+
+        private String toCsv(byte[][] nights) {
+            StringBuilder csv = new StringBuilder(properties.size() * window.days() * 96);
+            for (int row = 0; row < properties.size(); row++) {
+                ReportProperty property = properties.get(row);
+                String prefix = property.id() + "," + property.ownerId() + ",";
+                byte[] days = nights[row];
+                for (int day = 0; day < days.length; day++) {
+                    csv.append(prefix).append(window.nights()[day]).append(',').append(STATUS_NAMES[days[day]]).append('\n');
+                }
+            }
+            return csv.toString();
+        }
+    }
+}
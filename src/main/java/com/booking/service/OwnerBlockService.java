@@ -0,0 +1,286 @@
+package com.booking.service;
+
+import com.booking.dto.BlockResponse;
+import com.booking.dto.BulkDeleteResponse;
+import com.booking.dto.OwnerBlockRequest;
+import com.booking.exception.BookingException;
+import com.booking.exception.ResourceNotFoundException;
+import com.booking.model.Block;
+import com.booking.model.ChangeOperation;
+import com.booking.model.Property;
+import com.booking.repository.BlockBatchRepository;
+import com.booking.repository.BlockRepository;
+import com.booking.repository.OwnerRepository;
+import com.booking.repository.PropertyRepository;
+import com.booking.sequencer.CommandGateway;
+import com.booking.sharding.ShardContext;
+import com.booking.sharding.ShardRouter;
+import com.booking.validator.BookingValidator;
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.ObjectProvider;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.time.LocalDate;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.HashSet;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.UUID;
+import java.util.function.Function;
+import java.util.function.Supplier;
+import java.util.stream.Collectors;
+
+/**
+ * Blocks or unblocks many properties of one owner at once, for maintenance seasons and the
+ * like. Ownership is checked with the same query that locks the property rows, conflicts are
+ * checked for all properties together, and the blocks, their night claims and their change
+ * events are each written with one JDBC batch, so the cost does not grow with a round-trip per
+ * property. Once committed, the sequencer lanes of the properties reload their calendars.
+ * <p>
+ * With sharding, each shard commits its own transaction, so neither operation is atomic across
+ * shards. A create that fails on one shard removes the blocks it already committed on the
+ * others. A delete that fails on one shard keeps what the others deleted and reports the
+ * properties it could not reach.
+ */
+@Service
+@RequiredArgsConstructor
+@Slf4j
+public class OwnerBlockService {
+
+    public static final int MAX_PROPERTIES = 500;
+
+    private final PropertyRepository propertyRepository;
+    private final OwnerRepository ownerRepository;
+    private final BlockRepository blockRepository;
+    private final BlockBatchRepository blockBatchRepository;
+    private final BookingValidator bookingValidator;
+    private final OccupancyClaimService occupancyClaimService;
+    private final PropertyStatsService propertyStatsService;
+    private final ChangeLogService changeLogService;
+    private final CommandGateway commandGateway;
+    private final TransactionTemplate transactionTemplate;
+    private final ObjectProvider<ShardRouter> shardRouter;
+    private final ShardMoveFence shardMoveFence;
+
+    public List<BlockResponse> createBlocks(UUID ownerId, OwnerBlockRequest request) {
+        log.info("Creating blocks for owner {} from {} to {}", ownerId, request.getStartDate(), request.getEndDate());
+
+        List<UUID> propertyIds = validatePropertyIds(request.getPropertyIds());
+        bookingValidator.validateDates(request.getStartDate(), request.getEndDate());
+
+        Map<Integer, List<UUID>> byShard = groupByShard(ownerId, propertyIds);
+        if (byShard.size() > 1) {
+            // Shards commit separately, so check every shard before writing to any of them
+            byShard.forEach((shard, shardPropertyIds) -> onShard(shard, () ->
+                    transactionTemplate.execute(status -> {
+                        bookingValidator.validateAllAvailable(
+                                lockOwnedProperties(ownerId, shardPropertyIds), request.getStartDate(), request.getEndDate());
+                        return null;
+                    })));
+        }
+
+        Map<Integer, List<BlockResponse>> created = new LinkedHashMap<>();
+        try {
+            byShard.forEach((shard, shardPropertyIds) -> created.put(shard, onShard(shard, () ->
+                    transactionTemplate.execute(status -> insertBlocks(ownerId, shardPropertyIds, request)))));
+        } catch (RuntimeException e) {
+            // Something changed after the check; take back what the shards before this one committed
+            created.forEach((shard, blocks) -> compensate(shard, blocks, e));
+            throw e;
+        }
+
+        List<BlockResponse> blocks = created.values().stream().flatMap(List::stream).toList();
+        log.info("Created {} blocks for owner {}", blocks.size(), ownerId);
+        return blocks;
+    }
+
+    public BulkDeleteResponse deleteBlocks(UUID ownerId, LocalDate from, LocalDate to, List<UUID> requestedPropertyIds) {
+        log.info("Deleting blocks of owner {} between {} and {}", ownerId, from, to);
+
+        List<UUID> propertyIds = validatePropertyIds(requestedPropertyIds);
+        if (from.isAfter(to)) {
+            throw new BookingException("Parameter 'from' must not be after 'to'");
+        }
+
+        Map<Integer, List<UUID>> byShard = groupByShard(ownerId, propertyIds);
+        if (byShard.size() > 1) {
+            // Reject unknown or foreign properties before any shard deletes anything
+            byShard.forEach((shard, shardPropertyIds) -> onShard(shard, () ->
+                    transactionTemplate.execute(status -> lockOwnedProperties(ownerId, shardPropertyIds))));
+        }
+
+        int deleted = 0;
+        List<UUID> failedPropertyIds = new ArrayList<>();
+        RuntimeException failure = null;
+        for (Map.Entry<Integer, List<UUID>> entry : byShard.entrySet()) {
+            try {
+                deleted += onShard(entry.getKey(), () ->
+                        transactionTemplate.execute(status -> removeBlocks(ownerId, entry.getValue(), from, to)));
+            } catch (RuntimeException e) {
+                if (byShard.size() == 1) {
+                    throw e;
+                }
+                log.warn("Deleting blocks of owner {} failed on shard {}", ownerId, entry.getKey(), e);
+                failedPropertyIds.addAll(entry.getValue());
+                failure = failure != null ? failure : e;
+            }
+        }
+        // Nothing was deleted anywhere, so the request failed as a whole
+        if (failure != null && failedPropertyIds.size() == byShard.values().stream().mapToInt(List::size).sum()) {
+            throw failure;
+        }
+
+        log.info("Deleted {} blocks of owner {} ({} properties failed)", deleted, ownerId, failedPropertyIds.size());
+        return BulkDeleteResponse.builder()
+                .deleted(deleted)
+                .failedPropertyIds(failedPropertyIds)
+                .build();
+    }
+
+    private List<BlockResponse> insertBlocks(UUID ownerId, List<UUID> propertyIds, OwnerBlockRequest request) {
+        List<UUID> owned = lockOwnedProperties(ownerId, propertyIds);
+        if (owned.isEmpty()) {
+            return List.of();
+        }
+        bookingValidator.validateAllAvailable(owned, request.getStartDate(), request.getEndDate());
+
+        List<Block> blocks = owned.stream()
+                .map(propertyId -> Block.builder()
+                        .id(UUID.randomUUID())
+                        .propertyId(propertyId)
+                        .startDate(request.getStartDate())
+                        .endDate(request.getEndDate())
+                        .reason(request.getReason())
+                        .version(0L)
+                        .build())
+                .toList();
+        blockBatchRepository.insertAll(blocks);
+        propertyStatsService.addBlocks(blocks);
+        occupancyClaimService.claimBlocks(blocks);
+        changeLogService.recordBlockChanges(blocks, ChangeOperation.CREATED);
+        commandGateway.invalidateCalendars(owned);
+
+        return blocks.stream()
+                .map(BlockResponse::fromModel)
+                .toList();
+    }
+
+    private int removeBlocks(UUID ownerId, List<UUID> propertyIds, LocalDate from, LocalDate to) {
+        List<UUID> owned = lockOwnedProperties(ownerId, propertyIds);
+        if (owned.isEmpty()) {
+            return 0;
+        }
+
+        List<Block> blocks = blockRepository.findWithinRange(owned, from, to);
+        softDelete(blocks);
+        return blocks.size();
+    }
+
+    private void softDelete(List<Block> blocks) {
+        if (blocks.isEmpty()) {
+            return;
+        }
+        occupancyClaimService.releaseAll(blocks.stream().map(Block::getId).toList());
+        changeLogService.recordBlockChanges(blocks, ChangeOperation.DELETED);
+        propertyStatsService.removeBlocks(blocks);
+        blockBatchRepository.softDeleteAll(blocks);
+        commandGateway.invalidateCalendars(blocks.stream().map(Block::getPropertyId).distinct().toList());
+    }
+
+    /**
+     * Deletes blocks a failed create already committed on one shard. If that fails too, the
+     * blocks stay and are logged, and the failure is attached to the create's exception.
+     */
+    private void compensate(int shard, List<BlockResponse> created, RuntimeException cause) {
+        if (created.isEmpty()) {
+            return;
+        }
+        List<UUID> blockIds = created.stream().map(BlockResponse::getId).toList();
+        try {
+            onShard(shard, () -> transactionTemplate.execute(status -> {
+                shardMoveFence.enter(created.stream().map(BlockResponse::getPropertyId).distinct().toList());
+                softDelete(blockRepository.findAllById(blockIds));
+                return null;
+            }));
+            log.info("Removed {} blocks from shard {} after the owner block create failed", blockIds.size(), shard);
+        } catch (RuntimeException e) {
+            log.error("Could not remove blocks {} from shard {} after the owner block create failed", blockIds, shard, e);
+            cause.addSuppressed(e);
+        }
+    }
+
+    /**
+     * Locks and returns the owner's properties, or the requested ones after checking that the
+     * owner owns each of them. {@code propertyIds} is null for all of the owner's properties.
+     */
+    private List<UUID> lockOwnedProperties(UUID ownerId, List<UUID> propertyIds) {
+        if (propertyIds == null) {
+            List<Property> properties = propertyRepository.findByOwnerIdForUpdate(ownerId);
+            if (properties.isEmpty() && !ownerRepository.existsById(ownerId)) {
+                throw new ResourceNotFoundException("Owner not found with id: " + ownerId);
+            }
+            return properties.stream().map(Property::getId).toList();
+        }
+
+        Map<UUID, Property> properties = propertyRepository.findAllByIdForUpdate(propertyIds).stream()
+                .collect(Collectors.toMap(Property::getId, Function.identity()));
+        for (UUID propertyId : propertyIds) {
+            Property property = properties.get(propertyId);
+            if (property == null) {
+                throw new ResourceNotFoundException("Property not found with id: " + propertyId);
+            }
+            if (!property.getOwnerId().equals(ownerId)) {
+                throw new BookingException("You are not authorized to manage blocks for this property");
+            }
+        }
+        shardMoveFence.checkNotMoved(propertyIds);
+        return propertyIds;
+    }
+
+    private List<UUID> validatePropertyIds(List<UUID> propertyIds) {
+        if (propertyIds == null || propertyIds.isEmpty()) {
+            return null;
+        }
+        Set<UUID> unique = new HashSet<>(propertyIds);
+        if (unique.size() != propertyIds.size()) {
+            throw new BookingException("Each property can only be listed once");
+        }
+        if (unique.size() > MAX_PROPERTIES) {
+            throw new BookingException("At most " + MAX_PROPERTIES + " properties can be blocked at once");
+        }
+        return propertyIds;
+    }
+
+    /**
+     * Groups the properties by the shard holding them; without sharding everything stays on
+     * the default shard. A null list stands for all of the owner's properties.
+     */
+    private Map<Integer, List<UUID>> groupByShard(UUID ownerId, List<UUID> propertyIds) {
+        ShardRouter router = shardRouter.getIfAvailable();
+        if (router == null) {
+            return Collections.singletonMap(ShardContext.DEFAULT_SHARD, propertyIds);
+        }
+
+        // Properties are replicated to every shard, so any shard can list the owner's
+        List<UUID> ids = propertyIds != null
+                ? propertyIds
+                : propertyRepository.findByOwnerId(ownerId).stream().map(Property::getId).toList();
+        if (ids.isEmpty()) {
+            return Collections.singletonMap(ShardContext.DEFAULT_SHARD, null);
+        }
+        return ids.stream()
+                .collect(Collectors.groupingBy(router::shardFor, LinkedHashMap::new, Collectors.toList()));
+    }
+
+    private <T> T onShard(int shard, Supplier<T> action) {
+        if (shardRouter.getIfAvailable() == null) {
+            return action.get();
+        }
+        return ShardContext.callOn(shard, action);
+    }
+}
@@ -0,0 +1,211 @@
+package com.booking.service;
+
+import com.booking.dto.BlockResponse;
+import com.booking.dto.BookingResponse;
+import com.booking.dto.OwnerScheduleResponse;
+import com.booking.dto.PropertyScheduleResponse;
+import com.booking.dto.ScheduledOccurrenceResponse;
+import com.booking.exception.BookingException;
+import com.booking.exception.ResourceNotFoundException;
+import com.booking.model.RecurringBlock;
+import com.booking.recurrence.RecurrenceRule;
+import com.booking.repository.OwnerRepository;
+import com.booking.repository.OwnerScheduleRepository;
+import com.booking.repository.RecurringBlockRepository;
+import com.booking.sharding.ShardContext;
+import com.booking.sharding.ShardRouter;
+import com.fasterxml.jackson.core.JsonGenerator;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fasterxml.jackson.databind.ObjectWriter;
+import com.fasterxml.jackson.databind.SerializationFeature;
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.ObjectProvider;
+import org.springframework.stereotype.Service;
+
+import java.io.BufferedWriter;
+import java.io.IOException;
+import java.io.OutputStream;
+import java.io.OutputStreamWriter;
+import java.io.UncheckedIOException;
+import java.io.Writer;
+import java.nio.charset.StandardCharsets;
+import java.time.LocalDate;
+import java.time.temporal.ChronoUnit;
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.HashMap;
+import java.util.Iterator;
+import java.util.List;
+import java.util.Map;
+import java.util.UUID;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.function.Consumer;
+import java.util.function.Predicate;
+import java.util.stream.Collectors;
+
+/**
+ * Builds the schedule of every property of an owner. Blocks and recurring blocks are read
+ * first and grouped by property; bookings then arrive through one cursor ordered by property,
+ * and each property is handed on as soon as its last booking has been read. The streaming
+ * variant therefore holds a single property's bookings at a time.
+ */
+@Service
+@RequiredArgsConstructor
+@Slf4j
+public class OwnerScheduleService {
+
+    public static final int MAX_WINDOW_DAYS = 366;
+
+    private final OwnerRepository ownerRepository;
+    private final OwnerScheduleRepository ownerScheduleRepository;
+    private final RecurringBlockRepository recurringBlockRepository;
+    private final ObjectMapper objectMapper;
+    private final ObjectProvider<ShardRouter> shardRouter;
+
+    public void validateSchedule(UUID ownerId, LocalDate from, LocalDate to) {
+        if (from.isAfter(to)) {
+            throw new BookingException("Parameter 'from' must not be after 'to'");
+        }
+        if (ChronoUnit.DAYS.between(from, to) >= MAX_WINDOW_DAYS) {
+            throw new BookingException("The schedule window cannot be longer than " + MAX_WINDOW_DAYS + " days");
+        }
+        if (!ownerRepository.existsById(ownerId)) {
+            throw new ResourceNotFoundException("Owner not found with id: " + ownerId);
+        }
+    }
+
+    public OwnerScheduleResponse getSchedule(UUID ownerId, LocalDate from, LocalDate to) {
+        log.info("Fetching schedule of owner {} from {} to {}", ownerId, from, to);
+        validateSchedule(ownerId, from, to);
+
+        List<PropertyScheduleResponse> properties = new ArrayList<>();
+        forEachPropertySchedule(ownerId, from, to, properties::add);
+        // Shards are read one after the other, so restore the overall order
+        properties.sort(Comparator.comparing(PropertyScheduleResponse::getPropertyName,
+                Comparator.nullsLast(Comparator.naturalOrder())));
+
+        return OwnerScheduleResponse.builder()
+                .ownerId(ownerId)
+                .from(from)
+                .to(to)
+                .properties(properties)
+                .build();
+    }
+
+    public void streamSchedule(UUID ownerId, LocalDate from, LocalDate to, OutputStream out) throws IOException {
+        log.info("Streaming schedule of owner {} from {} to {}", ownerId, from, to);
+
+        Writer writer = new BufferedWriter(new OutputStreamWriter(out, StandardCharsets.UTF_8));
+        ObjectWriter propertyWriter = objectMapper.writerFor(PropertyScheduleResponse.class)
+                .without(SerializationFeature.FLUSH_AFTER_WRITE_VALUE);
+        JsonGenerator generator = objectMapper.getFactory().createGenerator(writer);
+        generator.disable(JsonGenerator.Feature.AUTO_CLOSE_TARGET);
+        generator.setRootValueSeparator(null);
+
+        AtomicInteger count = new AtomicInteger();
+        forEachPropertySchedule(ownerId, from, to, property -> {
+            try {
+                propertyWriter.writeValue(generator, property);
+                generator.writeRaw('\n');
+            } catch (IOException e) {
+                throw new UncheckedIOException(e);
+            }
+            count.incrementAndGet();
+        });
+
+        generator.flush();
+        writer.flush();
+        log.info("Streamed schedule of {} properties for owner {}", count.get(), ownerId);
+    }
+
+    private void forEachPropertySchedule(UUID ownerId, LocalDate from, LocalDate to,
+                                         Consumer<PropertyScheduleResponse> consumer) {
+        ShardRouter router = shardRouter.getIfAvailable();
+        if (router == null) {
+            readSchedule(ownerId, from, to, propertyId -> true, consumer);
+            return;
+        }
+
+        // Properties are replicated to every shard, their bookings and blocks live on one
+        for (int shard = 0; shard < router.shardCount(); shard++) {
+            int current = shard;
+            ShardContext.callOn(shard, () -> {
+                readSchedule(ownerId, from, to, propertyId -> router.shardFor(propertyId) == current, consumer);
+                return null;
+            });
+        }
+    }
+
+    private void readSchedule(UUID ownerId, LocalDate from, LocalDate to, Predicate<UUID> onThisShard,
+                              Consumer<PropertyScheduleResponse> consumer) {
+        Map<UUID, List<BlockResponse>> blocks = ownerScheduleRepository.findBlocks(ownerId, from, to).stream()
+                .collect(Collectors.groupingBy(BlockResponse::getPropertyId));
+        Map<UUID, List<ScheduledOccurrenceResponse>> occurrences = new HashMap<>();
+        for (RecurringBlock block : recurringBlockRepository.findActiveForOwner(ownerId, from, to)) {
+            Iterator<RecurrenceRule.Occurrence> iterator = RecurrenceRule.of(block).occurrences(from, to);
+            while (iterator.hasNext()) {
+                RecurrenceRule.Occurrence occurrence = iterator.next();
+                occurrences.computeIfAbsent(block.getPropertyId(), id -> new ArrayList<>())
+                        .add(ScheduledOccurrenceResponse.builder()
+                                .recurringBlockId(block.getId())
+                                .startDate(occurrence.startDate())
+                                .endDate(occurrence.endDate())
+                                .reason(block.getReason())
+                                .build());
+            }
+        }
+        occurrences.values().forEach(list -> list.sort(Comparator.comparing(ScheduledOccurrenceResponse::getStartDate)));
+
+        ScheduleGrouper grouper = new ScheduleGrouper(blocks, occurrences, consumer);
+        ownerScheduleRepository.forEachPropertyBooking(ownerId, from, to, (propertyId, propertyName, booking) -> {
+            if (onThisShard.test(propertyId)) {
+                grouper.accept(propertyId, propertyName, booking);
+            }
+        });
+        grouper.finish();
+    }
+
+    /**
+     * Collects the bookings of the current property and hands the property on when the next
+     * one starts, attaching the blocks and occurrences read up front.
+     */
+    private static final class ScheduleGrouper {
+
+        private final Map<UUID, List<BlockResponse>> blocks;
+        private final Map<UUID, List<ScheduledOccurrenceResponse>> occurrences;
+        private final Consumer<PropertyScheduleResponse> consumer;
+
+        private PropertyScheduleResponse current;
+
+        private ScheduleGrouper(Map<UUID, List<BlockResponse>> blocks,
+                                Map<UUID, List<ScheduledOccurrenceResponse>> occurrences,
+                                Consumer<PropertyScheduleResponse> consumer) {
+            this.blocks = blocks;
+            this.occurrences = occurrences;
+            this.consumer = consumer;
+        }
+
+        private void accept(UUID propertyId, String propertyName, BookingResponse booking) {
+            if (current == null || !current.getPropertyId().equals(propertyId)) {
+                finish();
+                current = PropertyScheduleResponse.builder()
+                        .propertyId(propertyId)
+                        .propertyName(propertyName)
+                        .blocks(blocks.getOrDefault(propertyId, new ArrayList<>()))
+                        .recurringBlockOccurrences(occurrences.getOrDefault(propertyId, new ArrayList<>()))
+                        .build();
+            }
+            if (booking != null) {
+                current.getBookings().add(booking);
+            }
+        }
+
+        private void finish() {
+            if (current != null) {
+                consumer.accept(current);
+                current = null;
+            }
+        }
+    }
+}
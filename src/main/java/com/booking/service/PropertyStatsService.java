@@ -0,0 +1,221 @@
+package com.booking.service;
+
+import com.booking.dto.MonthlyStatsResponse;
+import com.booking.dto.OwnerStatsResponse;
+import com.booking.dto.PropertyStatsResponse;
+import com.booking.exception.BookingException;
+import com.booking.exception.ResourceNotFoundException;
+import com.booking.model.Block;
+import com.booking.model.Booking;
+import com.booking.model.RecurringBlock;
+import com.booking.recurrence.RecurrenceRule;
+import com.booking.repository.OwnerRepository;
+import com.booking.repository.PropertyRepository;
+import com.booking.repository.PropertyStatsRepository;
+import com.booking.repository.PropertyStatsRepository.MonthlyNights;
+import com.booking.repository.PropertyStatsRepository.NightRange;
+import com.booking.sharding.ShardContext;
+import com.booking.sharding.ShardRouter;
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.ObjectProvider;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.annotation.Propagation;
+import org.springframework.transaction.annotation.Transactional;
+
+import java.time.LocalDate;
+import java.time.YearMonth;
+import java.time.temporal.ChronoUnit;
+import java.util.ArrayList;
+import java.util.BitSet;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.UUID;
+
+/**
+ * Maintains the {@code property_daily_stats} rollup and answers occupancy questions from it.
+ * Every booking and block mutation adjusts the counters of the nights it covers in the caller's
+ * transaction, so monthly stats only read the rows of the requested months, however much
+ * history a property has. A night is every date a confirmed booking or a block covers, start
+ * and end date included, the same dates the availability checks treat as taken.
+ */
+@Service
+@RequiredArgsConstructor
+@Slf4j
+public class PropertyStatsService {
+
+    public static final int MAX_MONTHS = 24;
+
+    private final PropertyStatsRepository propertyStatsRepository;
+    private final PropertyRepository propertyRepository;
+    private final OwnerRepository ownerRepository;
+    private final ObjectProvider<ShardRouter> shardRouter;
+
+    /** Counts the nights of a booking that has just become confirmed. */
+    @Transactional(propagation = Propagation.MANDATORY)
+    public void addBooking(Booking booking) {
+        addBookings(List.of(booking));
+    }
+
+    @Transactional(propagation = Propagation.MANDATORY)
+    public void addBookings(List<Booking> bookings) {
+        propertyStatsRepository.adjust(bookings.stream().map(booking -> bookedNights(booking, 1)).toList());
+    }
+
+    /** Stops counting the nights of a booking that was confirmed until now. */
+    @Transactional(propagation = Propagation.MANDATORY)
+    public void removeBooking(Booking booking) {
+        removeBookings(List.of(booking));
+    }
+
+    @Transactional(propagation = Propagation.MANDATORY)
+    public void removeBookings(List<Booking> bookings) {
+        propertyStatsRepository.adjust(bookings.stream().map(booking -> bookedNights(booking, -1)).toList());
+    }
+
+    @Transactional(propagation = Propagation.MANDATORY)
+    public void addBlock(Block block) {
+        addBlocks(List.of(block));
+    }
+
+    @Transactional(propagation = Propagation.MANDATORY)
+    public void addBlocks(List<Block> blocks) {
+        propertyStatsRepository.adjust(blocks.stream().map(block -> blockedNights(block, 1)).toList());
+    }
+
+    @Transactional(propagation = Propagation.MANDATORY)
+    public void removeBlock(Block block) {
+        removeBlocks(List.of(block));
+    }
+
+    @Transactional(propagation = Propagation.MANDATORY)
+    public void removeBlocks(List<Block> blocks) {
+        propertyStatsRepository.adjust(blocks.stream().map(block -> blockedNights(block, -1)).toList());
+    }
+
+    @Transactional(propagation = Propagation.MANDATORY)
+    public void addRecurringBlock(RecurringBlock block) {
+        propertyStatsRepository.adjust(blockedNights(block, 1));
+    }
+
+    @Transactional(propagation = Propagation.MANDATORY)
+    public void removeRecurringBlock(RecurringBlock block) {
+        propertyStatsRepository.adjust(blockedNights(block, -1));
+    }
+
+    public PropertyStatsResponse getPropertyStats(UUID propertyId, YearMonth from, YearMonth to) {
+        log.info("Fetching stats of property {} from {} to {}", propertyId, from, to);
+        validateWindow(from, to);
+        if (!propertyRepository.existsById(propertyId)) {
+            throw new ResourceNotFoundException("Property not found with id: " + propertyId);
+        }
+
+        ShardRouter router = shardRouter.getIfAvailable();
+        List<MonthlyNights> nights = router == null
+                ? findMonthlyNights(propertyId, from, to)
+                : ShardContext.callOn(router.shardFor(propertyId), () -> findMonthlyNights(propertyId, from, to));
+
+        return PropertyStatsResponse.builder()
+                .propertyId(propertyId)
+                .months(toMonthlyStats(nights, from, to, 1))
+                .build();
+    }
+
+    public OwnerStatsResponse getOwnerStats(UUID ownerId, YearMonth from, YearMonth to) {
+        log.info("Fetching stats of owner {} from {} to {}", ownerId, from, to);
+        validateWindow(from, to);
+        if (!ownerRepository.existsById(ownerId)) {
+            throw new ResourceNotFoundException("Owner not found with id: " + ownerId);
+        }
+
+        int properties = (int) propertyRepository.countByOwnerId(ownerId);
+        List<MonthlyNights> nights = new ArrayList<>();
+        ShardRouter router = shardRouter.getIfAvailable();
+        if (router == null) {
+            nights.addAll(findMonthlyNightsForOwner(ownerId, from, to));
+        } else {
+            // Each shard holds the rollup of its own properties, so the shard totals add up
+            for (int shard = 0; shard < router.shardCount(); shard++) {
+                nights.addAll(ShardContext.callOn(shard, () -> findMonthlyNightsForOwner(ownerId, from, to)));
+            }
+        }
+
+        return OwnerStatsResponse.builder()
+                .ownerId(ownerId)
+                .properties(properties)
+                .months(toMonthlyStats(nights, from, to, properties))
+                .build();
+    }
+
+    private void validateWindow(YearMonth from, YearMonth to) {
+        if (from.isAfter(to)) {
+            throw new BookingException("Parameter 'from' must not be after 'to'");
+        }
+        if (ChronoUnit.MONTHS.between(from, to) >= MAX_MONTHS) {
+            throw new BookingException("The stats window cannot be longer than " + MAX_MONTHS + " months");
+        }
+    }
+
+    private List<MonthlyNights> findMonthlyNights(UUID propertyId, YearMonth from, YearMonth to) {
+        return propertyStatsRepository.findMonthlyNights(propertyId, from.atDay(1), to.atEndOfMonth());
+    }
+
+    private List<MonthlyNights> findMonthlyNightsForOwner(UUID ownerId, YearMonth from, YearMonth to) {
+        return propertyStatsRepository.findMonthlyNightsForOwner(ownerId, from.atDay(1), to.atEndOfMonth());
+    }
+
+    private List<MonthlyStatsResponse> toMonthlyStats(List<MonthlyNights> nights, YearMonth from, YearMonth to, int properties) {
+        Map<YearMonth, long[]> byMonth = new HashMap<>();
+        for (MonthlyNights month : nights) {
+            long[] counts = byMonth.computeIfAbsent(month.month(), key -> new long[2]);
+            counts[0] += month.bookedNights();
+            counts[1] += month.blockedNights();
+        }
+
+        List<MonthlyStatsResponse> months = new ArrayList<>();
+        for (YearMonth month = from; !month.isAfter(to); month = month.plusMonths(1)) {
+            long[] counts = byMonth.getOrDefault(month, new long[2]);
+            long totalNights = (long) month.lengthOfMonth() * properties;
+            long sellableNights = totalNights - counts[1];
+            months.add(MonthlyStatsResponse.builder()
+                    .month(month)
+                    .totalNights(totalNights)
+                    .bookedNights(counts[0])
+                    .blockedNights(counts[1])
+                    .occupancyRate(rate(counts[0], sellableNights))
+                    .utilizationRate(rate(counts[0] + counts[1], totalNights))
+                    .build());
+        }
+        return months;
+    }
+
+    private static double rate(long nights, long outOf) {
+        return outOf > 0 ? Math.round(nights * 10_000.0 / outOf) / 10_000.0 : 0;
+    }
+
+    private static NightRange bookedNights(Booking booking, int delta) {
+        return new NightRange(booking.getPropertyId(), booking.getStartDate(), booking.getEndDate(), delta, 0);
+    }
+
+    private static NightRange blockedNights(Block block, int delta) {
+        return new NightRange(block.getPropertyId(), block.getStartDate(), block.getEndDate(), 0, delta);
+    }
+
+    // Occurrences of one rule may overlap each other, so each night is counted once
+    private static List<NightRange> blockedNights(RecurringBlock block, int delta) {
+        RecurrenceRule rule = RecurrenceRule.of(block);
+        LocalDate first = block.getStartDate();
+        int days = (int) ChronoUnit.DAYS.between(first, rule.lastBlockedDate()) + 1;
+        BitSet blocked = new BitSet(days);
+        rule.markBlockedDays(blocked, first, days);
+
+        List<NightRange> ranges = new ArrayList<>();
+        for (int start = blocked.nextSetBit(0); start >= 0; ) {
+            int end = blocked.nextClearBit(start);
+            ranges.add(new NightRange(block.getPropertyId(), first.plusDays(start), first.plusDays(end - 1L), 0, delta));
+            start = blocked.nextSetBit(end);
+        }
+        return ranges;
+    }
+}
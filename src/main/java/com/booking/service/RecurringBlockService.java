@@ -0,0 +1,201 @@
+package com.booking.service;
+
+import com.booking.dto.OccurrenceResponse;
+import com.booking.dto.RecurringBlockRequest;
+import com.booking.dto.RecurringBlockResponse;
+import com.booking.exception.BookingException;
+import com.booking.exception.ResourceNotFoundException;
+import com.booking.model.ChangeOperation;
+import com.booking.model.Property;
+import com.booking.model.RecurrenceFrequency;
+import com.booking.model.RecurringBlock;
+import com.booking.recurrence.RecurrenceRule;
+import com.booking.repository.BlockRepository;
+import com.booking.repository.BookingRepository;
+import com.booking.repository.PropertyRepository;
+import com.booking.repository.RecurringBlockRepository;
+import com.booking.sharding.ShardKey;
+import com.booking.validator.BookingValidator;
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.annotation.Transactional;
+
+import java.time.LocalDate;
+import java.time.temporal.ChronoUnit;
+import java.util.ArrayList;
+import java.util.Iterator;
+import java.util.List;
+import java.util.UUID;
+
+@Service
+@RequiredArgsConstructor
+@Slf4j
+public class RecurringBlockService {
+
+    public static final int MAX_INTERVAL = 99;
+    public static final int MAX_DURATION_DAYS = 90;
+    public static final int MAX_RULE_SPAN_DAYS = 5 * 366;
+    public static final int MAX_OCCURRENCE_WINDOW_DAYS = 366;
+
+    private final RecurringBlockRepository recurringBlockRepository;
+    private final BookingRepository bookingRepository;
+    private final BlockRepository blockRepository;
+    private final PropertyRepository propertyRepository;
+    private final BookingValidator bookingValidator;
+    private final ChangeLogService changeLogService;
+    private final PropertyStatsService propertyStatsService;
+    private final ShardMoveFence shardMoveFence;
+
+    @Transactional
+    public RecurringBlockResponse createRecurringBlock(@ShardKey RecurringBlockRequest request) {
+        log.info("Creating recurring block for property: {}", request.getPropertyId());
+
+        lockProperty(request.getPropertyId());
+        validateOwnership(request.getPropertyId(), request.getOwnerId());
+        bookingValidator.validateDates(request.getStartDate(), request.getUntilDate());
+        validateRule(request);
+
+        RecurringBlock block = RecurringBlock.builder()
+                .propertyId(request.getPropertyId())
+                .frequency(request.getFrequency())
+                .repeatInterval(request.getInterval())
+                .daysOfWeek(request.getDaysOfWeek() != null ? RecurrenceRule.toMask(request.getDaysOfWeek()) : 0)
+                .startDate(request.getStartDate())
+                .untilDate(request.getUntilDate())
+                .durationDays(request.getDurationDays())
+                .reason(request.getReason())
+                .build();
+        RecurrenceRule rule = RecurrenceRule.of(block);
+        block.setLastBlockedDate(rule.lastBlockedDate());
+        validateNoConflicts(block.getPropertyId(), rule, block.getStartDate(), block.getLastBlockedDate());
+
+        block = recurringBlockRepository.save(block);
+        propertyStatsService.addRecurringBlock(block);
+        changeLogService.recordRecurringBlockChange(block, ChangeOperation.CREATED);
+        log.info("Recurring block created successfully with id: {}", block.getId());
+
+        return RecurringBlockResponse.fromModel(block);
+    }
+
+    @Transactional(readOnly = true)
+    public RecurringBlockResponse getRecurringBlock(@ShardKey(ShardKey.Source.RECURRING_BLOCK) UUID recurringBlockId) {
+        log.info("Fetching recurring block with id: {}", recurringBlockId);
+        return RecurringBlockResponse.fromModel(getRecurringBlockOrThrow(recurringBlockId));
+    }
+
+    @Transactional(readOnly = true)
+    public List<RecurringBlockResponse> getRecurringBlocksByPropertyId(@ShardKey UUID propertyId) {
+        log.info("Fetching recurring blocks for property id: {}", propertyId);
+
+        bookingValidator.validatePropertyExists(propertyId);
+
+        return recurringBlockRepository.findByPropertyId(propertyId).stream()
+                .map(RecurringBlockResponse::fromModel)
+                .toList();
+    }
+
+    @Transactional(readOnly = true)
+    public List<OccurrenceResponse> getOccurrences(@ShardKey(ShardKey.Source.RECURRING_BLOCK) UUID recurringBlockId,
+                                                   LocalDate from, LocalDate to) {
+        log.info("Fetching occurrences of recurring block {} between {} and {}", recurringBlockId, from, to);
+
+        if (from.isAfter(to)) {
+            throw new BookingException("Parameter 'from' must not be after 'to'");
+        }
+        if (ChronoUnit.DAYS.between(from, to) >= MAX_OCCURRENCE_WINDOW_DAYS) {
+            throw new BookingException("Occurrence window cannot exceed " + MAX_OCCURRENCE_WINDOW_DAYS + " days");
+        }
+
+        RecurrenceRule rule = RecurrenceRule.of(getRecurringBlockOrThrow(recurringBlockId));
+        List<OccurrenceResponse> occurrences = new ArrayList<>();
+        rule.occurrences(from, to).forEachRemaining(occurrence -> occurrences.add(OccurrenceResponse.fromOccurrence(occurrence)));
+        return occurrences;
+    }
+
+    @Transactional
+    public void deleteRecurringBlock(@ShardKey(ShardKey.Source.RECURRING_BLOCK) UUID recurringBlockId, UUID ownerId) {
+        log.info("Deleting recurring block with id: {}", recurringBlockId);
+
+        RecurringBlock block = getRecurringBlockOrThrow(recurringBlockId);
+        shardMoveFence.enter(block.getPropertyId());
+        validateOwnership(block.getPropertyId(), ownerId);
+        // Leaves a tombstone with a new version; a rule changed since it was read fails the delete
+        recurringBlockRepository.delete(block);
+        propertyStatsService.removeRecurringBlock(block);
+        changeLogService.recordRecurringBlockChange(block, ChangeOperation.DELETED);
+
+        log.info("Recurring block deleted successfully with id: {}", recurringBlockId);
+    }
+
+    private void validateRule(RecurringBlockRequest request) {
+        if (request.getInterval() < 1 || request.getInterval() > MAX_INTERVAL) {
+            throw new BookingException("Interval must be between 1 and " + MAX_INTERVAL);
+        }
+        if (request.getDurationDays() < 1 || request.getDurationDays() > MAX_DURATION_DAYS) {
+            throw new BookingException("Duration must be between 1 and " + MAX_DURATION_DAYS + " days");
+        }
+        if (ChronoUnit.DAYS.between(request.getStartDate(), request.getUntilDate()) >= MAX_RULE_SPAN_DAYS) {
+            throw new BookingException("A recurring block cannot span more than " + MAX_RULE_SPAN_DAYS + " days");
+        }
+        if (request.getFrequency() != RecurrenceFrequency.WEEKLY
+                && request.getDaysOfWeek() != null && !request.getDaysOfWeek().isEmpty()) {
+            throw new BookingException("Days of week can only be set for weekly recurring blocks");
+        }
+    }
+
+    /**
+     * Checks the rule against everything on the property within its span. Bookings and blocks
+     * each cost one overlap evaluation of the rule; other recurring blocks and holds are checked
+     * per occurrence of the new rule.
+     */
+    private void validateNoConflicts(UUID propertyId, RecurrenceRule rule, LocalDate startDate, LocalDate lastBlockedDate) {
+        boolean booked = bookingRepository.findOverlappingBookings(propertyId, startDate, lastBlockedDate).stream()
+                .anyMatch(booking -> rule.overlaps(booking.getStartDate(), booking.getEndDate()));
+        if (booked) {
+            throw new BookingException("Property is already booked for the selected dates");
+        }
+        boolean blocked = blockRepository.findOverlappingBlocks(propertyId, startDate, lastBlockedDate).stream()
+                .anyMatch(block -> rule.overlaps(block.getStartDate(), block.getEndDate()));
+        if (blocked) {
+            throw new BookingException("Property is already blocked for the selected dates");
+        }
+
+        List<RecurrenceRule> others = recurringBlockRepository.findActive(propertyId, startDate, lastBlockedDate).stream()
+                .map(RecurrenceRule::of)
+                .toList();
+        Iterator<RecurrenceRule.Occurrence> occurrences = rule.occurrences(startDate, lastBlockedDate);
+        while (occurrences.hasNext()) {
+            RecurrenceRule.Occurrence occurrence = occurrences.next();
+            if (others.stream().anyMatch(other -> other.overlaps(occurrence.startDate(), occurrence.endDate()))) {
+                throw new BookingException("Property is already blocked for the selected dates");
+            }
+            bookingValidator.validateNotHeld(propertyId, occurrence.startDate(), occurrence.endDate());
+        }
+    }
+
+    /**
+     * The rule's nights are not claimed, so rules of the same property are kept apart by the
+     * property row lock, which group bookings and owner bulk writes take as well. A missing
+     * property is left to the ownership check.
+     */
+    private void lockProperty(UUID propertyId) {
+        if (!propertyRepository.findAllByIdForUpdate(List.of(propertyId)).isEmpty()) {
+            shardMoveFence.checkNotMoved(List.of(propertyId));
+        }
+    }
+
+    private RecurringBlock getRecurringBlockOrThrow(UUID recurringBlockId) {
+        return recurringBlockRepository.findById(recurringBlockId)
+                .orElseThrow(() -> new ResourceNotFoundException("Recurring block not found with id: " + recurringBlockId));
+    }
+
+    private void validateOwnership(UUID propertyId, UUID ownerId) {
+        Property property = propertyRepository.findById(propertyId)
+                .orElseThrow(() -> new ResourceNotFoundException("Property not found with id: " + propertyId));
+
+        if (!property.getOwnerId().equals(ownerId)) {
+            throw new BookingException("You are not authorized to manage blocks for this property");
+        }
+    }
+}
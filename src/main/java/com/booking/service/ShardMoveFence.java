@@ -0,0 +1,75 @@
+package com.booking.service;
+
+import com.booking.model.Property;
+import com.booking.model.PropertyShard;
+import com.booking.repository.PropertyRepository;
+import com.booking.repository.PropertyShardRepository;
+import com.booking.sharding.ShardContext;
+import com.booking.sharding.ShardRouter;
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.ObjectProvider;
+import org.springframework.dao.ConcurrencyFailureException;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.annotation.Propagation;
+import org.springframework.transaction.annotation.Transactional;
+
+import java.util.Collection;
+import java.util.List;
+import java.util.UUID;
+
+/**
+ * Keeps writes and shard moves of a property apart when sharding is enabled. A move holds the
+ * property row lock on the source shard from the first copied row until the source rows are
+ * gone, so writers lock the same row before touching the property's bookings or blocks. Once
+ * they hold it, a property that has moved off the current shard fails the write with a
+ * {@link ConcurrencyFailureException} and is routed to its new shard from then on, also on
+ * nodes that have not refreshed the shard directory yet. Without sharding nothing is locked.
+ */
+@Service
+@RequiredArgsConstructor
+@Slf4j
+public class ShardMoveFence {
+
+    private final PropertyRepository propertyRepository;
+    private final PropertyShardRepository propertyShardRepository;
+    private final ObjectProvider<ShardRouter> shardRouter;
+
+    @Transactional(propagation = Propagation.MANDATORY)
+    public void enter(UUID propertyId) {
+        enter(List.of(propertyId));
+    }
+
+    /**
+     * Locks the property rows in ascending id order and fails if any of them has moved away.
+     */
+    @Transactional(propagation = Propagation.MANDATORY)
+    public void enter(Collection<UUID> propertyIds) {
+        if (shardRouter.getIfAvailable() == null) {
+            return;
+        }
+        checkNotMoved(propertyRepository.findAllByIdForUpdate(propertyIds).stream().map(Property::getId).toList());
+    }
+
+    /**
+     * For callers that already hold the property row locks: fails if any of the properties has
+     * moved away from the current shard.
+     */
+    @Transactional(propagation = Propagation.MANDATORY)
+    public void checkNotMoved(Collection<UUID> propertyIds) {
+        ShardRouter router = shardRouter.getIfAvailable();
+        if (router == null || propertyIds.isEmpty()) {
+            return;
+        }
+
+        int shard = ShardContext.current();
+        for (PropertyShard entry : propertyShardRepository.findAllById(propertyIds)) {
+            if (entry.getShard() != shard) {
+                log.info("Property {} has moved from shard {} to shard {}", entry.getPropertyId(), shard, entry.getShard());
+                router.routeTo(entry.getPropertyId(), entry.getShard());
+                throw new ConcurrencyFailureException(
+                        "Property " + entry.getPropertyId() + " has moved to shard " + entry.getShard());
+            }
+        }
+    }
+}
@@ -0,0 +1,11 @@
+package com.booking.sharding;
+
+import java.util.UUID;
+
+/**
+ * Implemented by requests that belong to a single property, so they can act as a shard key.
+ */
+public interface PropertyScoped {
+
+    UUID getPropertyId();
+}
@@ -0,0 +1,82 @@
+package com.booking.sharding;
+
+import com.booking.model.Guest;
+import com.booking.model.Owner;
+import com.booking.model.Property;
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.hibernate.event.spi.PostCommitInsertEventListener;
+import org.hibernate.event.spi.PostCommitUpdateEventListener;
+import org.hibernate.event.spi.PostInsertEvent;
+import org.hibernate.event.spi.PostUpdateEvent;
+import org.hibernate.persister.entity.EntityPersister;
+import org.springframework.jdbc.core.JdbcTemplate;
+
+/**
+ * Copies owners, properties and guests to every shard once the transaction that wrote them
+ * has committed, so booking and block transactions always find their reference data locally.
+ */
+@Slf4j
+@RequiredArgsConstructor
+public class ReferenceDataReplicator implements PostCommitInsertEventListener, PostCommitUpdateEventListener {
+
+    private final ShardRouter shardRouter;
+
+    @Override
+    public void onPostInsert(PostInsertEvent event) {
+        replicate(event.getEntity());
+    }
+
+    @Override
+    public void onPostUpdate(PostUpdateEvent event) {
+        replicate(event.getEntity());
+    }
+
+    @Override
+    public void onPostInsertCommitFailed(PostInsertEvent event) {
+        // Nothing was written, so there is nothing to replicate
+    }
+
+    @Override
+    public void onPostUpdateCommitFailed(PostUpdateEvent event) {
+        // Nothing was written, so there is nothing to replicate
+    }
+
+    @Override
+    public boolean requiresPostCommitHandling(EntityPersister persister) {
+        Class<?> entityClass = persister.getMappedClass();
+        return entityClass == Owner.class || entityClass == Property.class || entityClass == Guest.class;
+    }
+
+    private void replicate(Object entity) {
+        int origin = ShardContext.current();
+        for (int shard = 0; shard < shardRouter.shardCount(); shard++) {
+            if (shard == origin) {
+                continue;
+            }
+            JdbcTemplate jdbcTemplate = shardRouter.shardJdbcTemplate(shard);
+            if (entity instanceof Owner owner) {
+                upsert(jdbcTemplate,
+                        "UPDATE owner SET first_name = ?, last_name = ?, email = ?, phone = ? WHERE id = ?",
+                        "INSERT INTO owner (first_name, last_name, email, phone, id) VALUES (?, ?, ?, ?, ?)",
+                        owner.getFirstName(), owner.getLastName(), owner.getEmail(), owner.getPhone(), owner.getId());
+            } else if (entity instanceof Property property) {
+                upsert(jdbcTemplate,
+                        "UPDATE property SET name = ?, address = ?, description = ?, owner_id = ? WHERE id = ?",
+                        "INSERT INTO property (name, address, description, owner_id, id) VALUES (?, ?, ?, ?, ?)",
+                        property.getName(), property.getAddress(), property.getDescription(), property.getOwnerId(), property.getId());
+            } else if (entity instanceof Guest guest) {
+                upsert(jdbcTemplate,
+                        "UPDATE guest SET first_name = ?, last_name = ?, email = ? WHERE id = ?",
+                        "INSERT INTO guest (first_name, last_name, email, id) VALUES (?, ?, ?, ?)",
+                        guest.getFirstName(), guest.getLastName(), guest.getEmail(), guest.getId());
+            }
+        }
+    }
+
+    private void upsert(JdbcTemplate jdbcTemplate, String updateSql, String insertSql, Object... args) {
+        if (jdbcTemplate.update(updateSql, args) == 0) {
+            jdbcTemplate.update(insertSql, args);
+        }
+    }
+}
@@ -0,0 +1,15 @@
+package com.booking.sharding;
+
+import java.lang.annotation.ElementType;
+import java.lang.annotation.Retention;
+import java.lang.annotation.RetentionPolicy;
+import java.lang.annotation.Target;
+
+/**
+ * Marks a service method returning a {@link java.util.List} that must run on every shard in
+ * parallel, with the per-shard results concatenated.
+ */
+@Target(ElementType.METHOD)
+@Retention(RetentionPolicy.RUNTIME)
+public @interface ScatterGather {
+}
@@ -0,0 +1,39 @@
+package com.booking.sharding;
+
+import java.util.function.Supplier;
+
+/**
+ * Holds the shard the current thread is working against. Unbound threads use shard 0.
+ */
+public final class ShardContext {
+
+    public static final int DEFAULT_SHARD = 0;
+
+    private static final ThreadLocal<Integer> CURRENT_SHARD = new ThreadLocal<>();
+
+    private ShardContext() {
+    }
+
+    public static int current() {
+        Integer shard = CURRENT_SHARD.get();
+        return shard != null ? shard : DEFAULT_SHARD;
+    }
+
+    public static boolean isBound() {
+        return CURRENT_SHARD.get() != null;
+    }
+
+    public static <T> T callOn(int shard, Supplier<T> action) {
+        Integer previous = CURRENT_SHARD.get();
+        CURRENT_SHARD.set(shard);
+        try {
+            return action.get();
+        } finally {
+            if (previous != null) {
+                CURRENT_SHARD.set(previous);
+            } else {
+                CURRENT_SHARD.remove();
+            }
+        }
+    }
+}
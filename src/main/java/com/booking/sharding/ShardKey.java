@@ -0,0 +1,27 @@
+package com.booking.sharding;
+
+import java.lang.annotation.ElementType;
+import java.lang.annotation.Retention;
+import java.lang.annotation.RetentionPolicy;
+import java.lang.annotation.Target;
+
+/**
+ * Marks the service method parameter that decides which shard the call runs on.
+ */
+@Target(ElementType.PARAMETER)
+@Retention(RetentionPolicy.RUNTIME)
+public @interface ShardKey {
+
+    Source value() default Source.PROPERTY;
+
+    enum Source {
+        /** A property id, or a request implementing {@link PropertyScoped}. */
+        PROPERTY,
+        /** A booking id; the owning shard is located by probing every shard. */
+        BOOKING,
+        /** A block id; the owning shard is located by probing every shard. */
+        BLOCK,
+        /** A recurring block id; the owning shard is located by probing every shard. */
+        RECURRING_BLOCK
+    }
+}
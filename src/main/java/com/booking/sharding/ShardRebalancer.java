@@ -0,0 +1,164 @@
+package com.booking.sharding;
+
+import com.booking.dto.ShardMoveResponse;
+import com.booking.exception.BookingException;
+import com.booking.exception.ResourceNotFoundException;
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.dao.ConcurrencyFailureException;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.jdbc.datasource.DataSourceTransactionManager;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.sql.ResultSetMetaData;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.List;
+import java.util.UUID;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.function.Supplier;
+
+/**
+ * Moves all bookings and blocks (archived ones included), recurring blocks, night claims and
+ * stats of a property from its current shard to another one. The move runs in one transaction on
+ * the source shard that locks the property row first, the same lock writers take before touching
+ * the property (see {@code ShardMoveFence}), and also locks the booking and block rows the
+ * archiver could otherwise move away mid-copy. Inside it the rows are copied to the target in a
+ * target transaction, then deleted from the source together with an entry in the source's
+ * {@code property_shard} table that sends writers which were waiting for the lock, or which come
+ * from nodes still routing to the source, to the new shard. The directory on shard 0 is updated
+ * last. If the move fails before the source commits, the copies are removed from the target
+ * again and the property stays where it was.
+ */
+@Slf4j
+@RequiredArgsConstructor
+public class ShardRebalancer {
+
+    private static final List<String> PROPERTY_SCOPED_TABLES = List.of(
+            "booking", "block", "recurring_block", "occupied_night", "property_daily_stats", "archived_booking", "archived_block");
+
+    private final ShardRouter shardRouter;
+
+    public synchronized ShardMoveResponse moveProperty(UUID propertyId, int targetShard) {
+        if (targetShard < 0 || targetShard >= shardRouter.shardCount()) {
+            throw new BookingException("Target shard must be between 0 and " + (shardRouter.shardCount() - 1));
+        }
+
+        int sourceShard = shardRouter.shardFor(propertyId);
+        if (sourceShard == targetShard) {
+            return ShardMoveResponse.builder()
+                    .propertyId(propertyId)
+                    .sourceShard(sourceShard)
+                    .targetShard(targetShard)
+                    .build();
+        }
+
+        log.info("Moving property {} from shard {} to shard {}", propertyId, sourceShard, targetShard);
+        JdbcTemplate source = shardRouter.shardJdbcTemplate(sourceShard);
+        JdbcTemplate target = shardRouter.shardJdbcTemplate(targetShard);
+
+        AtomicBoolean copied = new AtomicBoolean();
+        int[] moved;
+        try {
+            moved = inTransaction(sourceShard, () -> {
+                lockProperty(source, sourceShard, propertyId);
+                source.queryForList("SELECT id FROM booking WHERE property_id = ? FOR UPDATE", UUID.class, propertyId);
+                source.queryForList("SELECT id FROM block WHERE property_id = ? FOR UPDATE", UUID.class, propertyId);
+
+                int[] counts = inTransaction(targetShard, () -> {
+                    // Leftovers of an earlier failed move; the property's live rows are all on the source
+                    deleteRows(target, propertyId);
+                    int bookings = copyRows(source, target, "booking", propertyId);
+                    int blocks = copyRows(source, target, "block", propertyId);
+                    PROPERTY_SCOPED_TABLES.stream()
+                            .filter(table -> !table.equals("booking") && !table.equals("block"))
+                            .forEach(table -> copyRows(source, target, table, propertyId));
+                    shardRouter.recordMove(targetShard, propertyId, targetShard);
+                    return new int[] {bookings, blocks};
+                });
+                copied.set(true);
+
+                deleteRows(source, propertyId);
+                shardRouter.recordMove(sourceShard, propertyId, targetShard);
+                return counts;
+            });
+        } catch (RuntimeException e) {
+            if (!copied.get()) {
+                throw e;
+            }
+            log.warn("Moving property {} to shard {} failed, removing the copies", propertyId, targetShard);
+            inTransaction(targetShard, () -> {
+                deleteRows(target, propertyId);
+                shardRouter.recordMove(targetShard, propertyId, sourceShard);
+                return null;
+            });
+            throw e;
+        }
+
+        shardRouter.pin(propertyId, targetShard);
+
+        log.info("Moved property {} to shard {} ({} bookings, {} blocks)", propertyId, targetShard, moved[0], moved[1]);
+        return ShardMoveResponse.builder()
+                .propertyId(propertyId)
+                .sourceShard(sourceShard)
+                .targetShard(targetShard)
+                .bookingsMoved(moved[0])
+                .blocksMoved(moved[1])
+                .build();
+    }
+
+    /**
+     * Locks the property row on the source, then checks that an earlier move has not already
+     * taken the property away, which happens when this node routed it from a stale directory.
+     */
+    private void lockProperty(JdbcTemplate source, int sourceShard, UUID propertyId) {
+        List<UUID> locked = source.queryForList("SELECT id FROM property WHERE id = ? FOR UPDATE", UUID.class, propertyId);
+        if (locked.isEmpty()) {
+            throw new ResourceNotFoundException("Property not found with id: " + propertyId);
+        }
+        List<Integer> movedTo = source.queryForList(
+                "SELECT shard FROM property_shard WHERE property_id = ?", Integer.class, propertyId);
+        if (!movedTo.isEmpty() && movedTo.get(0) != sourceShard) {
+            shardRouter.routeTo(propertyId, movedTo.get(0));
+            throw new ConcurrencyFailureException("Property " + propertyId + " has moved to shard " + movedTo.get(0));
+        }
+    }
+
+    private void deleteRows(JdbcTemplate jdbcTemplate, UUID propertyId) {
+        PROPERTY_SCOPED_TABLES.forEach(table ->
+                jdbcTemplate.update("DELETE FROM " + table + " WHERE property_id = ?", propertyId));
+    }
+
+    private int copyRows(JdbcTemplate source, JdbcTemplate target, String table, UUID propertyId) {
+        List<String> columns = new ArrayList<>();
+        List<Object[]> rows = new ArrayList<>();
+        source.query("SELECT * FROM " + table + " WHERE property_id = ?", rs -> {
+            ResultSetMetaData metaData = rs.getMetaData();
+            if (columns.isEmpty()) {
+                for (int i = 1; i <= metaData.getColumnCount(); i++) {
+                    columns.add(metaData.getColumnName(i));
+                }
+            }
+            Object[] row = new Object[columns.size()];
+            for (int i = 0; i < row.length; i++) {
+                row[i] = rs.getObject(i + 1);
+            }
+            rows.add(row);
+        }, propertyId);
+
+        if (rows.isEmpty()) {
+            return 0;
+        }
+
+        String insertSql = "INSERT INTO " + table + " (" + String.join(", ", columns) + ") VALUES ("
+                + String.join(", ", Collections.nCopies(columns.size(), "?")) + ")";
+        target.batchUpdate(insertSql, rows);
+        return rows.size();
+    }
+
+    private <T> T inTransaction(int shard, Supplier<T> action) {
+        TransactionTemplate transactionTemplate = new TransactionTemplate(
+                new DataSourceTransactionManager(shardRouter.shardDataSource(shard)));
+        return transactionTemplate.execute(status -> action.get());
+    }
+}
@@ -0,0 +1,157 @@
+package com.booking.sharding;
+
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.jdbc.datasource.DataSourceTransactionManager;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import javax.sql.DataSource;
+import java.util.List;
+import java.util.Map;
+import java.util.Optional;
+import java.util.UUID;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ExecutorService;
+import java.util.stream.IntStream;
+
+/**
+ * Maps properties to shards. A property lives on the shard its id hashes to, unless the
+ * rebalancer has pinned it elsewhere through the directory on shard 0. Each node keeps a copy of
+ * the directory in memory and reloads it every {@code booking.sharding.directory-refresh-interval};
+ * a write that reaches a shard its property has left corrects the copy right away.
+ */
+@Slf4j
+public class ShardRouter {
+
+    private final List<DataSource> shards;
+    private final List<JdbcTemplate> shardJdbcTemplates;
+    private final ExecutorService scatterExecutor;
+    private volatile Map<UUID, Integer> pinnedProperties = new ConcurrentHashMap<>();
+
+    public ShardRouter(List<DataSource> shards, ExecutorService scatterExecutor) {
+        this.shards = List.copyOf(shards);
+        this.shardJdbcTemplates = shards.stream().map(JdbcTemplate::new).toList();
+        this.scatterExecutor = scatterExecutor;
+    }
+
+    public int shardCount() {
+        return shards.size();
+    }
+
+    public DataSource shardDataSource(int shard) {
+        return shards.get(shard);
+    }
+
+    public JdbcTemplate shardJdbcTemplate(int shard) {
+        return shardJdbcTemplates.get(shard);
+    }
+
+    public ExecutorService scatterExecutor() {
+        return scatterExecutor;
+    }
+
+    public int shardFor(UUID propertyId) {
+        Integer pinned = pinnedProperties.get(propertyId);
+        return pinned != null ? pinned : hashShard(propertyId);
+    }
+
+    public int hashShard(UUID propertyId) {
+        return Math.floorMod(stableHash(propertyId), shards.size());
+    }
+
+    public void loadDirectory() {
+        log.info("Loaded {} pinned properties from the shard directory", readDirectory());
+    }
+
+    @Scheduled(fixedDelayString = "${booking.sharding.directory-refresh-interval:30s}",
+            initialDelayString = "${booking.sharding.directory-refresh-interval:30s}")
+    public void refreshDirectory() {
+        try {
+            log.debug("Refreshed the shard directory, {} pinned properties", readDirectory());
+        } catch (RuntimeException e) {
+            log.warn("Could not refresh the shard directory: {}", e.getMessage());
+        }
+    }
+
+    /**
+     * Records in the directory on shard 0, in one transaction, that the property now lives on
+     * {@code shard}, and routes it there from this node.
+     */
+    public void pin(UUID propertyId, int shard) {
+        new TransactionTemplate(new DataSourceTransactionManager(shards.get(ShardContext.DEFAULT_SHARD)))
+                .executeWithoutResult(status -> recordMove(ShardContext.DEFAULT_SHARD, propertyId, shard));
+        routeTo(propertyId, shard);
+    }
+
+    /**
+     * Routes the property to {@code shard} from this node only, for a move learned from a shard
+     * before the directory has been reloaded.
+     */
+    public void routeTo(UUID propertyId, int shard) {
+        pinnedProperties.put(propertyId, shard);
+    }
+
+    /**
+     * Writes the entry saying the property lives on {@code targetShard} to the {@code property_shard}
+     * table of {@code shard}, in the caller's transaction on that shard.
+     */
+    void recordMove(int shard, UUID propertyId, int targetShard) {
+        JdbcTemplate jdbcTemplate = shardJdbcTemplates.get(shard);
+        jdbcTemplate.update("DELETE FROM property_shard WHERE property_id = ?", propertyId);
+        jdbcTemplate.update("INSERT INTO property_shard (property_id, shard) VALUES (?, ?)", propertyId, targetShard);
+    }
+
+    private int readDirectory() {
+        Map<UUID, Integer> directory = new ConcurrentHashMap<>();
+        shardJdbcTemplates.get(ShardContext.DEFAULT_SHARD).query(
+                "SELECT property_id, shard FROM property_shard",
+                rs -> {
+                    directory.put(rs.getObject(1, UUID.class), rs.getInt(2));
+                });
+        pinnedProperties = directory;
+        return directory.size();
+    }
+
+    /**
+     * Finds the shard holding the row with the given id by probing all shards in parallel.
+     */
+    public Optional<Integer> locate(String table, UUID id) {
+        String sql = "SELECT COUNT(*) FROM " + table + " WHERE id = ?";
+        List<CompletableFuture<Boolean>> probes = IntStream.range(0, shards.size())
+                .mapToObj(shard -> CompletableFuture.supplyAsync(
+                        () -> {
+                            Integer count = shardJdbcTemplates.get(shard).queryForObject(sql, Integer.class, id);
+                            return count != null && count > 0;
+                        },
+                        scatterExecutor))
+                .toList();
+
+        for (int shard = 0; shard < probes.size(); shard++) {
+            if (probes.get(shard).join()) {
+                return Optional.of(shard);
+            }
+        }
+        return Optional.empty();
+    }
+
+    public void close() throws Exception {
+        for (DataSource shard : shards) {
+            if (shard instanceof AutoCloseable closeable) {
+                closeable.close();
+            }
+        }
+    }
+
+    // fmix64 from MurmurHash3: stable across JVMs and spreads sequential ids evenly
+    private static int stableHash(UUID id) {
+        long h = id.getMostSignificantBits() ^ id.getLeastSignificantBits();
+        h ^= h >>> 33;
+        h *= 0xff51afd7ed558ccdL;
+        h ^= h >>> 33;
+        h *= 0xc4ceb9fe1a85ec53L;
+        h ^= h >>> 33;
+        return (int) h;
+    }
+}
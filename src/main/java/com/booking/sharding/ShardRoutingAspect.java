@@ -0,0 +1,136 @@
+package com.booking.sharding;
+
+import com.booking.exception.ResourceNotFoundException;
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.aspectj.lang.ProceedingJoinPoint;
+import org.aspectj.lang.annotation.Around;
+import org.aspectj.lang.annotation.Aspect;
+import org.aspectj.lang.reflect.MethodSignature;
+import org.springframework.core.Ordered;
+import org.springframework.core.annotation.Order;
+
+import java.lang.annotation.Annotation;
+import java.lang.reflect.Method;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.UUID;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CompletionException;
+import java.util.stream.IntStream;
+
+/**
+ * Binds the shard for booking, block and availability window service calls before their
+ * transaction starts, so every repository query inside the call runs against a single shard.
+ * Runs inside the conflict retry aspect, so each retry resolves the shard again.
+ */
+@Aspect
+@Order(Ordered.HIGHEST_PRECEDENCE + 1)
+@RequiredArgsConstructor
+@Slf4j
+public class ShardRoutingAspect {
+
+    private final ShardRouter shardRouter;
+
+    @Around("execution(public * com.booking.service.BookingService.*(..)) " +
+            "|| execution(public * com.booking.service.BlockService.*(..)) " +
+            "|| execution(public * com.booking.service.AvailabilityWindowService.*(..)) " +
+            "|| execution(public * com.booking.service.RecurringBlockService.*(..))")
+    public Object route(ProceedingJoinPoint joinPoint) throws Throwable {
+        if (ShardContext.isBound()) {
+            return joinPoint.proceed();
+        }
+
+        Method method = ((MethodSignature) joinPoint.getSignature()).getMethod();
+        if (method.isAnnotationPresent(ScatterGather.class)) {
+            return scatterGather(joinPoint);
+        }
+
+        int shard = resolveShard(method, joinPoint.getArgs());
+        return ShardContext.callOn(shard, () -> proceed(joinPoint));
+    }
+
+    private int resolveShard(Method method, Object[] args) {
+        Annotation[][] parameterAnnotations = method.getParameterAnnotations();
+        for (int i = 0; i < parameterAnnotations.length; i++) {
+            for (Annotation annotation : parameterAnnotations[i]) {
+                if (annotation instanceof ShardKey shardKey) {
+                    return resolveShard(shardKey.value(), args[i]);
+                }
+            }
+        }
+        return ShardContext.DEFAULT_SHARD;
+    }
+
+    private int resolveShard(ShardKey.Source source, Object key) {
+        return switch (source) {
+            case PROPERTY -> {
+                UUID propertyId = key instanceof PropertyScoped scoped ? scoped.getPropertyId() : (UUID) key;
+                yield propertyId != null ? shardRouter.shardFor(propertyId) : ShardContext.DEFAULT_SHARD;
+            }
+            // Archived rows are looked for only after a miss; unknown ids fall through to shard 0,
+            // where the service reports them as not found
+            case BOOKING -> shardRouter.locate("booking", (UUID) key)
+                    .or(() -> shardRouter.locate("archived_booking", (UUID) key))
+                    .orElse(ShardContext.DEFAULT_SHARD);
+            case BLOCK -> shardRouter.locate("block", (UUID) key)
+                    .or(() -> shardRouter.locate("archived_block", (UUID) key))
+                    .orElse(ShardContext.DEFAULT_SHARD);
+            case RECURRING_BLOCK -> shardRouter.locate("recurring_block", (UUID) key).orElse(ShardContext.DEFAULT_SHARD);
+        };
+    }
+
+    private Object scatterGather(ProceedingJoinPoint joinPoint) throws Throwable {
+        List<CompletableFuture<Object>> calls = IntStream.range(0, shardRouter.shardCount())
+                .mapToObj(shard -> CompletableFuture.supplyAsync(
+                        () -> ShardContext.callOn(shard, () -> proceedOrEmpty(joinPoint)),
+                        shardRouter.scatterExecutor()))
+                .toList();
+
+        List<Object> gathered = new ArrayList<>();
+        ResourceNotFoundException notFound = null;
+        int found = 0;
+        for (CompletableFuture<Object> call : calls) {
+            Object result;
+            try {
+                result = call.join();
+            } catch (CompletionException e) {
+                throw e.getCause();
+            }
+            if (result instanceof ResourceNotFoundException e) {
+                notFound = e;
+                continue;
+            }
+            found++;
+            gathered.addAll((List<?>) result);
+        }
+
+        // Only report a missing resource when no shard knows about it
+        if (found == 0 && notFound != null) {
+            throw notFound;
+        }
+        return gathered;
+    }
+
+    private Object proceedOrEmpty(ProceedingJoinPoint joinPoint) {
+        try {
+            return joinPoint.proceed();
+        } catch (ResourceNotFoundException e) {
+            return e;
+        } catch (RuntimeException | Error e) {
+            throw e;
+        } catch (Throwable e) {
+            throw new IllegalStateException(e);
+        }
+    }
+
+    private Object proceed(ProceedingJoinPoint joinPoint) {
+        try {
+            return joinPoint.proceed();
+        } catch (RuntimeException | Error e) {
+            throw e;
+        } catch (Throwable e) {
+            throw new IllegalStateException(e);
+        }
+    }
+}
@@ -0,0 +1,15 @@
+package com.booking.sharding;
+
+import org.springframework.jdbc.datasource.lookup.AbstractRoutingDataSource;
+
+/**
+ * Hands out connections to the shard bound in {@link ShardContext}. The shard has to be bound
+ * before a transaction starts, which {@link ShardRoutingAspect} takes care of for service calls.
+ */
+public class ShardRoutingDataSource extends AbstractRoutingDataSource {
+
+    @Override
+    protected Object determineCurrentLookupKey() {
+        return ShardContext.current();
+    }
+}
@@ -0,0 +1,32 @@
+package com.booking.sharding;
+
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.jdbc.core.JdbcTemplate;
+
+import java.util.List;
+
+/**
+ * Copies the schema Hibernate generated on shard 0 to the remaining shards. Only meant for the
+ * local H2 setup; real deployments apply migrations to every shard instead.
+ */
+@Slf4j
+@RequiredArgsConstructor
+public class ShardSchemaInitializer {
+
+    private final ShardRouter shardRouter;
+
+    public void replicateSchema() {
+        List<String> ddl = shardRouter.shardJdbcTemplate(ShardContext.DEFAULT_SHARD)
+                .queryForList("SCRIPT NODATA NOPASSWORDS NOSETTINGS", String.class);
+
+        for (int shard = 1; shard < shardRouter.shardCount(); shard++) {
+            JdbcTemplate jdbcTemplate = shardRouter.shardJdbcTemplate(shard);
+            jdbcTemplate.execute("DROP ALL OBJECTS");
+            ddl.stream()
+                    .filter(statement -> !statement.startsWith("CREATE USER"))
+                    .forEach(jdbcTemplate::execute);
+            log.info("Replicated schema to shard {}", shard);
+        }
+    }
+}
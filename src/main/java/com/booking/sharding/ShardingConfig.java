@@ -0,0 +1,95 @@
+package com.booking.sharding;
+
+import com.zaxxer.hikari.HikariDataSource;
+import jakarta.persistence.EntityManagerFactory;
+import org.hibernate.engine.spi.SessionFactoryImplementor;
+import org.hibernate.event.service.spi.EventListenerRegistry;
+import org.hibernate.event.spi.EventType;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.boot.context.properties.EnableConfigurationProperties;
+import org.springframework.boot.jdbc.DataSourceBuilder;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+import org.springframework.context.annotation.Primary;
+
+import javax.sql.DataSource;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+
+@Configuration
+@EnableConfigurationProperties(ShardingProperties.class)
+@ConditionalOnProperty(prefix = "booking.sharding", name = "enabled", havingValue = "true")
+public class ShardingConfig {
+
+    @Bean
+    public ShardRouter shardRouter(ShardingProperties properties) {
+        if (properties.getShards().isEmpty()) {
+            throw new IllegalStateException("booking.sharding.shards must list at least one shard");
+        }
+        List<DataSource> shards = properties.getShards().stream()
+                .map(shard -> (DataSource) DataSourceBuilder.create()
+                        .type(HikariDataSource.class)
+                        .url(shard.getUrl())
+                        .username(shard.getUsername())
+                        .password(shard.getPassword())
+                        .driverClassName(shard.getDriverClassName())
+                        .build())
+                .toList();
+        return new ShardRouter(shards, shardScatterExecutor());
+    }
+
+    @Bean
+    public ExecutorService shardScatterExecutor() {
+        return Executors.newVirtualThreadPerTaskExecutor();
+    }
+
+    @Bean
+    @Primary
+    public DataSource dataSource(ShardRouter shardRouter) {
+        Map<Object, Object> targets = new HashMap<>();
+        for (int shard = 0; shard < shardRouter.shardCount(); shard++) {
+            targets.put(shard, shardRouter.shardDataSource(shard));
+        }
+        ShardRoutingDataSource routingDataSource = new ShardRoutingDataSource();
+        routingDataSource.setTargetDataSources(targets);
+        routingDataSource.setDefaultTargetDataSource(shardRouter.shardDataSource(ShardContext.DEFAULT_SHARD));
+        routingDataSource.afterPropertiesSet();
+        return routingDataSource;
+    }
+
+    @Bean
+    public ShardRoutingAspect shardRoutingAspect(ShardRouter shardRouter) {
+        return new ShardRoutingAspect(shardRouter);
+    }
+
+    @Bean
+    public ShardRebalancer shardRebalancer(ShardRouter shardRouter) {
+        return new ShardRebalancer(shardRouter);
+    }
+
+    @Bean
+    public ShardSchemaInitializer shardSchemaInitializer(
+            ShardRouter shardRouter, ShardingProperties properties, EntityManagerFactory entityManagerFactory) {
+        // Depending on the EntityManagerFactory guarantees Hibernate has built shard 0's schema first
+        ShardSchemaInitializer initializer = new ShardSchemaInitializer(shardRouter);
+        if (properties.isReplicateSchema()) {
+            initializer.replicateSchema();
+        }
+        shardRouter.loadDirectory();
+        return initializer;
+    }
+
+    @Bean
+    public ReferenceDataReplicator referenceDataReplicator(ShardRouter shardRouter, EntityManagerFactory entityManagerFactory) {
+        ReferenceDataReplicator replicator = new ReferenceDataReplicator(shardRouter);
+        EventListenerRegistry registry = entityManagerFactory.unwrap(SessionFactoryImplementor.class)
+                .getServiceRegistry()
+                .requireService(EventListenerRegistry.class);
+        registry.appendListeners(EventType.POST_COMMIT_INSERT, replicator);
+        registry.appendListeners(EventType.POST_COMMIT_UPDATE, replicator);
+        return replicator;
+    }
+}
@@ -0,0 +1,28 @@
+package com.booking.sharding;
+
+import lombok.Data;
+import org.springframework.boot.context.properties.ConfigurationProperties;
+
+import java.util.ArrayList;
+import java.util.List;
+
+@Data
+@ConfigurationProperties(prefix = "booking.sharding")
+public class ShardingProperties {
+
+    private boolean enabled;
+
+    /** Shard databases; shard 0 also holds the property-to-shard directory. */
+    private List<Shard> shards = new ArrayList<>();
+
+    /** Copy the schema Hibernate created on shard 0 to the other shards on startup (H2 only). */
+    private boolean replicateSchema = true;
+
+    @Data
+    public static class Shard {
+        private String url;
+        private String username;
+        private String password;
+        private String driverClassName;
+    }
+}
@@ -1,34 +1,51 @@
 package com.booking.validator;
 
 import com.booking.dto.BookingRequest;
+import com.booking.dto.ConflictSummary;
 import com.booking.exception.BookingException;
 import com.booking.exception.ResourceNotFoundException;
-import com.booking.model.Block;
+import com.booking.hold.HoldRegistry;
 import com.booking.model.Booking;
 import com.booking.model.BookingStatus;
+import com.booking.recurrence.RecurrenceRule;
 import com.booking.repository.BlockRepository;
 import com.booking.repository.BookingRepository;
 import com.booking.repository.PropertyRepository;
+import com.booking.repository.RecurringBlockRepository;
 import lombok.RequiredArgsConstructor;
 import org.springframework.stereotype.Component;
 
 import java.time.LocalDate;
-import java.util.List;
+import java.util.Collection;
+import java.util.Set;
+import java.util.TreeSet;
 import java.util.UUID;
+import java.util.stream.Collectors;
 
 @Component
 @RequiredArgsConstructor
 public class BookingValidator {
 
+    private static final String BLOCKED = "Property is blocked for the selected dates";
+    private static final String ALREADY_BLOCKED = "Property is already blocked for the selected dates";
+
     private final PropertyRepository propertyRepository;
     private final BookingRepository bookingRepository;
     private final BlockRepository blockRepository;
+    private final RecurringBlockRepository recurringBlockRepository;
+    private final HoldRegistry holdRegistry;
 
     public void validateBookingRequest(BookingRequest request) {
         validateDates(request.getStartDate(), request.getEndDate());
-        validatePropertyExists(request.getPropertyId());
-        validatePropertyNotBooked(request.getPropertyId(), request.getStartDate(), request.getEndDate());
-        validatePropertyNotBlocked(request.getPropertyId(), request.getStartDate(), request.getEndDate());
+        validateNoConflicts(request.getPropertyId(), request.getStartDate(), request.getEndDate());
+    }
+
+    /**
+     * Validates a request confirming a hold, which must not conflict with anything but that hold.
+     */
+    public void validateBookingRequest(BookingRequest request, UUID confirmingHoldId) {
+        validateDates(request.getStartDate(), request.getEndDate());
+        validateNoConflicts(request.getPropertyId(), request.getStartDate(), request.getEndDate(), null, confirmingHoldId);
     }
 
     public void validateDates(LocalDate startDate, LocalDate endDate) {
@@ -46,51 +63,106 @@ public class BookingValidator {
         }
     }
 
-    public void validatePropertyNotBlocked(UUID propertyId, LocalDate startDate, LocalDate endDate) {
-        var overlappingBlocks = blockRepository.findOverlappingBlocks(propertyId, startDate, endDate);
+    public void validateNoConflicts(UUID propertyId, LocalDate startDate, LocalDate endDate) {
+        validateNoConflicts(propertyId, startDate, endDate, null, null);
+    }
+
+    public void validateNoConflictsForBookingUpdate(UUID propertyId, LocalDate startDate, LocalDate endDate, UUID excludeBookingId) {
+        validateNoConflicts(propertyId, startDate, endDate, excludeBookingId, null);
+    }
 
-        if (!overlappingBlocks.isEmpty()) {
-            throw new BookingException("Property is blocked for the selected dates");
+    public void validateBookingNotCanceled(Booking booking) {
+        if (booking.getStatus() == BookingStatus.CANCELED) {
+            throw new BookingException("Cannot update a cancelled booking. Please rebook it first.");
         }
     }
 
-    public void validatePropertyNotBooked(UUID propertyId, LocalDate startDate, LocalDate endDate) {
-        List<Booking> overlappingBookings = bookingRepository.findOverlappingBookings(
-                propertyId,
-                startDate,
-                endDate
-        );
+    public void validateNoConflictsForBlockUpdate(UUID propertyId, LocalDate startDate, LocalDate endDate, UUID excludeBlockId) {
+        validateNoConflictsForBlockUpdate(findConflicts(propertyId, startDate, endDate, excludeBlockId),
+                propertyId, startDate, endDate);
+    }
 
-        if (!overlappingBookings.isEmpty()) {
-            throw new BookingException("Property is already booked for the selected dates");
-        }
+    /**
+     * Checks a conflict summary worked out elsewhere, such as from a property's in-memory
+     * calendar, together with the holds and the rules of any recurring block it flags.
+     */
+    public void validateNoConflicts(ConflictSummary conflicts, UUID propertyId, LocalDate startDate, LocalDate endDate,
+                                    UUID excludeHoldId) {
+        rejectConflicts(conflicts, propertyId, startDate, endDate, excludeHoldId, BLOCKED);
     }
 
-    public void validateNoOverlappingBookingsForUpdate(UUID propertyId, LocalDate startDate, LocalDate endDate, UUID excludeBookingId) {
-        List<Booking> overlappingBookings = bookingRepository.findOverlappingBookings(propertyId, startDate, endDate)
-                .stream()
-                .filter(b -> !b.getId().equals(excludeBookingId))
-                .toList();
+    public void validateNoConflictsForBlockUpdate(ConflictSummary conflicts, UUID propertyId, LocalDate startDate,
+                                                  LocalDate endDate) {
+        rejectConflicts(conflicts, propertyId, startDate, endDate, null, ALREADY_BLOCKED);
+    }
 
-        if (!overlappingBookings.isEmpty()) {
-            throw new BookingException("Property is already booked for the selected dates");
+    public void validateNotHeld(UUID propertyId, LocalDate startDate, LocalDate endDate) {
+        validateNotHeld(propertyId, startDate, endDate, null);
+    }
+
+    public void validateNotHeld(UUID propertyId, LocalDate startDate, LocalDate endDate, UUID excludeHoldId) {
+        if (holdRegistry.isHeld(propertyId, startDate, endDate, excludeHoldId)) {
+            throw new BookingException("Property is on hold for the selected dates");
         }
     }
 
-    public void validateBookingNotCanceled(Booking booking) {
-        if (booking.getStatus() == BookingStatus.CANCELED) {
-            throw new BookingException("Cannot update a cancelled booking. Please rebook it first.");
+    /**
+     * Checks many properties for the same dates with one query per kind of conflict and
+     * reports every unavailable property at once.
+     */
+    public void validateAllAvailable(Collection<UUID> propertyIds, LocalDate startDate, LocalDate endDate) {
+        Set<UUID> unavailable = new TreeSet<>();
+        unavailable.addAll(bookingRepository.findBookedPropertyIds(propertyIds, startDate, endDate));
+        unavailable.addAll(blockRepository.findBlockedPropertyIds(propertyIds, startDate, endDate));
+        recurringBlockRepository.findActiveForProperties(propertyIds, startDate, endDate).stream()
+                .filter(block -> RecurrenceRule.of(block).overlaps(startDate, endDate))
+                .forEach(block -> unavailable.add(block.getPropertyId()));
+        propertyIds.stream()
+                .filter(propertyId -> holdRegistry.isHeld(propertyId, startDate, endDate))
+                .forEach(unavailable::add);
+        if (!unavailable.isEmpty()) {
+            throw new BookingException("Properties are not available for the selected dates: " + unavailable.stream()
+                    .map(UUID::toString)
+                    .collect(Collectors.joining(", ")));
         }
     }
 
-    public void validateNoOverlappingBlocksForUpdate(UUID propertyId, LocalDate startDate, LocalDate endDate, UUID excludeBlockId) {
-        List<Block> overlappingBlocks = blockRepository.findOverlappingBlocks(propertyId, startDate, endDate)
-                .stream()
-                .filter(b -> !b.getId().equals(excludeBlockId))
-                .toList();
+    /**
+     * Evaluates the recurring blocks spanning the dates; only the rules are stored, so this is
+     * where their occurrences are checked.
+     */
+    public boolean isRecurringBlocked(UUID propertyId, LocalDate startDate, LocalDate endDate) {
+        return recurringBlockRepository.findActive(propertyId, startDate, endDate).stream()
+                .anyMatch(block -> RecurrenceRule.of(block).overlaps(startDate, endDate));
+    }
+
+    private void validateNoConflicts(UUID propertyId, LocalDate startDate, LocalDate endDate, UUID excludeId,
+                                     UUID excludeHoldId) {
+        validateNoConflicts(findConflicts(propertyId, startDate, endDate, excludeId), propertyId, startDate, endDate,
+                excludeHoldId);
+    }
 
-        if (!overlappingBlocks.isEmpty()) {
-            throw new BookingException("Property is already blocked for the selected dates");
+    /**
+     * Rejects the dates on the first conflict, in the order bookings, blocks, recurring blocks,
+     * holds. Only the message for a block differs between a block being moved and anything else.
+     */
+    private void rejectConflicts(ConflictSummary conflicts, UUID propertyId, LocalDate startDate, LocalDate endDate,
+                                 UUID excludeHoldId, String blockedMessage) {
+        if (conflicts.isBookingConflict()) {
+            throw new BookingException("Property is already booked for the selected dates");
+        }
+        if (conflicts.isBlockConflict()
+                || conflicts.isRecurringBlockCandidate() && isRecurringBlocked(propertyId, startDate, endDate)) {
+            throw new BookingException(blockedMessage);
+        }
+        validateNotHeld(propertyId, startDate, endDate, excludeHoldId);
+    }
+
+    private ConflictSummary findConflicts(UUID propertyId, LocalDate startDate, LocalDate endDate, UUID excludeId) {
+        ConflictSummary conflicts = propertyRepository.findConflicts(propertyId, startDate, endDate, excludeId);
+        if (!conflicts.isPropertyExists()) {
+            throw new ResourceNotFoundException("Property not found with id: " + propertyId);
         }
+        return conflicts;
     }
 }
@@ -7,6 +7,7 @@ import org.junit.jupiter.api.BeforeEach;
 import org.springframework.beans.factory.annotation.Autowired;
 import org.springframework.boot.test.autoconfigure.web.servlet.AutoConfigureMockMvc;
 import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.jdbc.core.JdbcTemplate;
 import org.springframework.test.context.ActiveProfiles;
 import org.springframework.test.web.servlet.MockMvc;
 import org.springframework.transaction.annotation.Transactional;
@@ -40,6 +41,21 @@ public abstract class BaseIntegrationTest {
     @Autowired
     protected BlockRepository blockRepository;
 
+    @Autowired
+    protected RecurringBlockRepository recurringBlockRepository;
+
+    @Autowired
+    protected ChangeEventRepository changeEventRepository;
+
+    @Autowired
+    protected ArchivedBookingRepository archivedBookingRepository;
+
+    @Autowired
+    protected ArchivedBlockRepository archivedBlockRepository;
+
+    @Autowired
+    protected JdbcTemplate jdbcTemplate;
+
     protected Owner testOwner;
     protected Property testProperty;
     protected Guest testGuest;
@@ -50,9 +66,15 @@ public abstract class BaseIntegrationTest {
         createTestData();
     }
 
-    private void cleanDatabase() {
-        blockRepository.deleteAll();
-        bookingRepository.deleteAll();
+    protected void cleanDatabase() {
+        changeEventRepository.deleteAll();
+        archivedBookingRepository.deleteAll();
+        archivedBlockRepository.deleteAll();
+        // Plain deletes, since deleting through the repositories only leaves tombstones
+        jdbcTemplate.update("DELETE FROM recurring_block");
+        jdbcTemplate.update("DELETE FROM block");
+        jdbcTemplate.update("DELETE FROM booking");
+        jdbcTemplate.update("DELETE FROM occupied_night");
         guestRepository.deleteAll();
         propertyRepository.deleteAll();
         ownerRepository.deleteAll();
@@ -0,0 +1,178 @@
+package com.booking.integrationTests.archive;
+
+import com.booking.integrationTests.BaseIntegrationTest;
+import com.booking.model.ArchivedBooking;
+import com.booking.model.Block;
+import com.booking.model.Booking;
+import com.booking.model.BookingStatus;
+import com.booking.model.ChangeEntityType;
+import com.booking.model.ChangeEvent;
+import com.booking.model.ChangeOperation;
+import com.booking.repository.BookingBatchRepository;
+import org.assertj.core.api.Assertions;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.transaction.annotation.Propagation;
+import org.springframework.transaction.annotation.Transactional;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.time.LocalDate;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.UUID;
+
+import static org.hamcrest.Matchers.*;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.*;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.*;
+
+// Archiving moves rows with plain JDBC past the persistence context, so rows are read back from committed data
+@Transactional(propagation = Propagation.NOT_SUPPORTED)
+@DisplayName("Archive Integration Tests")
+class ArchiveIT extends BaseIntegrationTest {
+
+    @Autowired
+    private BookingBatchRepository bookingBatchRepository;
+
+    @Autowired
+    private TransactionTemplate transactionTemplate;
+
+    private LocalDate today;
+
+    @BeforeEach
+    void setUp() {
+        today = LocalDate.now();
+    }
+
+    @Test
+    @DisplayName("Should move bookings and blocks that ended before the cutoff to the archive")
+    void shouldArchiveEndedBookingsAndBlocks() throws Exception {
+        Booking pastStay = createBooking(today.minusDays(35), today.minusDays(30), BookingStatus.CONFIRMED);
+        Booking pastCancelled = createBooking(today.minusDays(25), today.minusDays(20), BookingStatus.CANCELED);
+        Booking recentStay = createBooking(today.minusDays(8), today.minusDays(5), BookingStatus.CONFIRMED);
+        Booking futureStay = createBooking(today.plusDays(5), today.plusDays(8), BookingStatus.CONFIRMED);
+        Block pastBlock = createBlock(today.minusDays(45), today.minusDays(40), "Renovation");
+        createBlock(today.plusDays(10), today.plusDays(12), "Maintenance");
+
+        mockMvc.perform(post("/api/archive")
+                        .param("before", today.minusDays(10).toString()))
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("$.before").value(today.minusDays(10).toString()))
+                .andExpect(jsonPath("$.bookingsArchived").value(2))
+                .andExpect(jsonPath("$.blocksArchived").value(1));
+
+        Assertions.assertThat(bookingRepository.findAll())
+                .extracting(Booking::getId)
+                .containsExactlyInAnyOrder(recentStay.getId(), futureStay.getId());
+        Assertions.assertThat(archivedBookingRepository.findAll())
+                .extracting(ArchivedBooking::getId, ArchivedBooking::getStatus, ArchivedBooking::getEndDate)
+                .containsExactlyInAnyOrder(
+                        Assertions.tuple(pastStay.getId(), BookingStatus.CONFIRMED, pastStay.getEndDate()),
+                        Assertions.tuple(pastCancelled.getId(), BookingStatus.CANCELED, pastCancelled.getEndDate()));
+        Assertions.assertThat(archivedBookingRepository.findAll())
+                .allSatisfy(booking -> Assertions.assertThat(booking.getArchivedAt()).isNotNull());
+        Assertions.assertThat(blockRepository.findByPropertyId(testProperty.getId())).hasSize(1);
+        Assertions.assertThat(archivedBlockRepository.findAll()).singleElement()
+                .satisfies(block -> Assertions.assertThat(block.getId()).isEqualTo(pastBlock.getId()));
+
+        // Delta-sync consumers learn which rows left the operational tables
+        Assertions.assertThat(changeEventRepository.findAll())
+                .filteredOn(change -> change.getOperation() == ChangeOperation.ARCHIVED)
+                .extracting(ChangeEvent::getEntityId, ChangeEvent::getEntityType)
+                .containsExactlyInAnyOrder(
+                        Assertions.tuple(pastStay.getId(), ChangeEntityType.BOOKING),
+                        Assertions.tuple(pastCancelled.getId(), ChangeEntityType.BOOKING),
+                        Assertions.tuple(pastBlock.getId(), ChangeEntityType.BLOCK));
+
+        // Archived rows can still be read by id, but no longer changed
+        mockMvc.perform(get("/api/bookings/{bookingId}", pastStay.getId()))
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("$.archived").value(true))
+                .andExpect(jsonPath("$.guestFirstName").value(testGuest.getFirstName()));
+        mockMvc.perform(get("/api/blocks/{blockId}", pastBlock.getId()))
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("$.archived").value(true));
+        mockMvc.perform(patch("/api/bookings/{bookingId}/cancel", pastStay.getId()))
+                .andExpect(status().isNotFound());
+    }
+
+    @Test
+    @DisplayName("Should add archived bookings and blocks to history only when asked")
+    void shouldUnionArchivedHistoryWhenAsked() throws Exception {
+        Booking pastStay = createBooking(today.minusDays(35), today.minusDays(30), BookingStatus.CONFIRMED);
+        Booking futureStay = createBooking(today.plusDays(5), today.plusDays(8), BookingStatus.CONFIRMED);
+        Block pastBlock = createBlock(today.minusDays(45), today.minusDays(40), "Renovation");
+        mockMvc.perform(post("/api/archive")
+                        .param("before", today.toString()))
+                .andExpect(status().isOk());
+
+        mockMvc.perform(get("/api/bookings/property/{propertyId}", testProperty.getId()))
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("$[*].id", contains(futureStay.getId().toString())));
+        mockMvc.perform(get("/api/bookings/property/{propertyId}", testProperty.getId())
+                        .param("includeArchived", "true"))
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("$", hasSize(2)))
+                .andExpect(jsonPath("$[?(@.archived == true)].id", contains(pastStay.getId().toString())))
+                .andExpect(jsonPath("$[?(@.archived == true)].guestFirstName", contains(testGuest.getFirstName())))
+                .andExpect(jsonPath("$[?(@.archived == false)].id", contains(futureStay.getId().toString())));
+
+        mockMvc.perform(get("/api/bookings/guest/{guestId}", testGuest.getId()))
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("$", hasSize(1)));
+        mockMvc.perform(get("/api/bookings/guest/{guestId}", testGuest.getId())
+                        .param("includeArchived", "true"))
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("$[*].id", containsInAnyOrder(
+                        pastStay.getId().toString(), futureStay.getId().toString())));
+
+        mockMvc.perform(get("/api/blocks/property/{propertyId}", testProperty.getId()))
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("$", empty()));
+        mockMvc.perform(get("/api/blocks/property/{propertyId}", testProperty.getId())
+                        .param("includeArchived", "true"))
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("$[0].id").value(pastBlock.getId().toString()))
+                .andExpect(jsonPath("$[0].archived").value(true))
+                .andExpect(jsonPath("$[0].reason").value("Renovation"));
+    }
+
+    @Test
+    @DisplayName("Should archive in several batches and default to the configured horizon")
+    void shouldArchiveInBatches() throws Exception {
+        List<Booking> bookings = new ArrayList<>();
+        for (int i = 0; i < 2500; i++) {
+            LocalDate startDate = today.minusDays(100 + 3L * i);
+            bookings.add(Booking.builder()
+                    .id(UUID.randomUUID())
+                    .propertyId(testProperty.getId())
+                    .guestId(testGuest.getId())
+                    .startDate(startDate)
+                    .endDate(startDate.plusDays(1))
+                    .status(BookingStatus.CONFIRMED)
+                    .version(0L)
+                    .build());
+        }
+        transactionTemplate.executeWithoutResult(status -> bookingBatchRepository.insertAll(bookings));
+        createBooking(today.minusDays(30), today.minusDays(28), BookingStatus.CONFIRMED);
+
+        mockMvc.perform(post("/api/archive"))
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("$.before").value(today.minusDays(90).toString()))
+                .andExpect(jsonPath("$.bookingsArchived").value(2500))
+                .andExpect(jsonPath("$.blocksArchived").value(0));
+
+        Assertions.assertThat(bookingRepository.count()).isEqualTo(1);
+        Assertions.assertThat(archivedBookingRepository.count()).isEqualTo(2500);
+    }
+
+    @Test
+    @DisplayName("Should not archive anything that has not ended yet")
+    void shouldRejectCutoffInFuture() throws Exception {
+        mockMvc.perform(post("/api/archive")
+                        .param("before", today.plusDays(1).toString()))
+                .andExpect(status().isBadRequest())
+                .andExpect(jsonPath("$.message").value(containsString("must not be after today")));
+    }
+}
@@ -0,0 +1,157 @@
+package com.booking.integrationTests.audit;
+
+import com.booking.dto.OverlapAuditReport;
+import com.booking.integrationTests.BaseIntegrationTest;
+import com.booking.model.Block;
+import com.booking.model.Booking;
+import com.booking.model.BookingStatus;
+import com.booking.model.Property;
+import com.booking.repository.BookingBatchRepository;
+import lombok.extern.slf4j.Slf4j;
+import org.assertj.core.api.Assertions;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Tag;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.test.web.servlet.MvcResult;
+import org.springframework.transaction.annotation.Propagation;
+import org.springframework.transaction.annotation.Transactional;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.time.LocalDate;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.UUID;
+
+import static org.hamcrest.Matchers.*;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.*;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.*;
+
+// The audit scans partitions on pool threads with their own connections, so test data must be committed
+@Transactional(propagation = Propagation.NOT_SUPPORTED)
+@Slf4j
+@DisplayName("Overlap Audit Integration Tests")
+class OverlapAuditIT extends BaseIntegrationTest {
+
+    @Autowired
+    private BookingBatchRepository bookingBatchRepository;
+
+    @Autowired
+    private TransactionTemplate transactionTemplate;
+
+    private LocalDate from;
+
+    @BeforeEach
+    void setUp() {
+        from = LocalDate.now().plusDays(10);
+    }
+
+    @Test
+    @DisplayName("Should report overlapping bookings and bookings overlapping blocks")
+    void shouldReportOverlaps() throws Exception {
+        Booking first = createBooking(from, from.plusDays(4), BookingStatus.CONFIRMED);
+        Booking second = createBooking(from.plusDays(4), from.plusDays(6), BookingStatus.CONFIRMED);
+        createBooking(from.plusDays(7), from.plusDays(8), BookingStatus.CONFIRMED);
+        createBooking(from, from.plusDays(10), BookingStatus.CANCELED);
+        Block block = createBlock(from.plusDays(2), from.plusDays(2), "Maintenance");
+        createBlock(from.plusDays(2), from.plusDays(3), "Overlapping block");
+
+        mockMvc.perform(post("/api/audit/overlaps"))
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("$.propertiesScanned").value(1))
+                .andExpect(jsonPath("$.intervalsScanned").value(5))
+                .andExpect(jsonPath("$.bookingOverlaps").value(1))
+                .andExpect(jsonPath("$.blockOverlaps").value(2))
+                .andExpect(jsonPath("$.truncated").value(false))
+                .andExpect(jsonPath("$.pairs", hasSize(3)))
+                .andExpect(jsonPath("$.pairs[?(@.type == 'BOOKING_BOOKING')].firstId").value(first.getId().toString()))
+                .andExpect(jsonPath("$.pairs[?(@.type == 'BOOKING_BOOKING')].secondId").value(second.getId().toString()))
+                .andExpect(jsonPath("$.pairs[?(@.type == 'BOOKING_BOOKING')].overlapStart").value(from.plusDays(4).toString()))
+                .andExpect(jsonPath("$.pairs[?(@.type == 'BOOKING_BOOKING')].overlapEnd").value(from.plusDays(4).toString()))
+                .andExpect(jsonPath("$.pairs[?(@.type == 'BOOKING_BLOCK')].firstId", everyItem(is(first.getId().toString()))))
+                .andExpect(jsonPath("$.pairs[?(@.type == 'BOOKING_BLOCK')].secondId", hasItem(block.getId().toString())));
+    }
+
+    @Test
+    @DisplayName("Should keep the latest report for later reads")
+    void shouldKeepLatestReport() throws Exception {
+        Property otherProperty = propertyRepository.save(Property.builder()
+                .name("Other Property")
+                .ownerId(testOwner.getId())
+                .build());
+        createBooking(from, from.plusDays(2), BookingStatus.CONFIRMED);
+        bookingRepository.save(Booking.builder()
+                .propertyId(otherProperty.getId())
+                .guestId(testGuest.getId())
+                .startDate(from)
+                .endDate(from.plusDays(2))
+                .status(BookingStatus.CONFIRMED)
+                .build());
+
+        MvcResult run = mockMvc.perform(post("/api/audit/overlaps"))
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("$.propertiesScanned").value(2))
+                .andExpect(jsonPath("$.bookingOverlaps").value(0))
+                .andExpect(jsonPath("$.pairs", empty()))
+                .andReturn();
+
+        mockMvc.perform(get("/api/audit/overlaps"))
+                .andExpect(status().isOk())
+                .andExpect(content().json(run.getResponse().getContentAsString()));
+    }
+
+    @Test
+    @DisplayName("Should audit properties spread over several partitions")
+    void shouldAuditManyProperties() throws Exception {
+        auditSeeded(600, 5);
+    }
+
+    @Test
+    @Tag("benchmark")
+    @DisplayName("Benchmark: audit of 200k bookings across 1000 properties")
+    void benchmarkAudit() throws Exception {
+        auditSeeded(1000, 200);
+    }
+
+    private void auditSeeded(int propertyCount, int bookingsPerProperty) throws Exception {
+        List<Property> properties = new ArrayList<>(propertyCount);
+        for (int i = 0; i < propertyCount; i++) {
+            properties.add(Property.builder()
+                    .name("Property " + i)
+                    .ownerId(testOwner.getId())
+                    .build());
+        }
+        propertyRepository.saveAll(properties);
+
+        List<Booking> bookings = new ArrayList<>(propertyCount * bookingsPerProperty);
+        for (int p = 0; p < propertyCount; p++) {
+            for (int i = 0; i < bookingsPerProperty; i++) {
+                // Every tenth property has one stay starting on the last day of the stay before
+                LocalDate startDate = from.plusDays(3L * i - (p % 10 == 0 && i == 1 ? 2 : 0));
+                bookings.add(Booking.builder()
+                        .id(UUID.randomUUID())
+                        .propertyId(properties.get(p).getId())
+                        .guestId(testGuest.getId())
+                        .startDate(startDate)
+                        .endDate(from.plusDays(3L * i + 1))
+                        .status(BookingStatus.CONFIRMED)
+                        .version(0L)
+                        .build());
+            }
+        }
+        transactionTemplate.executeWithoutResult(status -> bookingBatchRepository.insertAll(bookings));
+
+        MvcResult result = mockMvc.perform(post("/api/audit/overlaps"))
+                .andExpect(status().isOk())
+                .andReturn();
+
+        OverlapAuditReport report = objectMapper.readValue(result.getResponse().getContentAsString(), OverlapAuditReport.class);
+        Assertions.assertThat(report.getPropertiesScanned()).isEqualTo(propertyCount + 1);
+        Assertions.assertThat(report.getIntervalsScanned()).isEqualTo((long) propertyCount * bookingsPerProperty);
+        Assertions.assertThat(report.getBookingOverlaps()).isEqualTo(propertyCount / 10);
+        log.info("Audited {} bookings in {} ms: {} bookings per second",
+                report.getIntervalsScanned(), report.getDurationMillis(),
+                report.getIntervalsScanned() * 1000 / Math.max(1, report.getDurationMillis()));
+    }
+}
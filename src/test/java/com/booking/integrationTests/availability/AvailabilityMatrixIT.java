@@ -0,0 +1,157 @@
+package com.booking.integrationTests.availability;
+
+import com.booking.dto.BlockRequest;
+import com.booking.dto.BookingRequest;
+import com.booking.integrationTests.BaseIntegrationTest;
+import com.booking.model.Property;
+import org.assertj.core.api.Assertions;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.springframework.http.MediaType;
+
+import java.io.ByteArrayInputStream;
+import java.io.DataInputStream;
+import java.time.LocalDate;
+import java.util.ArrayList;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.UUID;
+
+import static org.hamcrest.Matchers.*;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.*;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.*;
+
+@DisplayName("Availability Matrix Integration Tests")
+class AvailabilityMatrixIT extends BaseIntegrationTest {
+
+    @Test
+    @DisplayName("Should encode bookings and blocks as unavailable runs per property")
+    void shouldEncodeBookingsAndBlocksAsRuns() throws Exception {
+        LocalDate from = LocalDate.now().plusDays(1);
+        Property otherProperty = propertyRepository.save(Property.builder()
+                .name("Other Property")
+                .ownerId(testOwner.getId())
+                .build());
+
+        createBookingViaApi(testProperty.getId(), from.plusDays(2), from.plusDays(4));
+        createBlockViaApi(testProperty.getId(), from.plusDays(5), from.plusDays(6));
+        createBlockViaApi(testProperty.getId(), from.plusDays(10), from.plusDays(10));
+
+        Matrix matrix = getMatrix(from, 30);
+
+        Assertions.assertThat(matrix.fromDay).isEqualTo(from.toEpochDay());
+        Assertions.assertThat(matrix.days).isEqualTo(30);
+        Assertions.assertThat(matrix.runs).containsOnlyKeys(testProperty.getId(), otherProperty.getId());
+        // The booking and the first block touch, so they collapse into one run
+        Assertions.assertThat(matrix.runs.get(testProperty.getId())).containsExactly(new int[]{2, 5}, new int[]{10, 1});
+        Assertions.assertThat(matrix.runs.get(otherProperty.getId())).isEmpty();
+    }
+
+    @Test
+    @DisplayName("Should clip intervals to the requested window")
+    void shouldClipIntervalsToWindow() throws Exception {
+        LocalDate from = LocalDate.now().plusDays(3);
+        createBookingViaApi(testProperty.getId(), LocalDate.now().plusDays(1), from.plusDays(1));
+        createBlockViaApi(testProperty.getId(), from.plusDays(8), from.plusDays(20));
+
+        Matrix matrix = getMatrix(from, 10);
+
+        Assertions.assertThat(matrix.runs.get(testProperty.getId())).containsExactly(new int[]{0, 2}, new int[]{8, 2});
+    }
+
+    @Test
+    @DisplayName("Should rebuild the cached matrix after a write")
+    void shouldRebuildMatrixAfterWrite() throws Exception {
+        LocalDate from = LocalDate.now().plusDays(1);
+        createBookingViaApi(testProperty.getId(), from, from.plusDays(1));
+
+        Matrix before = getMatrix(from, 30);
+        Matrix cached = getMatrix(from, 30);
+        createBlockViaApi(testProperty.getId(), from.plusDays(5), from.plusDays(5));
+        Matrix after = getMatrix(from, 30);
+
+        Assertions.assertThat(cached.runs.get(testProperty.getId())).containsExactly(new int[]{0, 2});
+        Assertions.assertThat(before.runs.get(testProperty.getId())).containsExactly(new int[]{0, 2});
+        Assertions.assertThat(after.runs.get(testProperty.getId())).containsExactly(new int[]{0, 2}, new int[]{5, 1});
+    }
+
+    @Test
+    @DisplayName("Should fail when days is out of range")
+    void shouldFailWhenDaysIsOutOfRange() throws Exception {
+        mockMvc.perform(get("/api/availability/matrix").param("days", "0"))
+                .andExpect(status().isBadRequest())
+                .andExpect(jsonPath("$.message").value(containsString("days")));
+    }
+
+    private Matrix getMatrix(LocalDate from, int days) throws Exception {
+        bookingRepository.flush();
+        blockRepository.flush();
+
+        byte[] payload = mockMvc.perform(get("/api/availability/matrix")
+                        .param("from", from.toString())
+                        .param("days", String.valueOf(days)))
+                .andExpect(status().isOk())
+                .andExpect(content().contentType(MediaType.APPLICATION_OCTET_STREAM))
+                .andReturn()
+                .getResponse()
+                .getContentAsByteArray();
+
+        DataInputStream in = new DataInputStream(new ByteArrayInputStream(payload));
+        byte[] magic = in.readNBytes(4);
+        Assertions.assertThat(new String(magic)).isEqualTo("BKAV");
+        Assertions.assertThat(in.readByte()).isEqualTo((byte) 1);
+
+        Matrix matrix = new Matrix();
+        matrix.fromDay = in.readInt();
+        matrix.days = in.readInt();
+        int properties = in.readInt();
+        for (int i = 0; i < properties; i++) {
+            UUID id = new UUID(in.readLong(), in.readLong());
+            int runCount = in.readUnsignedShort();
+            List<int[]> runs = new ArrayList<>();
+            for (int r = 0; r < runCount; r++) {
+                runs.add(new int[]{in.readUnsignedShort(), in.readUnsignedShort()});
+            }
+            matrix.runs.put(id, runs);
+        }
+        Assertions.assertThat(in.available()).isZero();
+        return matrix;
+    }
+
+    private void createBookingViaApi(UUID propertyId, LocalDate startDate, LocalDate endDate) throws Exception {
+        BookingRequest request = BookingRequest.builder()
+                .propertyId(propertyId)
+                .guestEmail(testGuest.getEmail())
+                .guestFirstName(testGuest.getFirstName())
+                .startDate(startDate)
+                .endDate(endDate)
+                .build();
+
+        mockMvc.perform(post("/api/bookings")
+                        .contentType(MediaType.APPLICATION_JSON)
+                        .content(objectMapper.writeValueAsString(request)))
+                .andExpect(status().isCreated());
+    }
+
+    private void createBlockViaApi(UUID propertyId, LocalDate startDate, LocalDate endDate) throws Exception {
+        BlockRequest request = BlockRequest.builder()
+                .ownerId(testOwner.getId())
+                .propertyId(propertyId)
+                .startDate(startDate)
+                .endDate(endDate)
+                .reason("Maintenance")
+                .build();
+
+        mockMvc.perform(post("/api/blocks")
+                        .contentType(MediaType.APPLICATION_JSON)
+                        .content(objectMapper.writeValueAsString(request)))
+                .andExpect(status().isCreated());
+    }
+
+    private static class Matrix {
+        private int fromDay;
+        private int days;
+        private final Map<UUID, List<int[]>> runs = new LinkedHashMap<>();
+    }
+}
@@ -0,0 +1,155 @@
+package com.booking.integrationTests.availability;
+
+import com.booking.integrationTests.BaseIntegrationTest;
+import com.booking.model.BookingStatus;
+import com.booking.model.Property;
+import com.fasterxml.jackson.databind.JsonNode;
+import org.assertj.core.api.Assertions;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.springframework.test.web.servlet.MvcResult;
+import org.springframework.test.web.servlet.request.MockHttpServletRequestBuilder;
+import org.springframework.transaction.annotation.Propagation;
+import org.springframework.transaction.annotation.Transactional;
+
+import java.time.LocalDate;
+import java.util.HashMap;
+import java.util.Map;
+import java.util.UUID;
+
+import static org.hamcrest.Matchers.*;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.*;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.*;
+
+// The search streams on an async thread with its own connection, so test data must be committed
+@Transactional(propagation = Propagation.NOT_SUPPORTED)
+@DisplayName("Flexible Search Integration Tests")
+class FlexibleSearchIT extends BaseIntegrationTest {
+
+    private LocalDate from;
+    private Property otherProperty;
+
+    @BeforeEach
+    void setUp() {
+        from = LocalDate.now().plusDays(2);
+        otherProperty = propertyRepository.save(Property.builder()
+                .name("Other Property")
+                .ownerId(testOwner.getId())
+                .build());
+        createBooking(from.plusDays(3), from.plusDays(4), BookingStatus.CONFIRMED);
+        createBooking(from, from.plusDays(1), BookingStatus.CANCELED);
+    }
+
+    @Test
+    @DisplayName("Should return the feasible start dates of every property")
+    void shouldReturnFeasibleStartDates() throws Exception {
+        Map<UUID, JsonNode> results = search(get("/api/availability/flexible-search")
+                .param("from", from.toString())
+                .param("to", from.plusDays(4).toString())
+                .param("minNights", "2")
+                .param("maxNights", "3"));
+
+        Assertions.assertThat(results).containsOnlyKeys(testProperty.getId(), otherProperty.getId());
+
+        // Only the first start date leaves two nights before the booking
+        JsonNode booked = results.get(testProperty.getId()).get("options");
+        Assertions.assertThat(booked).hasSize(1);
+        Assertions.assertThat(booked.get(0).get("startDate").asText()).isEqualTo(from.toString());
+        Assertions.assertThat(booked.get(0).get("maxNights").asInt()).isEqualTo(2);
+
+        JsonNode free = results.get(otherProperty.getId()).get("options");
+        Assertions.assertThat(free).hasSize(5);
+        Assertions.assertThat(free.get(4).get("startDate").asText()).isEqualTo(from.plusDays(4).toString());
+        Assertions.assertThat(free.findValuesAsText("maxNights")).containsOnly("3");
+    }
+
+    @Test
+    @DisplayName("Should search only the requested properties")
+    void shouldSearchOnlyRequestedProperties() throws Exception {
+        Map<UUID, JsonNode> results = search(get("/api/availability/flexible-search")
+                .param("from", from.toString())
+                .param("to", from.plusDays(1).toString())
+                .param("propertyIds", otherProperty.getId().toString()));
+
+        Assertions.assertThat(results).containsOnlyKeys(otherProperty.getId());
+        Assertions.assertThat(results.get(otherProperty.getId()).get("options")).hasSize(2);
+    }
+
+    @Test
+    @DisplayName("Should mark the occupied nights of the requested properties and skip unknown ids")
+    void shouldMarkOccupiedNightsOfRequestedProperties() throws Exception {
+        Map<UUID, JsonNode> results = search(get("/api/availability/flexible-search")
+                .param("from", from.toString())
+                .param("to", from.plusDays(4).toString())
+                .param("minNights", "2")
+                .param("maxNights", "3")
+                .param("propertyIds", testProperty.getId().toString(), UUID.randomUUID().toString()));
+
+        Assertions.assertThat(results).containsOnlyKeys(testProperty.getId());
+        JsonNode booked = results.get(testProperty.getId()).get("options");
+        Assertions.assertThat(booked).hasSize(1);
+        Assertions.assertThat(booked.get(0).get("maxNights").asInt()).isEqualTo(2);
+    }
+
+    @Test
+    @DisplayName("Should search many properties in parallel slices")
+    void shouldSearchManyProperties() throws Exception {
+        for (int i = 0; i < 40; i++) {
+            propertyRepository.save(Property.builder()
+                    .name("Property " + i)
+                    .ownerId(testOwner.getId())
+                    .build());
+        }
+
+        Map<UUID, JsonNode> results = search(get("/api/availability/flexible-search")
+                .param("to", from.toString())
+                .param("minNights", "1")
+                .param("maxNights", "5"));
+
+        Assertions.assertThat(results).hasSize(42);
+        Assertions.assertThat(results.get(testProperty.getId()).get("options")).isNotEmpty();
+    }
+
+    @Test
+    @DisplayName("Should validate the search parameters")
+    void shouldValidateSearchParameters() throws Exception {
+        mockMvc.perform(get("/api/availability/flexible-search")
+                        .param("from", from.toString())
+                        .param("to", from.minusDays(1).toString()))
+                .andExpect(status().isBadRequest())
+                .andExpect(jsonPath("$.message").value(containsString("'from' must not be after 'to'")));
+
+        mockMvc.perform(get("/api/availability/flexible-search")
+                        .param("to", from.toString())
+                        .param("minNights", "3")
+                        .param("maxNights", "2"))
+                .andExpect(status().isBadRequest())
+                .andExpect(jsonPath("$.message").value(containsString("minNights")));
+
+        mockMvc.perform(get("/api/availability/flexible-search")
+                        .param("to", from.plusDays(400).toString()))
+                .andExpect(status().isBadRequest())
+                .andExpect(jsonPath("$.message").value(containsString("search window")));
+    }
+
+    private Map<UUID, JsonNode> search(MockHttpServletRequestBuilder requestBuilder) throws Exception {
+        MvcResult result = mockMvc.perform(requestBuilder)
+                .andExpect(request().asyncStarted())
+                .andReturn();
+
+        String body = mockMvc.perform(asyncDispatch(result))
+                .andExpect(status().isOk())
+                .andExpect(header().string("Content-Type", startsWith("application/x-ndjson")))
+                .andReturn()
+                .getResponse()
+                .getContentAsString();
+
+        Map<UUID, JsonNode> results = new HashMap<>();
+        for (String line : body.split("\n")) {
+            JsonNode node = objectMapper.readTree(line);
+            Assertions.assertThat(results.put(UUID.fromString(node.get("propertyId").asText()), node)).isNull();
+        }
+        return results;
+    }
+}
@@ -0,0 +1,128 @@
+package com.booking.integrationTests.availability;
+
+import com.booking.dto.BookingRequest;
+import com.booking.integrationTests.BaseIntegrationTest;
+import com.booking.model.BookingStatus;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.springframework.http.MediaType;
+
+import java.time.LocalDate;
+import java.util.UUID;
+
+import static org.hamcrest.Matchers.*;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.*;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.*;
+
+@DisplayName("Next Available Window Integration Tests")
+class NextAvailableIT extends BaseIntegrationTest {
+
+    private LocalDate today;
+
+    @BeforeEach
+    void setUp() {
+        // Free gaps: [today, +1], [+7, +9], [+13, +19] and everything from +26 onwards
+        today = LocalDate.now();
+        createBooking(today.plusDays(2), today.plusDays(4), BookingStatus.CONFIRMED);
+        createBlock(today.plusDays(5), today.plusDays(6), "Maintenance");
+        createBooking(today.plusDays(10), today.plusDays(12), BookingStatus.CONFIRMED);
+        createBooking(today.plusDays(14), today.plusDays(15), BookingStatus.CANCELED);
+        createBlock(today.plusDays(20), today.plusDays(25), "Renovation");
+    }
+
+    @Test
+    @DisplayName("Should return the first windows long enough for the stay")
+    void shouldReturnFirstWindowsLongEnough() throws Exception {
+        mockMvc.perform(get("/api/properties/{propertyId}/next-available", testProperty.getId())
+                        .param("nights", "2")
+                        .param("limit", "3"))
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("$", hasSize(3)))
+                .andExpect(jsonPath("$[0].startDate").value(today.plusDays(7).toString()))
+                .andExpect(jsonPath("$[0].endDate").value(today.plusDays(9).toString()))
+                .andExpect(jsonPath("$[0].availableUntil").value(today.plusDays(9).toString()))
+                .andExpect(jsonPath("$[1].startDate").value(today.plusDays(13).toString()))
+                .andExpect(jsonPath("$[1].endDate").value(today.plusDays(15).toString()))
+                .andExpect(jsonPath("$[1].availableUntil").value(today.plusDays(19).toString()))
+                .andExpect(jsonPath("$[2].startDate").value(today.plusDays(26).toString()))
+                .andExpect(jsonPath("$[2].availableUntil").value(nullValue()));
+    }
+
+    @Test
+    @DisplayName("Should skip gaps that are too short")
+    void shouldSkipGapsThatAreTooShort() throws Exception {
+        mockMvc.perform(get("/api/properties/{propertyId}/next-available", testProperty.getId())
+                        .param("nights", "7"))
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("$", hasSize(1)))
+                .andExpect(jsonPath("$[0].startDate").value(today.plusDays(26).toString()))
+                .andExpect(jsonPath("$[0].endDate").value(today.plusDays(33).toString()));
+    }
+
+    @Test
+    @DisplayName("Should start inside a gap when searching after a date")
+    void shouldStartInsideGapAfterDate() throws Exception {
+        mockMvc.perform(get("/api/properties/{propertyId}/next-available", testProperty.getId())
+                        .param("nights", "1")
+                        .param("after", today.plusDays(8).toString())
+                        .param("limit", "2"))
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("$", hasSize(2)))
+                .andExpect(jsonPath("$[0].startDate").value(today.plusDays(8).toString()))
+                .andExpect(jsonPath("$[0].endDate").value(today.plusDays(9).toString()))
+                .andExpect(jsonPath("$[1].startDate").value(today.plusDays(13).toString()));
+
+        mockMvc.perform(get("/api/properties/{propertyId}/next-available", testProperty.getId())
+                        .param("nights", "1")
+                        .param("after", today.minusDays(30).toString())
+                        .param("limit", "1"))
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("$[0].startDate").value(today.toString()));
+    }
+
+    @Test
+    @DisplayName("Should reflect new bookings in later searches")
+    void shouldReflectNewBookings() throws Exception {
+        mockMvc.perform(get("/api/properties/{propertyId}/next-available", testProperty.getId())
+                        .param("nights", "2")
+                        .param("limit", "1"))
+                .andExpect(jsonPath("$[0].startDate").value(today.plusDays(7).toString()));
+
+        BookingRequest request = BookingRequest.builder()
+                .propertyId(testProperty.getId())
+                .guestEmail(testGuest.getEmail())
+                .guestFirstName(testGuest.getFirstName())
+                .startDate(today.plusDays(7))
+                .endDate(today.plusDays(7))
+                .build();
+        mockMvc.perform(post("/api/bookings")
+                        .contentType(MediaType.APPLICATION_JSON)
+                        .content(objectMapper.writeValueAsString(request)))
+                .andExpect(status().isCreated());
+
+        mockMvc.perform(get("/api/properties/{propertyId}/next-available", testProperty.getId())
+                        .param("nights", "2")
+                        .param("limit", "1"))
+                .andExpect(jsonPath("$[0].startDate").value(today.plusDays(13).toString()));
+    }
+
+    @Test
+    @DisplayName("Should validate the parameters and the property")
+    void shouldValidateParameters() throws Exception {
+        mockMvc.perform(get("/api/properties/{propertyId}/next-available", testProperty.getId())
+                        .param("nights", "0"))
+                .andExpect(status().isBadRequest())
+                .andExpect(jsonPath("$.message").value(containsString("nights")));
+
+        mockMvc.perform(get("/api/properties/{propertyId}/next-available", testProperty.getId())
+                        .param("nights", "2")
+                        .param("limit", "101"))
+                .andExpect(status().isBadRequest())
+                .andExpect(jsonPath("$.message").value(containsString("limit")));
+
+        mockMvc.perform(get("/api/properties/{propertyId}/next-available", UUID.randomUUID())
+                        .param("nights", "2"))
+                .andExpect(status().isNotFound());
+    }
+}
@@ -0,0 +1,153 @@
+package com.booking.integrationTests.availability;
+
+import com.booking.dto.RecurringBlockRequest;
+import com.booking.integrationTests.BaseIntegrationTest;
+import com.booking.model.BookingStatus;
+import com.booking.model.Property;
+import com.booking.model.RecurrenceFrequency;
+import org.assertj.core.api.Assertions;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.springframework.http.MediaType;
+import org.springframework.test.web.servlet.MvcResult;
+import org.springframework.transaction.annotation.Propagation;
+import org.springframework.transaction.annotation.Transactional;
+
+import java.time.LocalDate;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.UUID;
+
+import static org.hamcrest.Matchers.*;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.*;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.*;
+
+// The report streams on an async thread and reads partitions on pool threads, so test data must be committed
+@Transactional(propagation = Propagation.NOT_SUPPORTED)
+@DisplayName("Occupancy Report Integration Tests")
+class OccupancyReportIT extends BaseIntegrationTest {
+
+    private LocalDate from;
+    private Property otherProperty;
+
+    @BeforeEach
+    void setUp() {
+        from = LocalDate.now().plusDays(10);
+        otherProperty = propertyRepository.save(Property.builder()
+                .name("Other Property")
+                .ownerId(testOwner.getId())
+                .build());
+    }
+
+    @Test
+    @DisplayName("Should report every night of every property as booked, blocked or free")
+    void shouldReportEveryNight() throws Exception {
+        createBooking(from.minusDays(2), from.plusDays(1), BookingStatus.CONFIRMED);
+        createBooking(from.plusDays(5), from.plusDays(6), BookingStatus.CANCELED);
+        createBlock(from.plusDays(3), from.plusDays(4), "Maintenance");
+        mockMvc.perform(post("/api/blocks/recurring")
+                        .contentType(MediaType.APPLICATION_JSON)
+                        .content(objectMapper.writeValueAsString(RecurringBlockRequest.builder()
+                                .ownerId(testOwner.getId())
+                                .propertyId(otherProperty.getId())
+                                .frequency(RecurrenceFrequency.DAILY)
+                                .interval(3)
+                                .startDate(from.plusDays(1))
+                                .untilDate(from.plusDays(30))
+                                .build())))
+                .andExpect(status().isCreated());
+
+        Map<UUID, Map<String, String>> report = report(from, from.plusDays(6));
+
+        Assertions.assertThat(report).containsOnlyKeys(testProperty.getId(), otherProperty.getId());
+        Assertions.assertThat(report.get(testProperty.getId())).containsExactly(
+                Map.entry(from.toString(), "BOOKED"),
+                Map.entry(from.plusDays(1).toString(), "BOOKED"),
+                Map.entry(from.plusDays(2).toString(), "FREE"),
+                Map.entry(from.plusDays(3).toString(), "BLOCKED"),
+                Map.entry(from.plusDays(4).toString(), "BLOCKED"),
+                Map.entry(from.plusDays(5).toString(), "FREE"),
+                Map.entry(from.plusDays(6).toString(), "FREE"));
+        Assertions.assertThat(report.get(otherProperty.getId())).containsExactly(
+                Map.entry(from.toString(), "FREE"),
+                Map.entry(from.plusDays(1).toString(), "BLOCKED"),
+                Map.entry(from.plusDays(2).toString(), "FREE"),
+                Map.entry(from.plusDays(3).toString(), "FREE"),
+                Map.entry(from.plusDays(4).toString(), "BLOCKED"),
+                Map.entry(from.plusDays(5).toString(), "FREE"),
+                Map.entry(from.plusDays(6).toString(), "FREE"));
+    }
+
+    @Test
+    @DisplayName("Should cover properties spread over many partitions")
+    void shouldCoverManyPartitions() throws Exception {
+        List<Property> properties = new ArrayList<>();
+        for (int i = 0; i < 300; i++) {
+            properties.add(Property.builder()
+                    .name("Property " + i)
+                    .ownerId(testOwner.getId())
+                    .build());
+        }
+        propertyRepository.saveAll(properties);
+        createBooking(from, from, BookingStatus.CONFIRMED);
+
+        Map<UUID, Map<String, String>> report = report(from, from.plusDays(1));
+
+        Assertions.assertThat(report).hasSize(302);
+        Assertions.assertThat(report.values()).allSatisfy(nights -> Assertions.assertThat(nights).hasSize(2));
+        Assertions.assertThat(report.get(testProperty.getId()).get(from.toString())).isEqualTo("BOOKED");
+        Assertions.assertThat(report.values())
+                .filteredOn(nights -> nights.containsValue("BOOKED"))
+                .hasSize(1);
+    }
+
+    @Test
+    @DisplayName("Should validate the report window")
+    void shouldValidateReportWindow() throws Exception {
+        mockMvc.perform(get("/api/availability/occupancy-report")
+                        .param("from", from.toString())
+                        .param("to", from.minusDays(1).toString()))
+                .andExpect(status().isBadRequest())
+                .andExpect(jsonPath("$.message").value(containsString("'from' must not be after 'to'")));
+
+        mockMvc.perform(get("/api/availability/occupancy-report")
+                        .param("from", from.toString())
+                        .param("to", from.plusDays(366).toString()))
+                .andExpect(status().isBadRequest())
+                .andExpect(jsonPath("$.message").value(containsString("report window")));
+    }
+
+    private Map<UUID, Map<String, String>> report(LocalDate from, LocalDate to) throws Exception {
+        MvcResult result = mockMvc.perform(get("/api/availability/occupancy-report")
+                        .param("from", from.toString())
+                        .param("to", to.toString()))
+                .andExpect(request().asyncStarted())
+                .andReturn();
+
+        String body = mockMvc.perform(asyncDispatch(result))
+                .andExpect(status().isOk())
+                .andExpect(header().string("Content-Type", startsWith("text/csv")))
+                .andExpect(header().string("Content-Disposition",
+                        containsString("occupancy-" + from + "-" + to + ".csv")))
+                .andReturn()
+                .getResponse()
+                .getContentAsString();
+
+        String[] lines = body.split("\n");
+        Assertions.assertThat(lines[0]).isEqualTo("propertyId,ownerId,night,status");
+
+        // Nights of one property are contiguous and in date order, properties arrive in completion order
+        Map<UUID, Map<String, String>> report = new HashMap<>();
+        for (int i = 1; i < lines.length; i++) {
+            String[] columns = lines[i].split(",");
+            Assertions.assertThat(columns[1]).isEqualTo(testOwner.getId().toString());
+            report.computeIfAbsent(UUID.fromString(columns[0]), id -> new LinkedHashMap<>())
+                    .put(columns[2], columns[3]);
+        }
+        return report;
+    }
+}
@@ -0,0 +1,246 @@
+package com.booking.integrationTests.block;
+
+import com.booking.dto.BookingRequest;
+import com.booking.dto.RecurringBlockRequest;
+import com.booking.dto.RecurringBlockResponse;
+import com.booking.integrationTests.BaseIntegrationTest;
+import com.booking.model.ChangeEntityType;
+import com.booking.model.RecurrenceFrequency;
+import org.assertj.core.api.Assertions;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.springframework.http.MediaType;
+import org.springframework.test.web.servlet.MvcResult;
+import org.springframework.test.web.servlet.RequestBuilder;
+import org.springframework.test.web.servlet.ResultActions;
+
+import java.time.DayOfWeek;
+import java.time.LocalDate;
+import java.time.temporal.ChronoUnit;
+import java.time.temporal.TemporalAdjusters;
+import java.util.Map;
+import java.util.Set;
+import java.util.UUID;
+
+import static org.hamcrest.Matchers.containsString;
+import static org.hamcrest.Matchers.hasSize;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.*;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.*;
+
+@DisplayName("Recurring Block Integration Tests")
+class RecurringBlockIT extends BaseIntegrationTest {
+
+    private LocalDate monday;
+
+    @BeforeEach
+    void setUp() {
+        monday = LocalDate.now().plusDays(7).with(TemporalAdjusters.nextOrSame(DayOfWeek.MONDAY));
+    }
+
+    @Test
+    @DisplayName("Should store a weekly rule as one row and list its occurrences")
+    void shouldListOccurrencesOfWeeklyRule() throws Exception {
+        RecurringBlockResponse block = createRecurringBlock(weekendRule(monday.plusWeeks(8)));
+
+        Assertions.assertThat(recurringBlockRepository.count()).isEqualTo(1);
+        Assertions.assertThat(changeEventRepository.findAll())
+                .singleElement()
+                .satisfies(change -> Assertions.assertThat(change.getEntityType()).isEqualTo(ChangeEntityType.RECURRING_BLOCK));
+
+        mockMvc.perform(get("/api/blocks/recurring/{recurringBlockId}/occurrences", block.getId())
+                        .param("from", monday.plusDays(6).toString())
+                        .param("to", monday.plusWeeks(2).plusDays(5).toString()))
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("$", hasSize(3)))
+                .andExpect(jsonPath("$[0].startDate").value(monday.plusDays(5).toString()))
+                .andExpect(jsonPath("$[0].endDate").value(monday.plusDays(6).toString()))
+                .andExpect(jsonPath("$[2].startDate").value(monday.plusWeeks(2).plusDays(5).toString()));
+
+        mockMvc.perform(get("/api/blocks/recurring/property/{propertyId}", testProperty.getId()))
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("$", hasSize(1)))
+                .andExpect(jsonPath("$[0].daysOfWeek[0]").value("SATURDAY"));
+    }
+
+    @Test
+    @DisplayName("Should reject bookings that hit an occurrence and accept those between occurrences")
+    void shouldEvaluateRuleWhenBooking() throws Exception {
+        createRecurringBlock(weekendRule(monday.plusWeeks(8)));
+
+        mockMvc.perform(createBookingRequest(monday.plusWeeks(3).plusDays(3), monday.plusWeeks(3).plusDays(5)))
+                .andExpect(status().isBadRequest())
+                .andExpect(jsonPath("$.message").value(containsString("Property is blocked")));
+
+        mockMvc.perform(createBookingRequest(monday.plusWeeks(3), monday.plusWeeks(3).plusDays(4)))
+                .andExpect(status().isCreated());
+
+        // Past the until date the rule no longer blocks
+        mockMvc.perform(createBookingRequest(monday.plusWeeks(9).plusDays(5), monday.plusWeeks(9).plusDays(6)))
+                .andExpect(status().isCreated());
+    }
+
+    @Test
+    @DisplayName("Should reject a rule that hits an existing booking or recurring block")
+    void shouldRejectConflictingRule() throws Exception {
+        mockMvc.perform(createBookingRequest(monday.plusWeeks(2).plusDays(1), monday.plusWeeks(2).plusDays(3)))
+                .andExpect(status().isCreated());
+        createRecurringBlock(weekendRule(monday.plusWeeks(8)));
+
+        RecurringBlockRequest midweek = weekendRule(monday.plusWeeks(8));
+        midweek.setDaysOfWeek(Set.of(DayOfWeek.WEDNESDAY));
+        midweek.setDurationDays(1);
+        performCreate(midweek)
+                .andExpect(status().isBadRequest())
+                .andExpect(jsonPath("$.message").value(containsString("Property is already booked")));
+
+        RecurringBlockRequest sundays = weekendRule(monday.plusWeeks(8));
+        sundays.setDaysOfWeek(Set.of(DayOfWeek.SUNDAY));
+        sundays.setDurationDays(1);
+        performCreate(sundays)
+                .andExpect(status().isBadRequest())
+                .andExpect(jsonPath("$.message").value(containsString("Property is already blocked")));
+
+        RecurringBlockRequest mondays = weekendRule(monday.plusWeeks(8));
+        mondays.setDaysOfWeek(Set.of(DayOfWeek.MONDAY));
+        mondays.setDurationDays(1);
+        performCreate(mondays)
+                .andExpect(status().isCreated());
+    }
+
+    @Test
+    @DisplayName("Should skip months without the day of a monthly rule")
+    void shouldSkipShortMonthsInMonthlyRule() throws Exception {
+        LocalDate start = LocalDate.of(LocalDate.now().getYear() + 1, 1, 31);
+        RecurringBlockRequest request = RecurringBlockRequest.builder()
+                .ownerId(testOwner.getId())
+                .propertyId(testProperty.getId())
+                .frequency(RecurrenceFrequency.MONTHLY)
+                .startDate(start)
+                .untilDate(start.plusMonths(6))
+                .reason("Monthly inspection")
+                .build();
+        RecurringBlockResponse block = createRecurringBlock(request);
+
+        mockMvc.perform(get("/api/blocks/recurring/{recurringBlockId}/occurrences", block.getId())
+                        .param("from", start.toString())
+                        .param("to", start.plusMonths(3).toString()))
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("$", hasSize(2)))
+                .andExpect(jsonPath("$[0].startDate").value(start.toString()))
+                .andExpect(jsonPath("$[1].startDate").value(LocalDate.of(start.getYear(), 3, 31).toString()));
+    }
+
+    @Test
+    @DisplayName("Should leave occurrences out of the next available windows")
+    void shouldSkipOccurrencesInNextAvailable() throws Exception {
+        RecurringBlockRequest request = weekendRule(monday.plusWeeks(8));
+        request.setStartDate(LocalDate.now());
+        request.setFrequency(RecurrenceFrequency.DAILY);
+        request.setDaysOfWeek(null);
+        request.setInterval(4);
+        request.setDurationDays(2);
+        createRecurringBlock(request);
+
+        // Every 4 days two are blocked, leaving two free days: one night at most until the rule ends
+        long sinceStart = ChronoUnit.DAYS.between(request.getStartDate(), request.getUntilDate());
+        LocalDate lastOccurrence = request.getUntilDate().minusDays(sinceStart % 4);
+        mockMvc.perform(get("/api/properties/{propertyId}/next-available", testProperty.getId())
+                        .param("nights", "2"))
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("$[0].startDate").value(lastOccurrence.plusDays(2).toString()));
+    }
+
+    @Test
+    @DisplayName("Should only let the owner create and delete recurring blocks")
+    void shouldCheckOwnershipAndFreeDatesOnDelete() throws Exception {
+        RecurringBlockRequest foreign = weekendRule(monday.plusWeeks(8));
+        foreign.setOwnerId(UUID.randomUUID());
+        performCreate(foreign)
+                .andExpect(status().isBadRequest())
+                .andExpect(jsonPath("$.message").value(containsString("not authorized")));
+
+        RecurringBlockResponse block = createRecurringBlock(weekendRule(monday.plusWeeks(8)));
+        mockMvc.perform(delete("/api/blocks/recurring/{recurringBlockId}", block.getId())
+                        .param("ownerId", UUID.randomUUID().toString()))
+                .andExpect(status().isBadRequest());
+        mockMvc.perform(delete("/api/blocks/recurring/{recurringBlockId}", block.getId())
+                        .param("ownerId", testOwner.getId().toString()))
+                .andExpect(status().isNoContent());
+
+        mockMvc.perform(createBookingRequest(monday.plusDays(5), monday.plusDays(6)))
+                .andExpect(status().isCreated());
+        mockMvc.perform(get("/api/blocks/recurring/{recurringBlockId}", block.getId()))
+                .andExpect(status().isNotFound());
+        mockMvc.perform(get("/api/blocks/recurring/property/{propertyId}", testProperty.getId()))
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("$", hasSize(0)));
+
+        // The delete leaves a tombstone with a new version for the compactor to purge
+        Map<String, Object> row = jdbcTemplate.queryForMap(
+                "SELECT deleted_at, version FROM recurring_block WHERE id = ?", block.getId());
+        Assertions.assertThat(row.get("DELETED_AT")).isNotNull();
+        Assertions.assertThat(row.get("VERSION")).isEqualTo(1L);
+    }
+
+    @Test
+    @DisplayName("Should validate the rule")
+    void shouldValidateRule() throws Exception {
+        RecurringBlockRequest zeroInterval = weekendRule(monday.plusWeeks(8));
+        zeroInterval.setInterval(0);
+        performCreate(zeroInterval)
+                .andExpect(status().isBadRequest())
+                .andExpect(jsonPath("$.message").value(containsString("Interval must be between")));
+
+        RecurringBlockRequest daysOnMonthly = weekendRule(monday.plusWeeks(8));
+        daysOnMonthly.setFrequency(RecurrenceFrequency.MONTHLY);
+        performCreate(daysOnMonthly)
+                .andExpect(status().isBadRequest())
+                .andExpect(jsonPath("$.message").value(containsString("only be set for weekly")));
+
+        performCreate(weekendRule(monday.minusWeeks(1)))
+                .andExpect(status().isBadRequest())
+                .andExpect(jsonPath("$.message").value(containsString("Start date must be before end date")));
+    }
+
+    private RecurringBlockRequest weekendRule(LocalDate untilDate) {
+        return RecurringBlockRequest.builder()
+                .ownerId(testOwner.getId())
+                .propertyId(testProperty.getId())
+                .frequency(RecurrenceFrequency.WEEKLY)
+                .daysOfWeek(Set.of(DayOfWeek.SATURDAY))
+                .startDate(monday)
+                .untilDate(untilDate)
+                .durationDays(2)
+                .reason("Owner weekends")
+                .build();
+    }
+
+    private RecurringBlockResponse createRecurringBlock(RecurringBlockRequest request) throws Exception {
+        MvcResult result = performCreate(request)
+                .andExpect(status().isCreated())
+                .andReturn();
+        return objectMapper.readValue(result.getResponse().getContentAsString(), RecurringBlockResponse.class);
+    }
+
+    private ResultActions performCreate(RecurringBlockRequest request) throws Exception {
+        return mockMvc.perform(post("/api/blocks/recurring")
+                .contentType(MediaType.APPLICATION_JSON)
+                .content(objectMapper.writeValueAsString(request)));
+    }
+
+    private RequestBuilder createBookingRequest(LocalDate startDate, LocalDate endDate) throws Exception {
+        BookingRequest request = BookingRequest.builder()
+                .propertyId(testProperty.getId())
+                .guestEmail(testGuest.getEmail())
+                .guestFirstName(testGuest.getFirstName())
+                .guestLastName(testGuest.getLastName())
+                .startDate(startDate)
+                .endDate(endDate)
+                .build();
+
+        return post("/api/bookings")
+                .contentType(MediaType.APPLICATION_JSON)
+                .content(objectMapper.writeValueAsString(request));
+    }
+}
@@ -210,4 +210,46 @@ class UpdateBlockIT extends BaseIntegrationTest {
                 .andExpect(status().is4xxClientError())
                 .andExpect(jsonPath("$.message").value(containsString("Property is already blocked")));
     }
+
+    @Test
+    @DisplayName("Should report the booking when new dates overlap both a booking and a block")
+    void shouldReportBookingBeforeBlock() throws Exception {
+        createBooking(
+                LocalDate.now().plusDays(15),
+                LocalDate.now().plusDays(17),
+                BookingStatus.CONFIRMED
+        );
+        createBlock(
+                LocalDate.now().plusDays(19),
+                LocalDate.now().plusDays(21),
+                "Another maintenance"
+        );
+
+        BlockUpdateRequest request = new BlockUpdateRequest();
+        request.setOwnerId(testOwner.getId());
+        request.setStartDate(LocalDate.now().plusDays(16));
+        request.setEndDate(LocalDate.now().plusDays(20));
+
+        mockMvc.perform(patch("/api/blocks/{blockId}", testBlock.getId())
+                        .contentType(MediaType.APPLICATION_JSON)
+                        .content(objectMapper.writeValueAsString(request)))
+                .andExpect(status().isBadRequest())
+                .andExpect(jsonPath("$.message").value(containsString("Property is already booked")));
+    }
+
+    @Test
+    @DisplayName("Should move block onto dates overlapping only its own")
+    void shouldMoveBlockOverItsOwnDates() throws Exception {
+        BlockUpdateRequest request = new BlockUpdateRequest();
+        request.setOwnerId(testOwner.getId());
+        request.setStartDate(testBlock.getStartDate().plusDays(2));
+        request.setEndDate(testBlock.getEndDate().plusDays(2));
+
+        mockMvc.perform(patch("/api/blocks/{blockId}", testBlock.getId())
+                        .contentType(MediaType.APPLICATION_JSON)
+                        .content(objectMapper.writeValueAsString(request)))
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("$.startDate").value(request.getStartDate().toString()))
+                .andExpect(jsonPath("$.endDate").value(request.getEndDate().toString()));
+    }
 }
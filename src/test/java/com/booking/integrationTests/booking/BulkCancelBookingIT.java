@@ -0,0 +1,224 @@
+package com.booking.integrationTests.booking;
+
+import com.booking.dto.BookingRequest;
+import com.booking.dto.BulkCancelResponse;
+import com.booking.integrationTests.BaseIntegrationTest;
+import com.booking.model.Booking;
+import com.booking.model.BookingStatus;
+import com.booking.model.ChangeEvent;
+import com.booking.model.ChangeOperation;
+import com.booking.model.Guest;
+import com.booking.model.Property;
+import com.booking.repository.BookingBatchRepository;
+import com.booking.service.BookingService;
+import lombok.extern.slf4j.Slf4j;
+import org.assertj.core.api.Assertions;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Tag;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.http.MediaType;
+import org.springframework.test.web.servlet.MvcResult;
+import org.springframework.test.web.servlet.ResultActions;
+import org.springframework.transaction.annotation.Propagation;
+import org.springframework.transaction.annotation.Transactional;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.time.LocalDate;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.UUID;
+
+import static org.hamcrest.Matchers.*;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.*;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.*;
+
+// The bulk cancel bypasses the persistence context, so bookings are read back from committed rows
+@Transactional(propagation = Propagation.NOT_SUPPORTED)
+@Slf4j
+@DisplayName("Bulk Cancel Booking Integration Tests")
+class BulkCancelBookingIT extends BaseIntegrationTest {
+
+    @Autowired
+    private BookingBatchRepository bookingBatchRepository;
+
+    @Autowired
+    private BookingService bookingService;
+
+    @Autowired
+    private TransactionTemplate transactionTemplate;
+
+    private LocalDate from;
+    private Guest secondGuest;
+
+    @BeforeEach
+    void setUp() {
+        from = LocalDate.now().plusDays(10);
+        secondGuest = createGuest("Second", "Guest", "second.guest@example.com");
+    }
+
+    @Test
+    @DisplayName("Should cancel the confirmed bookings overlapping the range and return their guests")
+    void shouldCancelOverlappingBookings() throws Exception {
+        Booking before = createBooking(from.minusDays(5), from.minusDays(1), BookingStatus.CONFIRMED);
+        Booking overlappingStart = createBooking(from.minusDays(1), from.plusDays(1), BookingStatus.CONFIRMED);
+        Booking inside = saveBooking(testProperty, secondGuest, from.plusDays(3), from.plusDays(5));
+        Booking overlappingEnd = createBooking(from.plusDays(8), from.plusDays(12), BookingStatus.CONFIRMED);
+        Booking alreadyCancelled = createBooking(from.plusDays(6), from.plusDays(7), BookingStatus.CANCELED);
+
+        Property otherProperty = propertyRepository.save(Property.builder()
+                .name("Other Property")
+                .ownerId(testOwner.getId())
+                .build());
+        Booking otherPropertyBooking = saveBooking(otherProperty, testGuest, from, from.plusDays(2));
+
+        cancelBookings(testProperty.getId(), from, from.plusDays(9))
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("$.cancelled").value(3))
+                .andExpect(jsonPath("$.guests", hasSize(2)))
+                .andExpect(jsonPath("$.guests[*].email", containsInAnyOrder(testGuest.getEmail(), secondGuest.getEmail())))
+                .andExpect(jsonPath("$.guests[?(@.guestId == '%s')].bookingIds[*]".formatted(testGuest.getId()),
+                        containsInAnyOrder(overlappingStart.getId().toString(), overlappingEnd.getId().toString())))
+                .andExpect(jsonPath("$.guests[?(@.guestId == '%s')].bookingIds[*]".formatted(secondGuest.getId()),
+                        contains(inside.getId().toString())));
+
+        Assertions.assertThat(bookingRepository.findById(overlappingStart.getId())).get()
+                .satisfies(booking -> {
+                    Assertions.assertThat(booking.getStatus()).isEqualTo(BookingStatus.CANCELED);
+                    Assertions.assertThat(booking.getVersion()).isEqualTo(overlappingStart.getVersion() + 1);
+                });
+        Assertions.assertThat(bookingRepository.findById(before.getId())).get()
+                .extracting(Booking::getStatus).isEqualTo(BookingStatus.CONFIRMED);
+        Assertions.assertThat(bookingRepository.findById(otherPropertyBooking.getId())).get()
+                .extracting(Booking::getStatus).isEqualTo(BookingStatus.CONFIRMED);
+        Assertions.assertThat(bookingRepository.findById(alreadyCancelled.getId())).get()
+                .extracting(Booking::getVersion).isEqualTo(alreadyCancelled.getVersion());
+
+        // One change event per cancelled booking, carrying the cancelled snapshot
+        Assertions.assertThat(changeEventRepository.findAll())
+                .hasSize(3)
+                .allSatisfy(change -> {
+                    Assertions.assertThat(change.getOperation()).isEqualTo(ChangeOperation.UPDATED);
+                    Assertions.assertThat(change.getStatus()).isEqualTo(BookingStatus.CANCELED);
+                })
+                .extracting(ChangeEvent::getEntityId)
+                .containsExactlyInAnyOrder(overlappingStart.getId(), inside.getId(), overlappingEnd.getId());
+
+        // The dates are free again
+        BookingRequest request = BookingRequest.builder()
+                .propertyId(testProperty.getId())
+                .guestEmail(testGuest.getEmail())
+                .guestFirstName(testGuest.getFirstName())
+                .guestLastName(testGuest.getLastName())
+                .startDate(inside.getStartDate())
+                .endDate(inside.getEndDate())
+                .build();
+        mockMvc.perform(post("/api/bookings")
+                        .contentType(MediaType.APPLICATION_JSON)
+                        .content(objectMapper.writeValueAsString(request)))
+                .andExpect(status().isCreated());
+    }
+
+    @Test
+    @DisplayName("Should return an empty result when nothing overlaps")
+    void shouldReturnEmptyResultWhenNothingOverlaps() throws Exception {
+        createBooking(from.plusDays(20), from.plusDays(22), BookingStatus.CONFIRMED);
+
+        cancelBookings(testProperty.getId(), from, from.plusDays(9))
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("$.cancelled").value(0))
+                .andExpect(jsonPath("$.guests", empty()));
+
+        Assertions.assertThat(changeEventRepository.count()).isZero();
+    }
+
+    @Test
+    @DisplayName("Should validate the property and the range")
+    void shouldValidatePropertyAndRange() throws Exception {
+        cancelBookings(UUID.randomUUID(), from, from.plusDays(1))
+                .andExpect(status().isNotFound())
+                .andExpect(jsonPath("$.message").value(containsString("Property not found")));
+
+        cancelBookings(testProperty.getId(), from, from.minusDays(1))
+                .andExpect(status().isBadRequest())
+                .andExpect(jsonPath("$.message").value(containsString("must not be after")));
+    }
+
+    @Test
+    @DisplayName("Should cancel many bookings in one request")
+    void shouldCancelManyBookings() throws Exception {
+        compareBulkCancel(500, 10);
+    }
+
+    @Test
+    @Tag("benchmark")
+    @DisplayName("Benchmark: bulk cancel of 10k bookings against cancelling one at a time")
+    void benchmarkBulkCancel() throws Exception {
+        compareBulkCancel(10_000, 200);
+    }
+
+    private void compareBulkCancel(int bookings, int individually) throws Exception {
+        List<Booking> bulk = seedBookings(testProperty, bookings);
+        Property otherProperty = propertyRepository.save(Property.builder()
+                .name("Other Property")
+                .ownerId(testOwner.getId())
+                .build());
+        List<Booking> single = seedBookings(otherProperty, individually);
+
+        long singleStart = System.nanoTime();
+        single.forEach(booking -> bookingService.cancelBooking(booking.getId(), null));
+        long singleNanos = System.nanoTime() - singleStart;
+
+        long bulkStart = System.nanoTime();
+        MvcResult result = cancelBookings(testProperty.getId(), from, bulk.get(bookings - 1).getEndDate())
+                .andExpect(status().isOk())
+                .andReturn();
+        long bulkNanos = System.nanoTime() - bulkStart;
+
+        BulkCancelResponse response = objectMapper.readValue(result.getResponse().getContentAsString(), BulkCancelResponse.class);
+        Assertions.assertThat(response.getCancelled()).isEqualTo(bookings);
+        Assertions.assertThat(response.getGuests()).hasSize(2);
+        Assertions.assertThat(bookingRepository.findByStatus(BookingStatus.CONFIRMED)).isEmpty();
+        Assertions.assertThat(changeEventRepository.count()).isEqualTo(bookings + individually);
+
+        double singleMicros = singleNanos / 1_000.0 / individually;
+        double bulkMicros = bulkNanos / 1_000.0 / bookings;
+        log.info("Cancelled {} bookings in {} ms: {} us per booking in bulk, {} us per booking one at a time",
+                bookings, bulkNanos / 1_000_000, "%.1f".formatted(bulkMicros), "%.1f".formatted(singleMicros));
+    }
+
+    private List<Booking> seedBookings(Property property, int count) {
+        List<Booking> bookings = new ArrayList<>(count);
+        for (int i = 0; i < count; i++) {
+            LocalDate startDate = from.plusDays(2L * i);
+            bookings.add(Booking.builder()
+                    .id(UUID.randomUUID())
+                    .propertyId(property.getId())
+                    .guestId(i % 2 == 0 ? testGuest.getId() : secondGuest.getId())
+                    .startDate(startDate)
+                    .endDate(startDate.plusDays(1))
+                    .status(BookingStatus.CONFIRMED)
+                    .version(0L)
+                    .build());
+        }
+        transactionTemplate.executeWithoutResult(status -> bookingBatchRepository.insertAll(bookings));
+        return bookings;
+    }
+
+    private Booking saveBooking(Property property, Guest guest, LocalDate startDate, LocalDate endDate) {
+        return bookingRepository.save(Booking.builder()
+                .propertyId(property.getId())
+                .guestId(guest.getId())
+                .startDate(startDate)
+                .endDate(endDate)
+                .status(BookingStatus.CONFIRMED)
+                .build());
+    }
+
+    private ResultActions cancelBookings(UUID propertyId, LocalDate from, LocalDate to) throws Exception {
+        return mockMvc.perform(patch("/api/bookings/property/{propertyId}/cancel", propertyId)
+                .param("from", from.toString())
+                .param("to", to.toString()));
+    }
+}
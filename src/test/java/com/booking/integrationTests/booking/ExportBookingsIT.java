@@ -0,0 +1,134 @@
+package com.booking.integrationTests.booking;
+
+import com.booking.integrationTests.BaseIntegrationTest;
+import com.booking.model.*;
+import com.fasterxml.jackson.databind.JsonNode;
+import org.assertj.core.api.Assertions;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.springframework.test.web.servlet.MvcResult;
+import org.springframework.test.web.servlet.request.MockHttpServletRequestBuilder;
+import org.springframework.transaction.annotation.Propagation;
+import org.springframework.transaction.annotation.Transactional;
+
+import java.time.LocalDate;
+import java.util.List;
+
+import static org.hamcrest.Matchers.*;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.*;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.*;
+
+// The export streams on an async thread with its own connection, so test data must be committed
+@Transactional(propagation = Propagation.NOT_SUPPORTED)
+@DisplayName("Export Bookings Integration Tests")
+class ExportBookingsIT extends BaseIntegrationTest {
+
+    private Booking earlyBooking;
+    private Booking lateBooking;
+    private Booking canceledBooking;
+
+    @BeforeEach
+    void setUp() {
+        earlyBooking = createBooking(LocalDate.now().plusDays(1), LocalDate.now().plusDays(3), BookingStatus.CONFIRMED);
+        lateBooking = createBooking(LocalDate.now().plusDays(20), LocalDate.now().plusDays(25), BookingStatus.CONFIRMED);
+        canceledBooking = createBooking(LocalDate.now().plusDays(10), LocalDate.now().plusDays(12), BookingStatus.CANCELED);
+    }
+
+    @Test
+    @DisplayName("Should export all bookings with guest details as NDJSON")
+    void shouldExportAllBookingsAsNdjson() throws Exception {
+        String body = export(get("/api/bookings/export"), "application/x-ndjson");
+
+        List<JsonNode> rows = body.lines().map(this::readJson).toList();
+        Assertions.assertThat(rows).hasSize(3);
+        Assertions.assertThat(rows).extracting(row -> row.get("id").asText())
+                .containsExactly(earlyBooking.getId().toString(), canceledBooking.getId().toString(), lateBooking.getId().toString());
+        Assertions.assertThat(rows.get(0).get("guestEmail").asText()).isEqualTo(testGuest.getEmail());
+        Assertions.assertThat(rows.get(0).get("guestFirstName").asText()).isEqualTo(testGuest.getFirstName());
+        Assertions.assertThat(rows.get(0).get("startDate").asText()).isEqualTo(earlyBooking.getStartDate().toString());
+    }
+
+    @Test
+    @DisplayName("Should filter exported bookings by status and date range")
+    void shouldFilterByStatusAndDateRange() throws Exception {
+        String body = export(get("/api/bookings/export")
+                .param("status", "CONFIRMED")
+                .param("from", LocalDate.now().plusDays(5).toString())
+                .param("to", LocalDate.now().plusDays(30).toString()), "application/x-ndjson");
+
+        List<JsonNode> rows = body.lines().map(this::readJson).toList();
+        Assertions.assertThat(rows).hasSize(1);
+        Assertions.assertThat(rows.get(0).get("id").asText()).isEqualTo(lateBooking.getId().toString());
+    }
+
+    @Test
+    @DisplayName("Should export bookings as CSV with a header row")
+    void shouldExportAsCsv() throws Exception {
+        String body = export(get("/api/bookings/export").param("format", "csv"), "text/csv");
+
+        List<String> lines = body.lines().toList();
+        Assertions.assertThat(lines).hasSize(4);
+        Assertions.assertThat(lines.get(0)).startsWith("id,propertyId,guestId,guestEmail");
+        Assertions.assertThat(lines.get(1)).startsWith(earlyBooking.getId().toString())
+                .contains(testGuest.getEmail())
+                .endsWith(",CONFIRMED");
+    }
+
+    @Test
+    @DisplayName("Should quote CSV values containing commas")
+    void shouldQuoteCsvValuesContainingCommas() throws Exception {
+        testGuest.setLastName("Guest, Jr.");
+        guestRepository.save(testGuest);
+
+        String body = export(get("/api/bookings/export").param("format", "csv"), "text/csv");
+
+        Assertions.assertThat(body.lines().skip(1)).allSatisfy(line -> Assertions.assertThat(line).contains(",\"Guest, Jr.\","));
+    }
+
+    @Test
+    @DisplayName("Should fail when export format is not supported")
+    void shouldFailWhenFormatIsNotSupported() throws Exception {
+        mockMvc.perform(get("/api/bookings/export").param("format", "xml"))
+                .andExpect(status().isBadRequest())
+                .andExpect(jsonPath("$.message").value(containsString("Unsupported export format")));
+    }
+
+    @Test
+    @DisplayName("Should fail when from is after to")
+    void shouldFailWhenFromIsAfterTo() throws Exception {
+        mockMvc.perform(get("/api/bookings/export")
+                        .param("from", LocalDate.now().plusDays(10).toString())
+                        .param("to", LocalDate.now().plusDays(1).toString()))
+                .andExpect(status().isBadRequest());
+    }
+
+    @Test
+    @DisplayName("Should fail when status is not a known booking status")
+    void shouldFailWhenStatusIsUnknown() throws Exception {
+        mockMvc.perform(get("/api/bookings/export").param("status", "PENDING"))
+                .andExpect(status().isBadRequest())
+                .andExpect(jsonPath("$.message").value(containsString("status")));
+    }
+
+    private String export(MockHttpServletRequestBuilder requestBuilder, String contentType) throws Exception {
+        MvcResult result = mockMvc.perform(requestBuilder)
+                .andExpect(request().asyncStarted())
+                .andReturn();
+
+        return mockMvc.perform(asyncDispatch(result))
+                .andExpect(status().isOk())
+                .andExpect(header().string("Content-Type", startsWith(contentType)))
+                .andReturn()
+                .getResponse()
+                .getContentAsString();
+    }
+
+    private JsonNode readJson(String line) {
+        try {
+            return objectMapper.readTree(line);
+        } catch (Exception e) {
+            throw new IllegalStateException(e);
+        }
+    }
+}
@@ -0,0 +1,186 @@
+package com.booking.integrationTests.booking;
+
+import com.booking.dto.GroupBookingRequest;
+import com.booking.integrationTests.BaseIntegrationTest;
+import com.booking.model.BookingStatus;
+import com.booking.model.Property;
+import org.assertj.core.api.Assertions;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.springframework.http.MediaType;
+import org.springframework.test.web.servlet.RequestBuilder;
+import org.springframework.transaction.annotation.Propagation;
+import org.springframework.transaction.annotation.Transactional;
+
+import java.time.LocalDate;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.UUID;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+
+import static org.hamcrest.Matchers.*;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.*;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.*;
+
+// Concurrent group bookings only contend for property locks between committed transactions
+@Transactional(propagation = Propagation.NOT_SUPPORTED)
+@DisplayName("Group Booking Integration Tests")
+class GroupBookingIT extends BaseIntegrationTest {
+
+    private Property secondProperty;
+    private Property thirdProperty;
+    private LocalDate startDate;
+
+    @BeforeEach
+    void setUp() {
+        secondProperty = createProperty("Second Property");
+        thirdProperty = createProperty("Third Property");
+        startDate = LocalDate.now().plusDays(5);
+    }
+
+    @Test
+    @DisplayName("Should book every property of the group")
+    void shouldBookEveryProperty() throws Exception {
+        mockMvc.perform(groupBookingRequest(startDate, startDate.plusDays(3),
+                        testProperty.getId(), secondProperty.getId(), thirdProperty.getId()))
+                .andExpect(status().isCreated())
+                .andExpect(jsonPath("$", hasSize(3)))
+                .andExpect(jsonPath("$[*].propertyId", containsInAnyOrder(testProperty.getId().toString(),
+                        secondProperty.getId().toString(), thirdProperty.getId().toString())))
+                .andExpect(jsonPath("$[*].guestId", everyItem(is(testGuest.getId().toString()))))
+                .andExpect(jsonPath("$[*].status", everyItem(is(BookingStatus.CONFIRMED.name()))))
+                .andExpect(jsonPath("$[*].version", everyItem(is(0))));
+
+        Assertions.assertThat(bookingRepository.count()).isEqualTo(3);
+        Assertions.assertThat(changeEventRepository.count()).isEqualTo(3);
+    }
+
+    @Test
+    @DisplayName("Should book nothing when one property is already booked")
+    void shouldBookNothingWhenOnePropertyIsBooked() throws Exception {
+        createBooking(startDate.plusDays(2), startDate.plusDays(4), BookingStatus.CONFIRMED);
+
+        mockMvc.perform(groupBookingRequest(startDate, startDate.plusDays(3),
+                        secondProperty.getId(), testProperty.getId(), thirdProperty.getId()))
+                .andExpect(status().isBadRequest())
+                .andExpect(jsonPath("$.message").value(containsString("not available")))
+                .andExpect(jsonPath("$.message").value(containsString(testProperty.getId().toString())))
+                .andExpect(jsonPath("$.message").value(not(containsString(secondProperty.getId().toString()))));
+
+        Assertions.assertThat(bookingRepository.count()).isEqualTo(1);
+        Assertions.assertThat(changeEventRepository.count()).isZero();
+    }
+
+    @Test
+    @DisplayName("Should book nothing when one property is blocked")
+    void shouldBookNothingWhenOnePropertyIsBlocked() throws Exception {
+        createBlock(startDate, startDate, "Maintenance");
+
+        mockMvc.perform(groupBookingRequest(startDate, startDate.plusDays(3), testProperty.getId(), secondProperty.getId()))
+                .andExpect(status().isBadRequest())
+                .andExpect(jsonPath("$.message").value(containsString(testProperty.getId().toString())));
+
+        Assertions.assertThat(bookingRepository.count()).isZero();
+    }
+
+    @Test
+    @DisplayName("Should reject unknown properties, duplicates and invalid dates")
+    void shouldRejectInvalidGroups() throws Exception {
+        mockMvc.perform(groupBookingRequest(startDate, startDate.plusDays(3), testProperty.getId(), UUID.randomUUID()))
+                .andExpect(status().isNotFound());
+
+        mockMvc.perform(groupBookingRequest(startDate, startDate.plusDays(3), testProperty.getId(), testProperty.getId()))
+                .andExpect(status().isBadRequest())
+                .andExpect(jsonPath("$.message").value(containsString("only appear once")));
+
+        mockMvc.perform(groupBookingRequest(startDate.plusDays(3), startDate, testProperty.getId()))
+                .andExpect(status().isBadRequest())
+                .andExpect(jsonPath("$.message").value(containsString("Start date must be before end date")));
+
+        mockMvc.perform(groupBookingRequest(startDate, startDate.plusDays(3)))
+                .andExpect(status().isBadRequest());
+
+        Assertions.assertThat(bookingRepository.count()).isZero();
+    }
+
+    @Test
+    @DisplayName("Should let exactly one of several overlapping groups win without deadlocking")
+    void shouldLetOneOverlappingGroupWin() throws Exception {
+        // Every pair of groups shares a property, and each group names its properties in a different order
+        List<RequestBuilder> requests = List.of(
+                groupBookingRequest(startDate, startDate.plusDays(2), testProperty.getId(), secondProperty.getId()),
+                groupBookingRequest(startDate, startDate.plusDays(2), thirdProperty.getId(), secondProperty.getId()),
+                groupBookingRequest(startDate, startDate.plusDays(2), testProperty.getId(), thirdProperty.getId()),
+                groupBookingRequest(startDate, startDate.plusDays(2), secondProperty.getId(), testProperty.getId()));
+
+        List<Integer> statuses = performConcurrently(requests);
+
+        Assertions.assertThat(statuses).filteredOn(status -> status == 201).hasSize(1);
+        Assertions.assertThat(statuses).filteredOn(status -> status == 400).hasSize(3);
+        Assertions.assertThat(bookingRepository.count()).isEqualTo(2);
+    }
+
+    @Test
+    @DisplayName("Should commit concurrent groups for different dates on the same properties")
+    void shouldCommitConcurrentGroupsForDifferentDates() throws Exception {
+        List<RequestBuilder> requests = new ArrayList<>();
+        for (int i = 0; i < 8; i++) {
+            LocalDate groupStart = startDate.plusDays(i * 3L);
+            requests.add(groupBookingRequest(groupStart, groupStart.plusDays(1),
+                    thirdProperty.getId(), testProperty.getId(), secondProperty.getId()));
+        }
+
+        List<Integer> statuses = performConcurrently(requests);
+
+        Assertions.assertThat(statuses).containsOnly(201);
+        Assertions.assertThat(bookingRepository.count()).isEqualTo(24);
+    }
+
+    private List<Integer> performConcurrently(List<RequestBuilder> requests) throws Exception {
+        CountDownLatch start = new CountDownLatch(1);
+        List<Future<Integer>> statuses = new ArrayList<>();
+
+        try (ExecutorService executor = Executors.newFixedThreadPool(requests.size())) {
+            for (RequestBuilder request : requests) {
+                statuses.add(executor.submit(() -> {
+                    start.await();
+                    return mockMvc.perform(request).andReturn().getResponse().getStatus();
+                }));
+            }
+            start.countDown();
+
+            List<Integer> results = new ArrayList<>();
+            for (Future<Integer> status : statuses) {
+                results.add(status.get());
+            }
+            return results;
+        }
+    }
+
+    private Property createProperty(String name) {
+        return propertyRepository.save(Property.builder()
+                .name(name)
+                .address("456 Test Street")
+                .ownerId(testOwner.getId())
+                .build());
+    }
+
+    private RequestBuilder groupBookingRequest(LocalDate startDate, LocalDate endDate, UUID... propertyIds) throws Exception {
+        GroupBookingRequest request = GroupBookingRequest.builder()
+                .propertyIds(List.of(propertyIds))
+                .guestEmail(testGuest.getEmail())
+                .guestFirstName(testGuest.getFirstName())
+                .guestLastName(testGuest.getLastName())
+                .startDate(startDate)
+                .endDate(endDate)
+                .build();
+
+        return post("/api/bookings/group")
+                .contentType(MediaType.APPLICATION_JSON)
+                .content(objectMapper.writeValueAsString(request));
+    }
+}
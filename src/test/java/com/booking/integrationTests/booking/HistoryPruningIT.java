@@ -0,0 +1,148 @@
+package com.booking.integrationTests.booking;
+
+import com.booking.integrationTests.BaseIntegrationTest;
+import com.booking.model.Block;
+import com.booking.model.Booking;
+import com.booking.model.BookingStatus;
+import com.booking.repository.BlockBatchRepository;
+import com.booking.repository.BookingBatchRepository;
+import lombok.extern.slf4j.Slf4j;
+import org.assertj.core.api.Assertions;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Tag;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.transaction.annotation.Propagation;
+import org.springframework.transaction.annotation.Transactional;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.time.LocalDate;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.UUID;
+
+// History is seeded with plain JDBC batches and must be committed before it is queried
+@Transactional(propagation = Propagation.NOT_SUPPORTED)
+@Slf4j
+@DisplayName("History Pruning Integration Tests")
+class HistoryPruningIT extends BaseIntegrationTest {
+
+    private static final int CHECKS = 2000;
+
+    @Autowired
+    private BookingBatchRepository bookingBatchRepository;
+
+    @Autowired
+    private BlockBatchRepository blockBatchRepository;
+
+    @Autowired
+    private TransactionTemplate transactionTemplate;
+
+    private LocalDate today;
+
+    @BeforeEach
+    void setUp() {
+        today = LocalDate.now();
+    }
+
+    @Test
+    @DisplayName("Should read overlap candidates through the property and end date index")
+    void shouldSeekPastHistory() {
+        String bookingPlan = explain("SELECT id FROM booking WHERE property_id = '" + testProperty.getId() + "' " +
+                "AND status = 'CONFIRMED' AND start_date <= DATE '" + today.plusDays(40) + "' " +
+                "AND end_date >= DATE '" + today.plusDays(30) + "'");
+        String blockPlan = explain("SELECT id FROM block WHERE property_id = '" + testProperty.getId() + "' " +
+                "AND start_date <= DATE '" + today.plusDays(40) + "' AND end_date >= DATE '" + today.plusDays(30) + "'");
+
+        Assertions.assertThat(bookingPlan).containsIgnoringCase("IDX_BOOKING_PROPERTY_END")
+                .containsIgnoringCase("END_DATE >=");
+        Assertions.assertThat(blockPlan).containsIgnoringCase("IDX_BLOCK_PROPERTY_END")
+                .containsIgnoringCase("END_DATE >=");
+    }
+
+    @Test
+    @Tag("benchmark")
+    @DisplayName("Benchmark: overlap checks for next month as history grows to 100k nights")
+    void benchmarkOverlapChecksAgainstHistory() {
+        LocalDate from = today.plusDays(30);
+        LocalDate to = from.plusDays(7);
+        Booking upcoming = createBooking(from.plusDays(2), from.plusDays(4), BookingStatus.CONFIRMED);
+        createBlock(from.plusDays(6), from.plusDays(8), "Maintenance");
+
+        int seeded = 0;
+        List<Long> nanosPerCheck = new ArrayList<>();
+        for (int history : new int[]{1_000, 10_000, 100_000}) {
+            seedHistory(seeded, history);
+            seeded = history;
+
+            nanosPerCheck.add(timeOverlapChecks(from, to));
+            // Every seeded night is before today, so only the upcoming ones overlap
+            Assertions.assertThat(bookingRepository.findOverlappingBookings(testProperty.getId(), from, to))
+                    .extracting(Booking::getId)
+                    .containsExactly(upcoming.getId());
+            Assertions.assertThat(blockRepository.findOverlappingBlocks(testProperty.getId(), from, to))
+                    .hasSize(1);
+            log.info("Overlap check with {} past nights booked or blocked: {} us",
+                    history, nanosPerCheck.get(nanosPerCheck.size() - 1) / 1000);
+        }
+
+        Assertions.assertThat(bookingRepository.count()).isEqualTo(90_001);
+        // Scanning the whole history makes a check more than ten times slower at 100k nights than at 1k
+        Assertions.assertThat(nanosPerCheck.get(2)).isLessThan(3 * nanosPerCheck.get(0));
+    }
+
+    private String explain(String sql) {
+        return jdbcTemplate.queryForObject("EXPLAIN " + sql, String.class);
+    }
+
+    private void seedHistory(int fromIndex, int toIndex) {
+        List<Booking> bookings = new ArrayList<>(toIndex - fromIndex);
+        List<Block> blocks = new ArrayList<>();
+        for (int i = fromIndex; i < toIndex; i++) {
+            // One night taken every day going back in time, every tenth by a block
+            LocalDate night = today.minusDays(i + 1);
+            if (i % 10 == 0) {
+                blocks.add(Block.builder()
+                        .id(UUID.randomUUID())
+                        .propertyId(testProperty.getId())
+                        .startDate(night)
+                        .endDate(night)
+                        .reason("History")
+                        .version(0L)
+                        .build());
+            } else {
+                bookings.add(Booking.builder()
+                        .id(UUID.randomUUID())
+                        .propertyId(testProperty.getId())
+                        .guestId(testGuest.getId())
+                        .startDate(night)
+                        .endDate(night)
+                        .status(BookingStatus.CONFIRMED)
+                        .version(0L)
+                        .build());
+            }
+        }
+        transactionTemplate.executeWithoutResult(status -> {
+            bookingBatchRepository.insertAll(bookings);
+            blockBatchRepository.insertAll(blocks);
+        });
+    }
+
+    private long timeOverlapChecks(LocalDate from, LocalDate to) {
+        // Warm up the queries before timing them
+        runOverlapChecks(from, to, CHECKS / 10);
+        long startNanos = System.nanoTime();
+        runOverlapChecks(from, to, CHECKS);
+        return (System.nanoTime() - startNanos) / CHECKS;
+    }
+
+    private void runOverlapChecks(LocalDate from, LocalDate to, int checks) {
+        for (int i = 0; i < checks; i++) {
+            // The database reuses the result of a repeated query, so every check shifts the range a little
+            int shift = i % 64;
+            bookingRepository.findOverlappingBookings(testProperty.getId(), from.plusDays(shift), to.plusDays(shift));
+            blockRepository.findOverlappingBlocks(testProperty.getId(), from.plusDays(shift), to.plusDays(shift));
+        }
+    }
+}
@@ -0,0 +1,182 @@
+package com.booking.integrationTests.booking;
+
+import com.booking.dto.BlockRequest;
+import com.booking.dto.BlockResponse;
+import com.booking.dto.BlockUpdateRequest;
+import com.booking.dto.BookingRequest;
+import com.booking.dto.BookingResponse;
+import com.booking.dto.BookingUpdateRequest;
+import com.booking.dto.OwnerBlockRequest;
+import com.booking.integrationTests.BaseIntegrationTest;
+import com.booking.repository.OccupiedNightRepository;
+import org.assertj.core.api.Assertions;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.http.MediaType;
+import org.springframework.test.context.TestPropertySource;
+import org.springframework.test.web.servlet.MvcResult;
+
+import java.time.LocalDate;
+import java.util.UUID;
+
+import static org.hamcrest.Matchers.containsString;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.*;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.*;
+
+@DisplayName("Occupancy Claims Integration Tests")
+@TestPropertySource(properties = "booking.occupancy-claims.enabled=true")
+class OccupancyClaimsIT extends BaseIntegrationTest {
+
+    @Autowired
+    private OccupiedNightRepository occupiedNightRepository;
+
+    @Test
+    @DisplayName("Should claim every night of a new booking")
+    void shouldClaimEveryNightOfNewBooking() throws Exception {
+        BookingResponse booking = createBookingViaApi(LocalDate.now().plusDays(5), LocalDate.now().plusDays(9));
+
+        Assertions.assertThat(occupiedNightRepository.countByClaimId(booking.getId())).isEqualTo(5);
+    }
+
+    @Test
+    @DisplayName("Should release claims on cancel and claim them again on rebook")
+    void shouldReleaseOnCancelAndClaimOnRebook() throws Exception {
+        BookingResponse booking = createBookingViaApi(LocalDate.now().plusDays(5), LocalDate.now().plusDays(9));
+
+        mockMvc.perform(patch("/api/bookings/{bookingId}/cancel", booking.getId()))
+                .andExpect(status().isOk());
+        Assertions.assertThat(occupiedNightRepository.countByClaimId(booking.getId())).isZero();
+
+        mockMvc.perform(patch("/api/bookings/{bookingId}/rebook", booking.getId()))
+                .andExpect(status().isOk());
+        Assertions.assertThat(occupiedNightRepository.countByClaimId(booking.getId())).isEqualTo(5);
+    }
+
+    @Test
+    @DisplayName("Should release claims when a booking is deleted")
+    void shouldReleaseClaimsOnDelete() throws Exception {
+        BookingResponse booking = createBookingViaApi(LocalDate.now().plusDays(5), LocalDate.now().plusDays(9));
+
+        mockMvc.perform(delete("/api/bookings/{bookingId}", booking.getId()))
+                .andExpect(status().isNoContent());
+
+        Assertions.assertThat(occupiedNightRepository.countByClaimId(booking.getId())).isZero();
+    }
+
+    @Test
+    @DisplayName("Should move claims when booking dates change")
+    void shouldMoveClaimsWhenDatesChange() throws Exception {
+        BookingResponse booking = createBookingViaApi(LocalDate.now().plusDays(5), LocalDate.now().plusDays(9));
+        LocalDate newStart = LocalDate.now().plusDays(20);
+        LocalDate newEnd = LocalDate.now().plusDays(21);
+
+        BookingUpdateRequest request = BookingUpdateRequest.builder()
+                .startDate(newStart)
+                .endDate(newEnd)
+                .build();
+        mockMvc.perform(patch("/api/bookings/{bookingId}", booking.getId())
+                        .contentType(MediaType.APPLICATION_JSON)
+                        .content(objectMapper.writeValueAsString(request)))
+                .andExpect(status().isOk());
+
+        Assertions.assertThat(jdbcTemplate.queryForList(
+                        "SELECT night FROM occupied_night WHERE claim_id = ? ORDER BY night", LocalDate.class, booking.getId()))
+                .containsExactly(newStart, newEnd);
+    }
+
+    @Test
+    @DisplayName("Should claim block nights and release them when the block is deleted")
+    void shouldClaimAndReleaseBlockNights() throws Exception {
+        BlockRequest request = BlockRequest.builder()
+                .ownerId(testOwner.getId())
+                .propertyId(testProperty.getId())
+                .startDate(LocalDate.now().plusDays(5))
+                .endDate(LocalDate.now().plusDays(7))
+                .reason("Maintenance")
+                .build();
+
+        MvcResult result = mockMvc.perform(post("/api/blocks")
+                        .contentType(MediaType.APPLICATION_JSON)
+                        .content(objectMapper.writeValueAsString(request)))
+                .andExpect(status().isCreated())
+                .andReturn();
+        BlockResponse block = objectMapper.readValue(result.getResponse().getContentAsString(), BlockResponse.class);
+        Assertions.assertThat(occupiedNightRepository.countByClaimId(block.getId())).isEqualTo(3);
+
+        BlockUpdateRequest updateRequest = BlockUpdateRequest.builder()
+                .ownerId(testOwner.getId())
+                .startDate(LocalDate.now().plusDays(5))
+                .endDate(LocalDate.now().plusDays(10))
+                .build();
+        mockMvc.perform(patch("/api/blocks/{blockId}", block.getId())
+                        .contentType(MediaType.APPLICATION_JSON)
+                        .content(objectMapper.writeValueAsString(updateRequest)))
+                .andExpect(status().isOk());
+        Assertions.assertThat(occupiedNightRepository.countByClaimId(block.getId())).isEqualTo(6);
+
+        mockMvc.perform(delete("/api/blocks/{blockId}", block.getId())
+                        .param("ownerId", testOwner.getId().toString()))
+                .andExpect(status().isNoContent());
+        Assertions.assertThat(occupiedNightRepository.countByClaimId(block.getId())).isZero();
+    }
+
+    @Test
+    @DisplayName("Should claim and release nights of owner-wide blocks in bulk")
+    void shouldClaimAndReleaseNightsOfBulkBlocks() throws Exception {
+        LocalDate startDate = LocalDate.now().plusDays(5);
+        OwnerBlockRequest request = OwnerBlockRequest.builder()
+                .startDate(startDate)
+                .endDate(startDate.plusDays(3))
+                .reason("Winter maintenance")
+                .build();
+
+        MvcResult result = mockMvc.perform(post("/api/owners/{ownerId}/blocks", testOwner.getId())
+                        .contentType(MediaType.APPLICATION_JSON)
+                        .content(objectMapper.writeValueAsString(request)))
+                .andExpect(status().isCreated())
+                .andReturn();
+        UUID blockId = UUID.fromString(objectMapper.readTree(result.getResponse().getContentAsString()).get(0).get("id").asText());
+        Assertions.assertThat(occupiedNightRepository.countByClaimId(blockId)).isEqualTo(4);
+
+        mockMvc.perform(delete("/api/owners/{ownerId}/blocks", testOwner.getId())
+                        .param("from", startDate.toString())
+                        .param("to", startDate.plusDays(3).toString()))
+                .andExpect(status().isOk());
+        Assertions.assertThat(occupiedNightRepository.countByClaimId(blockId)).isZero();
+    }
+
+    @Test
+    @DisplayName("Should reject a booking whose nights are already claimed")
+    void shouldRejectBookingWhenNightAlreadyClaimed() throws Exception {
+        LocalDate startDate = LocalDate.now().plusDays(5);
+        occupiedNightRepository.claimNights(testProperty.getId(), UUID.randomUUID(), startDate.plusDays(2), startDate.plusDays(2));
+
+        mockMvc.perform(post("/api/bookings")
+                        .contentType(MediaType.APPLICATION_JSON)
+                        .content(objectMapper.writeValueAsString(bookingRequest(startDate, startDate.plusDays(4)))))
+                .andExpect(status().isBadRequest())
+                .andExpect(jsonPath("$.message").value(containsString("already booked or blocked")));
+    }
+
+    private BookingResponse createBookingViaApi(LocalDate startDate, LocalDate endDate) throws Exception {
+        MvcResult result = mockMvc.perform(post("/api/bookings")
+                        .contentType(MediaType.APPLICATION_JSON)
+                        .content(objectMapper.writeValueAsString(bookingRequest(startDate, endDate))))
+                .andExpect(status().isCreated())
+                .andReturn();
+
+        return objectMapper.readValue(result.getResponse().getContentAsString(), BookingResponse.class);
+    }
+
+    private BookingRequest bookingRequest(LocalDate startDate, LocalDate endDate) {
+        return BookingRequest.builder()
+                .propertyId(testProperty.getId())
+                .guestEmail(testGuest.getEmail())
+                .guestFirstName(testGuest.getFirstName())
+                .guestLastName(testGuest.getLastName())
+                .startDate(startDate)
+                .endDate(endDate)
+                .build();
+    }
+}
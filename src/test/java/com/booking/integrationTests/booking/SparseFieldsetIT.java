@@ -0,0 +1,144 @@
+package com.booking.integrationTests.booking;
+
+import com.booking.dto.BlockResponse;
+import com.booking.dto.BookingResponse;
+import com.booking.integrationTests.BaseIntegrationTest;
+import com.booking.model.Block;
+import com.booking.model.Booking;
+import com.booking.model.BookingStatus;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.springframework.transaction.annotation.Propagation;
+import org.springframework.transaction.annotation.Transactional;
+
+import java.time.LocalDate;
+
+import static org.hamcrest.Matchers.*;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.*;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.*;
+
+// Sparse lists are read with plain JDBC, which does not see unflushed changes of the test transaction
+@Transactional(propagation = Propagation.NOT_SUPPORTED)
+@DisplayName("Sparse Fieldset Integration Tests")
+class SparseFieldsetIT extends BaseIntegrationTest {
+
+    private LocalDate startDate;
+
+    @BeforeEach
+    void setUp() {
+        startDate = LocalDate.now().plusDays(10);
+    }
+
+    @Test
+    @DisplayName("Should return only the requested booking fields")
+    void shouldReturnRequestedBookingFields() throws Exception {
+        Booking booking = createBooking(startDate, startDate.plusDays(3), BookingStatus.CONFIRMED);
+
+        mockMvc.perform(get("/api/bookings/property/{propertyId}", testProperty.getId())
+                        .param("fields", "id,startDate,endDate,status"))
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("$", hasSize(1)))
+                .andExpect(jsonPath("$[0].*", hasSize(4)))
+                .andExpect(jsonPath("$[0].id").value(booking.getId().toString()))
+                .andExpect(jsonPath("$[0].startDate").value(startDate.toString()))
+                .andExpect(jsonPath("$[0].endDate").value(startDate.plusDays(3).toString()))
+                .andExpect(jsonPath("$[0].status").value("CONFIRMED"))
+                .andExpect(jsonPath("$[0].guestFirstName").doesNotExist());
+
+        mockMvc.perform(get("/api/bookings/property/{propertyId}", testProperty.getId())
+                        .param("fields", "id, guestFirstName, guestLastName"))
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("$[0].*", hasSize(3)))
+                .andExpect(jsonPath("$[0].guestFirstName").value(testGuest.getFirstName()))
+                .andExpect(jsonPath("$[0].guestLastName").value(testGuest.getLastName()));
+    }
+
+    @Test
+    @DisplayName("Should return every field when no fields are requested")
+    void shouldReturnAllFieldsByDefault() throws Exception {
+        createBooking(startDate, startDate.plusDays(3), BookingStatus.CONFIRMED);
+
+        mockMvc.perform(get("/api/bookings/guest/{guestId}", testGuest.getId()))
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("$[0].*", hasSize(10)))
+                .andExpect(jsonPath("$[0].guestFirstName").value(testGuest.getFirstName()))
+                .andExpect(jsonPath("$[0].version").value(0))
+                .andExpect(jsonPath("$[0].archived").value(false));
+    }
+
+    @Test
+    @DisplayName("Should select fields of current and archived bookings and blocks")
+    void shouldSelectFieldsOfArchivedRows() throws Exception {
+        Booking past = createBooking(LocalDate.now().minusDays(20), LocalDate.now().minusDays(18), BookingStatus.CANCELED);
+        Booking upcoming = createBooking(startDate, startDate.plusDays(3), BookingStatus.CONFIRMED);
+        Block pastBlock = createBlock(LocalDate.now().minusDays(30), LocalDate.now().minusDays(29), "Repairs");
+        Block upcomingBlock = createBlock(startDate.plusDays(5), startDate.plusDays(6), "Holidays");
+        mockMvc.perform(post("/api/archive").param("before", LocalDate.now().toString()))
+                .andExpect(status().isOk());
+
+        mockMvc.perform(get("/api/bookings/guest/{guestId}", testGuest.getId())
+                        .param("fields", "id,status,archived")
+                        .param("includeArchived", "true"))
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("$", hasSize(2)))
+                .andExpect(jsonPath("$[?(@.archived == true)].id", contains(past.getId().toString())))
+                .andExpect(jsonPath("$[?(@.archived == true)].status", contains("CANCELED")))
+                .andExpect(jsonPath("$[?(@.archived == false)].id", contains(upcoming.getId().toString())))
+                .andExpect(jsonPath("$[*].startDate").isEmpty());
+
+        mockMvc.perform(get("/api/blocks/property/{propertyId}", testProperty.getId())
+                        .param("fields", "id,reason"))
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("$", hasSize(1)))
+                .andExpect(jsonPath("$[0].*", hasSize(2)))
+                .andExpect(jsonPath("$[0].id").value(upcomingBlock.getId().toString()))
+                .andExpect(jsonPath("$[0].reason").value("Holidays"));
+        mockMvc.perform(get("/api/blocks/property/{propertyId}", testProperty.getId())
+                        .param("fields", "id,archived")
+                        .param("includeArchived", "true"))
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("$[?(@.archived == true)].id", contains(pastBlock.getId().toString())));
+    }
+
+    @Test
+    @DisplayName("Should read every selectable field of current and archived rows")
+    void shouldReadEverySelectableField() throws Exception {
+        createBooking(LocalDate.now().minusDays(20), LocalDate.now().minusDays(18), BookingStatus.CANCELED);
+        createBlock(LocalDate.now().minusDays(30), LocalDate.now().minusDays(29), "Repairs");
+        mockMvc.perform(post("/api/archive").param("before", LocalDate.now().toString()))
+                .andExpect(status().isOk());
+        createBooking(startDate, startDate.plusDays(3), BookingStatus.CONFIRMED);
+        createBlock(startDate.plusDays(5), startDate.plusDays(6), "Holidays");
+
+        for (String field : BookingResponse.FIELDS) {
+            mockMvc.perform(get("/api/bookings/property/{propertyId}", testProperty.getId())
+                            .param("fields", field)
+                            .param("includeArchived", "true"))
+                    .andExpect(status().isOk())
+                    .andExpect(jsonPath("$[*].*", hasSize(2)))
+                    .andExpect(jsonPath("$[*]." + field, everyItem(notNullValue())));
+        }
+        for (String field : BlockResponse.FIELDS) {
+            mockMvc.perform(get("/api/blocks/property/{propertyId}", testProperty.getId())
+                            .param("fields", field)
+                            .param("includeArchived", "true"))
+                    .andExpect(status().isOk())
+                    .andExpect(jsonPath("$[*].*", hasSize(2)))
+                    .andExpect(jsonPath("$[*]." + field, everyItem(notNullValue())));
+        }
+    }
+
+    @Test
+    @DisplayName("Should reject unknown fields")
+    void shouldRejectUnknownFields() throws Exception {
+        mockMvc.perform(get("/api/bookings/property/{propertyId}", testProperty.getId())
+                        .param("fields", "id,guestEmail"))
+                .andExpect(status().isBadRequest())
+                .andExpect(jsonPath("$.message").value(containsString("Unknown field 'guestEmail'")));
+        mockMvc.perform(get("/api/blocks/property/{propertyId}", testProperty.getId())
+                        .param("fields", "status"))
+                .andExpect(status().isBadRequest())
+                .andExpect(jsonPath("$.message").value(containsString("Unknown field 'status'")));
+    }
+}
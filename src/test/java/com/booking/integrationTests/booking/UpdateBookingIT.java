@@ -198,6 +198,46 @@ class UpdateBookingIT extends BaseIntegrationTest {
                 .andExpect(jsonPath("$.message").value(containsString("Property is blocked")));
     }
 
+    @Test
+    @DisplayName("Should report the booking when new dates overlap both a booking and a block")
+    void shouldReportBookingBeforeBlock() throws Exception {
+        createBooking(
+                LocalDate.now().plusDays(15),
+                LocalDate.now().plusDays(17),
+                BookingStatus.CONFIRMED
+        );
+        createBlock(
+                LocalDate.now().plusDays(19),
+                LocalDate.now().plusDays(21),
+                "Maintenance"
+        );
+
+        BookingUpdateRequest request = new BookingUpdateRequest();
+        request.setStartDate(LocalDate.now().plusDays(16));
+        request.setEndDate(LocalDate.now().plusDays(20));
+
+        mockMvc.perform(patch("/api/bookings/{bookingId}", testBooking.getId())
+                        .contentType(MediaType.APPLICATION_JSON)
+                        .content(objectMapper.writeValueAsString(request)))
+                .andExpect(status().isBadRequest())
+                .andExpect(jsonPath("$.message").value(containsString("Property is already booked")));
+    }
+
+    @Test
+    @DisplayName("Should move booking onto dates overlapping only its own")
+    void shouldMoveBookingOverItsOwnDates() throws Exception {
+        BookingUpdateRequest request = new BookingUpdateRequest();
+        request.setStartDate(LocalDate.now().plusDays(7));
+        request.setEndDate(LocalDate.now().plusDays(12));
+
+        mockMvc.perform(patch("/api/bookings/{bookingId}", testBooking.getId())
+                        .contentType(MediaType.APPLICATION_JSON)
+                        .content(objectMapper.writeValueAsString(request)))
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("$.startDate").value(request.getStartDate().toString()))
+                .andExpect(jsonPath("$.endDate").value(request.getEndDate().toString()));
+    }
+
     @Test
     @DisplayName("Should fail when booking is canceled")
     void shouldFailWhenBookingIsCanceled() throws Exception {
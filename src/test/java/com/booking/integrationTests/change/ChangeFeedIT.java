@@ -0,0 +1,204 @@
+package com.booking.integrationTests.change;
+
+import com.booking.dto.BlockRequest;
+import com.booking.dto.BookingRequest;
+import com.booking.dto.BookingResponse;
+import com.booking.dto.ChangeFeedResponse;
+import com.booking.dto.ChangeResponse;
+import com.booking.integrationTests.BaseIntegrationTest;
+import com.booking.model.*;
+import com.booking.service.ChangeLogService;
+import org.assertj.core.api.Assertions;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.http.MediaType;
+import org.springframework.test.web.servlet.MvcResult;
+import org.springframework.transaction.annotation.Propagation;
+import org.springframework.transaction.annotation.Transactional;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.time.LocalDate;
+import java.util.UUID;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.TimeUnit;
+
+import static org.hamcrest.Matchers.*;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.*;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.*;
+
+@DisplayName("Change Feed Integration Tests")
+class ChangeFeedIT extends BaseIntegrationTest {
+
+    @Autowired
+    private ChangeLogService changeLogService;
+
+    @Autowired
+    private TransactionTemplate transactionTemplate;
+
+    @Test
+    @DisplayName("Should record a change for every booking mutation")
+    void shouldRecordChangeForEveryBookingMutation() throws Exception {
+        BookingResponse booking = createBookingViaApi(LocalDate.now().plusDays(5), LocalDate.now().plusDays(10));
+
+        mockMvc.perform(patch("/api/bookings/{bookingId}/cancel", booking.getId()))
+                .andExpect(status().isOk());
+        mockMvc.perform(delete("/api/bookings/{bookingId}", booking.getId()))
+                .andExpect(status().isNoContent());
+
+        ChangeFeedResponse feed = getChanges(0, 100);
+
+        Assertions.assertThat(feed.getChanges())
+                .extracting(ChangeResponse::getOperation)
+                .containsExactly(ChangeOperation.CREATED, ChangeOperation.UPDATED, ChangeOperation.DELETED);
+        Assertions.assertThat(feed.getChanges())
+                .allSatisfy(change -> {
+                    Assertions.assertThat(change.getEntityType()).isEqualTo(ChangeEntityType.BOOKING);
+                    Assertions.assertThat(change.getEntityId()).isEqualTo(booking.getId());
+                    Assertions.assertThat(change.getPropertyId()).isEqualTo(testProperty.getId());
+                });
+        Assertions.assertThat(feed.getChanges().get(1).getStatus()).isEqualTo(BookingStatus.CANCELED);
+        Assertions.assertThat(feed.isHasMore()).isFalse();
+    }
+
+    @Test
+    @DisplayName("Should record block changes with a snapshot of the block")
+    void shouldRecordBlockChanges() throws Exception {
+        BlockRequest request = BlockRequest.builder()
+                .ownerId(testOwner.getId())
+                .propertyId(testProperty.getId())
+                .startDate(LocalDate.now().plusDays(5))
+                .endDate(LocalDate.now().plusDays(10))
+                .reason("Maintenance")
+                .build();
+
+        mockMvc.perform(post("/api/blocks")
+                        .contentType(MediaType.APPLICATION_JSON)
+                        .content(objectMapper.writeValueAsString(request)))
+                .andExpect(status().isCreated());
+
+        ChangeFeedResponse feed = getChanges(0, 100);
+
+        Assertions.assertThat(feed.getChanges()).hasSize(1);
+        ChangeResponse change = feed.getChanges().get(0);
+        Assertions.assertThat(change.getEntityType()).isEqualTo(ChangeEntityType.BLOCK);
+        Assertions.assertThat(change.getOperation()).isEqualTo(ChangeOperation.CREATED);
+        Assertions.assertThat(change.getReason()).isEqualTo("Maintenance");
+        Assertions.assertThat(change.getStartDate()).isEqualTo(request.getStartDate());
+    }
+
+    @Test
+    @DisplayName("Should return only changes after the given sequence")
+    void shouldReturnOnlyChangesAfterSince() throws Exception {
+        createBookingViaApi(LocalDate.now().plusDays(5), LocalDate.now().plusDays(10));
+        ChangeFeedResponse first = getChanges(0, 100);
+
+        BookingResponse second = createBookingViaApi(LocalDate.now().plusDays(15), LocalDate.now().plusDays(20));
+        ChangeFeedResponse delta = getChanges(first.getNextSince(), 100);
+
+        Assertions.assertThat(delta.getChanges()).hasSize(1);
+        Assertions.assertThat(delta.getChanges().get(0).getEntityId()).isEqualTo(second.getId());
+        Assertions.assertThat(delta.getNextSince()).isGreaterThan(first.getNextSince());
+    }
+
+    @Test
+    @DisplayName("Should page through changes using limit and nextSince")
+    void shouldPageThroughChanges() throws Exception {
+        createBookingViaApi(LocalDate.now().plusDays(5), LocalDate.now().plusDays(10));
+        createBookingViaApi(LocalDate.now().plusDays(15), LocalDate.now().plusDays(20));
+        createBookingViaApi(LocalDate.now().plusDays(25), LocalDate.now().plusDays(30));
+
+        ChangeFeedResponse page1 = getChanges(0, 2);
+        ChangeFeedResponse page2 = getChanges(page1.getNextSince(), 2);
+
+        Assertions.assertThat(page1.getChanges()).hasSize(2);
+        Assertions.assertThat(page1.isHasMore()).isTrue();
+        Assertions.assertThat(page2.getChanges()).hasSize(1);
+        Assertions.assertThat(page2.isHasMore()).isFalse();
+    }
+
+    @Test
+    @DisplayName("Should filter changes by property")
+    void shouldFilterChangesByProperty() throws Exception {
+        createBookingViaApi(LocalDate.now().plusDays(5), LocalDate.now().plusDays(10));
+
+        mockMvc.perform(get("/api/changes").param("propertyId", UUID.randomUUID().toString()))
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("$.changes", hasSize(0)));
+    }
+
+    @Test
+    @Transactional(propagation = Propagation.NOT_SUPPORTED)
+    @DisplayName("Should not expose a change before the changes numbered ahead of it have committed")
+    void shouldPublishChangesInSequenceOrder() throws Exception {
+        Booking first = createBooking(LocalDate.now().plusDays(5), LocalDate.now().plusDays(10), BookingStatus.CONFIRMED);
+        Booking second = createBooking(LocalDate.now().plusDays(15), LocalDate.now().plusDays(20), BookingStatus.CONFIRMED);
+        CountDownLatch appended = new CountDownLatch(1);
+        CountDownLatch release = new CountDownLatch(1);
+
+        CompletableFuture<Void> slowWriter = CompletableFuture.runAsync(() -> transactionTemplate.executeWithoutResult(status -> {
+            changeLogService.recordBookingChange(first, ChangeOperation.UPDATED);
+            appended.countDown();
+            awaitQuietly(release);
+        }));
+        appended.await();
+        CompletableFuture<Void> fastWriter = CompletableFuture.runAsync(() -> transactionTemplate.executeWithoutResult(
+                status -> changeLogService.recordBookingChange(second, ChangeOperation.UPDATED)));
+
+        // The second writer commits without waiting, but its change is held back until the first one is final
+        fastWriter.get(10, TimeUnit.SECONDS);
+        Assertions.assertThat(getChanges(0, 100).getChanges()).isEmpty();
+
+        release.countDown();
+        slowWriter.get(10, TimeUnit.SECONDS);
+        Assertions.assertThat(getChanges(0, 100).getChanges())
+                .extracting(ChangeResponse::getEntityId)
+                .containsExactly(first.getId(), second.getId());
+    }
+
+    @Test
+    @DisplayName("Should fail when limit is out of range")
+    void shouldFailWhenLimitIsOutOfRange() throws Exception {
+        mockMvc.perform(get("/api/changes").param("limit", "0"))
+                .andExpect(status().isBadRequest())
+                .andExpect(jsonPath("$.message").value(containsString("limit")));
+    }
+
+    private static void awaitQuietly(CountDownLatch latch) {
+        try {
+            latch.await();
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+        }
+    }
+
+    private BookingResponse createBookingViaApi(LocalDate startDate, LocalDate endDate) throws Exception {
+        BookingRequest request = BookingRequest.builder()
+                .propertyId(testProperty.getId())
+                .guestEmail(testGuest.getEmail())
+                .guestFirstName(testGuest.getFirstName())
+                .guestLastName(testGuest.getLastName())
+                .startDate(startDate)
+                .endDate(endDate)
+                .build();
+
+        MvcResult result = mockMvc.perform(post("/api/bookings")
+                        .contentType(MediaType.APPLICATION_JSON)
+                        .content(objectMapper.writeValueAsString(request)))
+                .andExpect(status().isCreated())
+                .andReturn();
+
+        return objectMapper.readValue(result.getResponse().getContentAsString(), BookingResponse.class);
+    }
+
+    private ChangeFeedResponse getChanges(long since, int limit) throws Exception {
+        MvcResult result = mockMvc.perform(get("/api/changes")
+                        .param("since", String.valueOf(since))
+                        .param("limit", String.valueOf(limit)))
+                .andExpect(status().isOk())
+                .andReturn();
+
+        return objectMapper.readValue(result.getResponse().getContentAsString(), ChangeFeedResponse.class);
+    }
+}
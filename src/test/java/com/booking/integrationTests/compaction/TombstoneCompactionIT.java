@@ -0,0 +1,215 @@
+package com.booking.integrationTests.compaction;
+
+import com.booking.dto.BookingRequest;
+import com.booking.integrationTests.BaseIntegrationTest;
+import com.booking.model.Block;
+import com.booking.model.Booking;
+import com.booking.model.BookingStatus;
+import com.booking.model.RecurrenceFrequency;
+import com.booking.model.RecurringBlock;
+import com.booking.repository.BlockBatchRepository;
+import com.booking.repository.BookingBatchRepository;
+import org.assertj.core.api.Assertions;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.dao.OptimisticLockingFailureException;
+import org.springframework.http.MediaType;
+import org.springframework.transaction.annotation.Propagation;
+import org.springframework.transaction.annotation.Transactional;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.sql.Timestamp;
+import java.time.Duration;
+import java.time.Instant;
+import java.time.LocalDate;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+import java.util.UUID;
+
+import static org.hamcrest.Matchers.*;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.*;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.*;
+
+// Tombstones are read and aged with plain JDBC, so every change must be committed first
+@Transactional(propagation = Propagation.NOT_SUPPORTED)
+@DisplayName("Tombstone Compaction Integration Tests")
+class TombstoneCompactionIT extends BaseIntegrationTest {
+
+    @Autowired
+    private BookingBatchRepository bookingBatchRepository;
+
+    @Autowired
+    private BlockBatchRepository blockBatchRepository;
+
+    @Autowired
+    private TransactionTemplate transactionTemplate;
+
+    private LocalDate startDate;
+
+    @BeforeEach
+    void setUp() {
+        startDate = LocalDate.now().plusDays(10);
+    }
+
+    @Test
+    @DisplayName("Should keep a deleted booking as a tombstone that no query returns")
+    void shouldKeepTombstoneOfDeletedBooking() throws Exception {
+        Booking booking = createBooking(startDate, startDate.plusDays(3), BookingStatus.CONFIRMED);
+
+        mockMvc.perform(delete("/api/bookings/{bookingId}", booking.getId()))
+                .andExpect(status().isNoContent());
+
+        Map<String, Object> row = jdbcTemplate.queryForMap(
+                "SELECT deleted_at, version FROM booking WHERE id = ?", booking.getId());
+        Assertions.assertThat(row.get("DELETED_AT")).isNotNull();
+        Assertions.assertThat(row.get("VERSION")).isEqualTo(1L);
+
+        mockMvc.perform(get("/api/bookings/{bookingId}", booking.getId()))
+                .andExpect(status().isNotFound());
+        mockMvc.perform(get("/api/bookings/property/{propertyId}", testProperty.getId()))
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("$", empty()));
+        mockMvc.perform(get("/api/bookings/export").param("format", "csv"))
+                .andExpect(status().isOk())
+                .andExpect(content().string(not(containsString(booking.getId().toString()))));
+
+        // The tombstone does not hold the dates
+        BookingRequest request = BookingRequest.builder()
+                .propertyId(testProperty.getId())
+                .guestEmail(testGuest.getEmail())
+                .guestFirstName(testGuest.getFirstName())
+                .startDate(startDate)
+                .endDate(startDate.plusDays(3))
+                .build();
+        mockMvc.perform(post("/api/bookings")
+                        .contentType(MediaType.APPLICATION_JSON)
+                        .content(objectMapper.writeValueAsString(request)))
+                .andExpect(status().isCreated());
+    }
+
+    @Test
+    @DisplayName("Should keep tombstones of blocks deleted one by one and in bulk")
+    void shouldKeepTombstonesOfDeletedBlocks() throws Exception {
+        Block single = createBlock(startDate, startDate.plusDays(1), "Repairs");
+        Block bulk = createBlock(startDate.plusDays(5), startDate.plusDays(6), "Holidays");
+
+        mockMvc.perform(delete("/api/blocks/{blockId}", single.getId())
+                        .param("ownerId", testOwner.getId().toString()))
+                .andExpect(status().isNoContent());
+        mockMvc.perform(delete("/api/owners/{ownerId}/blocks", testOwner.getId())
+                        .param("from", startDate.plusDays(5).toString())
+                        .param("to", startDate.plusDays(6).toString()))
+                .andExpect(status().isOk());
+
+        Assertions.assertThat(jdbcTemplate.queryForList(
+                        "SELECT id FROM block WHERE deleted_at IS NOT NULL", UUID.class))
+                .containsExactlyInAnyOrder(single.getId(), bulk.getId());
+        Assertions.assertThat(blockRepository.count()).isZero();
+        mockMvc.perform(get("/api/blocks/property/{propertyId}", testProperty.getId()))
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("$", empty()));
+    }
+
+    @Test
+    @DisplayName("Should not delete blocks in bulk that changed since they were read")
+    void shouldRejectBulkDeleteOfChangedBlocks() {
+        Block first = createBlock(startDate, startDate.plusDays(1), "Repairs");
+        Block changed = createBlock(startDate.plusDays(5), startDate.plusDays(6), "Holidays");
+        jdbcTemplate.update("UPDATE block SET reason = 'Painting', version = version + 1 WHERE id = ?", changed.getId());
+
+        Assertions.assertThatThrownBy(() -> transactionTemplate.executeWithoutResult(status ->
+                        blockBatchRepository.softDeleteAll(List.of(first, changed))))
+                .isInstanceOf(OptimisticLockingFailureException.class)
+                .hasMessageContaining(changed.getId().toString());
+
+        Assertions.assertThat(blockRepository.count()).isEqualTo(2);
+    }
+
+    @Test
+    @DisplayName("Should find old tombstones through the deleted_at index")
+    void shouldSeekTombstonesThroughIndex() {
+        Assertions.assertThat(jdbcTemplate.queryForObject(
+                        "EXPLAIN SELECT id FROM booking WHERE deleted_at < CURRENT_TIMESTAMP LIMIT 10", String.class))
+                .containsIgnoringCase("IDX_BOOKING_DELETED_AT");
+        Assertions.assertThat(jdbcTemplate.queryForObject(
+                        "EXPLAIN SELECT id FROM block WHERE deleted_at < CURRENT_TIMESTAMP LIMIT 10", String.class))
+                .containsIgnoringCase("IDX_BLOCK_DELETED_AT");
+        Assertions.assertThat(jdbcTemplate.queryForObject(
+                        "EXPLAIN SELECT id FROM recurring_block WHERE deleted_at < CURRENT_TIMESTAMP LIMIT 10", String.class))
+                .containsIgnoringCase("IDX_RECURRING_BLOCK_DELETED_AT");
+    }
+
+    @Test
+    @DisplayName("Should purge only tombstones older than the retention window")
+    void shouldPurgeTombstonesPastRetention() throws Exception {
+        Booking old = createBooking(startDate, startDate.plusDays(1), BookingStatus.CONFIRMED);
+        Booking recent = createBooking(startDate.plusDays(3), startDate.plusDays(4), BookingStatus.CONFIRMED);
+        Booking live = createBooking(startDate.plusDays(6), startDate.plusDays(7), BookingStatus.CONFIRMED);
+        Block oldBlock = createBlock(startDate.plusDays(9), startDate.plusDays(9), "Repairs");
+        RecurringBlock oldRule = recurringBlockRepository.save(RecurringBlock.builder()
+                .propertyId(testProperty.getId())
+                .frequency(RecurrenceFrequency.DAILY)
+                .repeatInterval(7)
+                .startDate(startDate.plusDays(20))
+                .untilDate(startDate.plusDays(40))
+                .durationDays(1)
+                .lastBlockedDate(startDate.plusDays(40))
+                .reason("Cleaning")
+                .build());
+        bookingRepository.delete(old);
+        bookingRepository.delete(recent);
+        blockRepository.delete(oldBlock);
+        recurringBlockRepository.delete(oldRule);
+        age("booking", old.getId(), Duration.ofDays(8));
+        age("block", oldBlock.getId(), Duration.ofDays(8));
+        age("recurring_block", oldRule.getId(), Duration.ofDays(8));
+        age("booking", recent.getId(), Duration.ofDays(6));
+
+        mockMvc.perform(post("/api/compaction"))
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("$.bookingsPurged").value(1))
+                .andExpect(jsonPath("$.blocksPurged").value(1))
+                .andExpect(jsonPath("$.recurringBlocksPurged").value(1))
+                .andExpect(jsonPath("$.complete").value(true));
+
+        Assertions.assertThat(jdbcTemplate.queryForList("SELECT id FROM booking", UUID.class))
+                .containsExactlyInAnyOrder(recent.getId(), live.getId());
+        Assertions.assertThat(jdbcTemplate.queryForObject("SELECT COUNT(*) FROM block", Integer.class)).isZero();
+        Assertions.assertThat(jdbcTemplate.queryForObject("SELECT COUNT(*) FROM recurring_block", Integer.class)).isZero();
+    }
+
+    @Test
+    @DisplayName("Should purge tombstones in several batches")
+    void shouldPurgeInBatches() throws Exception {
+        List<Booking> bookings = new ArrayList<>();
+        for (int i = 0; i < 25_000; i++) {
+            bookings.add(Booking.builder()
+                    .id(UUID.randomUUID())
+                    .propertyId(testProperty.getId())
+                    .guestId(testGuest.getId())
+                    .startDate(startDate.plusDays(i))
+                    .endDate(startDate.plusDays(i))
+                    .status(BookingStatus.CONFIRMED)
+                    .version(0L)
+                    .build());
+        }
+        transactionTemplate.executeWithoutResult(status -> bookingBatchRepository.insertAll(bookings));
+        jdbcTemplate.update("UPDATE booking SET deleted_at = ?",
+                Timestamp.from(Instant.now().minus(Duration.ofDays(30))));
+
+        mockMvc.perform(post("/api/compaction"))
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("$.bookingsPurged").value(25_000))
+                .andExpect(jsonPath("$.complete").value(true));
+
+        Assertions.assertThat(jdbcTemplate.queryForObject("SELECT COUNT(*) FROM booking", Integer.class)).isZero();
+    }
+
+    private void age(String table, UUID id, Duration age) {
+        jdbcTemplate.update("UPDATE " + table + " SET deleted_at = ? WHERE id = ?",
+                Timestamp.from(Instant.now().minus(age)), id);
+    }
+}
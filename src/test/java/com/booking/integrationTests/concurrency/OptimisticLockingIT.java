@@ -0,0 +1,206 @@
+package com.booking.integrationTests.concurrency;
+
+import com.booking.dto.BlockUpdateRequest;
+import com.booking.dto.BookingUpdateRequest;
+import com.booking.integrationTests.BaseIntegrationTest;
+import com.booking.model.Block;
+import com.booking.model.Booking;
+import com.booking.model.BookingStatus;
+import org.assertj.core.api.Assertions;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.springframework.http.HttpHeaders;
+import org.springframework.http.MediaType;
+import org.springframework.test.context.TestPropertySource;
+import org.springframework.transaction.annotation.Propagation;
+import org.springframework.transaction.annotation.Transactional;
+
+import java.time.LocalDate;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+
+import static org.hamcrest.Matchers.containsString;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.*;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.*;
+
+// Version conflicts only surface between committed transactions, so every request commits on its own
+@Transactional(propagation = Propagation.NOT_SUPPORTED)
+@TestPropertySource(properties = {
+        "booking.conflict-retry.max-attempts=20",
+        "booking.conflict-retry.initial-backoff=5ms",
+        "booking.conflict-retry.max-backoff=50ms"
+})
+@DisplayName("Optimistic Locking Integration Tests")
+class OptimisticLockingIT extends BaseIntegrationTest {
+
+    private Booking testBooking;
+    private Block testBlock;
+
+    @BeforeEach
+    void setUp() {
+        testBooking = createBooking(LocalDate.now().plusDays(5), LocalDate.now().plusDays(10), BookingStatus.CONFIRMED);
+        testBlock = createBlock(LocalDate.now().plusDays(20), LocalDate.now().plusDays(25), "Maintenance");
+    }
+
+    @Test
+    @DisplayName("Should return the version as ETag when fetching a booking")
+    void shouldReturnVersionAsETag() throws Exception {
+        mockMvc.perform(get("/api/bookings/{bookingId}", testBooking.getId()))
+                .andExpect(status().isOk())
+                .andExpect(header().string(HttpHeaders.ETAG, "\"0\""))
+                .andExpect(jsonPath("$.version").value(0));
+    }
+
+    @Test
+    @DisplayName("Should update booking when If-Match matches the current version")
+    void shouldUpdateBookingWhenIfMatchMatches() throws Exception {
+        BookingUpdateRequest request = BookingUpdateRequest.builder()
+                .endDate(LocalDate.now().plusDays(12))
+                .build();
+
+        mockMvc.perform(patch("/api/bookings/{bookingId}", testBooking.getId())
+                        .header(HttpHeaders.IF_MATCH, "\"0\"")
+                        .contentType(MediaType.APPLICATION_JSON)
+                        .content(objectMapper.writeValueAsString(request)))
+                .andExpect(status().isOk())
+                .andExpect(header().string(HttpHeaders.ETAG, "\"1\""))
+                .andExpect(jsonPath("$.version").value(1));
+    }
+
+    @Test
+    @DisplayName("Should reject booking update with a stale If-Match version")
+    void shouldRejectBookingUpdateWithStaleVersion() throws Exception {
+        BookingUpdateRequest request = BookingUpdateRequest.builder()
+                .endDate(LocalDate.now().plusDays(12))
+                .build();
+
+        mockMvc.perform(patch("/api/bookings/{bookingId}", testBooking.getId())
+                        .contentType(MediaType.APPLICATION_JSON)
+                        .content(objectMapper.writeValueAsString(request)))
+                .andExpect(status().isOk());
+
+        mockMvc.perform(patch("/api/bookings/{bookingId}", testBooking.getId())
+                        .header(HttpHeaders.IF_MATCH, "\"0\"")
+                        .contentType(MediaType.APPLICATION_JSON)
+                        .content(objectMapper.writeValueAsString(request)))
+                .andExpect(status().isPreconditionFailed())
+                .andExpect(jsonPath("$.message").value(containsString("version 0 was expected")));
+    }
+
+    @Test
+    @DisplayName("Should reject cancel and rebook with a stale If-Match version")
+    void shouldRejectCancelAndRebookWithStaleVersion() throws Exception {
+        mockMvc.perform(patch("/api/bookings/{bookingId}/cancel", testBooking.getId())
+                        .header(HttpHeaders.IF_MATCH, "\"3\""))
+                .andExpect(status().isPreconditionFailed());
+
+        mockMvc.perform(patch("/api/bookings/{bookingId}/cancel", testBooking.getId())
+                        .header(HttpHeaders.IF_MATCH, "\"0\""))
+                .andExpect(status().isOk())
+                .andExpect(header().string(HttpHeaders.ETAG, "\"1\""));
+
+        mockMvc.perform(patch("/api/bookings/{bookingId}/rebook", testBooking.getId())
+                        .header(HttpHeaders.IF_MATCH, "\"0\""))
+                .andExpect(status().isPreconditionFailed());
+
+        Assertions.assertThat(bookingRepository.findById(testBooking.getId()).orElseThrow().getStatus())
+                .isEqualTo(BookingStatus.CANCELED);
+    }
+
+    @Test
+    @DisplayName("Should fail when If-Match is not a list of entity tags")
+    void shouldFailWhenIfMatchIsInvalid() throws Exception {
+        mockMvc.perform(patch("/api/bookings/{bookingId}/cancel", testBooking.getId())
+                        .header(HttpHeaders.IF_MATCH, "abc"))
+                .andExpect(status().isBadRequest())
+                .andExpect(jsonPath("$.message").value(containsString("If-Match")));
+    }
+
+    @Test
+    @DisplayName("Should accept If-Match when any tag of a list matches the current version")
+    void shouldAcceptIfMatchList() throws Exception {
+        mockMvc.perform(patch("/api/bookings/{bookingId}/cancel", testBooking.getId())
+                        .header(HttpHeaders.IF_MATCH, "\"3\", \"0\""))
+                .andExpect(status().isOk())
+                .andExpect(header().string(HttpHeaders.ETAG, "\"1\""));
+
+        mockMvc.perform(patch("/api/bookings/{bookingId}/rebook", testBooking.getId())
+                        .header(HttpHeaders.IF_MATCH, "\"2\",\"3\""))
+                .andExpect(status().isPreconditionFailed())
+                .andExpect(jsonPath("$.message").value(containsString("version 2 or 3 was expected")));
+    }
+
+    @Test
+    @DisplayName("Should reject If-Match with weak or foreign tags as a failed precondition")
+    void shouldRejectWeakIfMatch() throws Exception {
+        mockMvc.perform(patch("/api/bookings/{bookingId}/cancel", testBooking.getId())
+                        .header(HttpHeaders.IF_MATCH, "W/\"0\""))
+                .andExpect(status().isPreconditionFailed())
+                .andExpect(jsonPath("$.message").value(containsString("If-Match names no version")));
+
+        mockMvc.perform(patch("/api/bookings/{bookingId}/cancel", testBooking.getId())
+                        .header(HttpHeaders.IF_MATCH, "\"abc\""))
+                .andExpect(status().isPreconditionFailed());
+
+        mockMvc.perform(patch("/api/bookings/{bookingId}/cancel", testBooking.getId())
+                        .header(HttpHeaders.IF_MATCH, "W/\"0\", \"0\""))
+                .andExpect(status().isOk());
+    }
+
+    @Test
+    @DisplayName("Should reject block update with a stale If-Match version")
+    void shouldRejectBlockUpdateWithStaleVersion() throws Exception {
+        BlockUpdateRequest request = BlockUpdateRequest.builder()
+                .ownerId(testOwner.getId())
+                .reason("Renovation")
+                .build();
+
+        mockMvc.perform(patch("/api/blocks/{blockId}", testBlock.getId())
+                        .header(HttpHeaders.IF_MATCH, "\"1\"")
+                        .contentType(MediaType.APPLICATION_JSON)
+                        .content(objectMapper.writeValueAsString(request)))
+                .andExpect(status().isPreconditionFailed());
+
+        Assertions.assertThat(blockRepository.findById(testBlock.getId()).orElseThrow().getReason())
+                .isEqualTo("Maintenance");
+    }
+
+    @Test
+    @DisplayName("Should retry concurrent block updates without losing any of them")
+    void shouldRetryConcurrentBlockUpdates() throws Exception {
+        int writers = 8;
+        CountDownLatch start = new CountDownLatch(1);
+        List<Future<Integer>> statuses = new ArrayList<>();
+
+        try (ExecutorService executor = Executors.newFixedThreadPool(writers)) {
+            for (int i = 0; i < writers; i++) {
+                BlockUpdateRequest request = BlockUpdateRequest.builder()
+                        .ownerId(testOwner.getId())
+                        .reason("Update " + i)
+                        .build();
+                statuses.add(executor.submit(() -> {
+                    start.await();
+                    return mockMvc.perform(patch("/api/blocks/{blockId}", testBlock.getId())
+                                    .contentType(MediaType.APPLICATION_JSON)
+                                    .content(objectMapper.writeValueAsString(request)))
+                            .andReturn()
+                            .getResponse()
+                            .getStatus();
+                }));
+            }
+            start.countDown();
+
+            for (Future<Integer> status : statuses) {
+                Assertions.assertThat(status.get()).isEqualTo(200);
+            }
+        }
+
+        Assertions.assertThat(blockRepository.findById(testBlock.getId()).orElseThrow().getVersion())
+                .isEqualTo(writers);
+    }
+}
@@ -0,0 +1,123 @@
+package com.booking.integrationTests.datasource;
+
+import com.booking.config.ReplicaLagMonitor;
+import com.booking.integrationTests.BaseIntegrationTest;
+import com.booking.model.*;
+import org.assertj.core.api.Assertions;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Qualifier;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.test.context.TestPropertySource;
+import org.springframework.transaction.annotation.Propagation;
+import org.springframework.transaction.annotation.Transactional;
+
+import javax.sql.DataSource;
+import java.time.LocalDate;
+import java.util.List;
+
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.*;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.*;
+
+// Replication is simulated by copying the primary H2 database into the replica, so data must be committed
+@Transactional(propagation = Propagation.NOT_SUPPORTED)
+@TestPropertySource(properties = {
+        "booking.datasource.replica.enabled=true",
+        "booking.datasource.replica.url=jdbc:h2:mem:replicadb",
+        "booking.datasource.replica.username=sa",
+        "booking.datasource.replica.password=",
+        "booking.datasource.replica.max-staleness=0s",
+        "booking.datasource.replica.lag-check-interval=1h"
+})
+@DisplayName("Read/Write Routing Integration Tests")
+class ReadWriteRoutingIT extends BaseIntegrationTest {
+
+    @Autowired
+    @Qualifier("primaryDataSource")
+    private DataSource primaryDataSource;
+
+    @Autowired
+    @Qualifier("replicaDataSource")
+    private DataSource replicaDataSource;
+
+    @Autowired
+    private ReplicaLagMonitor replicaLagMonitor;
+
+    private Booking testBooking;
+
+    @BeforeEach
+    void setUp() {
+        testBooking = createBooking(LocalDate.now().plusDays(5), LocalDate.now().plusDays(10), BookingStatus.CONFIRMED);
+        changeEventRepository.save(ChangeEvent.builder()
+                .entityType(ChangeEntityType.BOOKING)
+                .operation(ChangeOperation.CREATED)
+                .entityId(testBooking.getId())
+                .propertyId(testBooking.getPropertyId())
+                .build());
+        copyPrimaryToReplica();
+        replicaLagMonitor.checkLag();
+    }
+
+    @Test
+    @DisplayName("Should serve read-only requests from a fresh replica")
+    void shouldServeReadsFromFreshReplica() throws Exception {
+        new JdbcTemplate(replicaDataSource).update("UPDATE guest SET first_name = 'Replica' WHERE id = ?", testGuest.getId());
+
+        mockMvc.perform(get("/api/bookings/{bookingId}", testBooking.getId()))
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("$.guestFirstName").value("Replica"));
+    }
+
+    @Test
+    @DisplayName("Should send writes to the primary")
+    void shouldSendWritesToPrimary() throws Exception {
+        mockMvc.perform(patch("/api/bookings/{bookingId}/cancel", testBooking.getId()))
+                .andExpect(status().isOk());
+
+        String primaryStatus = new JdbcTemplate(primaryDataSource)
+                .queryForObject("SELECT status FROM booking WHERE id = ?", String.class, testBooking.getId());
+        String replicaStatus = new JdbcTemplate(replicaDataSource)
+                .queryForObject("SELECT status FROM booking WHERE id = ?", String.class, testBooking.getId());
+        Assertions.assertThat(primaryStatus).isEqualTo("CANCELED");
+        Assertions.assertThat(replicaStatus).isEqualTo("CONFIRMED");
+    }
+
+    @Test
+    @DisplayName("Should fall back to the primary when the replica is too stale")
+    void shouldFallBackToPrimaryWhenReplicaIsStale() throws Exception {
+        mockMvc.perform(patch("/api/bookings/{bookingId}/cancel", testBooking.getId()))
+                .andExpect(status().isOk());
+        replicaLagMonitor.checkLag();
+
+        Assertions.assertThat(replicaLagMonitor.isReplicaFresh()).isFalse();
+        mockMvc.perform(get("/api/bookings/{bookingId}", testBooking.getId()))
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("$.status").value("CANCELED"));
+    }
+
+    @Test
+    @DisplayName("Should route reads to the replica again once it catches up")
+    void shouldRouteToReplicaAgainOnceCaughtUp() throws Exception {
+        mockMvc.perform(patch("/api/bookings/{bookingId}/cancel", testBooking.getId()))
+                .andExpect(status().isOk());
+        replicaLagMonitor.checkLag();
+        Assertions.assertThat(replicaLagMonitor.isReplicaFresh()).isFalse();
+
+        copyPrimaryToReplica();
+        replicaLagMonitor.checkLag();
+
+        Assertions.assertThat(replicaLagMonitor.isReplicaFresh()).isTrue();
+        mockMvc.perform(get("/api/bookings/{bookingId}", testBooking.getId()))
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("$.status").value("CANCELED"));
+    }
+
+    private void copyPrimaryToReplica() {
+        List<String> script = new JdbcTemplate(primaryDataSource).queryForList("SCRIPT", String.class);
+        JdbcTemplate replica = new JdbcTemplate(replicaDataSource);
+        replica.execute("DROP ALL OBJECTS");
+        script.forEach(replica::execute);
+    }
+}
@@ -0,0 +1,209 @@
+package com.booking.integrationTests.hold;
+
+import com.booking.dto.BlockRequest;
+import com.booking.dto.BookingRequest;
+import com.booking.dto.HoldResponse;
+import com.booking.hold.HoldRegistry;
+import com.booking.integrationTests.BaseIntegrationTest;
+import com.booking.model.BookingStatus;
+import org.assertj.core.api.Assertions;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.http.MediaType;
+import org.springframework.test.context.TestPropertySource;
+import org.springframework.test.web.servlet.MvcResult;
+import org.springframework.test.web.servlet.RequestBuilder;
+
+import java.time.LocalDate;
+import java.util.UUID;
+
+import static org.hamcrest.Matchers.containsString;
+import static org.hamcrest.Matchers.notNullValue;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.*;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.*;
+
+@TestPropertySource(properties = {
+        "booking.holds.ttl=1s",
+        "booking.holds.tick-duration=10ms"
+})
+@DisplayName("Booking Hold Integration Tests")
+class HoldIT extends BaseIntegrationTest {
+
+    @Autowired
+    private HoldRegistry holdRegistry;
+
+    @Test
+    @DisplayName("Should place a hold that keeps other bookings, holds and blocks off its dates")
+    void shouldPlaceHoldThatBlocksItsDates() throws Exception {
+        LocalDate startDate = LocalDate.now().plusDays(5);
+        HoldResponse hold = createHoldViaApi(startDate, startDate.plusDays(3));
+
+        Assertions.assertThat(hold.getExpiresAt()).isNotNull();
+        mockMvc.perform(bookingRequest("/api/bookings", startDate.plusDays(2), startDate.plusDays(4)))
+                .andExpect(status().isBadRequest())
+                .andExpect(jsonPath("$.message").value(containsString("Property is on hold")));
+        mockMvc.perform(bookingRequest("/api/holds", startDate.minusDays(1), startDate))
+                .andExpect(status().isBadRequest())
+                .andExpect(jsonPath("$.message").value(containsString("Property is on hold")));
+        mockMvc.perform(post("/api/blocks")
+                        .contentType(MediaType.APPLICATION_JSON)
+                        .content(objectMapper.writeValueAsString(BlockRequest.builder()
+                                .ownerId(testOwner.getId())
+                                .propertyId(testProperty.getId())
+                                .startDate(startDate.plusDays(3))
+                                .endDate(startDate.plusDays(6))
+                                .reason("Maintenance")
+                                .build())))
+                .andExpect(status().isBadRequest())
+                .andExpect(jsonPath("$.message").value(containsString("Property is on hold")));
+
+        mockMvc.perform(bookingRequest("/api/bookings", startDate.plusDays(4), startDate.plusDays(6)))
+                .andExpect(status().isCreated());
+    }
+
+    @Test
+    @DisplayName("Should not place a hold on booked dates")
+    void shouldNotPlaceHoldOnBookedDates() throws Exception {
+        LocalDate startDate = LocalDate.now().plusDays(5);
+        createBooking(startDate, startDate.plusDays(3), BookingStatus.CONFIRMED);
+
+        mockMvc.perform(bookingRequest("/api/holds", startDate.plusDays(1), startDate.plusDays(2)))
+                .andExpect(status().isBadRequest())
+                .andExpect(jsonPath("$.message").value(containsString("Property is already booked")));
+
+        mockMvc.perform(bookingRequest("/api/holds", startDate, startDate.minusDays(1)))
+                .andExpect(status().isBadRequest())
+                .andExpect(jsonPath("$.message").value(containsString("Start date must be before end date")));
+    }
+
+    @Test
+    @DisplayName("Should confirm a hold into a confirmed booking")
+    void shouldConfirmHold() throws Exception {
+        LocalDate startDate = LocalDate.now().plusDays(5);
+        HoldResponse hold = createHoldViaApi(startDate, startDate.plusDays(3));
+
+        mockMvc.perform(post("/api/holds/{holdId}/confirm", hold.getId()))
+                .andExpect(status().isCreated())
+                .andExpect(jsonPath("$.id").value(notNullValue()))
+                .andExpect(jsonPath("$.status").value(BookingStatus.CONFIRMED.name()))
+                .andExpect(jsonPath("$.startDate").value(startDate.toString()))
+                .andExpect(jsonPath("$.guestFirstName").value(testGuest.getFirstName()));
+
+        mockMvc.perform(get("/api/holds/{holdId}", hold.getId()))
+                .andExpect(status().isNotFound());
+        mockMvc.perform(post("/api/holds/{holdId}/confirm", hold.getId()))
+                .andExpect(status().isNotFound());
+        Assertions.assertThat(bookingRepository.findByPropertyId(testProperty.getId())).hasSize(1);
+    }
+
+    @Test
+    @DisplayName("Should keep a hold placed while it is confirmed and after a failed confirmation")
+    void shouldKeepHoldPlacedUntilBookingCommits() throws Exception {
+        LocalDate startDate = LocalDate.now().plusDays(5);
+        HoldResponse hold = createHoldViaApi(startDate, startDate.plusDays(3));
+
+        Assertions.assertThat(holdRegistry.beginConfirm(hold.getId())).isPresent();
+        mockMvc.perform(bookingRequest("/api/bookings", startDate.plusDays(1), startDate.plusDays(2)))
+                .andExpect(status().isBadRequest())
+                .andExpect(jsonPath("$.message").value(containsString("Property is on hold")));
+        mockMvc.perform(post("/api/holds/{holdId}/confirm", hold.getId()))
+                .andExpect(status().isBadRequest())
+                .andExpect(jsonPath("$.message").value(containsString("already being confirmed")));
+        holdRegistry.endConfirm(hold.getId());
+
+        // A booking that got past the checks fails the confirmation, which leaves the hold in place
+        createBooking(startDate.plusDays(2), startDate.plusDays(2), BookingStatus.CONFIRMED);
+        mockMvc.perform(post("/api/holds/{holdId}/confirm", hold.getId()))
+                .andExpect(status().isBadRequest())
+                .andExpect(jsonPath("$.message").value(containsString("already booked")));
+        mockMvc.perform(get("/api/holds/{holdId}", hold.getId()))
+                .andExpect(status().isOk());
+        Assertions.assertThat(holdRegistry.isHeld(testProperty.getId(), startDate, startDate)).isTrue();
+    }
+
+    @Test
+    @DisplayName("Should free the dates when a hold is released")
+    void shouldFreeDatesWhenHoldIsReleased() throws Exception {
+        LocalDate startDate = LocalDate.now().plusDays(5);
+        HoldResponse hold = createHoldViaApi(startDate, startDate.plusDays(3));
+
+        mockMvc.perform(delete("/api/holds/{holdId}", hold.getId()))
+                .andExpect(status().isNoContent());
+        mockMvc.perform(delete("/api/holds/{holdId}", hold.getId()))
+                .andExpect(status().isNotFound());
+
+        mockMvc.perform(bookingRequest("/api/bookings", startDate, startDate.plusDays(3)))
+                .andExpect(status().isCreated());
+    }
+
+    @Test
+    @DisplayName("Should expire a hold after its time to live")
+    void shouldExpireHold() throws Exception {
+        LocalDate startDate = LocalDate.now().plusDays(5);
+        HoldResponse hold = createHoldViaApi(startDate, startDate.plusDays(3));
+
+        mockMvc.perform(get("/api/holds/{holdId}", hold.getId()))
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("$.propertyId").value(testProperty.getId().toString()));
+
+        Thread.sleep(1_200);
+
+        mockMvc.perform(get("/api/holds/{holdId}", hold.getId()))
+                .andExpect(status().isNotFound());
+        mockMvc.perform(post("/api/holds/{holdId}/confirm", hold.getId()))
+                .andExpect(status().isNotFound())
+                .andExpect(jsonPath("$.message").value(containsString("expired")));
+        mockMvc.perform(bookingRequest("/api/bookings", startDate, startDate.plusDays(3)))
+                .andExpect(status().isCreated());
+    }
+
+    @Test
+    @DisplayName("Should fail when the hold does not exist")
+    void shouldFailWhenHoldDoesNotExist() throws Exception {
+        mockMvc.perform(post("/api/holds/{holdId}/confirm", UUID.randomUUID()))
+                .andExpect(status().isNotFound());
+    }
+
+    @Test
+    @DisplayName("Should not place a hold on a property that does not exist")
+    void shouldNotPlaceHoldOnMissingProperty() throws Exception {
+        BookingRequest request = BookingRequest.builder()
+                .propertyId(UUID.randomUUID())
+                .guestEmail(testGuest.getEmail())
+                .guestFirstName(testGuest.getFirstName())
+                .guestLastName(testGuest.getLastName())
+                .startDate(LocalDate.now().plusDays(5))
+                .endDate(LocalDate.now().plusDays(8))
+                .build();
+
+        mockMvc.perform(post("/api/holds")
+                        .contentType(MediaType.APPLICATION_JSON)
+                        .content(objectMapper.writeValueAsString(request)))
+                .andExpect(status().isNotFound())
+                .andExpect(jsonPath("$.message").value(containsString("Property not found")));
+    }
+
+    private HoldResponse createHoldViaApi(LocalDate startDate, LocalDate endDate) throws Exception {
+        MvcResult result = mockMvc.perform(bookingRequest("/api/holds", startDate, endDate))
+                .andExpect(status().isCreated())
+                .andReturn();
+
+        return objectMapper.readValue(result.getResponse().getContentAsString(), HoldResponse.class);
+    }
+
+    private RequestBuilder bookingRequest(String path, LocalDate startDate, LocalDate endDate) throws Exception {
+        BookingRequest request = BookingRequest.builder()
+                .propertyId(testProperty.getId())
+                .guestEmail(testGuest.getEmail())
+                .guestFirstName(testGuest.getFirstName())
+                .guestLastName(testGuest.getLastName())
+                .startDate(startDate)
+                .endDate(endDate)
+                .build();
+
+        return post(path)
+                .contentType(MediaType.APPLICATION_JSON)
+                .content(objectMapper.writeValueAsString(request));
+    }
+}
@@ -0,0 +1,172 @@
+package com.booking.integrationTests.owner;
+
+import com.booking.dto.OwnerBlockRequest;
+import com.booking.integrationTests.BaseIntegrationTest;
+import com.booking.model.Block;
+import com.booking.model.BookingStatus;
+import com.booking.model.ChangeOperation;
+import com.booking.model.Owner;
+import com.booking.model.Property;
+import org.assertj.core.api.Assertions;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.springframework.http.MediaType;
+import org.springframework.test.web.servlet.ResultActions;
+
+import java.time.LocalDate;
+import java.util.List;
+import java.util.UUID;
+
+import static org.hamcrest.Matchers.*;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.*;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.*;
+
+@DisplayName("Owner Bulk Block Integration Tests")
+class OwnerBlocksIT extends BaseIntegrationTest {
+
+    private Property secondProperty;
+    private Property foreignProperty;
+    private LocalDate startDate;
+
+    @BeforeEach
+    void setUp() {
+        secondProperty = propertyRepository.save(Property.builder()
+                .name("Second Property")
+                .ownerId(testOwner.getId())
+                .build());
+        Owner otherOwner = createOwner("Other", "Owner", "other.owner@example.com", "+1987654321");
+        foreignProperty = propertyRepository.save(Property.builder()
+                .name("Foreign Property")
+                .ownerId(otherOwner.getId())
+                .build());
+        startDate = LocalDate.now().plusDays(30);
+    }
+
+    @Test
+    @DisplayName("Should block every property of the owner when none are selected")
+    void shouldBlockEveryPropertyOfOwner() throws Exception {
+        createBlocks(testOwner.getId(), blockRequest(null))
+                .andExpect(status().isCreated())
+                .andExpect(jsonPath("$", hasSize(2)))
+                .andExpect(jsonPath("$[*].propertyId", containsInAnyOrder(
+                        testProperty.getId().toString(), secondProperty.getId().toString())))
+                .andExpect(jsonPath("$[*].reason", everyItem(is("Winter maintenance"))))
+                .andExpect(jsonPath("$[*].version", everyItem(is(0))));
+
+        Assertions.assertThat(blockRepository.findByPropertyId(foreignProperty.getId())).isEmpty();
+        Assertions.assertThat(changeEventRepository.findAll())
+                .hasSize(2)
+                .allSatisfy(change -> Assertions.assertThat(change.getOperation()).isEqualTo(ChangeOperation.CREATED));
+
+        // The batched blocks are regular blocks afterwards
+        mockMvc.perform(get("/api/blocks/property/{propertyId}", secondProperty.getId()))
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("$[0].startDate").value(startDate.toString()));
+    }
+
+    @Test
+    @DisplayName("Should block only the selected properties")
+    void shouldBlockSelectedProperties() throws Exception {
+        createBlocks(testOwner.getId(), blockRequest(List.of(secondProperty.getId())))
+                .andExpect(status().isCreated())
+                .andExpect(jsonPath("$", hasSize(1)))
+                .andExpect(jsonPath("$[0].propertyId").value(secondProperty.getId().toString()));
+
+        Assertions.assertThat(blockRepository.findByPropertyId(testProperty.getId())).isEmpty();
+    }
+
+    @Test
+    @DisplayName("Should block nothing when one property is booked")
+    void shouldBlockNothingWhenOnePropertyIsBooked() throws Exception {
+        createBooking(startDate.plusDays(3), startDate.plusDays(5), BookingStatus.CONFIRMED);
+
+        createBlocks(testOwner.getId(), blockRequest(null))
+                .andExpect(status().isBadRequest())
+                .andExpect(jsonPath("$.message").value(containsString("not available")))
+                .andExpect(jsonPath("$.message").value(containsString(testProperty.getId().toString())));
+
+        Assertions.assertThat(blockRepository.count()).isZero();
+        Assertions.assertThat(changeEventRepository.count()).isZero();
+    }
+
+    @Test
+    @DisplayName("Should reject properties of another owner and unknown owners")
+    void shouldCheckOwnership() throws Exception {
+        createBlocks(testOwner.getId(), blockRequest(List.of(testProperty.getId(), foreignProperty.getId())))
+                .andExpect(status().isBadRequest())
+                .andExpect(jsonPath("$.message").value(containsString("not authorized")));
+
+        createBlocks(testOwner.getId(), blockRequest(List.of(UUID.randomUUID())))
+                .andExpect(status().isNotFound());
+
+        createBlocks(UUID.randomUUID(), blockRequest(null))
+                .andExpect(status().isNotFound())
+                .andExpect(jsonPath("$.message").value(containsString("Owner not found")));
+
+        createBlocks(testOwner.getId(), blockRequest(List.of(testProperty.getId(), testProperty.getId())))
+                .andExpect(status().isBadRequest())
+                .andExpect(jsonPath("$.message").value(containsString("only be listed once")));
+
+        Assertions.assertThat(blockRepository.count()).isZero();
+    }
+
+    @Test
+    @DisplayName("Should delete the owner's blocks inside the range")
+    void shouldDeleteBlocksInsideRange() throws Exception {
+        createBlocks(testOwner.getId(), blockRequest(null))
+                .andExpect(status().isCreated());
+        createBlock(startDate.plusDays(20), startDate.plusDays(40), "Renovation");
+        blockRepository.save(Block.builder()
+                .propertyId(foreignProperty.getId())
+                .startDate(startDate)
+                .endDate(startDate.plusDays(5))
+                .build());
+
+        mockMvc.perform(delete("/api/owners/{ownerId}/blocks", testOwner.getId())
+                        .param("from", startDate.toString())
+                        .param("to", startDate.plusDays(30).toString()))
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("$.deleted").value(2));
+
+        // The block reaching past the range and the other owner's block stay
+        Assertions.assertThat(blockRepository.findAll())
+                .extracting(Block::getReason)
+                .containsExactlyInAnyOrder("Renovation", null);
+        Assertions.assertThat(changeEventRepository.findAll())
+                .filteredOn(change -> change.getOperation() == ChangeOperation.DELETED)
+                .hasSize(2);
+    }
+
+    @Test
+    @DisplayName("Should delete blocks of the selected properties only")
+    void shouldDeleteBlocksOfSelectedProperties() throws Exception {
+        createBlocks(testOwner.getId(), blockRequest(null))
+                .andExpect(status().isCreated());
+
+        mockMvc.perform(delete("/api/owners/{ownerId}/blocks", testOwner.getId())
+                        .param("from", startDate.toString())
+                        .param("to", startDate.plusDays(10).toString())
+                        .param("propertyIds", secondProperty.getId().toString()))
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("$.deleted").value(1));
+
+        Assertions.assertThat(blockRepository.findByPropertyId(testProperty.getId())).hasSize(1);
+        Assertions.assertThat(blockRepository.findByPropertyId(secondProperty.getId())).isEmpty();
+    }
+
+    private OwnerBlockRequest blockRequest(List<UUID> propertyIds) {
+        return OwnerBlockRequest.builder()
+                .propertyIds(propertyIds)
+                .startDate(startDate)
+                .endDate(startDate.plusDays(10))
+                .reason("Winter maintenance")
+                .build();
+    }
+
+    private ResultActions createBlocks(UUID ownerId, OwnerBlockRequest request) throws Exception {
+        return mockMvc.perform(post("/api/owners/{ownerId}/blocks", ownerId)
+                .contentType(MediaType.APPLICATION_JSON)
+                .content(objectMapper.writeValueAsString(request)));
+    }
+}
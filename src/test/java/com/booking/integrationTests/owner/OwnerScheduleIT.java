@@ -0,0 +1,166 @@
+package com.booking.integrationTests.owner;
+
+import com.booking.integrationTests.BaseIntegrationTest;
+import com.booking.model.Block;
+import com.booking.model.Booking;
+import com.booking.model.BookingStatus;
+import com.booking.model.Owner;
+import com.booking.model.Property;
+import com.booking.model.RecurrenceFrequency;
+import com.booking.model.RecurringBlock;
+import com.fasterxml.jackson.databind.JsonNode;
+import org.assertj.core.api.Assertions;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.springframework.http.HttpHeaders;
+import org.springframework.http.MediaType;
+import org.springframework.test.web.servlet.MvcResult;
+import org.springframework.transaction.annotation.Propagation;
+import org.springframework.transaction.annotation.Transactional;
+
+import java.time.LocalDate;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.UUID;
+
+import static org.hamcrest.Matchers.*;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.*;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.*;
+
+// The streaming variant reads on an async thread with its own connection, so test data must be committed
+@Transactional(propagation = Propagation.NOT_SUPPORTED)
+@DisplayName("Owner Schedule Integration Tests")
+class OwnerScheduleIT extends BaseIntegrationTest {
+
+    private LocalDate from;
+    private Property secondProperty;
+    private Property emptyProperty;
+    private Booking booking;
+    private Block block;
+
+    @BeforeEach
+    void setUp() {
+        from = LocalDate.now().plusDays(10);
+        secondProperty = propertyRepository.save(Property.builder()
+                .name("Second Property")
+                .ownerId(testOwner.getId())
+                .build());
+        emptyProperty = propertyRepository.save(Property.builder()
+                .name("Empty Property")
+                .ownerId(testOwner.getId())
+                .build());
+
+        Owner otherOwner = createOwner("Other", "Owner", "other.owner@example.com", "+1987654321");
+        Property foreignProperty = propertyRepository.save(Property.builder()
+                .name("Foreign Property")
+                .ownerId(otherOwner.getId())
+                .build());
+        bookingRepository.save(Booking.builder()
+                .propertyId(foreignProperty.getId())
+                .guestId(testGuest.getId())
+                .startDate(from)
+                .endDate(from.plusDays(2))
+                .status(BookingStatus.CONFIRMED)
+                .build());
+
+        booking = createBooking(from, from.plusDays(3), BookingStatus.CONFIRMED);
+        createBooking(from.plusDays(40), from.plusDays(42), BookingStatus.CONFIRMED);
+        block = blockRepository.save(Block.builder()
+                .propertyId(secondProperty.getId())
+                .startDate(from.plusDays(5))
+                .endDate(from.plusDays(6))
+                .reason("Maintenance")
+                .build());
+        recurringBlockRepository.save(RecurringBlock.builder()
+                .propertyId(secondProperty.getId())
+                .frequency(RecurrenceFrequency.DAILY)
+                .repeatInterval(7)
+                .startDate(from)
+                .untilDate(from.plusDays(60))
+                .durationDays(1)
+                .lastBlockedDate(from.plusDays(60))
+                .reason("Cleaning")
+                .build());
+    }
+
+    @Test
+    @DisplayName("Should return bookings with guest names and blocks of every property of the owner")
+    void shouldReturnScheduleOfEveryProperty() throws Exception {
+        mockMvc.perform(get("/api/owners/{ownerId}/schedule", testOwner.getId())
+                        .param("from", from.toString())
+                        .param("to", from.plusDays(20).toString()))
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("$.ownerId").value(testOwner.getId().toString()))
+                .andExpect(jsonPath("$.properties", hasSize(3)))
+                .andExpect(jsonPath("$.properties[*].propertyName", contains("Empty Property", "Second Property", "Test Property")))
+                .andExpect(jsonPath("$.properties[0].bookings", empty()))
+                .andExpect(jsonPath("$.properties[0].blocks", empty()))
+                .andExpect(jsonPath("$.properties[1].bookings", empty()))
+                .andExpect(jsonPath("$.properties[1].blocks[0].id").value(block.getId().toString()))
+                .andExpect(jsonPath("$.properties[1].recurringBlockOccurrences", hasSize(3)))
+                .andExpect(jsonPath("$.properties[1].recurringBlockOccurrences[1].startDate").value(from.plusDays(7).toString()))
+                .andExpect(jsonPath("$.properties[2].bookings", hasSize(1)))
+                .andExpect(jsonPath("$.properties[2].bookings[0].id").value(booking.getId().toString()))
+                .andExpect(jsonPath("$.properties[2].bookings[0].guestFirstName").value("Test"))
+                .andExpect(jsonPath("$.properties[2].bookings[0].guestLastName").value("Guest"));
+    }
+
+    @Test
+    @DisplayName("Should stream one property per line when NDJSON is requested")
+    void shouldStreamSchedule() throws Exception {
+        MvcResult result = mockMvc.perform(get("/api/owners/{ownerId}/schedule", testOwner.getId())
+                        .header(HttpHeaders.ACCEPT, "application/x-ndjson")
+                        .param("from", from.toString())
+                        .param("to", from.plusDays(60).toString()))
+                .andExpect(request().asyncStarted())
+                .andReturn();
+
+        String body = mockMvc.perform(asyncDispatch(result))
+                .andExpect(status().isOk())
+                .andExpect(header().string("Content-Type", startsWith("application/x-ndjson")))
+                .andReturn()
+                .getResponse()
+                .getContentAsString();
+
+        List<JsonNode> lines = new ArrayList<>();
+        for (String line : body.split("\n")) {
+            lines.add(objectMapper.readTree(line));
+        }
+        Assertions.assertThat(lines)
+                .extracting(line -> UUID.fromString(line.get("propertyId").asText()))
+                .containsExactly(emptyProperty.getId(), secondProperty.getId(), testProperty.getId());
+        Assertions.assertThat(lines.get(2).get("bookings")).hasSize(2);
+        Assertions.assertThat(lines.get(1).get("recurringBlockOccurrences")).hasSize(9);
+    }
+
+    @Test
+    @DisplayName("Should validate the owner and the window")
+    void shouldValidateOwnerAndWindow() throws Exception {
+        mockMvc.perform(get("/api/owners/{ownerId}/schedule", UUID.randomUUID())
+                        .param("to", from.toString()))
+                .andExpect(status().isNotFound())
+                .andExpect(jsonPath("$.message").value(containsString("Owner not found")));
+
+        mockMvc.perform(get("/api/owners/{ownerId}/schedule", testOwner.getId())
+                        .param("from", from.toString())
+                        .param("to", from.minusDays(1).toString()))
+                .andExpect(status().isBadRequest())
+                .andExpect(jsonPath("$.message").value(containsString("must not be after")));
+
+        mockMvc.perform(get("/api/owners/{ownerId}/schedule", testOwner.getId())
+                        .param("from", from.toString())
+                        .param("to", from.plusDays(400).toString()))
+                .andExpect(status().isBadRequest())
+                .andExpect(jsonPath("$.message").value(containsString("cannot be longer than")));
+    }
+
+    @Test
+    @DisplayName("Should report a missing owner before streaming starts")
+    void shouldValidateBeforeStreaming() throws Exception {
+        mockMvc.perform(get("/api/owners/{ownerId}/schedule", UUID.randomUUID())
+                        .header(HttpHeaders.ACCEPT, "application/x-ndjson", MediaType.APPLICATION_JSON_VALUE)
+                        .param("to", from.toString()))
+                .andExpect(status().isNotFound());
+    }
+}
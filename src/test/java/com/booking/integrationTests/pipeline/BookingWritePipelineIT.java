@@ -0,0 +1,154 @@
+package com.booking.integrationTests.pipeline;
+
+import com.booking.dto.BookingRequest;
+import com.booking.dto.BookingResponse;
+import com.booking.integrationTests.BaseIntegrationTest;
+import com.booking.model.ChangeOperation;
+import com.booking.model.Property;
+import org.assertj.core.api.Assertions;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.springframework.http.MediaType;
+import org.springframework.test.context.TestPropertySource;
+import org.springframework.test.web.servlet.MvcResult;
+import org.springframework.test.web.servlet.RequestBuilder;
+import org.springframework.transaction.annotation.Propagation;
+import org.springframework.transaction.annotation.Transactional;
+
+import java.time.LocalDate;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.UUID;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+
+import static org.hamcrest.Matchers.containsString;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.*;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.*;
+
+// Bookings are committed by the pipeline thread in its own transaction, so test data must be committed
+@Transactional(propagation = Propagation.NOT_SUPPORTED)
+@TestPropertySource(properties = {
+        "booking.write-pipeline.enabled=true",
+        "booking.write-pipeline.window=20ms",
+        "booking.occupancy-claims.enabled=true"
+})
+@DisplayName("Booking Write Pipeline Integration Tests")
+class BookingWritePipelineIT extends BaseIntegrationTest {
+
+    @Test
+    @DisplayName("Should create a booking through the pipeline")
+    void shouldCreateBookingThroughPipeline() throws Exception {
+        MvcResult result = mockMvc.perform(createBookingRequest(testProperty.getId(), LocalDate.now().plusDays(5), LocalDate.now().plusDays(8)))
+                .andExpect(status().isCreated())
+                .andExpect(jsonPath("$.guestFirstName").value(testGuest.getFirstName()))
+                .andExpect(jsonPath("$.version").value(0))
+                .andReturn();
+        BookingResponse booking = objectMapper.readValue(result.getResponse().getContentAsString(), BookingResponse.class);
+
+        mockMvc.perform(get("/api/bookings/{bookingId}", booking.getId()))
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("$.startDate").value(LocalDate.now().plusDays(5).toString()));
+        Assertions.assertThat(changeEventRepository.findAll())
+                .singleElement()
+                .satisfies(change -> {
+                    Assertions.assertThat(change.getEntityId()).isEqualTo(booking.getId());
+                    Assertions.assertThat(change.getOperation()).isEqualTo(ChangeOperation.CREATED);
+                });
+    }
+
+    @Test
+    @DisplayName("Should commit concurrent bookings for several properties")
+    void shouldCommitConcurrentBookingsForSeveralProperties() throws Exception {
+        Property secondProperty = propertyRepository.save(Property.builder()
+                .name("Second Property")
+                .address("456 Test Street")
+                .ownerId(testOwner.getId())
+                .build());
+        LocalDate startDate = LocalDate.now().plusDays(5);
+
+        List<RequestBuilder> requests = new ArrayList<>();
+        for (int i = 0; i < 10; i++) {
+            requests.add(createBookingRequest(testProperty.getId(), startDate.plusDays(i * 3L), startDate.plusDays(i * 3L + 1)));
+            requests.add(createBookingRequest(secondProperty.getId(), startDate.plusDays(i * 3L), startDate.plusDays(i * 3L + 1)));
+        }
+
+        List<Integer> statuses = performConcurrently(requests);
+
+        Assertions.assertThat(statuses).containsOnly(201);
+        Assertions.assertThat(bookingRepository.findByPropertyId(testProperty.getId())).hasSize(10);
+        Assertions.assertThat(bookingRepository.findByPropertyId(secondProperty.getId())).hasSize(10);
+        // Claims and change events are written in batches along with the bookings
+        Assertions.assertThat(jdbcTemplate.queryForObject("SELECT COUNT(*) FROM occupied_night", Integer.class)).isEqualTo(40);
+        Assertions.assertThat(changeEventRepository.findAll())
+                .hasSize(20)
+                .allSatisfy(change -> Assertions.assertThat(change.getOperation()).isEqualTo(ChangeOperation.CREATED));
+    }
+
+    @Test
+    @DisplayName("Should reject overlapping bookings that arrive in the same batch")
+    void shouldRejectOverlappingBookingsInSameBatch() throws Exception {
+        LocalDate startDate = LocalDate.now().plusDays(5);
+        List<RequestBuilder> requests = new ArrayList<>();
+        for (int i = 0; i < 10; i++) {
+            requests.add(createBookingRequest(testProperty.getId(), startDate, startDate.plusDays(3)));
+        }
+
+        List<Integer> statuses = performConcurrently(requests);
+
+        Assertions.assertThat(statuses).filteredOn(status -> status == 201).hasSize(1);
+        Assertions.assertThat(statuses).filteredOn(status -> status == 400).hasSize(9);
+        Assertions.assertThat(bookingRepository.findByPropertyId(testProperty.getId())).hasSize(1);
+    }
+
+    @Test
+    @DisplayName("Should validate the request before queueing it")
+    void shouldValidateBeforeQueueing() throws Exception {
+        mockMvc.perform(createBookingRequest(testProperty.getId(), LocalDate.now().minusDays(1), LocalDate.now().plusDays(1)))
+                .andExpect(status().isBadRequest())
+                .andExpect(jsonPath("$.message").value(containsString("cannot be in the past")));
+
+        mockMvc.perform(createBookingRequest(UUID.randomUUID(), LocalDate.now().plusDays(1), LocalDate.now().plusDays(2)))
+                .andExpect(status().isNotFound());
+
+        Assertions.assertThat(bookingRepository.count()).isZero();
+    }
+
+    private List<Integer> performConcurrently(List<RequestBuilder> requests) throws Exception {
+        CountDownLatch start = new CountDownLatch(1);
+        List<Future<Integer>> statuses = new ArrayList<>();
+
+        try (ExecutorService executor = Executors.newFixedThreadPool(requests.size())) {
+            for (RequestBuilder request : requests) {
+                statuses.add(executor.submit(() -> {
+                    start.await();
+                    return mockMvc.perform(request).andReturn().getResponse().getStatus();
+                }));
+            }
+            start.countDown();
+
+            List<Integer> results = new ArrayList<>();
+            for (Future<Integer> status : statuses) {
+                results.add(status.get());
+            }
+            return results;
+        }
+    }
+
+    private RequestBuilder createBookingRequest(UUID propertyId, LocalDate startDate, LocalDate endDate) throws Exception {
+        BookingRequest request = BookingRequest.builder()
+                .propertyId(propertyId)
+                .guestEmail(testGuest.getEmail())
+                .guestFirstName(testGuest.getFirstName())
+                .guestLastName(testGuest.getLastName())
+                .startDate(startDate)
+                .endDate(endDate)
+                .build();
+
+        return post("/api/bookings")
+                .contentType(MediaType.APPLICATION_JSON)
+                .content(objectMapper.writeValueAsString(request));
+    }
+}
@@ -0,0 +1,110 @@
+package com.booking.integrationTests.pipeline;
+
+import com.booking.dto.BookingRequest;
+import com.booking.integrationTests.BaseIntegrationTest;
+import org.assertj.core.api.Assertions;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.http.MediaType;
+import org.springframework.test.context.TestPropertySource;
+import org.springframework.test.web.servlet.MvcResult;
+import org.springframework.test.web.servlet.RequestBuilder;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.annotation.Propagation;
+import org.springframework.transaction.annotation.Transactional;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.time.LocalDate;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.TimeUnit;
+
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.post;
+
+// Bookings are committed by the pipeline thread in its own transaction, so test data must be committed
+@Transactional(propagation = Propagation.NOT_SUPPORTED)
+@TestPropertySource(properties = {
+        "booking.write-pipeline.enabled=true",
+        "booking.write-pipeline.submit-timeout=200ms",
+        "spring.datasource.url=jdbc:h2:mem:testdb;LOCK_TIMEOUT=10000"
+})
+@DisplayName("Booking Write Pipeline Timeout Integration Tests")
+class BookingWritePipelineTimeoutIT extends BaseIntegrationTest {
+
+    @Autowired
+    private PlatformTransactionManager transactionManager;
+
+    @Test
+    @DisplayName("Should withdraw a queued booking on timeout and still commit one the committer has taken")
+    void shouldWithdrawQueuedBookingOnTimeout() throws Exception {
+        LocalDate night = LocalDate.now().plusDays(5);
+        jdbcTemplate.update("INSERT INTO property_daily_stats (property_id, night, booked, blocked) VALUES (?, ?, 0, 0)",
+                testProperty.getId(), night);
+        CountDownLatch locked = new CountDownLatch(1);
+        CountDownLatch release = new CountDownLatch(1);
+
+        try (ExecutorService executor = Executors.newFixedThreadPool(3)) {
+            // Holds the stats row the first booking updates, so the committer blocks inside its transaction
+            Future<?> lockHolder = executor.submit(() -> new TransactionTemplate(transactionManager).executeWithoutResult(status -> {
+                jdbcTemplate.queryForList("SELECT * FROM property_daily_stats WHERE property_id = ? AND night = ? FOR UPDATE",
+                        testProperty.getId(), night);
+                locked.countDown();
+                try {
+                    release.await();
+                } catch (InterruptedException e) {
+                    Thread.currentThread().interrupt();
+                }
+            }));
+            locked.await();
+
+            Future<MvcResult> taken = executor.submit(() -> mockMvc.perform(createBookingRequest(
+                    "taken@example.com", night, night.plusDays(1))).andReturn());
+            awaitBlockedSession();
+
+            MvcResult withdrawn = mockMvc.perform(createBookingRequest("withdrawn@example.com", night.plusDays(3), night.plusDays(4)))
+                    .andReturn();
+            Assertions.assertThat(withdrawn.getResponse().getStatus()).isEqualTo(503);
+
+            release.countDown();
+            lockHolder.get();
+            Assertions.assertThat(taken.get().getResponse().getStatus()).isEqualTo(201);
+        } finally {
+            release.countDown();
+            jdbcTemplate.update("DELETE FROM property_daily_stats WHERE property_id = ?", testProperty.getId());
+        }
+
+        Assertions.assertThat(bookingRepository.findByPropertyId(testProperty.getId()))
+                .singleElement()
+                .satisfies(booking -> Assertions.assertThat(booking.getStartDate()).isEqualTo(night));
+        // Guests are created in the commit transaction, so the withdrawn request left none behind
+        Assertions.assertThat(guestRepository.findByEmail("taken@example.com")).isPresent();
+        Assertions.assertThat(guestRepository.findByEmail("withdrawn@example.com")).isEmpty();
+    }
+
+    private void awaitBlockedSession() throws InterruptedException {
+        long deadline = System.nanoTime() + TimeUnit.SECONDS.toNanos(5);
+        while (jdbcTemplate.queryForObject("SELECT COUNT(*) FROM INFORMATION_SCHEMA.SESSIONS WHERE BLOCKER_ID IS NOT NULL",
+                Integer.class) == 0) {
+            Assertions.assertThat(System.nanoTime()).as("committer blocked on the stats row").isLessThan(deadline);
+            Thread.sleep(10);
+        }
+    }
+
+    private RequestBuilder createBookingRequest(String guestEmail, LocalDate startDate, LocalDate endDate) throws Exception {
+        BookingRequest request = BookingRequest.builder()
+                .propertyId(testProperty.getId())
+                .guestEmail(guestEmail)
+                .guestFirstName("Pipeline")
+                .guestLastName("Guest")
+                .startDate(startDate)
+                .endDate(endDate)
+                .build();
+
+        return post("/api/bookings")
+                .contentType(MediaType.APPLICATION_JSON)
+                .content(objectMapper.writeValueAsString(request));
+    }
+}
@@ -0,0 +1,326 @@
+package com.booking.integrationTests.sequencer;
+
+import com.booking.dto.BlockRequest;
+import com.booking.dto.BlockUpdateRequest;
+import com.booking.dto.BookingRequest;
+import com.booking.dto.BookingResponse;
+import com.booking.dto.BookingUpdateRequest;
+import com.booking.dto.OwnerBlockRequest;
+import com.booking.integrationTests.BaseIntegrationTest;
+import com.booking.model.BookingStatus;
+import org.assertj.core.api.Assertions;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.http.MediaType;
+import org.springframework.test.context.TestPropertySource;
+import org.springframework.test.web.servlet.MvcResult;
+import org.springframework.test.web.servlet.RequestBuilder;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.annotation.Propagation;
+import org.springframework.transaction.annotation.Transactional;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.time.LocalDate;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.UUID;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.TimeUnit;
+
+import static org.hamcrest.Matchers.containsString;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.*;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.*;
+
+// Commands run on sequencer threads with their own transactions, so test data must be committed
+@Transactional(propagation = Propagation.NOT_SUPPORTED)
+@TestPropertySource(properties = "booking.sequencer.enabled=true")
+@DisplayName("Property Sequencer Integration Tests")
+class PropertySequencerIT extends BaseIntegrationTest {
+
+    @Autowired
+    private PlatformTransactionManager transactionManager;
+
+    @Test
+    @DisplayName("Should accept only one of many concurrent bookings for the same dates")
+    void shouldAcceptOnlyOneConcurrentBookingForSameDates() throws Exception {
+        LocalDate startDate = LocalDate.now().plusDays(5);
+        List<RequestBuilder> requests = new ArrayList<>();
+        for (int i = 0; i < 10; i++) {
+            requests.add(createBookingRequest(startDate, startDate.plusDays(3)));
+        }
+
+        List<Integer> statuses = performConcurrently(requests);
+
+        Assertions.assertThat(statuses).filteredOn(status -> status == 201).hasSize(1);
+        Assertions.assertThat(statuses).filteredOn(status -> status == 400).hasSize(9);
+        Assertions.assertThat(bookingRepository.findByPropertyId(testProperty.getId())).hasSize(1);
+    }
+
+    @Test
+    @DisplayName("Should commit concurrent non-overlapping bookings of one property")
+    void shouldCommitConcurrentNonOverlappingBookings() throws Exception {
+        LocalDate startDate = LocalDate.now().plusDays(5);
+        List<RequestBuilder> requests = new ArrayList<>();
+        for (int i = 0; i < 20; i++) {
+            requests.add(createBookingRequest(startDate.plusDays(i * 3L), startDate.plusDays(i * 3L + 1)));
+        }
+
+        List<Integer> statuses = performConcurrently(requests);
+
+        Assertions.assertThat(statuses).containsOnly(201);
+        Assertions.assertThat(bookingRepository.findByPropertyId(testProperty.getId())).hasSize(20);
+        Assertions.assertThat(changeEventRepository.count()).isEqualTo(20);
+    }
+
+    @Test
+    @DisplayName("Should keep the calendar in step with update, cancel, rebook and delete")
+    void shouldKeepCalendarInStepWithBookingLifecycle() throws Exception {
+        LocalDate startDate = LocalDate.now().plusDays(5);
+        BookingResponse booking = createBookingViaApi(startDate, startDate.plusDays(2));
+
+        BookingUpdateRequest moveRequest = BookingUpdateRequest.builder()
+                .startDate(startDate.plusDays(10))
+                .endDate(startDate.plusDays(12))
+                .build();
+        mockMvc.perform(patch("/api/bookings/{bookingId}", booking.getId())
+                        .contentType(MediaType.APPLICATION_JSON)
+                        .content(objectMapper.writeValueAsString(moveRequest)))
+                .andExpect(status().isOk());
+
+        // The old dates are free again, the new ones are taken
+        BookingResponse other = createBookingViaApi(startDate, startDate.plusDays(2));
+        mockMvc.perform(createBookingRequest(startDate.plusDays(11), startDate.plusDays(11)))
+                .andExpect(status().isBadRequest())
+                .andExpect(jsonPath("$.message").value(containsString("Property is already booked")));
+
+        mockMvc.perform(patch("/api/bookings/{bookingId}/cancel", other.getId()))
+                .andExpect(status().isOk());
+        BookingResponse replacement = createBookingViaApi(startDate, startDate.plusDays(1));
+
+        mockMvc.perform(patch("/api/bookings/{bookingId}/rebook", other.getId()))
+                .andExpect(status().isBadRequest())
+                .andExpect(jsonPath("$.message").value(containsString("Property is already booked")));
+
+        mockMvc.perform(delete("/api/bookings/{bookingId}", replacement.getId()))
+                .andExpect(status().isNoContent());
+        mockMvc.perform(patch("/api/bookings/{bookingId}/rebook", other.getId()))
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("$.status").value(BookingStatus.CONFIRMED.name()));
+    }
+
+    @Test
+    @DisplayName("Should free the calendar for bookings cancelled in bulk")
+    void shouldFreeCalendarAfterBulkCancel() throws Exception {
+        LocalDate startDate = LocalDate.now().plusDays(5);
+        createBookingViaApi(startDate, startDate.plusDays(2));
+        createBookingViaApi(startDate.plusDays(4), startDate.plusDays(6));
+
+        mockMvc.perform(patch("/api/bookings/property/{propertyId}/cancel", testProperty.getId())
+                        .param("from", startDate.toString())
+                        .param("to", startDate.plusDays(6).toString()))
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("$.cancelled").value(2));
+
+        mockMvc.perform(createBookingRequest(startDate.plusDays(1), startDate.plusDays(5)))
+                .andExpect(status().isCreated());
+    }
+
+    @Test
+    @DisplayName("Should check block ownership and conflicts against the calendar")
+    void shouldCheckBlocksAgainstCalendar() throws Exception {
+        LocalDate startDate = LocalDate.now().plusDays(5);
+        createBookingViaApi(startDate, startDate.plusDays(2));
+
+        BlockRequest foreignOwner = blockRequest(startDate.plusDays(10), startDate.plusDays(12));
+        foreignOwner.setOwnerId(UUID.randomUUID());
+        mockMvc.perform(post("/api/blocks")
+                        .contentType(MediaType.APPLICATION_JSON)
+                        .content(objectMapper.writeValueAsString(foreignOwner)))
+                .andExpect(status().isBadRequest())
+                .andExpect(jsonPath("$.message").value(containsString("not authorized")));
+
+        MvcResult created = mockMvc.perform(post("/api/blocks")
+                        .contentType(MediaType.APPLICATION_JSON)
+                        .content(objectMapper.writeValueAsString(blockRequest(startDate.plusDays(10), startDate.plusDays(12)))))
+                .andExpect(status().isCreated())
+                .andReturn();
+        String blockId = objectMapper.readTree(created.getResponse().getContentAsString()).get("id").asText();
+
+        BlockUpdateRequest overlapBooking = BlockUpdateRequest.builder()
+                .ownerId(testOwner.getId())
+                .startDate(startDate.plusDays(1))
+                .build();
+        mockMvc.perform(patch("/api/blocks/{blockId}", blockId)
+                        .contentType(MediaType.APPLICATION_JSON)
+                        .content(objectMapper.writeValueAsString(overlapBooking)))
+                .andExpect(status().isBadRequest())
+                .andExpect(jsonPath("$.message").value(containsString("Property is already booked")));
+
+        mockMvc.perform(createBookingRequest(startDate.plusDays(12), startDate.plusDays(14)))
+                .andExpect(status().isBadRequest())
+                .andExpect(jsonPath("$.message").value(containsString("Property is blocked")));
+
+        mockMvc.perform(delete("/api/blocks/{blockId}", blockId)
+                        .param("ownerId", testOwner.getId().toString()))
+                .andExpect(status().isNoContent());
+        mockMvc.perform(createBookingRequest(startDate.plusDays(12), startDate.plusDays(14)))
+                .andExpect(status().isCreated());
+    }
+
+    @Test
+    @DisplayName("Should reload the calendar after blocks are written outside the lane")
+    void shouldReloadCalendarAfterBulkBlockChanges() throws Exception {
+        LocalDate startDate = LocalDate.now().plusDays(5);
+        // Load the lane's calendar before the bulk writes
+        createBookingViaApi(startDate.plusDays(20), startDate.plusDays(21));
+
+        mockMvc.perform(post("/api/owners/{ownerId}/blocks", testOwner.getId())
+                        .contentType(MediaType.APPLICATION_JSON)
+                        .content(objectMapper.writeValueAsString(OwnerBlockRequest.builder()
+                                .startDate(startDate)
+                                .endDate(startDate.plusDays(3))
+                                .reason("Maintenance")
+                                .build())))
+                .andExpect(status().isCreated());
+        mockMvc.perform(createBookingRequest(startDate.plusDays(1), startDate.plusDays(2)))
+                .andExpect(status().isBadRequest())
+                .andExpect(jsonPath("$.message").value(containsString("Property is blocked")));
+
+        mockMvc.perform(delete("/api/owners/{ownerId}/blocks", testOwner.getId())
+                        .param("from", startDate.toString())
+                        .param("to", startDate.plusDays(3).toString()))
+                .andExpect(status().isOk());
+        mockMvc.perform(createBookingRequest(startDate.plusDays(1), startDate.plusDays(2)))
+                .andExpect(status().isCreated());
+    }
+
+    @Test
+    @DisplayName("Should fail only the failing command when commands share a commit")
+    void shouldIsolateFailingCommandInGroupCommit() throws Exception {
+        LocalDate startDate = LocalDate.now().plusDays(5);
+        BookingResponse booking = createBookingViaApi(startDate, startDate.plusDays(2));
+
+        List<Integer> statuses = performConcurrently(List.of(
+                patch("/api/bookings/{bookingId}/cancel", booking.getId()),
+                patch("/api/bookings/{bookingId}/cancel", booking.getId()),
+                createBookingRequest(startDate.plusDays(20), startDate.plusDays(21)),
+                createBookingRequest(startDate.plusDays(30), startDate.plusDays(31))));
+
+        Assertions.assertThat(statuses.subList(0, 2)).containsExactlyInAnyOrder(200, 400);
+        Assertions.assertThat(statuses.subList(2, 4)).containsOnly(201);
+        Assertions.assertThat(bookingRepository.findByPropertyId(testProperty.getId())).hasSize(3);
+    }
+
+    @Test
+    @DisplayName("Should retry a command that conflicts with a write outside the lane")
+    void shouldRetryConflictingCommandInLane() throws Exception {
+        UUID blockId = createBlock(LocalDate.now().plusDays(20), LocalDate.now().plusDays(25), "Maintenance").getId();
+        CountDownLatch updated = new CountDownLatch(1);
+        CountDownLatch release = new CountDownLatch(1);
+
+        try (ExecutorService executor = Executors.newFixedThreadPool(2)) {
+            // Bumps the block's version outside the lane and keeps the row locked until released
+            Future<?> outsideWriter = executor.submit(() -> new TransactionTemplate(transactionManager).executeWithoutResult(status -> {
+                jdbcTemplate.update("UPDATE block SET reason = 'Outside', version = version + 1 WHERE id = ?", blockId);
+                updated.countDown();
+                try {
+                    release.await();
+                } catch (InterruptedException e) {
+                    Thread.currentThread().interrupt();
+                }
+            }));
+            updated.await();
+
+            Future<Integer> laneUpdate = executor.submit(() -> mockMvc.perform(patch("/api/blocks/{blockId}", blockId)
+                            .contentType(MediaType.APPLICATION_JSON)
+                            .content(objectMapper.writeValueAsString(BlockUpdateRequest.builder()
+                                    .ownerId(testOwner.getId())
+                                    .reason("Lane")
+                                    .build())))
+                    .andReturn()
+                    .getResponse()
+                    .getStatus());
+            awaitBlockedSession();
+
+            // The lane read the old version, so its update conflicts once the outside write commits
+            release.countDown();
+            outsideWriter.get();
+            Assertions.assertThat(laneUpdate.get()).isEqualTo(200);
+        } finally {
+            release.countDown();
+        }
+
+        Assertions.assertThat(blockRepository.findById(blockId).orElseThrow())
+                .satisfies(block -> {
+                    Assertions.assertThat(block.getReason()).isEqualTo("Lane");
+                    Assertions.assertThat(block.getVersion()).isEqualTo(2);
+                });
+    }
+
+    private void awaitBlockedSession() throws InterruptedException {
+        long deadline = System.nanoTime() + TimeUnit.SECONDS.toNanos(5);
+        while (jdbcTemplate.queryForObject("SELECT COUNT(*) FROM INFORMATION_SCHEMA.SESSIONS WHERE BLOCKER_ID IS NOT NULL",
+                Integer.class) == 0) {
+            Assertions.assertThat(System.nanoTime()).as("lane blocked on the block row").isLessThan(deadline);
+            Thread.sleep(10);
+        }
+    }
+
+    private List<Integer> performConcurrently(List<RequestBuilder> requests) throws Exception {
+        CountDownLatch start = new CountDownLatch(1);
+        List<Future<Integer>> statuses = new ArrayList<>();
+
+        try (ExecutorService executor = Executors.newFixedThreadPool(requests.size())) {
+            for (RequestBuilder request : requests) {
+                statuses.add(executor.submit(() -> {
+                    start.await();
+                    return mockMvc.perform(request).andReturn().getResponse().getStatus();
+                }));
+            }
+            start.countDown();
+
+            List<Integer> results = new ArrayList<>();
+            for (Future<Integer> status : statuses) {
+                results.add(status.get());
+            }
+            return results;
+        }
+    }
+
+    private BookingResponse createBookingViaApi(LocalDate startDate, LocalDate endDate) throws Exception {
+        MvcResult result = mockMvc.perform(createBookingRequest(startDate, endDate))
+                .andExpect(status().isCreated())
+                .andReturn();
+
+        return objectMapper.readValue(result.getResponse().getContentAsString(), BookingResponse.class);
+    }
+
+    private RequestBuilder createBookingRequest(LocalDate startDate, LocalDate endDate) throws Exception {
+        BookingRequest request = BookingRequest.builder()
+                .propertyId(testProperty.getId())
+                .guestEmail(testGuest.getEmail())
+                .guestFirstName(testGuest.getFirstName())
+                .guestLastName(testGuest.getLastName())
+                .startDate(startDate)
+                .endDate(endDate)
+                .build();
+
+        return post("/api/bookings")
+                .contentType(MediaType.APPLICATION_JSON)
+                .content(objectMapper.writeValueAsString(request));
+    }
+
+    private BlockRequest blockRequest(LocalDate startDate, LocalDate endDate) {
+        return BlockRequest.builder()
+                .ownerId(testOwner.getId())
+                .propertyId(testProperty.getId())
+                .startDate(startDate)
+                .endDate(endDate)
+                .reason("Maintenance")
+                .build();
+    }
+}
@@ -0,0 +1,525 @@
+package com.booking.integrationTests.sharding;
+
+import com.booking.dto.BlockRequest;
+import com.booking.dto.BookingRequest;
+import com.booking.dto.BookingResponse;
+import com.booking.dto.OwnerBlockRequest;
+import com.booking.dto.ShardMoveResponse;
+import com.booking.integrationTests.BaseIntegrationTest;
+import com.booking.model.Property;
+import com.booking.sharding.ShardRouter;
+import org.assertj.core.api.Assertions;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.http.MediaType;
+import org.springframework.test.context.TestPropertySource;
+import org.springframework.test.web.servlet.MvcResult;
+import org.springframework.transaction.annotation.Propagation;
+import org.springframework.transaction.annotation.Transactional;
+
+import java.io.ByteArrayInputStream;
+import java.io.DataInputStream;
+import java.time.LocalDate;
+import java.util.ArrayList;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.UUID;
+
+import static org.hamcrest.Matchers.*;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.*;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.*;
+
+// Every service call opens its own transaction on the property's shard, so test data must be committed
+@Transactional(propagation = Propagation.NOT_SUPPORTED)
+@TestPropertySource(properties = {
+        "booking.sharding.enabled=true",
+        "booking.sharding.shards[0].url=jdbc:h2:mem:shard0",
+        "booking.sharding.shards[0].username=sa",
+        "booking.sharding.shards[1].url=jdbc:h2:mem:shard1",
+        "booking.sharding.shards[1].username=sa",
+        "booking.sharding.shards[2].url=jdbc:h2:mem:shard2",
+        "booking.sharding.shards[2].username=sa"
+})
+@DisplayName("Sharding Integration Tests")
+class ShardingIT extends BaseIntegrationTest {
+
+    @Autowired
+    private ShardRouter shardRouter;
+
+    @Override
+    protected void cleanDatabase() {
+        for (int shard = 0; shard < shardRouter.shardCount(); shard++) {
+            var jdbcTemplate = shardRouter.shardJdbcTemplate(shard);
+            List.of("change_event", "property_daily_stats", "archived_booking", "archived_block", "occupied_night", "recurring_block", "block", "booking", "guest", "property", "owner", "property_shard")
+                    .forEach(table -> jdbcTemplate.update("DELETE FROM " + table));
+        }
+        shardRouter.loadDirectory();
+    }
+
+    @Test
+    @DisplayName("Should store bookings on the shard the property hashes to")
+    void shouldStoreBookingsOnPropertyShard() throws Exception {
+        BookingResponse booking = createBookingViaApi(testProperty.getId(), LocalDate.now().plusDays(5), LocalDate.now().plusDays(10));
+
+        int expectedShard = shardRouter.shardFor(testProperty.getId());
+        for (int shard = 0; shard < shardRouter.shardCount(); shard++) {
+            Assertions.assertThat(countRows(shard, "booking", booking.getId()))
+                    .isEqualTo(shard == expectedShard ? 1 : 0);
+        }
+    }
+
+    @Test
+    @DisplayName("Should replicate reference data to every shard")
+    void shouldReplicateReferenceDataToEveryShard() {
+        for (int shard = 0; shard < shardRouter.shardCount(); shard++) {
+            Assertions.assertThat(countRows(shard, "property", testProperty.getId())).isEqualTo(1);
+            Assertions.assertThat(countRows(shard, "guest", testGuest.getId())).isEqualTo(1);
+            Assertions.assertThat(countRows(shard, "owner", testOwner.getId())).isEqualTo(1);
+        }
+    }
+
+    @Test
+    @DisplayName("Should detect overlaps on the property's shard")
+    void shouldDetectOverlapsOnPropertyShard() throws Exception {
+        createBookingViaApi(testProperty.getId(), LocalDate.now().plusDays(5), LocalDate.now().plusDays(10));
+
+        mockMvc.perform(post("/api/bookings")
+                        .contentType(MediaType.APPLICATION_JSON)
+                        .content(objectMapper.writeValueAsString(bookingRequest(
+                                testProperty.getId(), LocalDate.now().plusDays(8), LocalDate.now().plusDays(12)))))
+                .andExpect(status().isBadRequest())
+                .andExpect(jsonPath("$.message").value(containsString("already booked")));
+    }
+
+    @Test
+    @DisplayName("Should find, update and cancel bookings by id on any shard")
+    void shouldFindBookingsByIdOnAnyShard() throws Exception {
+        List<Property> properties = propertiesOnDistinctShards();
+        for (Property property : properties) {
+            BookingResponse booking = createBookingViaApi(property.getId(), LocalDate.now().plusDays(5), LocalDate.now().plusDays(10));
+
+            mockMvc.perform(get("/api/bookings/{bookingId}", booking.getId()))
+                    .andExpect(status().isOk())
+                    .andExpect(jsonPath("$.propertyId").value(property.getId().toString()));
+            mockMvc.perform(patch("/api/bookings/{bookingId}/cancel", booking.getId()))
+                    .andExpect(status().isOk())
+                    .andExpect(jsonPath("$.status").value("CANCELED"));
+        }
+    }
+
+    @Test
+    @DisplayName("Should gather guest bookings from all shards")
+    void shouldGatherGuestBookingsFromAllShards() throws Exception {
+        List<Property> properties = propertiesOnDistinctShards();
+        for (Property property : properties) {
+            createBookingViaApi(property.getId(), LocalDate.now().plusDays(5), LocalDate.now().plusDays(10));
+        }
+
+        mockMvc.perform(get("/api/bookings/guest/{guestId}", testGuest.getId()))
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("$", hasSize(properties.size())));
+    }
+
+    @Test
+    @DisplayName("Should return 404 for a guest unknown to every shard")
+    void shouldReturnNotFoundForUnknownGuest() throws Exception {
+        mockMvc.perform(get("/api/bookings/guest/{guestId}", UUID.randomUUID()))
+                .andExpect(status().isNotFound())
+                .andExpect(jsonPath("$.message").value(containsString("Guest not found")));
+    }
+
+    @Test
+    @DisplayName("Should move a property's bookings and blocks to another shard")
+    void shouldMovePropertyToAnotherShard() throws Exception {
+        BookingResponse booking = createBookingViaApi(testProperty.getId(), LocalDate.now().plusDays(5), LocalDate.now().plusDays(10));
+        createBlockViaApi(testProperty.getId(), LocalDate.now().plusDays(20), LocalDate.now().plusDays(25));
+        int sourceShard = shardRouter.shardFor(testProperty.getId());
+        int targetShard = (sourceShard + 1) % shardRouter.shardCount();
+
+        MvcResult result = mockMvc.perform(post("/api/shards/properties/{propertyId}/move", testProperty.getId())
+                        .param("targetShard", String.valueOf(targetShard)))
+                .andExpect(status().isOk())
+                .andReturn();
+        ShardMoveResponse move = objectMapper.readValue(result.getResponse().getContentAsString(), ShardMoveResponse.class);
+
+        Assertions.assertThat(move.getSourceShard()).isEqualTo(sourceShard);
+        Assertions.assertThat(move.getBookingsMoved()).isEqualTo(1);
+        Assertions.assertThat(move.getBlocksMoved()).isEqualTo(1);
+        Assertions.assertThat(countRows(sourceShard, "booking", booking.getId())).isZero();
+        Assertions.assertThat(countRows(targetShard, "booking", booking.getId())).isEqualTo(1);
+
+        mockMvc.perform(get("/api/shards/properties/{propertyId}", testProperty.getId()))
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("$.shard").value(targetShard));
+        mockMvc.perform(get("/api/blocks/property/{propertyId}", testProperty.getId()))
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("$", hasSize(1)));
+
+        // Overlap checks keep working against the moved data
+        mockMvc.perform(post("/api/bookings")
+                        .contentType(MediaType.APPLICATION_JSON)
+                        .content(objectMapper.writeValueAsString(bookingRequest(
+                                testProperty.getId(), LocalDate.now().plusDays(6), LocalDate.now().plusDays(7)))))
+                .andExpect(status().isBadRequest());
+    }
+
+    @Test
+    @DisplayName("Should turn away writes that reach the shard a property has left")
+    void shouldFenceWritesOnShardPropertyHasLeft() throws Exception {
+        int sourceShard = shardRouter.shardFor(testProperty.getId());
+        int targetShard = (sourceShard + 1) % shardRouter.shardCount();
+        mockMvc.perform(post("/api/shards/properties/{propertyId}/move", testProperty.getId())
+                        .param("targetShard", String.valueOf(targetShard)))
+                .andExpect(status().isOk());
+
+        // A node that has not seen the move yet still routes the property to its old shard
+        shardRouter.routeTo(testProperty.getId(), sourceShard);
+        mockMvc.perform(post("/api/bookings")
+                        .contentType(MediaType.APPLICATION_JSON)
+                        .content(objectMapper.writeValueAsString(bookingRequest(
+                                testProperty.getId(), LocalDate.now().plusDays(5), LocalDate.now().plusDays(10)))))
+                .andExpect(status().isConflict());
+        Assertions.assertThat(shardRouter.shardFor(testProperty.getId())).isEqualTo(targetShard);
+
+        BookingResponse booking = createBookingViaApi(testProperty.getId(), LocalDate.now().plusDays(5), LocalDate.now().plusDays(10));
+        Assertions.assertThat(countRows(sourceShard, "booking", booking.getId())).isZero();
+        Assertions.assertThat(countRows(targetShard, "booking", booking.getId())).isEqualTo(1);
+    }
+
+    @Test
+    @DisplayName("Should follow moves recorded in the directory when it is refreshed")
+    void shouldFollowMovesOnDirectoryRefresh() throws Exception {
+        int sourceShard = shardRouter.shardFor(testProperty.getId());
+        int targetShard = (sourceShard + 1) % shardRouter.shardCount();
+        mockMvc.perform(post("/api/shards/properties/{propertyId}/move", testProperty.getId())
+                        .param("targetShard", String.valueOf(targetShard)))
+                .andExpect(status().isOk());
+        shardRouter.routeTo(testProperty.getId(), sourceShard);
+
+        shardRouter.refreshDirectory();
+
+        Assertions.assertThat(shardRouter.shardFor(testProperty.getId())).isEqualTo(targetShard);
+    }
+
+    @Test
+    @DisplayName("Should fail to move a property to a shard that does not exist")
+    void shouldFailToMoveToUnknownShard() throws Exception {
+        mockMvc.perform(post("/api/shards/properties/{propertyId}/move", testProperty.getId())
+                        .param("targetShard", "7"))
+                .andExpect(status().isBadRequest())
+                .andExpect(jsonPath("$.message").value(containsString("Target shard")));
+    }
+
+    @Test
+    @DisplayName("Should read each property's nights from its own shard in the occupancy report")
+    void shouldReportOccupancyAcrossShards() throws Exception {
+        LocalDate night = LocalDate.now().plusDays(5);
+        List<Property> properties = propertiesOnDistinctShards();
+        for (Property property : properties) {
+            createBookingViaApi(property.getId(), night, night);
+        }
+
+        MvcResult result = mockMvc.perform(get("/api/availability/occupancy-report")
+                        .param("from", night.toString())
+                        .param("to", night.toString()))
+                .andExpect(request().asyncStarted())
+                .andReturn();
+        String body = mockMvc.perform(asyncDispatch(result))
+                .andExpect(status().isOk())
+                .andReturn()
+                .getResponse()
+                .getContentAsString();
+
+        for (Property property : properties) {
+            Assertions.assertThat(body).contains(property.getId() + "," + testOwner.getId() + "," + night + ",BOOKED");
+        }
+        Assertions.assertThat(body).contains(testProperty.getId() + "," + testOwner.getId() + "," + night + ",FREE");
+    }
+
+    @Test
+    @DisplayName("Should build the availability matrix from every shard")
+    void shouldBuildAvailabilityMatrixAcrossShards() throws Exception {
+        LocalDate night = LocalDate.now().plusDays(5);
+        List<Property> properties = propertiesOnDistinctShards();
+        for (Property property : properties) {
+            createBookingViaApi(property.getId(), night, night.plusDays(1));
+        }
+
+        byte[] payload = mockMvc.perform(get("/api/availability/matrix")
+                        .param("from", night.toString())
+                        .param("days", "7"))
+                .andExpect(status().isOk())
+                .andReturn()
+                .getResponse()
+                .getContentAsByteArray();
+
+        DataInputStream in = new DataInputStream(new ByteArrayInputStream(payload));
+        in.skipNBytes(13);
+        int rows = in.readInt();
+        Map<UUID, Integer> runs = new LinkedHashMap<>();
+        for (int row = 0; row < rows; row++) {
+            UUID propertyId = new UUID(in.readLong(), in.readLong());
+            int count = in.readUnsignedShort();
+            in.skipNBytes(4L * count);
+            runs.put(propertyId, count);
+        }
+        Assertions.assertThat(rows).isEqualTo(propertyRepository.count());
+        Assertions.assertThat(runs).hasSize(rows);
+        for (Property property : properties) {
+            Assertions.assertThat(runs.get(property.getId())).isEqualTo(1);
+        }
+        Assertions.assertThat(runs.get(testProperty.getId())).isZero();
+    }
+
+    @Test
+    @DisplayName("Should export the bookings of every shard")
+    void shouldExportBookingsFromEveryShard() throws Exception {
+        List<BookingResponse> bookings = new ArrayList<>();
+        for (Property property : propertiesOnDistinctShards()) {
+            bookings.add(createBookingViaApi(property.getId(), LocalDate.now().plusDays(5), LocalDate.now().plusDays(10)));
+        }
+
+        MvcResult result = mockMvc.perform(get("/api/bookings/export").param("format", "csv"))
+                .andExpect(request().asyncStarted())
+                .andReturn();
+        String body = mockMvc.perform(asyncDispatch(result))
+                .andExpect(status().isOk())
+                .andReturn()
+                .getResponse()
+                .getContentAsString();
+
+        Assertions.assertThat(body.lines().skip(1)).hasSize(bookings.size());
+        for (BookingResponse booking : bookings) {
+            Assertions.assertThat(body).contains(booking.getId().toString());
+        }
+    }
+
+    @Test
+    @DisplayName("Should search flexible stays on each property's own shard")
+    void shouldSearchFlexibleStaysAcrossShards() throws Exception {
+        LocalDate night = LocalDate.now().plusDays(5);
+        List<Property> properties = propertiesOnDistinctShards();
+        for (Property property : properties) {
+            createBookingViaApi(property.getId(), night, night.plusDays(1));
+        }
+
+        MvcResult result = mockMvc.perform(get("/api/availability/flexible-search")
+                        .param("from", night.toString())
+                        .param("to", night.toString()))
+                .andExpect(request().asyncStarted())
+                .andReturn();
+        String body = mockMvc.perform(asyncDispatch(result))
+                .andExpect(status().isOk())
+                .andReturn()
+                .getResponse()
+                .getContentAsString();
+
+        List<String> lines = body.lines().toList();
+        Assertions.assertThat(lines).hasSize((int) propertyRepository.count());
+        for (Property property : properties) {
+            Assertions.assertThat(lines).contains("{\"propertyId\":\"" + property.getId() + "\",\"options\":[]}");
+        }
+        Assertions.assertThat(lines).filteredOn(line -> line.contains(testProperty.getId().toString()))
+                .singleElement().asString().contains("\"maxNights\":1");
+    }
+
+    @Test
+    @DisplayName("Should find overlapping bookings on every shard in the overlap audit")
+    void shouldAuditOverlapsOnEveryShard() throws Exception {
+        LocalDate startDate = LocalDate.now().plusDays(5);
+        List<Property> properties = propertiesOnDistinctShards();
+        for (Property property : properties) {
+            createBookingViaApi(property.getId(), startDate, startDate.plusDays(2));
+            // Written straight to the shard, past the overlap check
+            shardRouter.shardJdbcTemplate(shardRouter.shardFor(property.getId())).update(
+                    "INSERT INTO booking (id, property_id, guest_id, start_date, end_date, status, version) " +
+                    "VALUES (?, ?, ?, ?, ?, 'CONFIRMED', 0)",
+                    UUID.randomUUID(), property.getId(), testGuest.getId(), startDate.plusDays(2), startDate.plusDays(3));
+        }
+
+        mockMvc.perform(post("/api/audit/overlaps"))
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("$.intervalsScanned").value(2 * properties.size()))
+                .andExpect(jsonPath("$.bookingOverlaps").value(properties.size()))
+                .andExpect(jsonPath("$.pairs[*].propertyId", containsInAnyOrder(
+                        properties.stream().map(property -> property.getId().toString()).toArray())));
+    }
+
+    @Test
+    @DisplayName("Should reject the change feed, which has no order across shards")
+    void shouldRejectChangeFeed() throws Exception {
+        mockMvc.perform(get("/api/changes"))
+                .andExpect(status().isBadRequest())
+                .andExpect(jsonPath("$.message").value(containsString("not available with sharding enabled")));
+    }
+
+    @Test
+    @DisplayName("Should archive ended bookings on every shard and read them back")
+    void shouldArchiveOnEveryShard() throws Exception {
+        LocalDate startDate = LocalDate.now().minusDays(20);
+        List<Property> properties = propertiesOnDistinctShards();
+        for (Property property : properties) {
+            // Written straight to the shard, since the API rejects past dates
+            shardRouter.shardJdbcTemplate(shardRouter.shardFor(property.getId())).update(
+                    "INSERT INTO booking (id, property_id, guest_id, start_date, end_date, status, version) " +
+                    "VALUES (?, ?, ?, ?, ?, 'CONFIRMED', 0)",
+                    UUID.randomUUID(), property.getId(), testGuest.getId(), startDate, startDate.plusDays(2));
+        }
+
+        mockMvc.perform(post("/api/archive")
+                        .param("before", LocalDate.now().toString()))
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("$.bookingsArchived").value(properties.size()));
+
+        for (Property property : properties) {
+            int shard = shardRouter.shardFor(property.getId());
+            Integer archived = shardRouter.shardJdbcTemplate(shard).queryForObject(
+                    "SELECT COUNT(*) FROM archived_booking WHERE property_id = ?", Integer.class, property.getId());
+            Assertions.assertThat(archived).isEqualTo(1);
+            mockMvc.perform(get("/api/bookings/property/{propertyId}", property.getId())
+                            .param("includeArchived", "true"))
+                    .andExpect(status().isOk())
+                    .andExpect(jsonPath("$", hasSize(1)))
+                    .andExpect(jsonPath("$[0].archived").value(true));
+        }
+        mockMvc.perform(get("/api/bookings/guest/{guestId}", testGuest.getId())
+                        .param("includeArchived", "true"))
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("$", hasSize(properties.size())));
+    }
+
+    @Test
+    @DisplayName("Should remove owner blocks already committed on other shards when one shard fails")
+    void shouldCompensateOwnerBlocksWhenShardFails() throws Exception {
+        LocalDate startDate = LocalDate.now().plusDays(5);
+        List<Property> properties = propertiesOnDistinctShards().subList(0, 2);
+        OwnerBlockRequest request = OwnerBlockRequest.builder()
+                .startDate(startDate)
+                .endDate(startDate.plusDays(2))
+                .reason("Renovation")
+                .propertyIds(properties.stream().map(Property::getId).toList())
+                .build();
+
+        // The check passes on both shards, then the second shard fails while writing
+        rejectChangeEvents(properties.get(1), "CREATED");
+        try {
+            mockMvc.perform(post("/api/owners/{ownerId}/blocks", testOwner.getId())
+                            .contentType(MediaType.APPLICATION_JSON)
+                            .content(objectMapper.writeValueAsString(request)))
+                    .andExpect(status().is5xxServerError());
+        } finally {
+            allowChangeEvents(properties.get(1));
+        }
+
+        for (Property property : properties) {
+            Assertions.assertThat(countLiveBlocks(property)).isZero();
+        }
+        mockMvc.perform(get("/api/blocks/property/{propertyId}", properties.get(0).getId()))
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("$", hasSize(0)));
+    }
+
+    @Test
+    @DisplayName("Should report the properties whose shard failed when deleting owner blocks")
+    void shouldReportPartialOwnerBlockDelete() throws Exception {
+        LocalDate startDate = LocalDate.now().plusDays(5);
+        List<Property> properties = propertiesOnDistinctShards().subList(0, 2);
+        for (Property property : properties) {
+            createBlockViaApi(property.getId(), startDate, startDate.plusDays(2));
+        }
+
+        rejectChangeEvents(properties.get(1), "DELETED");
+        try {
+            mockMvc.perform(delete("/api/owners/{ownerId}/blocks", testOwner.getId())
+                            .param("from", startDate.toString())
+                            .param("to", startDate.plusDays(2).toString())
+                            .param("propertyIds", properties.get(0).getId().toString(), properties.get(1).getId().toString()))
+                    .andExpect(status().isOk())
+                    .andExpect(jsonPath("$.deleted").value(1))
+                    .andExpect(jsonPath("$.failedPropertyIds", contains(properties.get(1).getId().toString())));
+        } finally {
+            allowChangeEvents(properties.get(1));
+        }
+
+        Assertions.assertThat(countLiveBlocks(properties.get(0))).isZero();
+        Assertions.assertThat(countLiveBlocks(properties.get(1))).isEqualTo(1);
+    }
+
+    /** Makes the property's shard fail every change event of this kind, so its write transactions roll back. */
+    private void rejectChangeEvents(Property property, String operation) {
+        shardRouter.shardJdbcTemplate(shardRouter.shardFor(property.getId())).update(
+                "ALTER TABLE change_event ADD CONSTRAINT reject_operation CHECK (operation <> '" + operation + "')");
+    }
+
+    private void allowChangeEvents(Property property) {
+        shardRouter.shardJdbcTemplate(shardRouter.shardFor(property.getId())).update(
+                "ALTER TABLE change_event DROP CONSTRAINT reject_operation");
+    }
+
+    private int countLiveBlocks(Property property) {
+        Integer count = shardRouter.shardJdbcTemplate(shardRouter.shardFor(property.getId())).queryForObject(
+                "SELECT COUNT(*) FROM block WHERE property_id = ? AND deleted_at IS NULL", Integer.class, property.getId());
+        return count != null ? count : 0;
+    }
+
+    private List<Property> propertiesOnDistinctShards() {
+        List<Property> properties = new ArrayList<>();
+        boolean[] covered = new boolean[shardRouter.shardCount()];
+        for (int i = 0; properties.size() < shardRouter.shardCount() && i < 100; i++) {
+            Property property = propertyRepository.save(Property.builder()
+                    .name("Property " + i)
+                    .ownerId(testOwner.getId())
+                    .build());
+            int shard = shardRouter.shardFor(property.getId());
+            if (!covered[shard]) {
+                covered[shard] = true;
+                properties.add(property);
+            }
+        }
+        return properties;
+    }
+
+    private int countRows(int shard, String table, UUID id) {
+        Integer count = shardRouter.shardJdbcTemplate(shard)
+                .queryForObject("SELECT COUNT(*) FROM " + table + " WHERE id = ?", Integer.class, id);
+        return count != null ? count : 0;
+    }
+
+    private BookingRequest bookingRequest(UUID propertyId, LocalDate startDate, LocalDate endDate) {
+        return BookingRequest.builder()
+                .propertyId(propertyId)
+                .guestEmail(testGuest.getEmail())
+                .guestFirstName(testGuest.getFirstName())
+                .guestLastName(testGuest.getLastName())
+                .startDate(startDate)
+                .endDate(endDate)
+                .build();
+    }
+
+    private BookingResponse createBookingViaApi(UUID propertyId, LocalDate startDate, LocalDate endDate) throws Exception {
+        MvcResult result = mockMvc.perform(post("/api/bookings")
+                        .contentType(MediaType.APPLICATION_JSON)
+                        .content(objectMapper.writeValueAsString(bookingRequest(propertyId, startDate, endDate))))
+                .andExpect(status().isCreated())
+                .andReturn();
+
+        return objectMapper.readValue(result.getResponse().getContentAsString(), BookingResponse.class);
+    }
+
+    private void createBlockViaApi(UUID propertyId, LocalDate startDate, LocalDate endDate) throws Exception {
+        BlockRequest request = BlockRequest.builder()
+                .ownerId(testOwner.getId())
+                .propertyId(propertyId)
+                .startDate(startDate)
+                .endDate(endDate)
+                .reason("Maintenance")
+                .build();
+
+        mockMvc.perform(post("/api/blocks")
+                        .contentType(MediaType.APPLICATION_JSON)
+                        .content(objectMapper.writeValueAsString(request)))
+                .andExpect(status().isCreated());
+    }
+}
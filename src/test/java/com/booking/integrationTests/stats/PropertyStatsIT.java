@@ -0,0 +1,197 @@
+package com.booking.integrationTests.stats;
+
+import com.booking.dto.BlockRequest;
+import com.booking.dto.BookingRequest;
+import com.booking.dto.BookingResponse;
+import com.booking.dto.BookingUpdateRequest;
+import com.booking.dto.OwnerBlockRequest;
+import com.booking.dto.RecurringBlockRequest;
+import com.booking.integrationTests.BaseIntegrationTest;
+import com.booking.model.Property;
+import com.booking.model.RecurrenceFrequency;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.springframework.http.MediaType;
+import org.springframework.test.web.servlet.MvcResult;
+import org.springframework.test.web.servlet.ResultActions;
+
+import java.time.LocalDate;
+import java.time.YearMonth;
+import java.util.UUID;
+
+import static org.hamcrest.Matchers.*;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.*;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.*;
+
+@DisplayName("Property Stats Integration Tests")
+class PropertyStatsIT extends BaseIntegrationTest {
+
+    private YearMonth month;
+
+    @BeforeEach
+    void setUp() {
+        month = YearMonth.now().plusMonths(2);
+    }
+
+    @Test
+    @DisplayName("Should count booked and blocked nights of a month")
+    void shouldCountBookedAndBlockedNights() throws Exception {
+        createBookingViaApi(month.atDay(3), month.atDay(5));
+        createBlockViaApi(month.atDay(10), month.atDay(11));
+
+        int nights = month.lengthOfMonth();
+        propertyStats(month, month)
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("$.propertyId").value(testProperty.getId().toString()))
+                .andExpect(jsonPath("$.months", hasSize(1)))
+                .andExpect(jsonPath("$.months[0].month").value(month.toString()))
+                .andExpect(jsonPath("$.months[0].totalNights").value(nights))
+                .andExpect(jsonPath("$.months[0].bookedNights").value(3))
+                .andExpect(jsonPath("$.months[0].blockedNights").value(2))
+                .andExpect(jsonPath("$.months[0].occupancyRate").value(closeTo(3.0 / (nights - 2), 0.0001)))
+                .andExpect(jsonPath("$.months[0].utilizationRate").value(closeTo(5.0 / nights, 0.0001)));
+    }
+
+    @Test
+    @DisplayName("Should follow a booking through update, cancel, rebook and delete")
+    void shouldFollowBookingLifecycle() throws Exception {
+        BookingResponse booking = createBookingViaApi(month.atDay(3), month.atDay(5));
+
+        BookingUpdateRequest longer = BookingUpdateRequest.builder()
+                .startDate(month.atDay(3))
+                .endDate(month.atDay(9))
+                .build();
+        mockMvc.perform(patch("/api/bookings/{bookingId}", booking.getId())
+                        .contentType(MediaType.APPLICATION_JSON)
+                        .content(objectMapper.writeValueAsString(longer)))
+                .andExpect(status().isOk());
+        propertyStats(month, month).andExpect(jsonPath("$.months[0].bookedNights").value(7));
+
+        mockMvc.perform(patch("/api/bookings/{bookingId}/cancel", booking.getId()))
+                .andExpect(status().isOk());
+        propertyStats(month, month).andExpect(jsonPath("$.months[0].bookedNights").value(0));
+
+        mockMvc.perform(patch("/api/bookings/{bookingId}/rebook", booking.getId()))
+                .andExpect(status().isOk());
+        propertyStats(month, month).andExpect(jsonPath("$.months[0].bookedNights").value(7));
+
+        mockMvc.perform(delete("/api/bookings/{bookingId}", booking.getId()))
+                .andExpect(status().isNoContent());
+        propertyStats(month, month).andExpect(jsonPath("$.months[0].bookedNights").value(0));
+    }
+
+    @Test
+    @DisplayName("Should split stays across months and report empty months")
+    void shouldSplitStaysAcrossMonths() throws Exception {
+        createBookingViaApi(month.atEndOfMonth().minusDays(1), month.plusMonths(1).atDay(2));
+
+        propertyStats(month, month.plusMonths(2))
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("$.months[*].month", contains(
+                        month.toString(), month.plusMonths(1).toString(), month.plusMonths(2).toString())))
+                .andExpect(jsonPath("$.months[*].bookedNights", contains(2, 2, 0)))
+                .andExpect(jsonPath("$.months[2].occupancyRate").value(0.0));
+    }
+
+    @Test
+    @DisplayName("Should add up the properties of an owner, including bulk and recurring blocks")
+    void shouldAddUpOwnerProperties() throws Exception {
+        Property secondProperty = propertyRepository.save(Property.builder()
+                .name("Second Property")
+                .ownerId(testOwner.getId())
+                .build());
+        createBookingViaApi(month.atDay(3), month.atDay(5));
+        mockMvc.perform(post("/api/owners/{ownerId}/blocks", testOwner.getId())
+                        .contentType(MediaType.APPLICATION_JSON)
+                        .content(objectMapper.writeValueAsString(OwnerBlockRequest.builder()
+                                .startDate(month.atDay(20))
+                                .endDate(month.atDay(21))
+                                .build())))
+                .andExpect(status().isCreated());
+        mockMvc.perform(post("/api/blocks/recurring")
+                        .contentType(MediaType.APPLICATION_JSON)
+                        .content(objectMapper.writeValueAsString(RecurringBlockRequest.builder()
+                                .ownerId(testOwner.getId())
+                                .propertyId(secondProperty.getId())
+                                .frequency(RecurrenceFrequency.DAILY)
+                                .interval(7)
+                                .startDate(month.atDay(1))
+                                .untilDate(month.atDay(15))
+                                .build())))
+                .andExpect(status().isCreated());
+
+        // Bulk blocks take 2 nights on each property, the rule blocks the 1st, 8th and 15th
+        mockMvc.perform(get("/api/owners/{ownerId}/stats", testOwner.getId())
+                        .param("from", month.toString()))
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("$.ownerId").value(testOwner.getId().toString()))
+                .andExpect(jsonPath("$.properties").value(2))
+                .andExpect(jsonPath("$.months", hasSize(1)))
+                .andExpect(jsonPath("$.months[0].totalNights").value(2 * month.lengthOfMonth()))
+                .andExpect(jsonPath("$.months[0].bookedNights").value(3))
+                .andExpect(jsonPath("$.months[0].blockedNights").value(7));
+
+        mockMvc.perform(delete("/api/owners/{ownerId}/blocks", testOwner.getId())
+                        .param("from", month.atDay(1).toString())
+                        .param("to", month.atEndOfMonth().toString()))
+                .andExpect(status().isOk());
+        propertyStats(month, month).andExpect(jsonPath("$.months[0].blockedNights").value(0));
+    }
+
+    @Test
+    @DisplayName("Should validate the window, the property and the owner")
+    void shouldValidateRequest() throws Exception {
+        propertyStats(month, month.minusMonths(1))
+                .andExpect(status().isBadRequest())
+                .andExpect(jsonPath("$.message").value(containsString("must not be after")));
+
+        propertyStats(month, month.plusMonths(24))
+                .andExpect(status().isBadRequest())
+                .andExpect(jsonPath("$.message").value(containsString("cannot be longer than 24 months")));
+
+        mockMvc.perform(get("/api/properties/{propertyId}/stats", UUID.randomUUID()))
+                .andExpect(status().isNotFound());
+
+        mockMvc.perform(get("/api/owners/{ownerId}/stats", UUID.randomUUID()))
+                .andExpect(status().isNotFound())
+                .andExpect(jsonPath("$.message").value(containsString("Owner not found")));
+    }
+
+    private ResultActions propertyStats(YearMonth from, YearMonth to) throws Exception {
+        return mockMvc.perform(get("/api/properties/{propertyId}/stats", testProperty.getId())
+                .param("from", from.toString())
+                .param("to", to.toString()));
+    }
+
+    private BookingResponse createBookingViaApi(LocalDate startDate, LocalDate endDate) throws Exception {
+        BookingRequest request = BookingRequest.builder()
+                .propertyId(testProperty.getId())
+                .guestEmail(testGuest.getEmail())
+                .guestFirstName(testGuest.getFirstName())
+                .guestLastName(testGuest.getLastName())
+                .startDate(startDate)
+                .endDate(endDate)
+                .build();
+        MvcResult result = mockMvc.perform(post("/api/bookings")
+                        .contentType(MediaType.APPLICATION_JSON)
+                        .content(objectMapper.writeValueAsString(request)))
+                .andExpect(status().isCreated())
+                .andReturn();
+        return objectMapper.readValue(result.getResponse().getContentAsString(), BookingResponse.class);
+    }
+
+    private void createBlockViaApi(LocalDate startDate, LocalDate endDate) throws Exception {
+        BlockRequest request = BlockRequest.builder()
+                .ownerId(testOwner.getId())
+                .propertyId(testProperty.getId())
+                .startDate(startDate)
+                .endDate(endDate)
+                .reason("Maintenance")
+                .build();
+        mockMvc.perform(post("/api/blocks")
+                        .contentType(MediaType.APPLICATION_JSON)
+                        .content(objectMapper.writeValueAsString(request)))
+                .andExpect(status().isCreated());
+    }
+}